@@ -50,7 +50,7 @@ public class GenerateCode32 {
         blacklist.add("TestDEigenSparseCSC");
         blacklist.add("TestConvertDMatrixStruct");
 
-        String[] sufficeRoot = new String[]{"DRM","DMA","DRB","SCC","STL","DF2","DF3","DF4","DF5","DF6","TRIPLET"};
+        String[] sufficeRoot = new String[]{"DRM","DMA","DRB","SCC","STL","DF2","DF3","DF4","DF5","DF6","DF","TRIPLET"};
 
         suffices64.add("_DDRB_to_DDRM");
         suffices64.add("_F64");
@@ -271,11 +271,14 @@ public class GenerateCode32 {
             recursiveDelete(new File(path,"main/ejml-c"+module+"/src"), true);
             recursiveDelete(new File(path,"main/ejml-f"+module+"/test"), true);
             recursiveDelete(new File(path,"main/ejml-c"+module+"/test"), true);
+            recursiveDelete(new File(path,"main/ejml-f"+module+"/src17"), true);
 
             app.process(new File(path,"main/ejml-d"+module+"/src"), new File(path,"main/ejml-f"+module+"/src") );
             app.process(new File(path,"main/ejml-z"+module+"/src"), new File(path,"main/ejml-c"+module+"/src") );
             app.process(new File(path,"main/ejml-d"+module+"/test"), new File(path,"main/ejml-f"+module+"/test") );
             app.process(new File(path,"main/ejml-z"+module+"/test"), new File(path,"main/ejml-c"+module+"/test") );
+            // Java 17 versions of classes for the multi-release jar
+            app.process(new File(path,"main/ejml-d"+module+"/src17"), new File(path,"main/ejml-f"+module+"/src17") );
         }
     }
 }
@@ -18,15 +18,47 @@
 
 package org.ejml;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
 
 /**
+ * <p>
  * This is a list of parameters that are used across the code.  To tune performance
  * for a particular system change these values.
+ * </p>
+ *
+ * <p>
+ * The integer parameters can also be loaded from a profile, which is a properties file where each key is the name
+ * of a parameter, e.g. "BLOCK_WIDTH=48". A profile for the current machine can be created using
+ * org.ejml.dense.TuneEjmlParameters. When this class is loaded it will look for a profile at the path
+ * specified by the system property {@link #PROFILE_PROPERTY}. If that isn't set it will look for
+ * {@link #PROFILE_RESOURCE} in the class path. If neither exist then the defaults below are used.
+ * </p>
  *
  * @author Peter Abeles
  */
 public class EjmlParameters {
 
+    /**
+     * System property which specifies the path to a profile file
+     */
+    public static final String PROFILE_PROPERTY = "ejml.profile";
+
+    /**
+     * Name of the profile resource that's loaded from the class path if {@link #PROFILE_PROPERTY} isn't set
+     */
+    public static final String PROFILE_RESOURCE = "ejml-profile.properties";
+
     public static final float TOL32 = 1e-4f;
     public static final double TOL64 = 1e-8;
 
@@ -64,6 +96,38 @@ public class EjmlParameters {
     public static int MULT_TRANAB_COLUMN_SWITCH = 40;
     public static int MULT_INNER_SWITCH = 100;
 
+    /**
+     * If every dimension in a matrix multiplication is at least this large then A and B are packed into cache
+     * sized panels before being multiplied.
+     */
+    public static int MULT_PACKED_SWITCH = 100;
+
+    /**
+     * If both dimensions of A are at least this large then the inner product, A<sup>T</sup>*A, and the outer
+     * product, A*A<sup>T</sup>, will switch to a packed algorithm which only computes the lower triangle.
+     */
+    public static int MULT_PRODUCT_PACKED_SWITCH = 300;
+
+    /**
+     * Default cutoff for {@link org.ejml.dense.row.mult.MatrixMatrixMultStrassen_DDRM}. Once a dimension is this
+     * size or smaller it stops recursing and switches to a conventional matrix multiplication.
+     */
+    public static int MULT_STRASSEN_CUTOFF = 256;
+
+    /**
+     * If the number of rows in the output matrix and the length of the inner product are both at least this
+     * large then matrix multiplication will switch to a multi-threaded algorithm.
+     *
+     * @see org.ejml.concurrency.EjmlConcurrency
+     */
+    public static int MULT_CONCURRENT_SWITCH = 200;
+
+    /**
+     * If B has at least this many columns then the dense linear solvers solve for all the columns in
+     * A*X = B at the same time using blocked triangular solvers, instead of one column at a time.
+     */
+    public static int SOLVE_COLUMN_SWITCH = 16;
+
     public static int CMULT_COLUMN_SWITCH = 7;
     public static int CMULT_TRANAB_COLUMN_SWITCH = 20;
     
@@ -81,6 +145,51 @@ public class EjmlParameters {
 
     public static int SWITCH_BLOCK64_QR = 1500;
 
+    /**
+     * Non-symmetric matrices of this size or larger are reduced to Hessenberg form using a blocked algorithm
+     * when computing their eigenvalues.
+     */
+    public static int SWITCH_BLOCK_HESSENBERG = 1000;
+
+    /**
+     * Matrices whose smaller dimension is this size or larger are LU decomposed using a blocked algorithm
+     */
+    public static int SWITCH_BLOCK_LU = 500;
+
+    /**
+     * If the smaller dimension of a matrix is this size or larger then the SVD reduces it to bidiagonal form
+     * using a blocked algorithm.
+     */
+    public static int SWITCH_BLOCK_BIDIAGONAL = 1200;
+
+    /**
+     * If the eigenvectors of a symmetric matrix this size or larger are needed then the divide and conquer
+     * algorithm is used instead of the QR algorithm.
+     */
+    public static int SWITCH_EIG_DIVIDE_CONQUER = 500;
+
+    /**
+     * If the singular vectors of a matrix whose smaller dimension is this size or larger are needed then
+     * the divide and conquer algorithm is used instead of the implicit QR algorithm.
+     */
+    public static int SWITCH_SVD_DIVIDE_CONQUER = 750;
+
+    /**
+     * If concurrency is enabled and the smaller dimension of a matrix is less than this size then the SVD is
+     * computed using the parallel one-sided Jacobi algorithm. It's more accurate but is only faster than the
+     * serial algorithms when there are many threads, so this is turned off by default. A value of 0 turns it off.
+     */
+    @ZeroTurnsOff
+    public static int SWITCH_SVD_JACOBI = 0;
+
+    /**
+     * Marks a parameter where a value of 0 turns off the feature it controls. Profiles can set these parameters to 0.
+     * All other parameters must be positive.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    public @interface ZeroTurnsOff {}
+
     public static enum MemoryUsage
     {
         /**
@@ -93,4 +202,113 @@ public class EjmlParameters {
         FASTER
 
     }
+
+    // must be after all the parameters so that it isn't overwritten by their default values
+    static {
+        loadDefaultProfile();
+    }
+
+    /**
+     * Sets parameters to the values in the profile. All values are checked before any parameters are modified.
+     * If BLOCK_WIDTH is specified but BLOCK_SIZE isn't then BLOCK_SIZE is set to BLOCK_WIDTH squared.
+     *
+     * @param profile Parameter names and their values
+     * @throws IllegalArgumentException If a parameter is unknown or has an invalid value
+     */
+    public static void loadProfile( Properties profile ) {
+        Map<Field,Integer> values = new HashMap<>();
+        for( String name : profile.stringPropertyNames() ) {
+            Field field = lookupParameter(name);
+            if( field == null )
+                throw new IllegalArgumentException("Unknown parameter in profile: "+name);
+
+            int value;
+            try {
+                value = Integer.parseInt(profile.getProperty(name).trim());
+            } catch( NumberFormatException e ) {
+                throw new IllegalArgumentException("Parameter "+name+" isn't an integer: "+profile.getProperty(name));
+            }
+            if( value < 0 || (value == 0 && !field.isAnnotationPresent(ZeroTurnsOff.class)) )
+                throw new IllegalArgumentException("Parameter "+name+" must be positive: "+value);
+            values.put(field,value);
+        }
+
+        try {
+            for( Map.Entry<Field,Integer> e : values.entrySet() ) {
+                e.getKey().setInt(null,e.getValue());
+            }
+        } catch( IllegalAccessException e ) {
+            throw new RuntimeException(e);
+        }
+
+        if( profile.containsKey("BLOCK_WIDTH") && !profile.containsKey("BLOCK_SIZE") )
+            BLOCK_SIZE = BLOCK_WIDTH*BLOCK_WIDTH;
+    }
+
+    /**
+     * Reads a profile from the stream and loads it.
+     *
+     * @see #loadProfile(Properties)
+     */
+    public static void loadProfile( InputStream input ) throws IOException {
+        Properties profile = new Properties();
+        profile.load(input);
+        loadProfile(profile);
+    }
+
+    /**
+     * Creates a profile which contains the current value of every integer parameter
+     */
+    public static Properties saveProfile() {
+        Properties profile = new Properties();
+        try {
+            for( Field field : EjmlParameters.class.getFields() ) {
+                if( isParameter(field) )
+                    profile.setProperty(field.getName(),Integer.toString(field.getInt(null)));
+            }
+        } catch( IllegalAccessException e ) {
+            throw new RuntimeException(e);
+        }
+        return profile;
+    }
+
+    private static Field lookupParameter( String name ) {
+        try {
+            Field field = EjmlParameters.class.getField(name);
+            return isParameter(field) ? field : null;
+        } catch( NoSuchFieldException e ) {
+            return null;
+        }
+    }
+
+    private static boolean isParameter( Field field ) {
+        int modifiers = field.getModifiers();
+        return field.getType() == int.class && Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers);
+    }
+
+    /**
+     * Loads the profile specified by the system property or on the class path. This is called when the class is
+     * loaded, but a failure at that point is ignored since a bad profile should not prevent the library from being
+     * used. Call it again to find out if the profile could be loaded. If it fails then no parameters are modified.
+     *
+     * @return true if there was no profile or it was loaded, false if it couldn't be read or is invalid
+     */
+    public static boolean loadDefaultProfile() {
+        try {
+            String path = System.getProperty(PROFILE_PROPERTY);
+            if( path != null ) {
+                try( InputStream input = new FileInputStream(path) ) {
+                    loadProfile(input);
+                }
+            } else {
+                try( InputStream input = EjmlParameters.class.getResourceAsStream("/"+PROFILE_RESOURCE) ) {
+                    if( input != null )
+                        loadProfile(input);
+                }
+            }
+            return true;
+        } catch( IOException | RuntimeException e ) {
+            return false;
+        }
+    }
 }
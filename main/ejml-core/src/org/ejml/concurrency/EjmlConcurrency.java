@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * Central location for everything related to running algorithms on multiple threads. All concurrent
+ * algorithms share a single {@link ForkJoinPool}. Work is split into contiguous blocks, e.g. panels of rows
+ * in the output matrix, with one block for each thread. Since each block is processed by exactly the same
+ * code as the single threaded algorithm the results are identical to the single threaded algorithm.
+ * </p>
+ *
+ * <p>
+ * Concurrent algorithms are labeled with "_MT" in their class name.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EjmlConcurrency {
+
+    /**
+     * If false then high level functions, e.g. CommonOps_DDRM, will never switch to a concurrent algorithm.
+     * Concurrent algorithms can still be called directly.
+     */
+    public static boolean USE_CONCURRENT = true;
+
+    private static volatile ForkJoinPool pool = new ForkJoinPool();
+
+    /**
+     * Changes the maximum number of threads used by concurrent algorithms. A new thread pool is created.
+     *
+     * @param maxThreads Maximum number of threads. Must be &ge; 1.
+     */
+    public static void setMaxThreads( int maxThreads ) {
+        if( maxThreads <= 0 )
+            throw new IllegalArgumentException("Maximum number of threads must be at least one");
+        if( maxThreads == pool.getParallelism() )
+            return;
+        ForkJoinPool old = pool;
+        pool = new ForkJoinPool(maxThreads);
+        old.shutdown();
+    }
+
+    /**
+     * Returns the maximum number of threads which concurrent algorithms will use
+     */
+    public static int getMaxThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Returns the thread pool that all concurrent algorithms share
+     */
+    public static ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Splits the range [start, endExclusive) into contiguous blocks and processes each block on a different thread.
+     * The number of blocks is at most the number of threads and each block will have at least 'minBlock' elements
+     * in it, unless the range itself is smaller than that. If there is only one block then it's processed
+     * on the calling thread.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param minBlock Minimum number of indexes in a block. Must be &ge; 1.
+     * @param consumer Processes a single block
+     */
+    public static void loopBlocks( int start , int endExclusive , int minBlock , IntRangeConsumer consumer ) {
+        int length = endExclusive-start;
+        if( length <= 0 )
+            return;
+
+        int numBlocks = Math.min(getMaxThreads(),length/Math.max(1,minBlock));
+        if( numBlocks <= 1 ) {
+            consumer.accept(start,endExclusive);
+            return;
+        }
+
+        BlockTask task = new BlockTask(start,length,numBlocks,0,numBlocks,consumer);
+        if( ForkJoinTask.inForkJoinPool() ) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Same as {@link #loopBlocks(int, int, int, IntRangeConsumer)} with a minimum block size of one.
+     */
+    public static void loopBlocks( int start , int endExclusive , IntRangeConsumer consumer ) {
+        loopBlocks(start,endExclusive,1,consumer);
+    }
+
+    /**
+     * Concurrent version of a for loop over the range [start, endExclusive). Indexes are grouped into
+     * contiguous blocks to reduce overhead.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param consumer Processes a single index
+     */
+    public static void loopFor( int start , int endExclusive , IntConsumer consumer ) {
+        loopBlocks(start,endExclusive,1,(i0,i1)->{
+            for (int i = i0; i < i1; i++) {
+                consumer.accept(i);
+            }
+        });
+    }
+
+    /**
+     * Runs the tasks concurrently and returns once all of them have finished. Tasks can themselves call the
+     * other functions in this class, in which case their work is also shared with the idle threads.
+     *
+     * @param tasks Tasks which are independent of each other
+     */
+    public static void invokeAll( Runnable... tasks ) {
+        List<ForkJoinTask<?>> forks = new ArrayList<>(tasks.length);
+        for( Runnable task : tasks ) {
+            forks.add(ForkJoinTask.adapt(task));
+        }
+        if( ForkJoinTask.inForkJoinPool() ) {
+            ForkJoinTask.invokeAll(forks);
+        } else {
+            pool.invoke(ForkJoinTask.adapt(()->ForkJoinTask.invokeAll(forks)));
+        }
+    }
+
+    /**
+     * Processes every tile in a grid of tiles. The tiles must be independent of each other since they are
+     * processed on different threads in an unspecified order. Tiles are ordered row by row and each thread
+     * processes a contiguous range of them.
+     *
+     * @param numRows Number of rows of tiles in the grid
+     * @param numCols Number of columns of tiles in the grid
+     * @param consumer Processes a single tile
+     */
+    public static void loopTiles( int numRows , int numCols , TileConsumer consumer ) {
+        if( numRows <= 0 || numCols <= 0 )
+            return;
+
+        loopBlocks(0,numRows*numCols,(t0,t1)->{
+            int row = t0/numCols;
+            int col = t0-row*numCols;
+            for( int t = t0; t < t1; t++ ) {
+                consumer.accept(row,col);
+                if( ++col == numCols ) {
+                    col = 0;
+                    row++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Processes the tiles on and below the diagonal in a square grid of tiles, i.e. tiles where
+     * col &le; row. Tiles in the upper triangle can be processed by swapping the row and column.
+     * The tiles must be independent of each other.
+     *
+     * @param numTiles Number of rows and columns of tiles in the grid
+     * @param consumer Processes a single tile
+     * @see #loopTiles(int, int, TileConsumer)
+     */
+    public static void loopTilesLower( int numTiles , TileConsumer consumer ) {
+        if( numTiles <= 0 )
+            return;
+
+        loopBlocks(0,numTiles*(numTiles+1)/2,(t0,t1)->{
+            // find the row and column of the first tile
+            int row = 0, col = t0;
+            while( col > row ) {
+                col -= row+1;
+                row++;
+            }
+
+            for( int t = t0; t < t1; t++ ) {
+                consumer.accept(row,col);
+                if( ++col > row ) {
+                    col = 0;
+                    row++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Recursively splits the blocks in half until there is a single block which is then processed
+     */
+    private static class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int start,length,numBlocks;
+        final int block0,block1;
+        final IntRangeConsumer consumer;
+
+        BlockTask(int start, int length, int numBlocks, int block0, int block1, IntRangeConsumer consumer) {
+            this.start = start;
+            this.length = length;
+            this.numBlocks = numBlocks;
+            this.block0 = block0;
+            this.block1 = block1;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            if( block1-block0 == 1 ) {
+                // the remainder is spread evenly across the blocks
+                int i0 = start + (int)((long)length*block0/numBlocks);
+                int i1 = start + (int)((long)length*block1/numBlocks);
+                consumer.accept(i0,i1);
+            } else {
+                int middle = (block0+block1)/2;
+                invokeAll(new BlockTask(start,length,numBlocks,block0,middle,consumer),
+                        new BlockTask(start,length,numBlocks,middle,block1,consumer));
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+/**
+ * Processes a contiguous range of indexes. Used to hand a block of work, e.g. a panel of rows, to a thread.
+ *
+ * @author Peter Abeles
+ */
+public interface IntRangeConsumer {
+    /**
+     * Processes all the indexes in the range [i0, i1)
+     *
+     * @param i0 First index in the range, inclusive
+     * @param i1 Last index in the range, exclusive
+     */
+    void accept( int i0 , int i1 );
+}
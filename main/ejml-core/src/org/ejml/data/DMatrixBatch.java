@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.MatrixDimensionException;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A batch of small matrices which all have the same shape. Instead of storing each matrix in its own object the
+ * elements are stored in a single array using a struct-of-arrays layout. The matrices are split into blocks of
+ * {@link #BLOCK_LENGTH} matrices. Inside a block all the values of element (row,col) are stored next to each other,
+ * one for each matrix in the block:
+ * </p>
+ * <pre>
+ * block = index / BLOCK_LENGTH
+ * lane  = index % BLOCK_LENGTH
+ * data[ (block*numRows*numCols + row*numCols + col)*BLOCK_LENGTH + lane ]
+ * </pre>
+ *
+ * <p>
+ * This removes the per-object overhead of storing each matrix as a separate object. Operations which loop over the
+ * batch, such as BatchOps_DDF3, access the same element of consecutive matrices with unit stride, a layout which
+ * is suited to SIMD instructions. Splitting the batch into blocks keeps all the elements of a matrix close together
+ * in memory no matter how large the batch is. The last block is padded so that the array's length is always a
+ * multiple of a block.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DMatrixBatch implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of matrices in each block
+     */
+    public static final int BLOCK_LENGTH = 32;
+
+    /**
+     * Element values. See class description for the layout.
+     */
+    public double[] data = new double[0];
+
+    /**
+     * Number of rows in each matrix
+     */
+    public int numRows;
+    /**
+     * Number of columns in each matrix
+     */
+    public int numCols;
+    /**
+     * Number of matrices in the batch
+     */
+    public int size;
+
+    public DMatrixBatch( int numRows , int numCols , int size ) {
+        reshape(numRows,numCols,size);
+    }
+
+    public DMatrixBatch( DMatrixBatch original ) {
+        set(original);
+    }
+
+    public DMatrixBatch() {
+    }
+
+    /**
+     * Changes the shape and number of matrices in the batch. The internal array is only grown if it's too small. The
+     * values of the elements are not saved.
+     *
+     * @param numRows Number of rows in each matrix
+     * @param numCols Number of columns in each matrix
+     * @param size Number of matrices
+     */
+    public void reshape( int numRows , int numCols , int size ) {
+        if( numRows < 0 || numCols < 0 || size < 0 )
+            throw new IllegalArgumentException("Can't have a negative shape or size");
+        int length = numRows*numCols*roundUpSize(size);
+        if( data.length < length )
+            data = new double[length];
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.size = size;
+    }
+
+    /**
+     * Changes the number of matrices in the batch while keeping their shape.
+     *
+     * @see #reshape(int, int, int)
+     */
+    public void reshape( int size ) {
+        reshape(numRows,numCols,size);
+    }
+
+    /**
+     * Copies the shape and values of 'original' into this batch
+     */
+    public void set( DMatrixBatch original ) {
+        reshape(original.numRows,original.numCols,original.size);
+        System.arraycopy(original.data,0,data,0,getDataLength());
+    }
+
+    /**
+     * Returns the index in {@link #data} of an element
+     *
+     * @param index Which matrix in the batch
+     * @param row Row in the matrix
+     * @param col Column in the matrix
+     */
+    public int getIndex( int index , int row , int col ) {
+        int block = index/BLOCK_LENGTH;
+        int lane = index - block*BLOCK_LENGTH;
+        return ((block*numRows + row)*numCols + col)*BLOCK_LENGTH + lane;
+    }
+
+    public double get( int index , int row , int col ) {
+        if( index < 0 || index >= size || row < 0 || row >= numRows || col < 0 || col >= numCols )
+            throw new IllegalArgumentException("Index out of bounds");
+        return data[getIndex(index,row,col)];
+    }
+
+    public void set( int index , int row , int col , double value ) {
+        if( index < 0 || index >= size || row < 0 || row >= numRows || col < 0 || col >= numCols )
+            throw new IllegalArgumentException("Index out of bounds");
+        data[getIndex(index,row,col)] = value;
+    }
+
+    /**
+     * Copies a matrix into the batch
+     *
+     * @param index Which matrix in the batch is to be modified
+     * @param src The matrix which is copied. Must have the same shape. Not modified.
+     */
+    public void setMatrix( int index , DMatrix src ) {
+        if( src.getNumRows() != numRows || src.getNumCols() != numCols )
+            throw new MatrixDimensionException("Shape of src doesn't match the batch");
+        if( index < 0 || index >= size )
+            throw new IllegalArgumentException("Index out of bounds");
+
+        int i = getIndex(index,0,0);
+        for( int row = 0; row < numRows; row++ ) {
+            for( int col = 0; col < numCols; col++ , i += BLOCK_LENGTH ) {
+                data[i] = src.unsafe_get(row,col);
+            }
+        }
+    }
+
+    /**
+     * Copies a matrix out of the batch
+     *
+     * @param index Which matrix in the batch is to be copied
+     * @param dst Storage for the matrix. Must have the same shape. Modified.
+     */
+    public void getMatrix( int index , DMatrix dst ) {
+        if( dst.getNumRows() != numRows || dst.getNumCols() != numCols )
+            throw new MatrixDimensionException("Shape of dst doesn't match the batch");
+        if( index < 0 || index >= size )
+            throw new IllegalArgumentException("Index out of bounds");
+
+        int i = getIndex(index,0,0);
+        for( int row = 0; row < numRows; row++ ) {
+            for( int col = 0; col < numCols; col++ , i += BLOCK_LENGTH ) {
+                dst.unsafe_set(row,col,data[i]);
+            }
+        }
+    }
+
+    /**
+     * Sets every element in every matrix to zero
+     */
+    public void zero() {
+        Arrays.fill(data,0,getDataLength(),0.0);
+    }
+
+    /**
+     * Total number of elements in all the matrices
+     */
+    public int getNumElements() {
+        return numRows*numCols*size;
+    }
+
+    /**
+     * Number of elements in {@link #data} which are used, including the padding in the last block
+     */
+    public int getDataLength() {
+        return numRows*numCols*roundUpSize(size);
+    }
+
+    /**
+     * Rounds the number of matrices up so that it's a multiple of {@link #BLOCK_LENGTH}
+     */
+    public static int roundUpSize( int size ) {
+        return ((size+BLOCK_LENGTH-1)/BLOCK_LENGTH)*BLOCK_LENGTH;
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    public int getNumCols() {
+        return numCols;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEjmlParameters {
+
+    Properties original;
+
+    @Before
+    public void before() {
+        original = EjmlParameters.saveProfile();
+    }
+
+    @After
+    public void after() {
+        EjmlParameters.loadProfile(original);
+    }
+
+    @Test
+    public void saveProfile() {
+        Properties profile = EjmlParameters.saveProfile();
+
+        assertEquals(Integer.toString(EjmlParameters.BLOCK_WIDTH),profile.getProperty("BLOCK_WIDTH"));
+        assertEquals(Integer.toString(EjmlParameters.TRANSPOSE_SWITCH),profile.getProperty("TRANSPOSE_SWITCH"));
+        assertEquals(Integer.toString(EjmlParameters.SWITCH_BLOCK64_QR),profile.getProperty("SWITCH_BLOCK64_QR"));
+
+        // constants and non integer parameters are not included
+        assertFalse(profile.containsKey("TOL64"));
+        assertFalse(profile.containsKey("MEMORY"));
+        assertFalse(profile.containsKey("PROFILE_PROPERTY"));
+    }
+
+    @Test
+    public void loadProfile_stream() throws IOException {
+        String text = "# comment\nBLOCK_WIDTH = 32\nSWITCH_BLOCK64_CHOLESKY=777\n";
+        EjmlParameters.loadProfile(new ByteArrayInputStream(text.getBytes()));
+
+        assertEquals(32,EjmlParameters.BLOCK_WIDTH);
+        assertEquals(777,EjmlParameters.SWITCH_BLOCK64_CHOLESKY);
+        // block size should be updated to match the width
+        assertEquals(32*32,EjmlParameters.BLOCK_SIZE);
+    }
+
+    @Test
+    public void loadProfile_roundTrip() {
+        Properties profile = EjmlParameters.saveProfile();
+        profile.setProperty("MULT_COLUMN_SWITCH","3");
+        profile.setProperty("BLOCK_SIZE","5");
+
+        EjmlParameters.loadProfile(profile);
+        assertEquals(profile,EjmlParameters.saveProfile());
+    }
+
+    /**
+     * Zero is only accepted by parameters where it turns them off
+     */
+    @Test
+    public void loadProfile_disabled() {
+        Properties profile = new Properties();
+        profile.setProperty("SWITCH_SVD_JACOBI","0");
+        EjmlParameters.loadProfile(profile);
+        assertEquals(0,EjmlParameters.SWITCH_SVD_JACOBI);
+    }
+
+    /**
+     * Nothing should be modified if there's an error in the profile
+     */
+    @Test
+    public void loadProfile_errors() {
+        int blockWidth = EjmlParameters.BLOCK_WIDTH;
+
+        for( String[] entry : new String[][]{{"FOO","1"},{"TOL64","2"},{"TRANSPOSE_SWITCH","1.5"},
+                {"TRANSPOSE_SWITCH","0"},{"SWITCH_SVD_JACOBI","-1"}}) {
+            Properties profile = new Properties();
+            profile.setProperty("BLOCK_WIDTH",Integer.toString(blockWidth+1));
+            profile.setProperty(entry[0],entry[1]);
+            try {
+                EjmlParameters.loadProfile(profile);
+                fail("Exception expected for "+entry[0]);
+            } catch( IllegalArgumentException ignore ) {}
+            assertEquals(blockWidth,EjmlParameters.BLOCK_WIDTH);
+        }
+    }
+
+    /**
+     * A profile which can't be loaded should be reported to the caller and leave the parameters unmodified
+     */
+    @Test
+    public void loadDefaultProfile() throws IOException {
+        int blockWidth = EjmlParameters.BLOCK_WIDTH;
+        File file = File.createTempFile("ejml",".properties");
+        try {
+            System.setProperty(EjmlParameters.PROFILE_PROPERTY,file.getPath());
+            try( PrintStream out = new PrintStream(file) ) {
+                out.println("BLOCK_WIDTH="+(blockWidth+1));
+            }
+            assertTrue(EjmlParameters.loadDefaultProfile());
+            assertEquals(blockWidth+1,EjmlParameters.BLOCK_WIDTH);
+
+            try( PrintStream out = new PrintStream(file) ) {
+                out.println("BLOCK_WIDTH="+blockWidth);
+                out.println("FOO=2");
+            }
+            assertFalse(EjmlParameters.loadDefaultProfile());
+            assertEquals(blockWidth+1,EjmlParameters.BLOCK_WIDTH);
+
+            System.setProperty(EjmlParameters.PROFILE_PROPERTY,file.getPath()+"_missing");
+            assertFalse(EjmlParameters.loadDefaultProfile());
+        } finally {
+            System.clearProperty(EjmlParameters.PROFILE_PROPERTY);
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEjmlConcurrency {
+
+    int maxThreads;
+
+    @Before
+    public void before() {
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    /**
+     * Every index should be processed exactly once
+     */
+    @Test
+    public void loopBlocks_coverage() {
+        for( int length : new int[]{0,1,5,17,1000} ) {
+            AtomicIntegerArray counts = new AtomicIntegerArray(length+10);
+            EjmlConcurrency.loopBlocks(10,10+length,(i0,i1)->{
+                assertTrue(i0 < i1);
+                for (int i = i0; i < i1; i++) {
+                    counts.incrementAndGet(i);
+                }
+            });
+            for (int i = 0; i < 10; i++) {
+                assertEquals(0,counts.get(i));
+            }
+            for (int i = 10; i < length+10; i++) {
+                assertEquals(1,counts.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void invokeAll() {
+        AtomicIntegerArray counts = new AtomicIntegerArray(3);
+        EjmlConcurrency.invokeAll(()->counts.incrementAndGet(0),()->counts.incrementAndGet(1),
+                // nested concurrent calls inside of a task
+                ()->EjmlConcurrency.loopFor(0,10,i->counts.incrementAndGet(2)));
+
+        assertEquals(1,counts.get(0));
+        assertEquals(1,counts.get(1));
+        assertEquals(10,counts.get(2));
+    }
+
+    /**
+     * Every tile should be processed exactly once
+     */
+    @Test
+    public void loopTiles() {
+        for( int numRows : new int[]{0,1,3,20} ) {
+            for( int numCols : new int[]{0,1,7} ) {
+                AtomicIntegerArray counts = new AtomicIntegerArray(numRows*numCols);
+                EjmlConcurrency.loopTiles(numRows,numCols,(row,col)->{
+                    assertTrue(row >= 0 && row < numRows);
+                    assertTrue(col >= 0 && col < numCols);
+                    counts.incrementAndGet(row*numCols+col);
+                });
+                for (int i = 0; i < counts.length(); i++) {
+                    assertEquals(1,counts.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void loopTilesLower() {
+        for( int numTiles : new int[]{0,1,2,5,30} ) {
+            AtomicIntegerArray counts = new AtomicIntegerArray(numTiles*numTiles);
+            EjmlConcurrency.loopTilesLower(numTiles,(row,col)->{
+                assertTrue(col <= row && row < numTiles);
+                counts.incrementAndGet(row*numTiles+col);
+            });
+            for (int row = 0; row < numTiles; row++) {
+                for (int col = 0; col < numTiles; col++) {
+                    assertEquals(col <= row ? 1 : 0, counts.get(row*numTiles+col));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void loopBlocks_minBlock() {
+        EjmlConcurrency.loopBlocks(0,100,30,(i0,i1)-> assertTrue(i1-i0 >= 30));
+
+        // not enough for more than one block so it should be processed as a single block
+        EjmlConcurrency.loopBlocks(0,20,30,(i0,i1)->{
+            assertEquals(0,i0);
+            assertEquals(20,i1);
+        });
+    }
+
+    @Test
+    public void loopFor() {
+        AtomicIntegerArray counts = new AtomicIntegerArray(200);
+        EjmlConcurrency.loopFor(0,200,counts::incrementAndGet);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(1,counts.get(i));
+        }
+    }
+
+    @Test
+    public void setMaxThreads() {
+        EjmlConcurrency.setMaxThreads(3);
+        assertEquals(3,EjmlConcurrency.getMaxThreads());
+
+        // can't have more blocks than threads
+        AtomicIntegerArray counts = new AtomicIntegerArray(1);
+        EjmlConcurrency.loopBlocks(0,100,(i0,i1)-> counts.incrementAndGet(0));
+        assertEquals(3,counts.get(0));
+    }
+}
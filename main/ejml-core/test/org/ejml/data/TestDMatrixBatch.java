@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.MatrixDimensionException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDMatrixBatch {
+
+    @Test
+    public void reshape() {
+        DMatrixBatch a = new DMatrixBatch(2,3,4);
+        assertEquals(2,a.numRows);
+        assertEquals(3,a.numCols);
+        assertEquals(4,a.size);
+        assertEquals(24,a.getNumElements());
+        // the last block is padded
+        assertEquals(6*DMatrixBatch.BLOCK_LENGTH,a.getDataLength());
+        assertTrue(a.data.length >= a.getDataLength());
+
+        // should not declare a new array
+        double[] data = a.data;
+        a.reshape(3);
+        assertSame(data,a.data);
+        assertEquals(3,a.size);
+        a.reshape(3,3,DMatrixBatch.BLOCK_LENGTH+1);
+        assertNotSame(data,a.data);
+        assertEquals(9*(DMatrixBatch.BLOCK_LENGTH+1),a.getNumElements());
+        assertEquals(18*DMatrixBatch.BLOCK_LENGTH,a.getDataLength());
+    }
+
+    @Test
+    public void getIndex() {
+        int L = DMatrixBatch.BLOCK_LENGTH;
+        DMatrixBatch a = new DMatrixBatch(2,3,2*L);
+        // struct-of-arrays layout. same element in each matrix is next to each other
+        assertEquals(0,a.getIndex(0,0,0));
+        assertEquals(1,a.getIndex(1,0,0));
+        assertEquals(L,a.getIndex(0,0,1));
+        assertEquals(3*L+2,a.getIndex(2,1,0));
+        // second block
+        assertEquals(6*L,a.getIndex(L,0,0));
+        assertEquals(6*L+3*L+2,a.getIndex(L+2,1,0));
+
+        // every element should have a unique index
+        boolean[] used = new boolean[a.getDataLength()];
+        for( int index = 0; index < a.size; index++ ) {
+            for( int row = 0; row < 2; row++ ) {
+                for( int col = 0; col < 3; col++ ) {
+                    int i = a.getIndex(index,row,col);
+                    assertFalse(used[i]);
+                    used[i] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void get_set() {
+        DMatrixBatch a = new DMatrixBatch(2,3,4);
+        a.set(2,1,2,5.5);
+        assertEquals(5.5,a.get(2,1,2),0);
+        assertEquals(5.5,a.data[a.getIndex(2,1,2)],0);
+
+        try {
+            a.get(4,0,0);
+            fail("Exception expected");
+        } catch( IllegalArgumentException ignore ) {}
+        try {
+            a.set(0,2,0,1);
+            fail("Exception expected");
+        } catch( IllegalArgumentException ignore ) {}
+    }
+
+    @Test
+    public void setMatrix_getMatrix() {
+        DMatrixBatch a = new DMatrixBatch(3,3,4);
+        DMatrix3x3 m = new DMatrix3x3(1,2,3,4,5,6,7,8,9);
+
+        a.setMatrix(2,m);
+        for( int row = 0; row < 3; row++ ) {
+            for( int col = 0; col < 3; col++ ) {
+                assertEquals(m.get(row,col),a.get(2,row,col),0);
+                assertEquals(0,a.get(1,row,col),0);
+            }
+        }
+
+        DMatrixRMaj found = new DMatrixRMaj(3,3);
+        a.getMatrix(2,found);
+        for( int row = 0; row < 3; row++ ) {
+            for( int col = 0; col < 3; col++ ) {
+                assertEquals(m.get(row,col),found.get(row,col),0);
+            }
+        }
+
+        try {
+            a.getMatrix(0,new DMatrixRMaj(3,2));
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+    }
+
+    @Test
+    public void set_copy() {
+        DMatrixBatch a = new DMatrixBatch(2,2,3);
+        for( int i = 0; i < a.getDataLength(); i++ ) {
+            a.data[i] = i+1;
+        }
+
+        DMatrixBatch b = new DMatrixBatch(a);
+        assertEquals(a.numRows,b.numRows);
+        assertEquals(a.numCols,b.numCols);
+        assertEquals(a.size,b.size);
+        for( int i = 0; i < a.getDataLength(); i++ ) {
+            assertEquals(a.data[i],b.data[i],0);
+        }
+
+        b.zero();
+        for( int i = 0; i < b.getDataLength(); i++ ) {
+            assertEquals(0,b.data[i],0);
+        }
+    }
+}
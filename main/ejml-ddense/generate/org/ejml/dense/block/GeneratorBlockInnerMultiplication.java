@@ -60,9 +60,12 @@ public class GeneratorBlockInnerMultiplication {
                 "\n" +
                 "package org.ejml.dense.block;\n" +
                 "\n" +
+                "import org.ejml.data.DMatrixRBlock;\n" +
+                "import org.ejml.dense.row.misc.SimdOps_DDRM;\n" +
+                "\n" +
                 "/**\n" +
                 " * <p>\n" +
-                " * Matrix multiplication for the inner row major blocks, typically inside of a {@link org.ejml.data.DMatrixRBlock}.\n" +
+                " * Matrix multiplication for the inner row major blocks, typically inside of a {@link DMatrixRBlock}.\n" +
                 " * </p>\n" +
                 " *\n" +
                 " * <p>\n" +
@@ -91,7 +94,7 @@ public class GeneratorBlockInnerMultiplication {
 
         stream.println();
 
-        String o = ( opType == Operation.MINUS ) ? "-=" : "+=";
+        String s = ( opType == Operation.MINUS ) ? "-" : "";
         String m = hasAlpha ? "alpha*" : "";
 
         stream.print(
@@ -100,33 +103,25 @@ public class GeneratorBlockInnerMultiplication {
                 "        for( int i = 0; i < heightA; i++ , rowC += widthC ) {\n" +
                 "            int b = indexB;\n" +
                 "\n" +
-                "            final int endC = rowC + widthC;\n" +
                 "            final int endA = a + widthA;"+
                 "\n"+
                 "            while( a != endA ) {//for( int k = 0; k < widthA; k++ ) {\n" +
                 "                double valA = "+m+"dataA[a++];\n" +
-                "\n" +
-                "                int c = rowC;\n" +
                 "\n");
 
         if( opType == Operation.SET ) {
              stream.print(
                 "                if( b == indexB ) {\n" +
-                "                    while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {\n" +
-                "                        dataC[ c++ ] = valA * dataB[ b++ ];\n" +
-                "                    }\n" +
+                "                    SimdOps_DDRM.scale(valA,dataB,b,dataC,rowC,widthC);\n" +
                 "                } else {\n" +
-                "                    while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {\n" +
-                "                        dataC[ c++ ] "+o+" valA * dataB[ b++ ];\n" +
-                "                    }\n" +
+                "                    SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);\n" +
                 "                }\n");
         } else {
              stream.print(
-                "                while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {\n" +
-                "                    dataC[ c++ ] "+o+" valA * dataB[ b++ ];\n" +
-                "                }\n");
+                "                SimdOps_DDRM.axpy("+s+"valA,dataB,b,dataC,rowC,widthC);\n");
         }
         stream.println(
+                "                b += widthC;\n" +
                 "            }\n" +
                 "        }");
 
@@ -145,7 +140,7 @@ public class GeneratorBlockInnerMultiplication {
 
         createHeader(hasAlpha,opType,true,false);
 
-        String o = ( opType == Operation.MINUS ) ? "-=" : "+=";
+        String s = ( opType == Operation.MINUS ) ? "-" : "";
         String m = hasAlpha ? "alpha*" : "";
 
         stream.print(
@@ -170,28 +165,20 @@ public class GeneratorBlockInnerMultiplication {
         "            while(colA != endA ) {\n" +
         "                double valA = "+m+"dataA[colA];\n" +
         "\n" +
-        "                int c = rowC;\n" +
-        "                final int endB = b + widthC;\n" +
-        "\n" +
         "                //for( int j = 0; j < widthC; j++ ) {\n");
         if( opType == Operation.SET ) {
             stream.print(
                     "                if( b == indexB ) {\n" +
-                    "                    while( b != endB ) {\n" +
-                    "                        dataC[ c++ ] = valA * dataB[b++];\n" +
-                    "                    } \n" +
+                    "                    SimdOps_DDRM.scale(valA,dataB,b,dataC,rowC,widthC);\n" +
                     "                } else {\n" +
-                    "                    while( b != endB ) {\n" +
-                    "                        dataC[ c++ ] "+o+" valA * dataB[b++];\n" +
-                    "                    }\n" +
+                    "                    SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);\n" +
                     "                }\n");
         } else {
             stream.print(
-                    "                while( b != endB ) {\n" +
-                    "                    dataC[ c++ ] "+o+" valA * dataB[b++];\n" +
-                    "                }\n");
+                    "                SimdOps_DDRM.axpy("+s+"valA,dataB,b,dataC,rowC,widthC);\n");
         }
         stream.print(
+        "                b += widthC;\n"+
         "                colA += widthA;\n"+
         "            }\n" +
         "        }\n");
@@ -304,7 +291,7 @@ public class GeneratorBlockInnerMultiplication {
     }
 
     public static void main( String args[] ) throws FileNotFoundException {
-        GeneratorBlockInnerMultiplication app = new GeneratorBlockInnerMultiplication("BlockInnerMultiplication");
+        GeneratorBlockInnerMultiplication app = new GeneratorBlockInnerMultiplication("InnerMultiplication_DDRB");
 
         app.createClass();
 
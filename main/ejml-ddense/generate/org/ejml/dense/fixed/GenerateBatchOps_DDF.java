@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.UtilEjml;
+import org.ejml.dense.row.misc.GenerateInverseFromMinor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+
+/**
+ * Automatic code generator for BatchOps_DDF. Each operation is the same as the one in CommonOps_DDF, but is
+ * applied to every matrix in a {@link org.ejml.data.DMatrixBatch}.
+ *
+ * @author Peter Abeles
+ */
+public class GenerateBatchOps_DDF extends GenerateFixed {
+
+    public GenerateBatchOps_DDF() {
+        super("BatchOps_DDF");
+    }
+
+    @Override
+    public void generate() throws FileNotFoundException {
+        for( int dimension = 2; dimension <= 6; dimension++ ){
+            printPreable(dimension);
+
+            add(dimension);
+            mult(dimension,false);
+            mult(dimension,true);
+            if( dimension <= UtilEjml.maxInverseSize )
+                invertMinor(dimension);
+            else
+                invertGaussJordan(dimension);
+            cholL(dimension);
+            cholU(dimension);
+            checkShape(dimension);
+
+            out.println("}\n");
+            out.close();
+        }
+    }
+
+    public void printPreable( int dimen ) throws FileNotFoundException {
+
+        setClassNames(dimen);
+
+        out.print(
+                "import org.ejml.MatrixDimensionException;\n" +
+                "import org.ejml.UtilEjml;\n" +
+                "import org.ejml.data.DMatrixBatch;\n" +
+                "\n" +
+                "import javax.annotation.Nullable;\n" +
+                "\n" +
+                "/**\n" +
+                " * <p>Operations on batches of "+dimen+" x "+dimen+" matrices. Each function performs the same operation\n" +
+                " * as its equivalent in CommonOps_DDF"+dimen+" on every matrix in the batch and produces the same results.</p>\n" +
+                " *\n" +
+                " * <p>DO NOT MODIFY.  Automatically generated code created by "+getClass().getSimpleName()+"</p>\n" +
+                " *\n" +
+                " * @see DMatrixBatch\n" +
+                " * @author Peter Abeles\n" +
+                " */\n" +
+                "public class "+className+" {\n" +
+                "    private static final int L = DMatrixBatch.BLOCK_LENGTH;\n" +
+                "\n");
+    }
+
+    /**
+     * Reference to element (row,col) of the current matrix in array 'array'
+     */
+    private static String el( String array , int dimen , int row , int col ) {
+        int e = (row-1)*dimen + (col-1);
+        if( e == 0 )
+            return array+"[i]";
+        else if( e == 1 )
+            return array+"[i+L]";
+        else
+            return array+"[i+"+e+"*L]";
+    }
+
+    /**
+     * Opens the loop through each block and each matrix inside the block. 'i' is the index of element (0,0) of the
+     * current matrix, 'index' is the index of the matrix in the batch.
+     */
+    private void openLoop( int dimen ) {
+        out.print("        for( int block = 0; block < N; block += L ) {\n" +
+                "            final int start = block*"+(dimen*dimen)+";\n" +
+                "            final int end = start + Math.min(L,N-block);\n" +
+                "            for( int i = start; i < end; i++ ) {\n");
+    }
+
+    private void closeLoop() {
+        out.print("            }\n" +
+                "        }\n");
+    }
+
+    private void printSuccess() {
+        out.print("                if( success != null )\n" +
+                "                    success[block+i-start] = ok;\n" +
+                "                all &= ok;\n");
+    }
+
+    private void add( int dimen ){
+        out.print("    /**\n" +
+                "     * <p>Performs the following operation on each matrix in the batch:<br>\n" +
+                "     * <br>\n" +
+                "     * c = a + b <br>\n" +
+                "     * c<sub>ij</sub> = a<sub>ij</sub> + b<sub>ij</sub> <br>\n" +
+                "     * </p>\n" +
+                "     *\n" +
+                "     * <p>\n" +
+                "     * Batch C can be the same instance as Batch A and/or B.\n" +
+                "     * </p>\n" +
+                "     *\n" +
+                "     * @param a A batch. Not modified.\n" +
+                "     * @param b A batch. Not modified.\n" +
+                "     * @param c A batch where the results are stored. Modified.\n" +
+                "     */\n" +
+                "    public static void add( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {\n" +
+                "        checkShape(a);\n" +
+                "        checkShape(b);\n" +
+                "        if( a.size != b.size )\n" +
+                "            throw new MatrixDimensionException(\"The 'a' and 'b' batches must have the same size\");\n" +
+                "        c.reshape("+dimen+","+dimen+",a.size);\n" +
+                "\n" +
+                "        final double[] A = a.data, B = b.data, C = c.data;\n" +
+                "        final int length = c.getDataLength();\n" +
+                "        for( int i = 0; i < length; i++ ) {\n" +
+                "            C[i] = A[i] + B[i];\n" +
+                "        }\n" +
+                "    }\n\n");
+    }
+
+    private void mult( int dimen , boolean transB ){
+        String name = transB ? "multTransB" : "mult";
+        String bsup = transB ? "<sup>T</sup>" : "";
+        String bsub = transB ? "jk" : "kj";
+
+        out.print("    /**\n" +
+                "     * <p>Performs the following operation on each matrix in the batch:<br>\n" +
+                "     * <br>\n" +
+                "     * c = a * b"+bsup+" <br>\n" +
+                "     * <br>\n" +
+                "     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>"+bsub+"</sub>}\n" +
+                "     * </p>\n" +
+                "     *\n" +
+                "     * @param a The left batch in the multiplication operation. Not modified.\n" +
+                "     * @param b The right batch in the multiplication operation. Not modified.\n" +
+                "     * @param c Where the results of the operation are stored. Modified.\n" +
+                "     */\n" +
+                "    public static void "+name+"( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {\n" +
+                "        checkShape(a);\n" +
+                "        checkShape(b);\n" +
+                "        if( a.size != b.size )\n" +
+                "            throw new MatrixDimensionException(\"The 'a' and 'b' batches must have the same size\");\n" +
+                "        if( a == c || b == c )\n" +
+                "            throw new IllegalArgumentException(\"Neither 'a' or 'b' can be the same batch as 'c'\");\n" +
+                "        c.reshape("+dimen+","+dimen+",a.size);\n" +
+                "\n" +
+                "        final int N = a.size;\n" +
+                "        final double[] A = a.data, B = b.data, C = c.data;\n");
+
+        openLoop(dimen);
+        for( int y = 1; y <= dimen; y++ ) {
+            for( int k = 1; k <= dimen; k++ ) {
+                out.print("                "+(y==1?"double ":"")+"a"+k+" = "+el("A",dimen,y,k)+";\n");
+            }
+            for( int x = 1; x <= dimen; x++ ) {
+                out.print("                "+el("C",dimen,y,x)+" = ");
+                for( int k = 1; k <= dimen; k++ ) {
+                    String b = transB ? el("B",dimen,x,k) : el("B",dimen,k,x);
+                    out.print("a"+k+"*"+b);
+                    if( k < dimen )
+                        out.print(" + ");
+                    else
+                        out.print(";\n");
+                }
+            }
+        }
+        closeLoop();
+        out.print("    }\n\n");
+    }
+
+    private void invertMinor( int dimen ){
+        out.print("    /**\n" +
+                "     * Inverts each matrix in 'a' using minor matrices and stores the results in 'inv'.  Scaling is\n" +
+                "     * applied to improve stability against overflow and underflow.\n" +
+                "     *\n" +
+                "     * WARNING: Potentially less stable than using LU decomposition.\n" +
+                "     *\n" +
+                "     * @param a Input batch. Not modified.\n" +
+                "     * @param inv Inverted output batch. Can be the same instance as 'a'. Modified.\n" +
+                "     * @param success (Optional) Storage for if each inversion was successful. Modified.\n" +
+                "     * @return true if all were successful or false if one or more failed.  Not always reliable.\n" +
+                "     */\n" +
+                "    public static boolean invert( DMatrixBatch a , DMatrixBatch inv , @Nullable boolean[] success ) {\n" +
+                "        checkShape(a);\n" +
+                "        if( success != null && success.length < a.size )\n" +
+                "            throw new IllegalArgumentException(\"'success' is too small\");\n" +
+                "        inv.reshape("+dimen+","+dimen+",a.size);\n" +
+                "\n" +
+                "        final int N = a.size;\n" +
+                "        final double[] A = a.data, B = inv.data;\n" +
+                "        boolean all = true;\n");
+        openLoop(dimen);
+        out.print("                double max = Math.abs("+el("A",dimen,1,1)+");\n");
+        for (int y = 1; y <= dimen; y++) {
+            for (int x = 1; x <= dimen; x++) {
+                if( y == 1 && x == 1 )
+                    continue;
+                out.print("                double tmp"+y+""+x+" = Math.abs("+el("A",dimen,y,x)+"); " +
+                        "if( tmp"+y+""+x+" > max ) max = tmp"+y+""+x+";\n");
+            }
+        }
+        out.print("                double scale = 1.0/max;\n\n");
+
+        int matrix[] = new int[dimen*dimen];
+        int index = 0;
+        for (int y = 1; y <= dimen; y++) {
+            for (int x = 1; x <= dimen; x++, index++) {
+                matrix[index] = index;
+                out.print("                double a" + y + "" + x + " = " + el("A",dimen,y,x) + "*scale;\n");
+            }
+        }
+        out.println();
+
+        // generate the code using the fixed sized inverse then indent it to match the loop
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            GenerateInverseFromMinor gen = new GenerateInverseFromMinor(false);
+            gen.printMinors(matrix, dimen, new PrintStream(bytes));
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        for( String line : bytes.toString().split("\n") ) {
+            out.println(line.isEmpty() ? "" : "        "+line);
+        }
+        out.println();
+
+        for (int y = 1; y <= dimen; y++) {
+            for( int x = 1; x <= dimen; x++ ) {
+                out.print("                "+el("B",dimen,y,x)+" = m"+x+""+y+"/det;\n");
+            }
+        }
+        out.print("\n" +
+                "                boolean ok = det != 0.0 && !Double.isNaN(det) && !Double.isInfinite(det);\n");
+        printSuccess();
+        closeLoop();
+        out.print("        return all;\n" +
+                "    }\n\n");
+    }
+
+    /**
+     * Inverting with minors creates too much code for larger matrices. Instead each matrix is copied into a
+     * work array and inverted with Gauss-Jordan elimination using partial pivoting.
+     */
+    private void invertGaussJordan( int dimen ){
+        int dd = dimen*dimen;
+        out.print("    /**\n" +
+                "     * Inverts each matrix in 'a' using Gauss-Jordan elimination with partial pivoting and stores the\n" +
+                "     * results in 'inv'. If a matrix is singular then its inverse is filled with NaN.\n" +
+                "     *\n" +
+                "     * @param a Input batch. Not modified.\n" +
+                "     * @param inv Inverted output batch. Can be the same instance as 'a'. Modified.\n" +
+                "     * @param success (Optional) Storage for if each inversion was successful. Modified.\n" +
+                "     * @return true if all were successful or false if one or more failed.\n" +
+                "     */\n" +
+                "    public static boolean invert( DMatrixBatch a , DMatrixBatch inv , @Nullable boolean[] success ) {\n" +
+                "        checkShape(a);\n" +
+                "        if( success != null && success.length < a.size )\n" +
+                "            throw new IllegalArgumentException(\"'success' is too small\");\n" +
+                "        inv.reshape("+dimen+","+dimen+",a.size);\n" +
+                "\n" +
+                "        final int N = a.size;\n" +
+                "        final double[] A = a.data, B = inv.data;\n" +
+                "        final double[] m = new double["+dd+"];\n" +
+                "        final double[] v = new double["+dd+"];\n" +
+                "        boolean all = true;\n");
+        openLoop(dimen);
+        out.print("                for( int e = 0; e < "+dd+"; e++ ) {\n" +
+                "                    m[e] = A[i+e*L];\n" +
+                "                    v[e] = 0;\n" +
+                "                }\n" +
+                "                for( int e = 0; e < "+dimen+"; e++ ) {\n" +
+                "                    v[e*"+(dimen+1)+"] = 1;\n" +
+                "                }\n" +
+                "\n" +
+                "                boolean ok = true;\n" +
+                "                for( int col = 0; col < "+dimen+" && ok; col++ ) {\n" +
+                "                    // select the row with the largest magnitude pivot\n" +
+                "                    int pivot = col;\n" +
+                "                    double best = Math.abs(m[col*"+dimen+"+col]);\n" +
+                "                    for( int row = col+1; row < "+dimen+"; row++ ) {\n" +
+                "                        double tmp = Math.abs(m[row*"+dimen+"+col]);\n" +
+                "                        if( tmp > best ) {\n" +
+                "                            best = tmp;\n" +
+                "                            pivot = row;\n" +
+                "                        }\n" +
+                "                    }\n" +
+                "                    if( best == 0.0 || UtilEjml.isUncountable(best) ) {\n" +
+                "                        ok = false;\n" +
+                "                        break;\n" +
+                "                    }\n" +
+                "                    if( pivot != col ) {\n" +
+                "                        for( int k = 0; k < "+dimen+"; k++ ) {\n" +
+                "                            double tmp = m[col*"+dimen+"+k]; m[col*"+dimen+"+k] = m[pivot*"+dimen+"+k]; m[pivot*"+dimen+"+k] = tmp;\n" +
+                "                            tmp = v[col*"+dimen+"+k]; v[col*"+dimen+"+k] = v[pivot*"+dimen+"+k]; v[pivot*"+dimen+"+k] = tmp;\n" +
+                "                        }\n" +
+                "                    }\n" +
+                "\n" +
+                "                    double d = m[col*"+dimen+"+col];\n" +
+                "                    for( int k = 0; k < "+dimen+"; k++ ) {\n" +
+                "                        m[col*"+dimen+"+k] /= d;\n" +
+                "                        v[col*"+dimen+"+k] /= d;\n" +
+                "                    }\n" +
+                "                    for( int row = 0; row < "+dimen+"; row++ ) {\n" +
+                "                        double f = m[row*"+dimen+"+col];\n" +
+                "                        if( row == col || f == 0.0 )\n" +
+                "                            continue;\n" +
+                "                        for( int k = 0; k < "+dimen+"; k++ ) {\n" +
+                "                            m[row*"+dimen+"+k] -= f*m[col*"+dimen+"+k];\n" +
+                "                            v[row*"+dimen+"+k] -= f*v[col*"+dimen+"+k];\n" +
+                "                        }\n" +
+                "                    }\n" +
+                "                }\n" +
+                "\n" +
+                "                for( int e = 0; e < "+dd+"; e++ ) {\n" +
+                "                    B[i+e*L] = ok ? v[e] : Double.NaN;\n" +
+                "                }\n");
+        printSuccess();
+        closeLoop();
+        out.print("        return all;\n" +
+                "    }\n\n");
+    }
+
+    private void cholL( int N ){
+        out.print("    /**\n" +
+                "     * Performs a lower Cholesky decomposition of each matrix in 'A' and stores result in A.\n" +
+                "     *\n" +
+                "     * @param A (Input) SPD Matrices. (Output) lower cholesky.\n"+
+                "     * @param success (Optional) Storage for if each decomposition was successful. Modified.\n" +
+                "     * @return true if all were successful or false if one or more failed.  Not always reliable.\n" +
+                "     */\n" +
+                "    public static boolean cholL( DMatrixBatch A , @Nullable boolean[] success ) {\n");
+        printCholHeader(N);
+
+        for( int i = 1; i <= N; i++ ) {
+            for( int j = 1; j <= N; j++ ) {
+                if( j > i ) {
+                    out.print("                "+el("D",N,i,j)+" = 0;\n");
+                } else if( i == j ) {
+                    out.print("                "+el("D",N,i,i)+" = Math.sqrt("+el("D",N,i,i));
+                    for (int k = 1; k < j; k++) {
+                        out.print("-"+el("D",N,i,k)+"*"+el("D",N,i,k));
+                    }
+                    out.println(");");
+                } else {
+                    out.print("                "+el("D",N,i,j)+" = ("+el("D",N,i,j));
+                    for (int k = 1; k < j; k++) {
+                        out.print("-"+el("D",N,i,k)+"*"+el("D",N,j,k));
+                    }
+                    out.println(")/"+el("D",N,j,j)+";");
+                }
+            }
+        }
+        printCholFooter(N);
+    }
+
+    private void cholU( int N ){
+        out.print("    /**\n" +
+                "     * Performs an upper Cholesky decomposition of each matrix in 'A' and stores result in A.\n" +
+                "     *\n" +
+                "     * @param A (Input) SPD Matrices. (Output) upper cholesky.\n"+
+                "     * @param success (Optional) Storage for if each decomposition was successful. Modified.\n" +
+                "     * @return true if all were successful or false if one or more failed.  Not always reliable.\n" +
+                "     */\n" +
+                "    public static boolean cholU( DMatrixBatch A , @Nullable boolean[] success ) {\n");
+        printCholHeader(N);
+
+        for( int j = 1; j <= N; j++ ) {
+            for( int i = 1; i <= N; i++ ) {
+                if( j < i ) {
+                    out.println("                "+el("D",N,i,j)+" = 0;");
+                } else if( i == j ) {
+                    out.print("                "+el("D",N,i,i)+" = Math.sqrt("+el("D",N,i,i));
+                    for (int k = 1; k < i; k++) {
+                        out.print("-"+el("D",N,k,i)+"*"+el("D",N,k,i));
+                    }
+                    out.println(");");
+                } else {
+                    out.print("                "+el("D",N,i,j)+" = ("+el("D",N,i,j));
+                    for (int k = 1; k < i; k++) {
+                        out.print("-"+el("D",N,k,i)+"*"+el("D",N,k,j));
+                    }
+                    out.println(")/"+el("D",N,i,i)+";");
+                }
+            }
+        }
+        printCholFooter(N);
+    }
+
+    private void printCholHeader( int dimen ) {
+        out.print("        checkShape(A);\n" +
+                "        if( success != null && success.length < A.size )\n" +
+                "            throw new IllegalArgumentException(\"'success' is too small\");\n" +
+                "\n" +
+                "        final int N = A.size;\n" +
+                "        final double[] D = A.data;\n" +
+                "        boolean all = true;\n");
+        openLoop(dimen);
+    }
+
+    private void printCholFooter( int N ) {
+        out.print("\n" +
+                "                boolean ok = !UtilEjml.isUncountable("+el("D",N,N,N)+");\n");
+        printSuccess();
+        closeLoop();
+        out.print("        return all;\n" +
+                "    }\n\n");
+    }
+
+    private void checkShape( int dimen ) {
+        out.print("    private static void checkShape( DMatrixBatch a ) {\n" +
+                "        if( a.numRows != "+dimen+" || a.numCols != "+dimen+" )\n" +
+                "            throw new MatrixDimensionException(\"Expected a batch of "+dimen+"x"+dimen+" matrices\");\n" +
+                "    }\n");
+    }
+
+    public static void main( String args[] ) throws FileNotFoundException {
+        GenerateBatchOps_DDF app = new GenerateBatchOps_DDF();
+
+        app.generate();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -31,19 +31,33 @@ import java.io.FileNotFoundException;
  * <p>
  * <p>
  * To create {@link MatrixMatrixMult_DDRM} simply run this application and copy it to the appropriate location.
+ * The concurrent variant, {@link MatrixMatrixMult_MT_DDRM}, is generated from the same templates.  Rows in the
+ * output matrix are split into panels and each panel is processed by the same code as the single threaded version.
  * </p>
  *
  * @author Peter Abeles
  */
 public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
 
+    // if true it will generate the multi-threaded variant
+    private final boolean concurrent;
+
+    public GeneratorMatrixMatrixMult_DDRM( boolean concurrent ) {
+        this.concurrent = concurrent;
+    }
+
     @Override
     public void generate() throws FileNotFoundException {
+        if( concurrent ) {
+            generateConcurrent();
+            return;
+        }
         setOutputFile("MatrixMatrixMult_DDRM");
         String preamble = 
                 "import org.ejml.MatrixDimensionException;\n" +
                 "import org.ejml.data.DMatrix1Row;\n" +
                 "import org.ejml.dense.row.CommonOps_DDRM;\n" +
+                "import org.ejml.dense.row.misc.SimdOps_DDRM;\n" +
                 "\n" +
                 "/**\n" +
                 " * <p>\n" +
@@ -109,6 +123,99 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
         out.close();
     }
 
+    private void generateConcurrent() throws FileNotFoundException {
+        setOutputFile("MatrixMatrixMult_MT_DDRM");
+        String preamble =
+                "import org.ejml.MatrixDimensionException;\n" +
+                "import org.ejml.concurrency.EjmlConcurrency;\n" +
+                "import org.ejml.data.DMatrix1Row;\n" +
+                "import org.ejml.dense.row.CommonOps_DDRM;\n" +
+                "import org.ejml.dense.row.misc.SimdOps_DDRM;\n" +
+                "\n" +
+                "/**\n" +
+                " * <p>\n" +
+                " * Multi-threaded implementations of the algorithms in {@link MatrixMatrixMult_DDRM}.  Rows in the output\n" +
+                " * matrix are split into panels and each panel is processed on its own thread using\n" +
+                " * {@link EjmlConcurrency}.  Within a panel the exact same operations are performed in the same order\n" +
+                " * as the single threaded version, so the results are identical.\n" +
+                " * </p>\n" +
+                " *\n" +
+                " * <p>\n" +
+                " * Variants which require an auxiliary array allocate one array for each panel internally.\n" +
+                " * </p>\n" +
+                " * \n" +
+                " * <center>******** IMPORTANT **********</center>\n" +
+                " * This class was auto generated using "+getClass().getName()+"\n"+
+                " * \n" +
+                " * @author Peter Abeles\n" +
+                " */\n"+
+                "public class "+className+" {\n";
+
+        out.print(preamble);
+
+        for( int i = 0; i < 2; i++ ) {
+            boolean alpha = i == 1;
+            for( int j = 0; j < 2; j++ ) {
+                boolean add = j == 1;
+                printMult_reroder(alpha,add);
+                out.print("\n");
+                printMult_small(alpha,add);
+                out.print("\n");
+                printMultTransA_reorder(alpha,add);
+                out.print("\n");
+                printMultTransA_small(alpha,add);
+                out.print("\n");
+                printMultTransAB(alpha,add);
+                out.print("\n");
+                printMultTransAB_aux(alpha,add);
+                out.print("\n");
+                printMultTransB(alpha,add);
+                out.print("\n");
+            }
+        }
+        out.print("}\n");
+        out.println();
+        out.close();
+    }
+
+    /**
+     * Creates the loop over rows in the output matrix.  In the concurrent variant the rows are split into
+     * panels and variables which depend on the first row in a panel are declared inside the panel.
+     *
+     * @param declSerial Declarations before the loop in the single threaded variant
+     * @param declShared Declarations outside of the panels in the concurrent variant
+     * @param declPanel Declarations inside of a panel in the concurrent variant. First row is 'i0'
+     * @param body Body of the loop
+     */
+    private String rowLoop( String var , String numRows ,
+                            String declSerial , String declShared , String declPanel , String body )
+    {
+        if( !concurrent ) {
+            return declSerial +
+                    "        for( int "+var+" = 0; "+var+" < "+numRows+"; "+var+"++ ) {\n" +
+                    body +
+                    "        }\n";
+        }
+
+        return declShared +
+                "        EjmlConcurrency.loopBlocks(0, "+numRows+", (i0,i1)->{\n" +
+                indent(declPanel +
+                "        for( int "+var+" = i0; "+var+" < i1; "+var+"++ ) {\n" +
+                body +
+                "        }\n") +
+                "        });\n";
+    }
+
+    private static String indent( String text ) {
+        StringBuilder ret = new StringBuilder();
+        for( String line : text.split("\n") ) {
+            if( line.length() > 0 )
+                ret.append("    ");
+            ret.append(line).append('\n');
+        }
+        return ret.toString();
+    }
+
     private String makeBoundsCheck(boolean tranA, boolean tranB, String auxLength)
     {
         String a_numCols = tranA ? "a.numRows" : "a.numCols";
@@ -202,41 +309,35 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
             valLine = "valA = a.get(indexA++);\n";
         }
 
-        String assignment = add ? "plus" : "set";
+        String assignment = add ? "axpy" : "scale";
 
         String foo =
                 header + makeBoundsCheck(false,false, null)+handleZeros(add) +
+                        rowLoop("i","a.numRows",
                         "        double valA;\n"+
                         "        int indexCbase= 0;\n" +
                         "        int endOfKLoop = b.numRows*b.numCols;\n"+
-                        "\n" +
-                        "        for( int i = 0; i < a.numRows; i++ ) {\n" +
+                        "\n",
+                        "        final int endOfKLoop = b.numRows*b.numCols;\n"+
+                        "\n",
+                        "        double valA;\n"+
+                        "        int indexCbase= i0*c.numCols;\n",
                         "            int indexA = i*a.numCols;\n" +
                         "\n"+
                         "            // need to assign c.data to a value initially\n" +
                         "            int indexB = 0;\n" +
-                        "            int indexC = indexCbase;\n" +
-                        "            int end = indexB + b.numCols;\n" +
                         "\n" +
                         "            "+valLine +
-                        "\n" +
-                        "            while( indexB < end ) {\n" +
-                        "                c."+assignment+"(indexC++ , valA*b.get(indexB++));\n" +
-                        "            }\n" +
+                        "            SimdOps_DDRM."+assignment+"(valA,b.data,indexB,c.data,indexCbase,b.numCols);\n" +
+                        "            indexB += b.numCols;\n" +
                         "\n" +
                         "            // now add to it\n"+
                         "            while( indexB != endOfKLoop ) { // k loop\n"+
-                        "                indexC = indexCbase;\n" +
-                        "                end = indexB + b.numCols;\n" +
-                        "\n" +
                         "                "+valLine+
-                        "\n" +
-                        "                while( indexB < end ) { // j loop\n" +
-                        "                    c.plus(indexC++ , valA*b.get(indexB++));\n" +
-                        "                }\n" +
+                        "                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);\n" +
+                        "                indexB += b.numCols;\n" +
                         "            }\n" +
-                        "            indexCbase += c.numCols;\n" +
-                        "        }\n" +
+                        "            indexCbase += c.numCols;\n") +
                         "    }\n";
 
         out.print(foo);
@@ -257,10 +358,12 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(false,false, null)+
+                        rowLoop("i","a.numRows",
                         "        int aIndexStart = 0;\n" +
                         "        int cIndex = 0;\n" +
-                        "\n" +
-                        "        for( int i = 0; i < a.numRows; i++ ) {\n" +
+                        "\n","",
+                        "        int aIndexStart = i0*a.numCols;\n" +
+                        "        int cIndex = i0*c.numCols;\n",
                         "            for( int j = 0; j < b.numCols; j++ ) {\n" +
                         "                double total = 0;\n" +
                         "\n" +
@@ -274,8 +377,7 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
                         "\n" +
                         valLine +
                         "            }\n" +
-                        "            aIndexStart += a.numCols;\n" +
-                        "        }\n" +
+                        "            aIndexStart += a.numCols;\n") +
                         "    }\n";
         out.print(foo);
     }
@@ -319,7 +421,7 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
 
         header = makeHeader("mult","reorder",add,alpha, false, true,false);
 
-        String assignment = add ? "plus" : "set";
+        String assignment = add ? "axpy" : "scale";
 
         if( alpha ) {
             valLine1 = "valA = alpha*a.get(i);\n";
@@ -331,30 +433,23 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(true,false, null)+handleZeros(add)+
+                        rowLoop("i","a.numCols",
                         "        double valA;\n" +
-                        "\n" +
-                        "        for( int i = 0; i < a.numCols; i++ ) {\n" +
+                        "\n","",
+                        "        double valA;\n",
                         "            int indexC_start = i*c.numCols;\n" +
                         "\n" +
                         "            // first assign R\n" +
                         "            " +valLine1+
                         "            int indexB = 0;\n" +
-                        "            int end = indexB+b.numCols;\n" +
-                        "            int indexC = indexC_start;\n" +
-                        "            while( indexB<end ) {\n" +
-                        "                c."+assignment+"( indexC++ , valA*b.get(indexB++));\n" +
-                        "            }\n" +
+                        "            SimdOps_DDRM."+assignment+"(valA,b.data,indexB,c.data,indexC_start,b.numCols);\n" +
+                        "            indexB += b.numCols;\n" +
                         "            // now increment it\n" +
                         "            for( int k = 1; k < a.numRows; k++ ) {\n" +
                         "                " +valLine2+
-                        "                end = indexB+b.numCols;\n" +
-                        "                indexC = indexC_start;\n" +
-                        "                // this is the loop for j\n" +
-                        "                while( indexB<end ) {\n" +
-                        "                    c.plus( indexC++ , valA*b.get(indexB++));\n" +
-                        "                }\n" +
-                        "            }\n" +
-                        "        }\n" +
+                        "                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);\n" +
+                        "                indexB += b.numCols;\n" +
+                        "            }\n") +
                         "    }\n";
         out.print(foo);
     }
@@ -374,9 +469,10 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(true,false, null)+
+                        rowLoop("i","a.numCols",
                         "        int cIndex = 0;\n" +
-                        "\n" +
-                        "        for( int i = 0; i < a.numCols; i++ ) {\n" +
+                        "\n","",
+                        "        int cIndex = i0*c.numCols;\n",
                         "            for( int j = 0; j < b.numCols; j++ ) {\n" +
                         "                int indexA = i;\n" +
                         "                int indexB = j;\n" +
@@ -391,8 +487,7 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
                         "                }\n" +
                         "\n" +
                         "                "+valLine +
-                        "            }\n" +
-                        "        }\n" +
+                        "            }\n") +
                         "    }\n";
 
          out.print(foo);
@@ -413,10 +508,12 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(false,true, null)+
+                        rowLoop("xA","a.numRows",
                         "        int cIndex = 0;\n" +
                         "        int aIndexStart = 0;\n" +
-                        "\n" +
-                        "        for( int xA = 0; xA < a.numRows; xA++ ) {\n" +
+                        "\n","",
+                        "        int cIndex = i0*c.numCols;\n" +
+                        "        int aIndexStart = i0*a.numCols;\n",
                         "            int end = aIndexStart + b.numCols;\n" +
                         "            int indexB = 0;\n"+
                         "            for( int xB = 0; xB < b.numRows; xB++ ) {\n" +
@@ -430,8 +527,7 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
                         "\n" +
                         "                "+valLine +
                         "            }\n" +
-                        "            aIndexStart += a.numCols;\n" +
-                        "        }\n" +
+                        "            aIndexStart += a.numCols;\n") +
                         "    }\n";
         out.print(foo);
     }
@@ -451,9 +547,10 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(true,true, null)+
+                        rowLoop("i","a.numCols",
                         "        int cIndex = 0;\n" +
-                        "\n" +
-                        "        for( int i = 0; i < a.numCols; i++ ) {\n" +
+                        "\n","",
+                        "        int cIndex = i0*c.numCols;\n",
                         "            int indexB = 0;\n"+
                         "            for( int j = 0; j < b.numRows; j++ ) {\n" +
                         "                int indexA = i;\n" +
@@ -467,8 +564,7 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
                         "                }\n" +
                         "\n" +
                         "                "+valLine+
-                        "            }\n" +
-                        "        }\n"+
+                        "            }\n") +
                         "    }\n";
         out.print(foo);
     }
@@ -476,7 +572,7 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
     public void printMultTransAB_aux( boolean alpha , boolean add ) {
         String header,valLine;
 
-        header = makeHeader("mult","aux",add,alpha, true, true,true);
+        header = makeHeader("mult","aux",add,alpha, !concurrent, true,true);
 
         String assignment = add ? "plus" : "set";
 
@@ -487,9 +583,11 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
         }
 
         String foo =
-                header + makeBoundsCheck(true,true, "a.numRows")+handleZeros(add)+
-                        "        int indexC = 0;\n" +
-                        "        for( int i = 0; i < a.numCols; i++ ) {\n" +
+                header + makeBoundsCheck(true,true, concurrent ? null : "a.numRows")+handleZeros(add)+
+                        rowLoop("i","a.numCols",
+                        "        int indexC = 0;\n","",
+                        "        double []aux = new double[ a.numRows ];\n" +
+                        "        int indexC = i0*c.numCols;\n",
                         "            for( int k = 0; k < b.numCols; k++ ) {\n" +
                         "                aux[k] = a.unsafe_get(k,i);\n" +
                         "            }\n" +
@@ -501,15 +599,13 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
                         "                    total += aux[k] * b.unsafe_get(j,k);\n" +
                         "                }\n" +
                         "                "+valLine +
-                        "            }\n" +
-                        "        }\n"+
+                        "            }\n") +
                         "    }\n";
         out.print(foo);
     }
 
     public static void main( String args[] ) throws FileNotFoundException {
-        GeneratorMatrixMatrixMult_DDRM gen = new GeneratorMatrixMatrixMult_DDRM();
-
-        gen.generate();
+        new GeneratorMatrixMatrixMult_DDRM(false).generate();
+        new GeneratorMatrixMatrixMult_DDRM(true).generate();
     }
 }
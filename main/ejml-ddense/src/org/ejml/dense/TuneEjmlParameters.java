@@ -0,0 +1,449 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense;
+
+import org.ejml.EjmlParameters;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionBlock_DDRM;
+import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionRow_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionBlock_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecompositionBlock_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionBlock_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdDivideConquerDecompose_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_DDRM;
+import org.ejml.dense.row.linsol.qr.LinearSolverQrBlock64_DDRM;
+import org.ejml.dense.row.linsol.qr.LinearSolverQrHouseCol_DDRM;
+import org.ejml.dense.row.misc.TransposeAlgs_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMultPacked_MT_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
+import org.ejml.dense.row.mult.MatrixMultProduct_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * <p>
+ * Selects values for the thresholds and block sizes in {@link EjmlParameters} by timing the competing algorithms
+ * on the current machine. For each threshold the two algorithms are run on a range of matrix sizes and the
+ * threshold is set to the smallest size where the second algorithm is faster at that size and every larger
+ * size tested. If the second algorithm is never faster then the threshold is left unchanged. The results are
+ * written to a profile which {@link EjmlParameters} loads at start up.
+ * </p>
+ *
+ * <p>
+ * Usage: java -cp ejml-core.jar:ejml-ddense.jar org.ejml.dense.TuneEjmlParameters [--maxSize N] [output file]<br>
+ * The profile is written to {@link EjmlParameters#PROFILE_RESOURCE} by default. Tuning the decomposition
+ * thresholds dominates the run time and can be reduced with --maxSize.
+ * </p>
+ *
+ * <p>
+ * The complex and Strassen parameters are not tuned.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TuneEjmlParameters {
+
+    /**
+     * Each measurement repeats the operation until at least this much time has passed
+     */
+    public double minimumTimeMS = 50;
+
+    /**
+     * Number of measurements for each size. The fastest is used.
+     */
+    public int trials = 3;
+
+    /**
+     * Largest matrix size used when tuning the decomposition thresholds
+     */
+    public int maxSize = 2000;
+
+    /**
+     * Where the progress is printed. Can be null.
+     */
+    public PrintStream out = System.out;
+
+    Random rand = new Random(234);
+
+    /**
+     * Tunes all the parameters. Parameters are modified as they are tuned since later ones depend on the
+     * earlier ones.
+     */
+    public void tuneAll() {
+        tuneBlockWidth();
+        tuneBlockWidthChol();
+        tuneMultColumnSwitch();
+        tuneMultTransABColumnSwitch();
+        tuneMultInnerSwitch();
+        tuneMultPackedSwitch();
+        tuneMultProductPackedSwitch();
+        tuneMultConcurrentSwitch();
+        tuneTransposeSwitch();
+        tuneCholeskySwitch();
+        tuneQrSwitch();
+        tuneLuSwitch();
+        tuneHessenbergSwitch();
+        tuneBidiagonalSwitch();
+        tuneEigDivideConquerSwitch();
+        tuneSvdDivideConquerSwitch();
+    }
+
+    public void tuneBlockWidth() {
+        int[] widths = {16,24,32,48,60,64,80,96,128};
+        final int N = 600;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+        DMatrixRMaj C = new DMatrixRMaj(N,N);
+        DGrowArray workA = new DGrowArray(), workB = new DGrowArray();
+
+        // The block width affects the packed multiplication and all the block algorithms
+        int best = EjmlParameters.BLOCK_WIDTH;
+        double bestTime = Double.MAX_VALUE;
+        for( int width : widths ) {
+            EjmlParameters.BLOCK_WIDTH = width;
+            DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,width);
+            DMatrixRBlock Bb = MatrixOps_DDRB.convert(B,width);
+            DMatrixRBlock Cb = new DMatrixRBlock(N,N,width);
+
+            double time = time(()->MatrixMatrixMultPacked_DDRM.mult(A,B,C,workA,workB)) +
+                    time(()->MatrixOps_DDRB.mult(Ab,Bb,Cb));
+            print("BLOCK_WIDTH %4d time %8.3f ms",width,time);
+            if( time < bestTime ) {
+                bestTime = time;
+                best = width;
+            }
+        }
+        EjmlParameters.BLOCK_WIDTH = best;
+        EjmlParameters.BLOCK_SIZE = best*best;
+        print("BLOCK_WIDTH = %d",best);
+    }
+
+    public void tuneBlockWidthChol() {
+        int[] widths = {8,12,16,20,24,32,48,64};
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(500,rand);
+
+        int best = EjmlParameters.BLOCK_WIDTH_CHOL;
+        double bestTime = Double.MAX_VALUE;
+        for( int width : widths ) {
+            CholeskyDecompositionBlock_DDRM alg = new CholeskyDecompositionBlock_DDRM(width);
+            double time = time(()->alg.decompose(A.copy()));
+            print("BLOCK_WIDTH_CHOL %4d time %8.3f ms",width,time);
+            if( time < bestTime ) {
+                bestTime = time;
+                best = width;
+            }
+        }
+        EjmlParameters.BLOCK_WIDTH_CHOL = best;
+        print("BLOCK_WIDTH_CHOL = %d",best);
+    }
+
+    public void tuneMultColumnSwitch() {
+        int[] sizes = {2,3,4,6,8,10,12,15,20,25,30,40,50,64};
+        EjmlParameters.MULT_COLUMN_SWITCH = tuneSwitch("MULT_COLUMN_SWITCH",
+                EjmlParameters.MULT_COLUMN_SWITCH, sizes, this::createSquare,
+                m->()->MatrixMatrixMult_DDRM.mult_small(m[0],m[1],m[2]),
+                m->()->MatrixMatrixMult_DDRM.mult_reorder(m[0],m[1],m[2]));
+    }
+
+    public void tuneMultTransABColumnSwitch() {
+        int[] sizes = {5,10,15,20,30,40,50,60,80,100,150};
+        EjmlParameters.MULT_TRANAB_COLUMN_SWITCH = tuneSwitch("MULT_TRANAB_COLUMN_SWITCH",
+                EjmlParameters.MULT_TRANAB_COLUMN_SWITCH, sizes, this::createSquare,
+                m->()->MatrixMatrixMult_DDRM.multTransAB(m[0],m[1],m[2]),
+                m->()->MatrixMatrixMult_DDRM.multTransAB_aux(m[0],m[1],m[2],null));
+    }
+
+    public void tuneMultInnerSwitch() {
+        int[] sizes = {10,20,40,60,80,100,150,200,300};
+        EjmlParameters.MULT_INNER_SWITCH = tuneSwitch("MULT_INNER_SWITCH",
+                EjmlParameters.MULT_INNER_SWITCH, sizes, this::createSquare,
+                m->()->MatrixMultProduct_DDRM.inner_reorder(m[0],m[2]),
+                m->()->MatrixMultProduct_DDRM.inner_small(m[0],m[2]));
+    }
+
+    public void tuneMultPackedSwitch() {
+        int[] sizes = {25,50,75,100,125,150,200,300,400};
+        DGrowArray workA = new DGrowArray(), workB = new DGrowArray();
+        EjmlParameters.MULT_PACKED_SWITCH = tuneSwitch("MULT_PACKED_SWITCH",
+                EjmlParameters.MULT_PACKED_SWITCH, sizes, this::createSquare,
+                m->()->MatrixMatrixMult_DDRM.mult_reorder(m[0],m[1],m[2]),
+                m->()->MatrixMatrixMultPacked_DDRM.mult(m[0],m[1],m[2],workA,workB));
+    }
+
+    /**
+     * The same threshold is used by the inner and outer products, so both are included in each measurement.
+     * The unpacked inner product is selected using {@link EjmlParameters#MULT_INNER_SWITCH}, which needs to
+     * be tuned first.
+     */
+    public void tuneMultProductPackedSwitch() {
+        int[] sizes = {100,150,200,300,400,500,750};
+        DGrowArray workA = new DGrowArray(), workB = new DGrowArray();
+        EjmlParameters.MULT_PRODUCT_PACKED_SWITCH = tuneSwitch("MULT_PRODUCT_PACKED_SWITCH",
+                EjmlParameters.MULT_PRODUCT_PACKED_SWITCH, sizes, this::createSquare,
+                m->()->{
+                    if( m[0].numCols >= EjmlParameters.MULT_INNER_SWITCH )
+                        MatrixMultProduct_DDRM.inner_small(m[0],m[2]);
+                    else
+                        MatrixMultProduct_DDRM.inner_reorder(m[0],m[2]);
+                    MatrixMultProduct_DDRM.outer(m[0],m[2]);
+                },
+                m->()->{
+                    MatrixMultProduct_DDRM.inner_packed(m[0],m[2],workA,workB);
+                    MatrixMultProduct_DDRM.outer_packed(m[0],m[2],workA,workB);
+                });
+    }
+
+    public void tuneMultConcurrentSwitch() {
+        if( EjmlConcurrency.getMaxThreads() <= 1 ) {
+            print("MULT_CONCURRENT_SWITCH skipped. Only one thread.");
+            return;
+        }
+        int[] sizes = {50,100,150,200,300,400,600};
+        DGrowArray workA = new DGrowArray(), workB = new DGrowArray();
+        EjmlParameters.MULT_CONCURRENT_SWITCH = tuneSwitch("MULT_CONCURRENT_SWITCH",
+                EjmlParameters.MULT_CONCURRENT_SWITCH, sizes, this::createSquare,
+                m->()->MatrixMatrixMultPacked_DDRM.mult(m[0],m[1],m[2],workA,workB),
+                m->()->MatrixMatrixMultPacked_MT_DDRM.mult(m[0],m[1],m[2],workB));
+    }
+
+    public void tuneTransposeSwitch() {
+        int[] sizes = {50,100,200,300,400,500,750,1000,1500};
+        EjmlParameters.TRANSPOSE_SWITCH = tuneSwitch("TRANSPOSE_SWITCH",
+                EjmlParameters.TRANSPOSE_SWITCH, sizes, this::createSquare,
+                m->()->TransposeAlgs_DDRM.standard(m[0],m[2]),
+                m->()->TransposeAlgs_DDRM.block(m[0],m[2],EjmlParameters.BLOCK_WIDTH));
+    }
+
+    public void tuneCholeskySwitch() {
+        int[] sizes = decompositionSizes();
+        EjmlParameters.SWITCH_BLOCK64_CHOLESKY = tuneSwitch("SWITCH_BLOCK64_CHOLESKY",
+                EjmlParameters.SWITCH_BLOCK64_CHOLESKY, sizes,
+                n->new DMatrixRMaj[]{RandomMatrices_DDRM.symmetricPosDef(n,rand)},
+                m->{ CholeskyDecompositionInner_DDRM alg = new CholeskyDecompositionInner_DDRM(true);
+                    return ()->alg.decompose(m[0].copy());},
+                m->{ CholeskyDecomposition_DDRB_to_DDRM alg = new CholeskyDecomposition_DDRB_to_DDRM(true);
+                    return ()->alg.decompose(m[0].copy());});
+    }
+
+    public void tuneQrSwitch() {
+        int[] sizes = decompositionSizes();
+        EjmlParameters.SWITCH_BLOCK64_QR = tuneSwitch("SWITCH_BLOCK64_QR",
+                EjmlParameters.SWITCH_BLOCK64_QR, sizes,
+                n->new DMatrixRMaj[]{RandomMatrices_DDRM.rectangle(n,n,-1,1,rand)},
+                m->{ LinearSolverDense<DMatrixRMaj> alg = new LinearSolverQrHouseCol_DDRM();
+                    return ()->alg.setA(m[0]);},
+                m->{ LinearSolverDense<DMatrixRMaj> alg = new LinearSolverQrBlock64_DDRM();
+                    return ()->alg.setA(m[0]);});
+    }
+
+    public void tuneLuSwitch() {
+        int[] sizes = decompositionSizes();
+        EjmlParameters.SWITCH_BLOCK_LU = tuneSwitch("SWITCH_BLOCK_LU",
+                EjmlParameters.SWITCH_BLOCK_LU, sizes,
+                n->new DMatrixRMaj[]{RandomMatrices_DDRM.rectangle(n,n,-1,1,rand)},
+                m->{ LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
+                    return ()->alg.decompose(m[0]);},
+                m->{ LUDecompositionBlock_DDRM alg = new LUDecompositionBlock_DDRM();
+                    return ()->alg.decompose(m[0]);});
+    }
+
+    public void tuneHessenbergSwitch() {
+        int[] sizes = decompositionSizes();
+        EjmlParameters.SWITCH_BLOCK_HESSENBERG = tuneSwitch("SWITCH_BLOCK_HESSENBERG",
+                EjmlParameters.SWITCH_BLOCK_HESSENBERG, sizes,
+                n->new DMatrixRMaj[]{RandomMatrices_DDRM.rectangle(n,n,-1,1,rand)},
+                m->{ HessenbergSimilarDecomposition_DDRM alg = new HessenbergSimilarDecomposition_DDRM();
+                    return ()->alg.decompose(m[0].copy());},
+                m->{ HessenbergSimilarDecomposition_DDRM alg = new HessenbergSimilarDecompositionBlock_DDRM();
+                    return ()->alg.decompose(m[0].copy());});
+    }
+
+    public void tuneBidiagonalSwitch() {
+        int[] sizes = decompositionSizes();
+        EjmlParameters.SWITCH_BLOCK_BIDIAGONAL = tuneSwitch("SWITCH_BLOCK_BIDIAGONAL",
+                EjmlParameters.SWITCH_BLOCK_BIDIAGONAL, sizes,
+                n->new DMatrixRMaj[]{RandomMatrices_DDRM.rectangle(n,n,-1,1,rand)},
+                m->{ BidiagonalDecompositionRow_DDRM alg = new BidiagonalDecompositionRow_DDRM();
+                    return ()->{alg.decompose(m[0].copy());alg.getU(null,true,false);alg.getV(null,true,false);};},
+                m->{ BidiagonalDecompositionRow_DDRM alg = new BidiagonalDecompositionBlock_DDRM();
+                    return ()->{alg.decompose(m[0].copy());alg.getU(null,true,false);alg.getV(null,true,false);};});
+    }
+
+    public void tuneEigDivideConquerSwitch() {
+        int[] sizes = decompositionSizes();
+        EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER = tuneSwitch("SWITCH_EIG_DIVIDE_CONQUER",
+                EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER, sizes,
+                n->new DMatrixRMaj[]{RandomMatrices_DDRM.symmetric(n,-1,1,rand)},
+                m->{ EigenDecomposition_F64<DMatrixRMaj> alg = new SymmetricQRAlgorithmDecomposition_DDRM(true);
+                    return ()->alg.decompose(m[0].copy());},
+                m->{ EigenDecomposition_F64<DMatrixRMaj> alg = new SymmetricDivideConquerDecomposition_DDRM(m[0].numRows);
+                    return ()->alg.decompose(m[0].copy());});
+    }
+
+    public void tuneSvdDivideConquerSwitch() {
+        int[] sizes = decompositionSizes();
+        EjmlParameters.SWITCH_SVD_DIVIDE_CONQUER = tuneSwitch("SWITCH_SVD_DIVIDE_CONQUER",
+                EjmlParameters.SWITCH_SVD_DIVIDE_CONQUER, sizes,
+                n->new DMatrixRMaj[]{RandomMatrices_DDRM.rectangle(n,n,-1,1,rand)},
+                m->{ SingularValueDecomposition_F64<DMatrixRMaj> alg = new SvdImplicitQrDecompose_DDRM(false,true,true,false);
+                    return ()->alg.decompose(m[0]);},
+                m->{ SingularValueDecomposition_F64<DMatrixRMaj> alg = new SvdDivideConquerDecompose_DDRM(false,true,true);
+                    return ()->alg.decompose(m[0]);});
+    }
+
+    private int[] decompositionSizes() {
+        int[] candidates = {100,250,500,750,1000,1250,1500,2000,2500,3000};
+        int total = 0;
+        while( total < candidates.length && candidates[total] <= maxSize )
+            total++;
+        int[] sizes = new int[total];
+        System.arraycopy(candidates,0,sizes,0,total);
+        return sizes;
+    }
+
+    /**
+     * Creates the square matrices A, B, and C
+     */
+    private DMatrixRMaj[] createSquare( int n ) {
+        return new DMatrixRMaj[]{
+                RandomMatrices_DDRM.rectangle(n,n,-1,1,rand),
+                RandomMatrices_DDRM.rectangle(n,n,-1,1,rand),
+                new DMatrixRMaj(n,n)};
+    }
+
+    /**
+     * Times algorithm 'a' and 'b' at each size and selects where to switch from 'a' to 'b'
+     *
+     * @param current The current value of the threshold
+     * @param createInputs Creates the input matrices for a size
+     * @return The new threshold
+     */
+    private int tuneSwitch( String name , int current , int[] sizes ,
+                            IntFunction<DMatrixRMaj[]> createInputs ,
+                            Function<DMatrixRMaj[],Runnable> algA ,
+                            Function<DMatrixRMaj[],Runnable> algB )
+    {
+        double[] timeA = new double[sizes.length];
+        double[] timeB = new double[sizes.length];
+
+        for( int i = 0; i < sizes.length; i++ ) {
+            DMatrixRMaj[] inputs = createInputs.apply(sizes[i]);
+            timeA[i] = time(algA.apply(inputs));
+            timeB[i] = time(algB.apply(inputs));
+            print("%s size %5d time %10.4f ms %10.4f ms",name,sizes[i],timeA[i],timeB[i]);
+        }
+
+        int selected = selectSwitch(sizes,timeA,timeB);
+        if( selected < 0 ) {
+            print("%s = %d  no crossover found, unchanged",name,current);
+            return current;
+        }
+        print("%s = %d",name,selected);
+        return selected;
+    }
+
+    /**
+     * Returns the smallest size where 'b' is faster than 'a' at that size and all larger sizes, or -1 if there
+     * is no such size.
+     */
+    static int selectSwitch( int[] sizes , double[] timeA , double[] timeB ) {
+        int selected = -1;
+        for( int i = sizes.length-1; i >= 0; i-- ) {
+            if( timeB[i] >= timeA[i] )
+                break;
+            selected = sizes[i];
+        }
+        return selected;
+    }
+
+    /**
+     * Returns the average time in milliseconds to run the operation, taken from the fastest trial
+     */
+    private double time( Runnable operation ) {
+        double best = Double.MAX_VALUE;
+        // the first trial is a warm up to let the JIT compile the code
+        for( int trial = 0; trial <= trials; trial++ ) {
+            long start = System.nanoTime();
+            long elapsed;
+            int count = 0;
+            do {
+                operation.run();
+                count++;
+                elapsed = System.nanoTime()-start;
+            } while( elapsed < minimumTimeMS*1e6 );
+
+            if( trial > 0 )
+                best = Math.min(best,elapsed*1e-6/count);
+        }
+        return best;
+    }
+
+    private void print( String format , Object... args ) {
+        if( out != null )
+            out.println(String.format(format,args));
+    }
+
+    /**
+     * Tunes all the parameters and writes the profile to a file
+     */
+    public static void main( String[] args ) throws IOException {
+        TuneEjmlParameters app = new TuneEjmlParameters();
+        String path = EjmlParameters.PROFILE_RESOURCE;
+
+        for( int i = 0; i < args.length; i++ ) {
+            if( args[i].equals("--maxSize") && i+1 < args.length ) {
+                app.maxSize = Integer.parseInt(args[++i]);
+            } else if( args[i].startsWith("-") ) {
+                System.err.println("Usage: TuneEjmlParameters [--maxSize N] [output file]");
+                System.exit(1);
+            } else {
+                path = args[i];
+            }
+        }
+
+        app.tuneAll();
+
+        try( OutputStream output = new FileOutputStream(path) ) {
+            EjmlParameters.saveProfile().store(output,"EJML parameters tuned by "+
+                    TuneEjmlParameters.class.getSimpleName()+" on "+System.getProperty("os.arch"));
+        }
+        System.out.println("Saved profile to "+path);
+    }
+}
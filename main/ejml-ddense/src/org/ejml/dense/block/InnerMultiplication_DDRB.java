@@ -19,6 +19,7 @@
 package org.ejml.dense.block;
 
 import org.ejml.data.DMatrixRBlock;
+import org.ejml.dense.row.misc.SimdOps_DDRM;
 
 /**
  * <p>
@@ -56,16 +57,12 @@ public class InnerMultiplication_DDRB {
         for( int i = 0; i < heightA; i++ , rowC += widthC ) {
             int b = indexB;
 
-            final int endC = rowC + widthC;
             final int endA = a + widthA;
             while( a != endA ) {//for( int k = 0; k < widthA; k++ ) {
                 double valA = dataA[a++];
 
-                int c = rowC;
-
-                while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {
-                    dataC[ c++ ] += valA * dataB[ b++ ];
-                }
+                SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);
+                b += widthC;
             }
         }
     }
@@ -99,13 +96,9 @@ public class InnerMultiplication_DDRB {
             while(colA != endA ) {
                 double valA = dataA[colA];
 
-                int c = rowC;
-                final int endB = b + widthC;
-
                 //for( int j = 0; j < widthC; j++ ) {
-                while( b != endB ) {
-                    dataC[ c++ ] += valA * dataB[b++];
-                }
+                SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);
+                b += widthC;
                 colA += widthA;
             }
         }
@@ -157,16 +150,12 @@ public class InnerMultiplication_DDRB {
         for( int i = 0; i < heightA; i++ , rowC += widthC ) {
             int b = indexB;
 
-            final int endC = rowC + widthC;
             final int endA = a + widthA;
             while( a != endA ) {//for( int k = 0; k < widthA; k++ ) {
                 double valA = dataA[a++];
 
-                int c = rowC;
-
-                while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {
-                    dataC[ c++ ] -= valA * dataB[ b++ ];
-                }
+                SimdOps_DDRM.axpy(-valA,dataB,b,dataC,rowC,widthC);
+                b += widthC;
             }
         }
     }
@@ -200,13 +189,9 @@ public class InnerMultiplication_DDRB {
             while(colA != endA ) {
                 double valA = dataA[colA];
 
-                int c = rowC;
-                final int endB = b + widthC;
-
                 //for( int j = 0; j < widthC; j++ ) {
-                while( b != endB ) {
-                    dataC[ c++ ] -= valA * dataB[b++];
-                }
+                SimdOps_DDRM.axpy(-valA,dataB,b,dataC,rowC,widthC);
+                b += widthC;
                 colA += widthA;
             }
         }
@@ -258,22 +243,16 @@ public class InnerMultiplication_DDRB {
         for( int i = 0; i < heightA; i++ , rowC += widthC ) {
             int b = indexB;
 
-            final int endC = rowC + widthC;
             final int endA = a + widthA;
             while( a != endA ) {//for( int k = 0; k < widthA; k++ ) {
                 double valA = dataA[a++];
 
-                int c = rowC;
-
                 if( b == indexB ) {
-                    while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {
-                        dataC[ c++ ] = valA * dataB[ b++ ];
-                    }
+                    SimdOps_DDRM.scale(valA,dataB,b,dataC,rowC,widthC);
                 } else {
-                    while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {
-                        dataC[ c++ ] += valA * dataB[ b++ ];
-                    }
+                    SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);
                 }
+                b += widthC;
             }
         }
     }
@@ -307,19 +286,13 @@ public class InnerMultiplication_DDRB {
             while(colA != endA ) {
                 double valA = dataA[colA];
 
-                int c = rowC;
-                final int endB = b + widthC;
-
                 //for( int j = 0; j < widthC; j++ ) {
                 if( b == indexB ) {
-                    while( b != endB ) {
-                        dataC[ c++ ] = valA * dataB[b++];
-                    } 
+                    SimdOps_DDRM.scale(valA,dataB,b,dataC,rowC,widthC);
                 } else {
-                    while( b != endB ) {
-                        dataC[ c++ ] += valA * dataB[b++];
-                    }
+                    SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);
                 }
+                b += widthC;
                 colA += widthA;
             }
         }
@@ -371,16 +344,12 @@ public class InnerMultiplication_DDRB {
         for( int i = 0; i < heightA; i++ , rowC += widthC ) {
             int b = indexB;
 
-            final int endC = rowC + widthC;
             final int endA = a + widthA;
             while( a != endA ) {//for( int k = 0; k < widthA; k++ ) {
                 double valA = alpha*dataA[a++];
 
-                int c = rowC;
-
-                while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {
-                    dataC[ c++ ] += valA * dataB[ b++ ];
-                }
+                SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);
+                b += widthC;
             }
         }
     }
@@ -414,13 +383,9 @@ public class InnerMultiplication_DDRB {
             while(colA != endA ) {
                 double valA = alpha*dataA[colA];
 
-                int c = rowC;
-                final int endB = b + widthC;
-
                 //for( int j = 0; j < widthC; j++ ) {
-                while( b != endB ) {
-                    dataC[ c++ ] += valA * dataB[b++];
-                }
+                SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);
+                b += widthC;
                 colA += widthA;
             }
         }
@@ -472,22 +437,16 @@ public class InnerMultiplication_DDRB {
         for( int i = 0; i < heightA; i++ , rowC += widthC ) {
             int b = indexB;
 
-            final int endC = rowC + widthC;
             final int endA = a + widthA;
             while( a != endA ) {//for( int k = 0; k < widthA; k++ ) {
                 double valA = alpha*dataA[a++];
 
-                int c = rowC;
-
                 if( b == indexB ) {
-                    while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {
-                        dataC[ c++ ] = valA * dataB[ b++ ];
-                    }
+                    SimdOps_DDRM.scale(valA,dataB,b,dataC,rowC,widthC);
                 } else {
-                    while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {
-                        dataC[ c++ ] += valA * dataB[ b++ ];
-                    }
+                    SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);
                 }
+                b += widthC;
             }
         }
     }
@@ -521,19 +480,13 @@ public class InnerMultiplication_DDRB {
             while(colA != endA ) {
                 double valA = alpha*dataA[colA];
 
-                int c = rowC;
-                final int endB = b + widthC;
-
                 //for( int j = 0; j < widthC; j++ ) {
                 if( b == indexB ) {
-                    while( b != endB ) {
-                        dataC[ c++ ] = valA * dataB[b++];
-                    } 
+                    SimdOps_DDRM.scale(valA,dataB,b,dataC,rowC,widthC);
                 } else {
-                    while( b != endB ) {
-                        dataC[ c++ ] += valA * dataB[b++];
-                    }
+                    SimdOps_DDRM.axpy(valA,dataB,b,dataC,rowC,widthC);
                 }
+                b += widthC;
                 colA += widthA;
             }
         }
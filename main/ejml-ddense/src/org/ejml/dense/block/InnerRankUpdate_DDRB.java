@@ -46,7 +46,47 @@ public class InnerRankUpdate_DDRB {
     public static void rankNUpdate(int blockLength , double alpha ,
                                    DSubmatrixD1 A , DSubmatrixD1 B )
     {
+        checkInputTransA(blockLength,A,B);
 
+        for( int i = B.col0; i < B.col1; i += blockLength ) {
+            for( int j = B.col0; j < B.col1; j += blockLength ) {
+                rankNUpdateBlock(blockLength,alpha,A,B,i,j);
+            }
+        }
+    }
+
+    /**
+     * Updates the block in A which corresponds to the product of the block in column 'i' and the block
+     * in column 'j' of B.
+     *
+     * @see #rankNUpdate
+     */
+    static void rankNUpdateBlock( int blockLength , double alpha ,
+                                  DSubmatrixD1 A , DSubmatrixD1 B ,
+                                  int i , int j )
+    {
+        int heightB = B.row1-B.row0;
+
+        int indexB_i = B.row0*B.original.numCols + i*heightB;
+        int widthB_i = Math.min(blockLength,B.col1-i);
+
+        int rowA = i-B.col0+A.row0;
+        int heightA = Math.min( blockLength , A.row1 - rowA);
+
+        int widthB_j = Math.min(blockLength,B.col1-j);
+
+        int indexA = rowA * A.original.numCols + (j-B.col0+A.col0)*heightA;
+        int indexB_j = B.row0*B.original.numCols + j*heightB;
+
+        InnerMultiplication_DDRB.blockMultPlusTransA(alpha,
+                B.original.data,B.original.data,A.original.data,
+                indexB_i,indexB_j,indexA,heightB,widthB_i,widthB_j);
+    }
+
+    /**
+     * Sanity checks the input to operations of the form A = A + B<sup>T</sup>B
+     */
+    static void checkInputTransA( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B ) {
         int heightB = B.row1-B.row0;
         if( heightB > blockLength )
             throw new IllegalArgumentException("Height of B cannot be greater than the block length");
@@ -57,27 +97,6 @@ public class InnerRankUpdate_DDRB {
             throw new IllegalArgumentException("A does not have the expected number of columns based on B's width");
         if( A.row1-A.row0 != N )
             throw new IllegalArgumentException("A does not have the expected number of rows based on B's width");
-
-        for( int i = B.col0; i < B.col1; i += blockLength ) {
-
-            int indexB_i = B.row0*B.original.numCols + i*heightB;
-            int widthB_i = Math.min(blockLength,B.col1-i);
-
-            int rowA = i-B.col0+A.row0;
-            int heightA = Math.min( blockLength , A.row1 - rowA);
-
-            for( int j = B.col0; j < B.col1; j += blockLength ) {
-
-                int widthB_j = Math.min(blockLength,B.col1-j);
-
-                int indexA = rowA * A.original.numCols + (j-B.col0+A.col0)*heightA;
-                int indexB_j = B.row0*B.original.numCols + j*heightB;
-
-                InnerMultiplication_DDRB.blockMultPlusTransA(alpha,
-                        B.original.data,B.original.data,A.original.data,
-                        indexB_i,indexB_j,indexA,heightB,widthB_i,widthB_j);
-            }
-        }
     }
 
     /**
@@ -91,43 +110,43 @@ public class InnerRankUpdate_DDRB {
     public static void symmRankNMinus_U(int blockLength ,
                                         DSubmatrixD1 A , DSubmatrixD1 B )
     {
-
-        int heightB = B.row1-B.row0;
-        if( heightB > blockLength )
-            throw new IllegalArgumentException("Height of B cannot be greater than the block length");
-
-        int N = B.col1-B.col0;
-
-        if( A.col1-A.col0 != N )
-            throw new IllegalArgumentException("A does not have the expected number of columns based on B's width");
-        if( A.row1-A.row0 != N )
-            throw new IllegalArgumentException("A does not have the expected number of rows based on B's width");
-
+        checkInputTransA(blockLength,A,B);
 
         for( int i = B.col0; i < B.col1; i += blockLength ) {
+            for( int j = i; j < B.col1; j += blockLength ) {
+                symmRankNMinus_UBlock(blockLength,A,B,i,j);
+            }
+        }
+    }
 
-            int indexB_i = B.row0*B.original.numCols + i*heightB;
-            int widthB_i = Math.min(blockLength,B.col1-i);
+    /**
+     * Updates a single block on or above the diagonal for {@link #symmRankNMinus_U}. 'i' is the
+     * column of the block in B used for the block's row and 'j' is for the block's column, j &ge; i.
+     */
+    public static void symmRankNMinus_UBlock( int blockLength ,
+                                              DSubmatrixD1 A , DSubmatrixD1 B ,
+                                              int i , int j )
+    {
+        int heightB = B.row1-B.row0;
 
-            int rowA = i-B.col0+A.row0;
-            int heightA = Math.min( blockLength , A.row1 - rowA);
+        int indexB_i = B.row0*B.original.numCols + i*heightB;
+        int widthB_i = Math.min(blockLength,B.col1-i);
 
-            for( int j = i; j < B.col1; j += blockLength ) {
+        int rowA = i-B.col0+A.row0;
+        int heightA = Math.min( blockLength , A.row1 - rowA);
 
-                int widthB_j = Math.min(blockLength,B.col1-j);
+        int widthB_j = Math.min(blockLength,B.col1-j);
 
-                int indexA = rowA * A.original.numCols + (j-B.col0+A.col0)*heightA;
-                int indexB_j = B.row0*B.original.numCols + j*heightB;
+        int indexA = rowA * A.original.numCols + (j-B.col0+A.col0)*heightA;
+        int indexB_j = B.row0*B.original.numCols + j*heightB;
 
-                if( i == j ) {
-                    // only the upper portion of this block needs to be modified since it is along a diagonal
-                    multTransABlockMinus_U( B.original.data,A.original.data,
-                            indexB_i,indexB_j,indexA,heightB,widthB_i,widthB_j);
-                } else {
-                    multTransABlockMinus( B.original.data,A.original.data,
-                            indexB_i,indexB_j,indexA,heightB,widthB_i,widthB_j);
-                }
-            }
+        if( i == j ) {
+            // only the upper portion of this block needs to be modified since it is along a diagonal
+            multTransABlockMinus_U( B.original.data,A.original.data,
+                    indexB_i,indexB_j,indexA,heightB,widthB_i,widthB_j);
+        } else {
+            multTransABlockMinus( B.original.data,A.original.data,
+                    indexB_i,indexB_j,indexA,heightB,widthB_i,widthB_j);
         }
     }
 
@@ -141,8 +160,51 @@ public class InnerRankUpdate_DDRB {
      */
     public static void symmRankNMinus_L(int blockLength ,
                                         DSubmatrixD1 A , DSubmatrixD1 B )
+    {
+        checkInputTransB(blockLength,A,B);
+
+        for( int i = B.row0; i < B.row1; i += blockLength ) {
+            for( int j = B.row0; j <= i; j += blockLength ) {
+                symmRankNMinus_LBlock(blockLength,A,B,i,j);
+            }
+        }
+    }
+
+    /**
+     * Updates a single block on or below the diagonal for {@link #symmRankNMinus_L}. 'i' is the
+     * row of the block in B used for the block's row and 'j' is for the block's column, j &le; i.
+     */
+    public static void symmRankNMinus_LBlock( int blockLength ,
+                                              DSubmatrixD1 A , DSubmatrixD1 B ,
+                                              int i , int j )
     {
         int widthB = B.col1-B.col0;
+
+        int heightB_i = Math.min(blockLength,B.row1-i);
+        int indexB_i = i*B.original.numCols + heightB_i*B.col0;
+
+        int rowA = i-B.row0+A.row0;
+        int heightA = Math.min( blockLength , A.row1 - rowA);
+
+        int widthB_j = Math.min(blockLength,B.row1-j);
+
+        int indexA = rowA * A.original.numCols + (j-B.row0+A.col0)*heightA;
+        int indexB_j = j*B.original.numCols + widthB_j*B.col0;
+
+        if( i == j ) {
+            multTransBBlockMinus_L( B.original.data,A.original.data,
+                    indexB_i,indexB_j,indexA,widthB,heightB_i,widthB_j);
+        } else {
+            multTransBBlockMinus( B.original.data,A.original.data,
+                    indexB_i,indexB_j,indexA,widthB,heightB_i,widthB_j);
+        }
+    }
+
+    /**
+     * Sanity checks the input to operations of the form A = A - B*B<sup>T</sup>
+     */
+    static void checkInputTransB( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B ) {
+        int widthB = B.col1-B.col0;
         if( widthB > blockLength )
             throw new IllegalArgumentException("Width of B cannot be greater than the block length");
 
@@ -152,32 +214,6 @@ public class InnerRankUpdate_DDRB {
             throw new IllegalArgumentException("A does not have the expected number of columns based on B's height");
         if( A.row1-A.row0 != N )
             throw new IllegalArgumentException("A does not have the expected number of rows based on B's height");
-
-        for( int i = B.row0; i < B.row1; i += blockLength ) {
-
-
-            int heightB_i = Math.min(blockLength,B.row1-i);
-            int indexB_i = i*B.original.numCols + heightB_i*B.col0;
-
-            int rowA = i-B.row0+A.row0;
-            int heightA = Math.min( blockLength , A.row1 - rowA);
-
-            for( int j = B.row0; j <= i; j += blockLength ) {
-                
-                int widthB_j = Math.min(blockLength,B.row1-j);
-
-                int indexA = rowA * A.original.numCols + (j-B.row0+A.col0)*heightA;
-                int indexB_j = j*B.original.numCols + widthB_j*B.col0;
-
-                if( i == j ) {
-                    multTransBBlockMinus_L( B.original.data,A.original.data,
-                            indexB_i,indexB_j,indexA,widthB,heightB_i,widthB_j);
-                } else {
-                    multTransBBlockMinus( B.original.data,A.original.data,
-                            indexB_i,indexB_j,indexA,widthB,heightB_i,widthB_j);
-                }
-            }
-        }
     }
 
     /**
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DSubmatrixD1;
+
+import static org.ejml.dense.block.InnerRankUpdate_DDRB.*;
+import static org.ejml.dense.block.MatrixMult_MT_DDRB.numBlocks;
+
+/**
+ * Multi-threaded version of {@link InnerRankUpdate_DDRB}. Each block in A which is modified is an independent
+ * task. For the symmetric updates only the blocks in the upper or lower triangle are scheduled. The results
+ * are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class InnerRankUpdate_MT_DDRB {
+
+    /**
+     * @see InnerRankUpdate_DDRB#rankNUpdate
+     */
+    public static void rankNUpdate( int blockLength , double alpha ,
+                                    DSubmatrixD1 A , DSubmatrixD1 B )
+    {
+        checkInputTransA(blockLength,A,B);
+
+        int N = numBlocks(blockLength,B.col1-B.col0);
+
+        EjmlConcurrency.loopTiles(N,N,(row,col)->
+                rankNUpdateBlock(blockLength,alpha,A,B,B.col0+row*blockLength,B.col0+col*blockLength));
+    }
+
+    /**
+     * @see InnerRankUpdate_DDRB#symmRankNMinus_U
+     */
+    public static void symmRankNMinus_U( int blockLength ,
+                                         DSubmatrixD1 A , DSubmatrixD1 B )
+    {
+        checkInputTransA(blockLength,A,B);
+
+        int N = numBlocks(blockLength,B.col1-B.col0);
+
+        // the lower triangle is traversed with the row and column swapped
+        EjmlConcurrency.loopTilesLower(N,(row,col)->
+                symmRankNMinus_UBlock(blockLength,A,B,B.col0+col*blockLength,B.col0+row*blockLength));
+    }
+
+    /**
+     * @see InnerRankUpdate_DDRB#symmRankNMinus_L
+     */
+    public static void symmRankNMinus_L( int blockLength ,
+                                         DSubmatrixD1 A , DSubmatrixD1 B )
+    {
+        checkInputTransB(blockLength,A,B);
+
+        int N = numBlocks(blockLength,B.row1-B.row0);
+
+        EjmlConcurrency.loopTilesLower(N,(row,col)->
+                symmRankNMinus_LBlock(blockLength,A,B,B.row0+row*blockLength,B.row0+col*blockLength));
+    }
+}
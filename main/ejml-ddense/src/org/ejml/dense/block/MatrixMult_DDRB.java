@@ -33,6 +33,11 @@ import static org.ejml.dense.block.InnerMultiplication_DDRB.*;
  */
 public class MatrixMult_DDRB {
 
+    // how the product of a block is combined with C
+    static final int SET = 0;
+    static final int PLUS = 1;
+    static final int MINUS = 2;
+
     /**
      * <p>
      * Performs a matrix multiplication on {@link DMatrixRBlock} submatrices.<br>
@@ -55,26 +60,8 @@ public class MatrixMult_DDRB {
                             DSubmatrixD1 C )
     {
         for( int i = A.row0; i < A.row1; i += blockLength ) {
-            int heightA = Math.min( blockLength , A.row1 - i );
-
             for( int j = B.col0; j < B.col1; j += blockLength ) {
-                int widthB = Math.min( blockLength , B.col1 - j );
-
-                int indexC = (i-A.row0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*heightA;
-
-                for( int k = A.col0; k < A.col1; k += blockLength ) {
-                    int widthA = Math.min( blockLength , A.col1 - k );
-
-                    int indexA = i*A.original.numCols + k*heightA;
-                    int indexB = (k-A.col0+B.row0)*B.original.numCols + j*widthA;
-
-                    if( k == A.col0 )
-                        blockMultSet(A.original.data,B.original.data,C.original.data,
-                                indexA,indexB,indexC,heightA,widthA,widthB);
-                    else
-                        blockMultPlus(A.original.data,B.original.data,C.original.data,
-                                indexA,indexB,indexC,heightA,widthA,widthB);
-                }
+                multBlock(blockLength,A,B,C,i,j,SET);
             }
         }
     }
@@ -103,22 +90,8 @@ public class MatrixMult_DDRB {
 //        checkInput( blockLength,A,B,C);
 
         for( int i = A.row0; i < A.row1; i += blockLength ) {
-            int heightA = Math.min( blockLength , A.row1 - i );
-
             for( int j = B.col0; j < B.col1; j += blockLength ) {
-                int widthB = Math.min( blockLength , B.col1 - j );
-
-                int indexC = (i-A.row0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*heightA;
-
-                for( int k = A.col0; k < A.col1; k += blockLength ) {
-                    int widthA = Math.min( blockLength , A.col1 - k );
-
-                    int indexA = i*A.original.numCols + k*heightA;
-                    int indexB = (k-A.col0+B.row0)*B.original.numCols + j*widthA;
-
-                    blockMultPlus(A.original.data,B.original.data,C.original.data,
-                            indexA,indexB,indexC,heightA,widthA,widthB);
-                }
+                multBlock(blockLength,A,B,C,i,j,PLUS);
             }
         }
     }
@@ -147,27 +120,13 @@ public class MatrixMult_DDRB {
         checkInput( blockLength,A,B,C);
 
         for( int i = A.row0; i < A.row1; i += blockLength ) {
-            int heightA = Math.min( blockLength , A.row1 - i );
-
             for( int j = B.col0; j < B.col1; j += blockLength ) {
-                int widthB = Math.min( blockLength , B.col1 - j );
-
-                int indexC = (i-A.row0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*heightA;
-
-                for( int k = A.col0; k < A.col1; k += blockLength ) {
-                    int widthA = Math.min( blockLength , A.col1 - k );
-
-                    int indexA = i*A.original.numCols + k*heightA;
-                    int indexB = (k-A.col0+B.row0)*B.original.numCols + j*widthA;
-
-                    blockMultMinus(A.original.data,B.original.data,C.original.data,
-                            indexA,indexB,indexC,heightA,widthA,widthB);
-                }
+                multBlock(blockLength,A,B,C,i,j,MINUS);
             }
         }
     }
 
-    private static void checkInput(int blockLength ,
+    static void checkInput(int blockLength ,
                                    DSubmatrixD1 A , DSubmatrixD1 B ,
                                    DSubmatrixD1 C )
     {
@@ -214,26 +173,8 @@ public class MatrixMult_DDRB {
                                   DSubmatrixD1 C )
     {
         for( int i = A.col0; i < A.col1; i += blockLength ) {
-            int widthA = Math.min( blockLength , A.col1 - i );
-
             for( int j = B.col0; j < B.col1; j += blockLength ) {
-                int widthB = Math.min( blockLength , B.col1 - j );
-
-                int indexC = (i-A.col0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*widthA;
-
-                for( int k = A.row0; k < A.row1; k += blockLength ) {
-                    int heightA = Math.min( blockLength , A.row1 - k );
-
-                    int indexA = k*A.original.numCols + i*heightA;
-                    int indexB = (k-A.row0+B.row0)*B.original.numCols + j*heightA;
-
-                    if( k == A.row0 )
-                        blockMultSetTransA(A.original.data,B.original.data,C.original.data,
-                                indexA,indexB,indexC,heightA,widthA,widthB);
-                    else
-                        blockMultPlusTransA(A.original.data,B.original.data,C.original.data,
-                                indexA,indexB,indexC,heightA,widthA,widthB);
-                }
+                multTransABlock(blockLength,A,B,C,i,j,SET);
             }
         }
     }
@@ -243,22 +184,8 @@ public class MatrixMult_DDRB {
                                       DSubmatrixD1 C )
     {
         for( int i = A.col0; i < A.col1; i += blockLength ) {
-            int widthA = Math.min( blockLength , A.col1 - i );
-
             for( int j = B.col0; j < B.col1; j += blockLength ) {
-                int widthB = Math.min( blockLength , B.col1 - j );
-
-                int indexC = (i-A.col0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*widthA;
-
-                for( int k = A.row0; k < A.row1; k += blockLength ) {
-                    int heightA = Math.min( blockLength , A.row1 - k );
-
-                    int indexA = k*A.original.numCols + i*heightA;
-                    int indexB = (k-A.row0+B.row0)*B.original.numCols + j*heightA;
-
-                    blockMultPlusTransA(A.original.data,B.original.data,C.original.data,
-                            indexA,indexB,indexC,heightA,widthA,widthB);
-                }
+                multTransABlock(blockLength,A,B,C,i,j,PLUS);
             }
         }
     }
@@ -268,23 +195,8 @@ public class MatrixMult_DDRB {
                                        DSubmatrixD1 C )
     {
         for( int i = A.col0; i < A.col1; i += blockLength ) {
-            int widthA = Math.min( blockLength , A.col1 - i );
-
             for( int j = B.col0; j < B.col1; j += blockLength ) {
-                int widthB = Math.min( blockLength , B.col1 - j );
-
-                int indexC = (i-A.col0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*widthA;
-
-                for( int k = A.row0; k < A.row1; k += blockLength ) {
-                    int heightA = Math.min( blockLength , A.row1 - k );
-
-                    int indexA = k*A.original.numCols + i*heightA;
-                    int indexB = (k-A.row0+B.row0)*B.original.numCols + j*heightA;
-
-                    blockMultMinusTransA(A.original.data,B.original.data,C.original.data,
-                            indexA,indexB,indexC,heightA,widthA,widthB);
-
-                }
+                multTransABlock(blockLength,A,B,C,i,j,MINUS);
             }
         }
     }
@@ -311,27 +223,103 @@ public class MatrixMult_DDRB {
                                   DSubmatrixD1 C )
     {
         for( int i = A.row0; i < A.row1; i += blockLength ) {
-            int heightA = Math.min( blockLength , A.row1 - i );
-
             for( int j = B.row0; j < B.row1; j += blockLength ) {
-                int widthC = Math.min( blockLength , B.row1 - j );
+                multTransBBlock(blockLength,A,B,C,i,j);
+            }
+        }
+    }
 
-                int indexC = (i-A.row0+C.row0)*C.original.numCols + (j-B.row0+C.col0)*heightA;
+    /**
+     * Computes a single block in C for c = a * b. The block in C is computed from the row of blocks in A
+     * starting at row 'i' and the column of blocks in B starting at column 'j'.
+     *
+     * @param operation How the product is combined with C. {@link #SET}, {@link #PLUS}, or {@link #MINUS}
+     */
+    static void multBlock( int blockLength ,
+                           DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ,
+                           int i , int j , int operation )
+    {
+        int heightA = Math.min( blockLength , A.row1 - i );
+        int widthB = Math.min( blockLength , B.col1 - j );
+
+        int indexC = (i-A.row0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*heightA;
+
+        for( int k = A.col0; k < A.col1; k += blockLength ) {
+            int widthA = Math.min( blockLength , A.col1 - k );
+
+            int indexA = i*A.original.numCols + k*heightA;
+            int indexB = (k-A.col0+B.row0)*B.original.numCols + j*widthA;
+
+            if( operation == MINUS )
+                blockMultMinus(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthB);
+            else if( operation == SET && k == A.col0 )
+                blockMultSet(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthB);
+            else
+                blockMultPlus(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthB);
+        }
+    }
 
-                for( int k = A.col0; k < A.col1; k += blockLength ) {
-                    int widthA = Math.min( blockLength , A.col1 - k );
+    /**
+     * Computes a single block in C for c = a<sup>T</sup> * b. The block in C is computed from the column of
+     * blocks in A starting at column 'i' and the column of blocks in B starting at column 'j'.
+     *
+     * @param operation How the product is combined with C. {@link #SET}, {@link #PLUS}, or {@link #MINUS}
+     */
+    static void multTransABlock( int blockLength ,
+                                 DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ,
+                                 int i , int j , int operation )
+    {
+        int widthA = Math.min( blockLength , A.col1 - i );
+        int widthB = Math.min( blockLength , B.col1 - j );
+
+        int indexC = (i-A.col0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*widthA;
+
+        for( int k = A.row0; k < A.row1; k += blockLength ) {
+            int heightA = Math.min( blockLength , A.row1 - k );
+
+            int indexA = k*A.original.numCols + i*heightA;
+            int indexB = (k-A.row0+B.row0)*B.original.numCols + j*heightA;
+
+            if( operation == MINUS )
+                blockMultMinusTransA(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthB);
+            else if( operation == SET && k == A.row0 )
+                blockMultSetTransA(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthB);
+            else
+                blockMultPlusTransA(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthB);
+        }
+    }
 
-                    int indexA = i*A.original.numCols + k*heightA;
-                    int indexB = j*B.original.numCols + (k-A.col0+B.col0)*widthC;
+    /**
+     * Computes a single block in C for c = a * b<sup>T</sup>. The block in C is computed from the row of
+     * blocks in A starting at row 'i' and the row of blocks in B starting at row 'j'.
+     */
+    static void multTransBBlock( int blockLength ,
+                                 DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ,
+                                 int i , int j )
+    {
+        int heightA = Math.min( blockLength , A.row1 - i );
+        int widthC = Math.min( blockLength , B.row1 - j );
 
-                    if( k == A.col0 )
-                        blockMultSetTransB(A.original.data,B.original.data,C.original.data,
-                                indexA,indexB,indexC,heightA,widthA,widthC);
-                    else
-                        blockMultPlusTransB(A.original.data,B.original.data,C.original.data,
-                                indexA,indexB,indexC,heightA,widthA,widthC);
-                }
-            }
+        int indexC = (i-A.row0+C.row0)*C.original.numCols + (j-B.row0+C.col0)*heightA;
+
+        for( int k = A.col0; k < A.col1; k += blockLength ) {
+            int widthA = Math.min( blockLength , A.col1 - k );
+
+            int indexA = i*A.original.numCols + k*heightA;
+            int indexB = j*B.original.numCols + (k-A.col0+B.col0)*widthC;
+
+            if( k == A.col0 )
+                blockMultSetTransB(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthC);
+            else
+                blockMultPlusTransB(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthC);
         }
     }
 
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DSubmatrixD1;
+
+import static org.ejml.dense.block.MatrixMult_DDRB.*;
+
+/**
+ * <p>
+ * Multi-threaded version of {@link MatrixMult_DDRB}. Each block in the output matrix is an independent task
+ * which is handed to {@link EjmlConcurrency#loopTiles}. A block is computed exactly the same way as in the
+ * single threaded version so the results are identical.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMult_MT_DDRB {
+
+    /**
+     * @see MatrixMult_DDRB#mult(int, DSubmatrixD1, DSubmatrixD1, DSubmatrixD1)
+     */
+    public static void mult( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        mult(blockLength,A,B,C,SET);
+    }
+
+    /**
+     * @see MatrixMult_DDRB#multPlus(int, DSubmatrixD1, DSubmatrixD1, DSubmatrixD1)
+     */
+    public static void multPlus( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        mult(blockLength,A,B,C,PLUS);
+    }
+
+    /**
+     * @see MatrixMult_DDRB#multMinus(int, DSubmatrixD1, DSubmatrixD1, DSubmatrixD1)
+     */
+    public static void multMinus( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        checkInput(blockLength,A,B,C);
+        mult(blockLength,A,B,C,MINUS);
+    }
+
+    /**
+     * @see MatrixMult_DDRB#multTransA(int, DSubmatrixD1, DSubmatrixD1, DSubmatrixD1)
+     */
+    public static void multTransA( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        multTransA(blockLength,A,B,C,SET);
+    }
+
+    /**
+     * @see MatrixMult_DDRB#multPlusTransA(int, DSubmatrixD1, DSubmatrixD1, DSubmatrixD1)
+     */
+    public static void multPlusTransA( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        multTransA(blockLength,A,B,C,PLUS);
+    }
+
+    /**
+     * @see MatrixMult_DDRB#multMinusTransA(int, DSubmatrixD1, DSubmatrixD1, DSubmatrixD1)
+     */
+    public static void multMinusTransA( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        multTransA(blockLength,A,B,C,MINUS);
+    }
+
+    /**
+     * @see MatrixMult_DDRB#multTransB(int, DSubmatrixD1, DSubmatrixD1, DSubmatrixD1)
+     */
+    public static void multTransB( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        int numRows = numBlocks(blockLength,A.row1-A.row0);
+        int numCols = numBlocks(blockLength,B.row1-B.row0);
+
+        EjmlConcurrency.loopTiles(numRows,numCols,(row,col)->
+                multTransBBlock(blockLength,A,B,C,A.row0+row*blockLength,B.row0+col*blockLength));
+    }
+
+    private static void mult( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ,
+                              int operation ) {
+        int numRows = numBlocks(blockLength,A.row1-A.row0);
+        int numCols = numBlocks(blockLength,B.col1-B.col0);
+
+        EjmlConcurrency.loopTiles(numRows,numCols,(row,col)->
+                multBlock(blockLength,A,B,C,A.row0+row*blockLength,B.col0+col*blockLength,operation));
+    }
+
+    private static void multTransA( int blockLength , DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ,
+                                    int operation ) {
+        int numRows = numBlocks(blockLength,A.col1-A.col0);
+        int numCols = numBlocks(blockLength,B.col1-B.col0);
+
+        EjmlConcurrency.loopTiles(numRows,numCols,(row,col)->
+                multTransABlock(blockLength,A,B,C,A.col0+row*blockLength,B.col0+col*blockLength,operation));
+    }
+
+    /**
+     * Number of blocks needed to cover the specified length
+     */
+    static int numBlocks( int blockLength , int length ) {
+        return (length+blockLength-1)/blockLength;
+    }
+}
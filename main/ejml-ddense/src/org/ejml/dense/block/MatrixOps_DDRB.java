@@ -18,6 +18,8 @@
 
 package org.ejml.dense.block;
 
+import org.ejml.EjmlParameters;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixRBlock;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DSubmatrixD1;
@@ -168,6 +170,17 @@ public class MatrixOps_DDRB {
         }
     }
 
+    /**
+     * Returns true if a matrix multiplication is large enough that the multi-threaded algorithms should be used.
+     *
+     * @param rowsC Number of rows in the output matrix
+     * @param inner Length of the inner product
+     */
+    private static boolean useConcurrent( int rowsC , int inner ) {
+        return EjmlConcurrency.USE_CONCURRENT &&
+                rowsC >= EjmlParameters.MULT_CONCURRENT_SWITCH && inner >= EjmlParameters.MULT_CONCURRENT_SWITCH;
+    }
+
     // This can be speed up by inlining the multBlock* calls, reducing number of multiplications
     // and other stuff.  doesn't seem to have any speed advantage over mult_reorder()
     public static void mult(DMatrixRBlock A , DMatrixRBlock B , DMatrixRBlock C )
@@ -187,7 +200,10 @@ public class MatrixOps_DDRB {
         DSubmatrixD1 Bsub = new DSubmatrixD1(B,0, B.numRows, 0, B.numCols);
         DSubmatrixD1 Csub = new DSubmatrixD1(C,0, C.numRows, 0, C.numCols);
 
-        MatrixMult_DDRB.mult(blockLength,Asub,Bsub,Csub);
+        if( useConcurrent(C.numRows,A.numCols) )
+            MatrixMult_MT_DDRB.mult(blockLength,Asub,Bsub,Csub);
+        else
+            MatrixMult_DDRB.mult(blockLength,Asub,Bsub,Csub);
     }
 
     public static void multTransA(DMatrixRBlock A , DMatrixRBlock B , DMatrixRBlock C )
@@ -207,7 +223,10 @@ public class MatrixOps_DDRB {
         DSubmatrixD1 Bsub = new DSubmatrixD1(B,0, B.numRows, 0, B.numCols);
         DSubmatrixD1 Csub = new DSubmatrixD1(C,0, C.numRows, 0, C.numCols);
 
-        MatrixMult_DDRB.multTransA(blockLength,Asub,Bsub,Csub);
+        if( useConcurrent(C.numRows,A.numRows) )
+            MatrixMult_MT_DDRB.multTransA(blockLength,Asub,Bsub,Csub);
+        else
+            MatrixMult_DDRB.multTransA(blockLength,Asub,Bsub,Csub);
     }
 
     public static void multTransB(DMatrixRBlock A , DMatrixRBlock B , DMatrixRBlock C )
@@ -227,7 +246,10 @@ public class MatrixOps_DDRB {
         DSubmatrixD1 Bsub = new DSubmatrixD1(B,0, B.numRows, 0, B.numCols);
         DSubmatrixD1 Csub = new DSubmatrixD1(C,0, C.numRows, 0, C.numCols);
 
-        MatrixMult_DDRB.multTransB(blockLength,Asub,Bsub,Csub);
+        if( useConcurrent(C.numRows,A.numCols) )
+            MatrixMult_MT_DDRB.multTransB(blockLength,Asub,Bsub,Csub);
+        else
+            MatrixMult_DDRB.multTransB(blockLength,Asub,Bsub,Csub);
     }
 
     /**
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DSubmatrixD1;
+
+import static org.ejml.dense.block.MatrixMult_MT_DDRB.numBlocks;
+
+/**
+ * <p>
+ * Multi-threaded version of {@link TriangularSolver_DDRB}. The columns in B are solved independently of
+ * each other, so B is split into vertical strips of blocks and each strip is solved by the single threaded
+ * algorithm on a different thread. Solving a strip instead of a single column of blocks in each task allows
+ * a block in T to be reused while it's in the cache. The results are identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangularSolver_MT_DDRB {
+
+    /**
+     * @see TriangularSolver_DDRB#solve
+     */
+    public static void solve( final int blockLength ,
+                              final boolean upper ,
+                              final DSubmatrixD1 T ,
+                              final DSubmatrixD1 B ,
+                              final boolean transT ) {
+        if( upper ) {
+            solveR(blockLength,T,B,transT);
+        } else {
+            solveL(blockLength,T,B,transT);
+        }
+    }
+
+    /**
+     * @see TriangularSolver_DDRB#solveBlock
+     */
+    public static void solveBlock( final int blockLength ,
+                                   final boolean upper , final DSubmatrixD1 T ,
+                                   final DSubmatrixD1 B ,
+                                   final boolean transT , final boolean transB )
+    {
+        if( transB ) {
+            // B is a block column vector and each block row is independent
+            EjmlConcurrency.loopBlocks(0,numBlocks(blockLength,B.row1-B.row0),(b0,b1)->{
+                DSubmatrixD1 strip = new DSubmatrixD1(B.original,
+                        B.row0+b0*blockLength,Math.min(B.row1,B.row0+b1*blockLength),B.col0,B.col1);
+                TriangularSolver_DDRB.solveBlock(blockLength,upper,T,strip,transT,true);
+            });
+        } else {
+            EjmlConcurrency.loopBlocks(0,numBlocks(blockLength,B.col1-B.col0),(b0,b1)->
+                    TriangularSolver_DDRB.solveBlock(blockLength,upper,T,columns(blockLength,B,b0,b1),transT,false));
+        }
+    }
+
+    /**
+     * @see TriangularSolver_DDRB#solveL
+     */
+    public static void solveL( final int blockLength ,
+                               final DSubmatrixD1 L,
+                               final DSubmatrixD1 B ,
+                               boolean transL ) {
+        EjmlConcurrency.loopBlocks(0,numBlocks(blockLength,B.col1-B.col0),(b0,b1)->
+                TriangularSolver_DDRB.solveL(blockLength,L,columns(blockLength,B,b0,b1),transL));
+    }
+
+    /**
+     * @see TriangularSolver_DDRB#solveR
+     */
+    public static void solveR( final int blockLength ,
+                               final DSubmatrixD1 R,
+                               final DSubmatrixD1 B ,
+                               boolean transR ) {
+        EjmlConcurrency.loopBlocks(0,numBlocks(blockLength,B.col1-B.col0),(b0,b1)->
+                TriangularSolver_DDRB.solveR(blockLength,R,columns(blockLength,B,b0,b1),transR));
+    }
+
+    /**
+     * Returns a submatrix of B which contains the block columns from b0 to b1, exclusive.
+     */
+    private static DSubmatrixD1 columns( int blockLength , DSubmatrixD1 B , int b0 , int b1 ) {
+        return new DSubmatrixD1(B.original,B.row0,B.row1,
+                B.col0+b0*blockLength,Math.min(B.col1,B.col0+b1*blockLength));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.chol;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.block.InnerRankUpdate_DDRB;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.TriangularSolver_MT_DDRB;
+
+/**
+ * <p>
+ * Multi-threaded version of {@link CholeskyOuterForm_DDRB}. Almost all the work is in the update of the
+ * trailing matrix, which is split into independent blocks that are processed concurrently. To keep the threads
+ * busy while the next column of blocks is being decomposed, one step of look ahead is used. After a column
+ * has been decomposed only the next column of the trailing matrix is updated. Then the decomposition of the
+ * next column runs at the same time as the update of the rest of the trailing matrix.
+ * </p>
+ *
+ * <p>
+ * Every block is updated in the same order and with the same operations as in the single threaded version,
+ * so the results are identical.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskyOuterForm_MT_DDRB extends CholeskyOuterForm_DDRB {
+
+    // if the most recent decomposition of a column of blocks succeeded
+    private volatile boolean success;
+
+    /**
+     * Creates a new multi-threaded block Cholesky
+     *
+     * @param lower Should it decompose it into a lower triangular matrix or not.
+     */
+    public CholeskyOuterForm_MT_DDRB(boolean lower) {
+        super(lower);
+    }
+
+    @Override
+    public boolean decompose(DMatrixRBlock A) {
+        if( A.numCols != A.numRows )
+            throw new IllegalArgumentException("A must be square");
+
+        this.T = A;
+
+        final int blockLength = T.blockLength;
+        final int N = T.numCols;
+
+        if( !decomposeColumn(0) )
+            return false;
+
+        // the last block doesn't need to update anything
+        for( int i = 0; i+blockLength < N; i += blockLength ) {
+            final int next = i + blockLength;
+            final int after = Math.min(N,next+blockLength);
+
+            // the trailing matrix and the column of blocks which was just decomposed
+            final DSubmatrixD1 subB = new DSubmatrixD1(T);
+            final DSubmatrixD1 subC = new DSubmatrixD1(T,next,N,next,N);
+            if( lower ) {
+                subB.set(T,next,N,i,next);
+            } else {
+                subB.set(T,i,next,next,N);
+            }
+
+            // the next column of blocks needs to be up to date before it can be decomposed
+            updateColumn(subC,subB,next);
+
+            EjmlConcurrency.invokeAll(
+                    ()-> success = decomposeColumn(next),
+                    ()-> updateTrailing(subC,subB,after));
+
+            if( !success )
+                return false;
+        }
+
+        MatrixOps_DDRB.zeroTriangle(lower,T);
+
+        return true;
+    }
+
+    /**
+     * Decomposes the inner block on the diagonal and then solves for the rest of the blocks in that column,
+     * or row if upper.
+     *
+     * @param i Index of the first row and column in the inner block
+     */
+    private boolean decomposeColumn( int i ) {
+        int blockLength = T.blockLength;
+        int widthA = Math.min(blockLength, T.numCols-i);
+
+        DSubmatrixD1 subA = new DSubmatrixD1(T,i,i+widthA,i,i+widthA);
+
+        if( lower ) {
+            if( !InnerCholesky_DDRB.lower(subA) )
+                return false;
+            // on the last block this isn't needed.
+            if( widthA == blockLength ) {
+                // B = L^-1 B
+                DSubmatrixD1 subB = new DSubmatrixD1(T,i+widthA,T.numRows,i,i+widthA);
+                TriangularSolver_MT_DDRB.solveBlock(blockLength,false,subA,subB,false,true);
+            }
+        } else {
+            if( !InnerCholesky_DDRB.upper(subA) )
+                return false;
+            if( widthA == blockLength ) {
+                // B = U^-1 B
+                DSubmatrixD1 subB = new DSubmatrixD1(T,i,i+widthA,i+widthA,T.numCols);
+                TriangularSolver_MT_DDRB.solveBlock(blockLength,true,subA,subB,true,false);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Updates the column of blocks in the trailing matrix which starts at 'next', or row if upper.
+     */
+    private void updateColumn( DSubmatrixD1 subC , DSubmatrixD1 subB , int next ) {
+        final int blockLength = T.blockLength;
+        final int N = T.numCols;
+
+        EjmlConcurrency.loopBlocks(0,(N-next+blockLength-1)/blockLength,(b0,b1)->{
+            for( int b = b0; b < b1; b++ ) {
+                int row = next + b*blockLength;
+                if( lower ) {
+                    InnerRankUpdate_DDRB.symmRankNMinus_LBlock(blockLength,subC,subB,row,next);
+                } else {
+                    InnerRankUpdate_DDRB.symmRankNMinus_UBlock(blockLength,subC,subB,next,row);
+                }
+            }
+        });
+    }
+
+    /**
+     * Updates the blocks in the trailing matrix whose row and column are both at or after 'start'.
+     */
+    private void updateTrailing( DSubmatrixD1 subC , DSubmatrixD1 subB , int start ) {
+        final int blockLength = T.blockLength;
+        final int numTiles = (T.numCols-start+blockLength-1)/blockLength;
+
+        EjmlConcurrency.loopTilesLower(numTiles,(row,col)->{
+            int i = start + row*blockLength;
+            int j = start + col*blockLength;
+            if( lower ) {
+                InnerRankUpdate_DDRB.symmRankNMinus_LBlock(blockLength,subC,subB,i,j);
+            } else {
+                InnerRankUpdate_DDRB.symmRankNMinus_UBlock(blockLength,subC,subB,j,i);
+            }
+        });
+    }
+}
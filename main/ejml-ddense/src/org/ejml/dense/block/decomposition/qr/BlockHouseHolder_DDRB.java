@@ -920,28 +920,36 @@ public class BlockHouseHolder_DDRB {
                                      final DSubmatrixD1 Y , final DSubmatrixD1 B ,
                                      final DSubmatrixD1 C )
     {
-        int widthY = Y.col1 - Y.col0;
-
         for( int i = Y.row0; i < Y.row1; i += blockLength ) {
-            int heightY = Math.min( blockLength , Y.row1 - i );
-
             for( int j = B.col0; j < B.col1; j += blockLength ) {
-                int widthB = Math.min( blockLength , B.col1 - j );
+                multAdd_zerosBlock(blockLength,Y,B,C,i,j);
+            }
+        }
+    }
 
-                int indexC = (i-Y.row0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*heightY;
+    /**
+     * Computes the block in C which is at row 'i' in Y and column 'j' in B for {@link #multAdd_zeros}.
+     */
+    static void multAdd_zerosBlock( final int blockLength ,
+                                    final DSubmatrixD1 Y , final DSubmatrixD1 B ,
+                                    final DSubmatrixD1 C , int i , int j )
+    {
+        int widthY = Y.col1 - Y.col0;
+        int heightY = Math.min( blockLength , Y.row1 - i );
+        int widthB = Math.min( blockLength , B.col1 - j );
 
-                for( int k = Y.col0; k < Y.col1; k += blockLength ) {
-                    int indexY = i*Y.original.numCols + k*heightY;
-                    int indexB = (k-Y.col0+B.row0)*B.original.numCols + j*widthY;
+        int indexC = (i-Y.row0+C.row0)*C.original.numCols + (j-B.col0+C.col0)*heightY;
 
-                    if( i == Y.row0 ) {
-                        multBlockAdd_zerosone(Y.original.data,B.original.data,C.original.data,
-                            indexY,indexB,indexC,heightY,widthY,widthB);
-                    } else {
-                        InnerMultiplication_DDRB.blockMultPlus(Y.original.data,B.original.data,C.original.data,
-                                indexY,indexB,indexC,heightY,widthY,widthB);
-                    }
-                }
+        for( int k = Y.col0; k < Y.col1; k += blockLength ) {
+            int indexY = i*Y.original.numCols + k*heightY;
+            int indexB = (k-Y.col0+B.row0)*B.original.numCols + j*widthY;
+
+            if( i == Y.row0 ) {
+                multBlockAdd_zerosone(Y.original.data,B.original.data,C.original.data,
+                    indexY,indexB,indexC,heightY,widthY,widthB);
+            } else {
+                InnerMultiplication_DDRB.blockMultPlus(Y.original.data,B.original.data,C.original.data,
+                        indexY,indexB,indexC,heightY,widthY,widthB);
             }
         }
     }
@@ -991,23 +999,34 @@ public class BlockHouseHolder_DDRB {
             throw new IllegalArgumentException("A is expected to be at most one block wide.");
 
         for( int j = B.col0; j < B.col1; j += blockLength ) {
-            int widthB = Math.min( blockLength , B.col1 - j );
+            multTransA_vecColBlock(blockLength,A,B,C,j);
+        }
+    }
 
-            int indexC = C.row0*C.original.numCols + (j-B.col0+C.col0)*widthA;
+    /**
+     * Computes the block in C which is at column 'j' in B for {@link #multTransA_vecCol}.
+     */
+    static void multTransA_vecColBlock( final int blockLength ,
+                                        DSubmatrixD1 A , DSubmatrixD1 B ,
+                                        DSubmatrixD1 C , int j )
+    {
+        int widthA = A.col1 - A.col0;
+        int widthB = Math.min( blockLength , B.col1 - j );
 
-            for( int k = A.row0; k < A.row1; k += blockLength ) {
-                int heightA = Math.min( blockLength , A.row1 - k );
+        int indexC = C.row0*C.original.numCols + (j-B.col0+C.col0)*widthA;
 
-                int indexA = k*A.original.numCols + A.col0*heightA;
-                int indexB = (k-A.row0+B.row0)*B.original.numCols + j*heightA;
+        for( int k = A.row0; k < A.row1; k += blockLength ) {
+            int heightA = Math.min( blockLength , A.row1 - k );
 
-                if( k == A.row0 )
-                    multTransABlockSet_lowerTriag(A.original.data,B.original.data,C.original.data,
-                            indexA,indexB,indexC,heightA,widthA,widthB);
-                else
-                    InnerMultiplication_DDRB.blockMultPlusTransA(A.original.data,B.original.data,C.original.data,
-                            indexA,indexB,indexC,heightA,widthA,widthB);
-            }
+            int indexA = k*A.original.numCols + A.col0*heightA;
+            int indexB = (k-A.row0+B.row0)*B.original.numCols + j*heightA;
+
+            if( k == A.row0 )
+                multTransABlockSet_lowerTriag(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthB);
+            else
+                InnerMultiplication_DDRB.blockMultPlusTransA(A.original.data,B.original.data,C.original.data,
+                        indexA,indexB,indexC,heightA,widthA,widthB);
         }
     }
 
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.qr;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DSubmatrixD1;
+
+/**
+ * Multi-threaded versions of the matrix multiplications in {@link BlockHouseHolder_DDRB} which apply block
+ * reflectors to a matrix. Each output block is an independent task and is computed the same way as in the single
+ * threaded version, so the results are identical.
+ *
+ * @author Peter Abeles
+ */
+public class BlockHouseHolder_MT_DDRB {
+
+    /**
+     * @see BlockHouseHolder_DDRB#multAdd_zeros
+     */
+    public static void multAdd_zeros( final int blockLength ,
+                                      final DSubmatrixD1 Y , final DSubmatrixD1 B ,
+                                      final DSubmatrixD1 C )
+    {
+        int numRows = (Y.row1-Y.row0+blockLength-1)/blockLength;
+        int numCols = (B.col1-B.col0+blockLength-1)/blockLength;
+
+        EjmlConcurrency.loopTiles(numRows,numCols,(row,col)->
+                BlockHouseHolder_DDRB.multAdd_zerosBlock(blockLength,Y,B,C,
+                        Y.row0+row*blockLength,B.col0+col*blockLength));
+    }
+
+    /**
+     * @see BlockHouseHolder_DDRB#multTransA_vecCol
+     */
+    public static void multTransA_vecCol( final int blockLength ,
+                                          DSubmatrixD1 A , DSubmatrixD1 B ,
+                                          DSubmatrixD1 C )
+    {
+        int widthA = A.col1 - A.col0;
+        if( widthA > blockLength )
+            throw new IllegalArgumentException("A is expected to be at most one block wide.");
+
+        int numCols = (B.col1-B.col0+blockLength-1)/blockLength;
+
+        EjmlConcurrency.loopTiles(1,numCols,(row,col)->
+                BlockHouseHolder_DDRB.multTransA_vecColBlock(blockLength,A,B,C,B.col0+col*blockLength));
+    }
+}
@@ -69,7 +69,7 @@ public class QRDecompositionHouseholder_DDRB
     private DMatrixRBlock dataWTA = new DMatrixRBlock(1,1);
 
     // size of the inner matrix block.
-    private int blockLength;
+    protected int blockLength;
     
     // The submatrices which are being manipulated in each iteration
     private DSubmatrixD1 A = new DSubmatrixD1();
@@ -209,8 +209,8 @@ public class QRDecompositionHouseholder_DDRB
                 BlockHouseHolder_DDRB.computeW_Column(blockLength,Y,W,temp, gammas,Y.col0);
 
             // Apply the Qi to Q
-            BlockHouseHolder_DDRB.multTransA_vecCol(blockLength,Y,subB,WTA);
-            MatrixMult_DDRB.multPlus(blockLength,W,WTA,subB);
+            multTransA_vecCol(Y,subB,WTA);
+            multPlus(W,WTA,subB);
         }
     }
 
@@ -261,8 +261,8 @@ public class QRDecompositionHouseholder_DDRB
                 BlockHouseHolder_DDRB.computeW_Column(blockLength,Y,W,temp, gammas,Y.col0);
 
             // Apply the Qi to Q
-            MatrixMult_DDRB.multTransA(blockLength,W,subB,WTA);
-            BlockHouseHolder_DDRB.multAdd_zeros(blockLength,Y,WTA,subB);
+            multTransA(W,subB,WTA);
+            multAdd_zeros(Y,WTA,subB);
         }
     }
 
@@ -372,13 +372,46 @@ public class QRDecompositionHouseholder_DDRB
         if( A.col1 > A.col0 ) {
             BlockHouseHolder_DDRB.computeW_Column(blockLength,Y,W,temp, gammas,Y.col0);
 
-            MatrixMult_DDRB.multTransA(blockLength,W,A,WTA);
-            BlockHouseHolder_DDRB.multAdd_zeros(blockLength,Y,WTA,A);
+            multTransA(W,A,WTA);
+            multAdd_zeros(Y,WTA,A);
         } else if( saveW ) {
             BlockHouseHolder_DDRB.computeW_Column(blockLength,Y,W,temp, gammas,Y.col0);
         }
     }
 
+    /**
+     * C = A<sup>T</sup>*B. The decomposition calls it with W as A to compute W<sup>T</sup> times the remaining
+     * columns. Most of the work in the decomposition is done here and in {@link #multAdd_zeros}.
+     */
+    protected void multTransA( DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        MatrixMult_DDRB.multTransA(blockLength,A,B,C);
+    }
+
+    /**
+     * C = C + Y*B, where Y contains the reflectors
+     *
+     * @see BlockHouseHolder_DDRB#multAdd_zeros
+     */
+    protected void multAdd_zeros( DSubmatrixD1 Y , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        BlockHouseHolder_DDRB.multAdd_zeros(blockLength,Y,B,C);
+    }
+
+    /**
+     * C = Y<sup>T</sup>*B, where Y contains the reflectors
+     *
+     * @see BlockHouseHolder_DDRB#multTransA_vecCol
+     */
+    protected void multTransA_vecCol( DSubmatrixD1 Y , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        BlockHouseHolder_DDRB.multTransA_vecCol(blockLength,Y,B,C);
+    }
+
+    /**
+     * C = C + A*B
+     */
+    protected void multPlus( DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        MatrixMult_DDRB.multPlus(blockLength,A,B,C);
+    }
+
     /**
      * Sets the submatrix of W up give Y is already configured and if it is being cached or not.
      */
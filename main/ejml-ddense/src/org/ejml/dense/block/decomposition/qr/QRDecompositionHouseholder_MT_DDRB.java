@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.qr;
+
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.block.MatrixMult_MT_DDRB;
+
+/**
+ * <p>
+ * Multi-threaded version of {@link QRDecompositionHouseholder_DDRB}. The reflectors in each block column are
+ * computed by a single thread. Applying the block reflector, in its compact WY form, to the rest of the matrix
+ * is where most of the time is spent and it's split into independent blocks that are computed concurrently.
+ * This is done when decomposing the matrix and when applying Q or Q<sup>T</sup> to another matrix.
+ * </p>
+ *
+ * <p>
+ * The results are identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class QRDecompositionHouseholder_MT_DDRB extends QRDecompositionHouseholder_DDRB {
+
+    @Override
+    protected void multTransA( DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        MatrixMult_MT_DDRB.multTransA(blockLength,A,B,C);
+    }
+
+    @Override
+    protected void multAdd_zeros( DSubmatrixD1 Y , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        BlockHouseHolder_MT_DDRB.multAdd_zeros(blockLength,Y,B,C);
+    }
+
+    @Override
+    protected void multTransA_vecCol( DSubmatrixD1 Y , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        BlockHouseHolder_MT_DDRB.multTransA_vecCol(blockLength,Y,B,C);
+    }
+
+    @Override
+    protected void multPlus( DSubmatrixD1 A , DSubmatrixD1 B , DSubmatrixD1 C ) {
+        MatrixMult_MT_DDRB.multPlus(blockLength,A,B,C);
+    }
+}
@@ -18,11 +18,14 @@
 
 package org.ejml.dense.block.linsol.chol;
 
+import org.ejml.EjmlParameters;
 import org.ejml.data.DMatrixRBlock;
 import org.ejml.data.DSubmatrixD1;
 import org.ejml.dense.block.MatrixOps_DDRB;
 import org.ejml.dense.block.TriangularSolver_DDRB;
+import org.ejml.dense.block.TriangularSolver_MT_DDRB;
 import org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_DDRB;
+import org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_MT_DDRB;
 import org.ejml.dense.row.SpecializedOps_DDRM;
 import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 import org.ejml.interfaces.linsol.LinearSolverDense;
@@ -49,8 +52,16 @@ import org.ejml.interfaces.linsol.LinearSolverDense;
  */
 public class CholeskyOuterSolver_DDRB implements LinearSolverDense<DMatrixRBlock> {
 
-    // cholesky decomposition
-    private CholeskyOuterForm_DDRB decomposer = new CholeskyOuterForm_DDRB(true);
+    // cholesky decomposition used on the most recent matrix
+    private CholeskyOuterForm_DDRB decomposer;
+    // single and multi-threaded decompositions. The multi-threaded one is null if concurrency is off
+    private CholeskyOuterForm_DDRB decomposerSerial;
+    private CholeskyOuterForm_DDRB decomposerConcurrent;
+
+    // if multi-threaded algorithms can be used
+    private boolean concurrent;
+    // if multi-threaded algorithms are used on the most recent matrix
+    private boolean useConcurrent;
 
     // size of a block take from input matrix
     private int blockLength;
@@ -58,6 +69,25 @@ public class CholeskyOuterSolver_DDRB implements LinearSolverDense<DMatrixRBlock
     // temporary data structure used in some calculation.
     private double temp[];
 
+    /**
+     * Creates a single threaded solver
+     */
+    public CholeskyOuterSolver_DDRB() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent If true then the multi-threaded decomposition and triangular solvers are used on matrices
+     *                   which are at least {@link EjmlParameters#MULT_CONCURRENT_SWITCH} in size.
+     */
+    public CholeskyOuterSolver_DDRB( boolean concurrent ) {
+        this.concurrent = concurrent;
+        decomposerSerial = new CholeskyOuterForm_DDRB(true);
+        if( concurrent )
+            decomposerConcurrent = new CholeskyOuterForm_MT_DDRB(true);
+        decomposer = decomposerSerial;
+    }
+
     /**
      * Decomposes and overwrites the input matrix.
      *
@@ -66,6 +96,10 @@ public class CholeskyOuterSolver_DDRB implements LinearSolverDense<DMatrixRBlock
      */
     @Override
     public boolean setA(DMatrixRBlock A) {
+        // the work is mostly block matrix multiplications so the same threshold is used
+        useConcurrent = concurrent && A.numCols >= EjmlParameters.MULT_CONCURRENT_SWITCH;
+        decomposer = useConcurrent ? decomposerConcurrent : decomposerSerial;
+
         // Extract a lower triangular solution
         if( !decomposer.decompose(A) )
             return false;
@@ -101,11 +135,16 @@ public class CholeskyOuterSolver_DDRB implements LinearSolverDense<DMatrixRBlock
 
         //  L * L^T*X = B
 
-        // Solve for Y:  L*Y = B
-        TriangularSolver_DDRB.solve(blockLength,false,L,new DSubmatrixD1(B),false);
+        if( useConcurrent ) {
+            TriangularSolver_MT_DDRB.solve(blockLength,false,L,new DSubmatrixD1(B),false);
+            TriangularSolver_MT_DDRB.solve(blockLength,false,L,new DSubmatrixD1(B),true);
+        } else {
+            // Solve for Y:  L*Y = B
+            TriangularSolver_DDRB.solve(blockLength,false,L,new DSubmatrixD1(B),false);
 
-        // L^T * X = Y
-        TriangularSolver_DDRB.solve(blockLength,false,L,new DSubmatrixD1(B),true);
+            // L^T * X = Y
+            TriangularSolver_DDRB.solve(blockLength,false,L,new DSubmatrixD1(B),true);
+        }
 
         if( X != null ) {
             // copy the solution from B into X
@@ -138,7 +177,10 @@ public class CholeskyOuterSolver_DDRB implements LinearSolverDense<DMatrixRBlock
         // B = L^-T * B
         // todo could speed up by taking advantage of B being lower triangular
         // todo take advantage of symmetry
-        TriangularSolver_DDRB.solveL(blockLength,L,B,true);
+        if( useConcurrent )
+            TriangularSolver_MT_DDRB.solveL(blockLength,L,B,true);
+        else
+            TriangularSolver_DDRB.solveL(blockLength,L,B,true);
     }
 
     @Override
@@ -22,7 +22,9 @@ import org.ejml.data.DMatrixRBlock;
 import org.ejml.data.DSubmatrixD1;
 import org.ejml.dense.block.MatrixOps_DDRB;
 import org.ejml.dense.block.TriangularSolver_DDRB;
+import org.ejml.dense.block.TriangularSolver_MT_DDRB;
 import org.ejml.dense.block.decomposition.qr.QRDecompositionHouseholder_DDRB;
+import org.ejml.dense.block.decomposition.qr.QRDecompositionHouseholder_MT_DDRB;
 import org.ejml.dense.row.SpecializedOps_DDRM;
 import org.ejml.interfaces.decomposition.QRDecomposition;
 import org.ejml.interfaces.linsol.LinearSolverDense;
@@ -49,13 +51,30 @@ import org.ejml.interfaces.linsol.LinearSolverDense;
 public class QrHouseHolderSolver_DDRB implements LinearSolverDense<DMatrixRBlock> {
 
     // QR decomposition algorithm
-    protected QRDecompositionHouseholder_DDRB decomposer = new QRDecompositionHouseholder_DDRB();
+    protected QRDecompositionHouseholder_DDRB decomposer;
 
     // the input matrix which has been decomposed
     protected DMatrixRBlock QR;
 
+    // if multi-threaded algorithms should be used
+    protected boolean concurrent;
 
+    /**
+     * Creates a single threaded solver
+     */
     public QrHouseHolderSolver_DDRB() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent If true then the multi-threaded decomposition and triangular solvers are used.
+     */
+    public QrHouseHolderSolver_DDRB( boolean concurrent ) {
+        this.concurrent = concurrent;
+        if( concurrent )
+            decomposer = new QRDecompositionHouseholder_MT_DDRB();
+        else
+            decomposer = new QRDecompositionHouseholder_DDRB();
         decomposer.setSaveW(false);
     }
 
@@ -111,9 +130,7 @@ public class QrHouseHolderSolver_DDRB implements LinearSolverDense<DMatrixRBlock
         // extract a block aligned matrix
         int M = Math.min(QR.numRows,QR.numCols);
 
-        TriangularSolver_DDRB.solve(QR.blockLength,true,
-                new DSubmatrixD1(QR,0,M,0,M),new DSubmatrixD1(X),false);
-
+        solveR(new DSubmatrixD1(QR,0,M,0,M),new DSubmatrixD1(X));
     }
 
     /**
@@ -139,8 +156,17 @@ public class QrHouseHolderSolver_DDRB implements LinearSolverDense<DMatrixRBlock
         // Solve using upper triangular R matrix
         // R*A^-1 = y
         // A^-1 = R^-1*y
-        TriangularSolver_DDRB.solve(QR.blockLength,true,
-                new DSubmatrixD1(QR,0,M,0,M),new DSubmatrixD1(A_inv),false);
+        solveR(new DSubmatrixD1(QR,0,M,0,M),new DSubmatrixD1(A_inv));
+    }
+
+    /**
+     * Solves R*X = B, where R is upper triangular.  The solution is written into B.
+     */
+    private void solveR( DSubmatrixD1 R , DSubmatrixD1 B ) {
+        if( concurrent )
+            TriangularSolver_MT_DDRB.solve(QR.blockLength,true,R,B,false);
+        else
+            TriangularSolver_DDRB.solve(QR.blockLength,true,R,B,false);
     }
 
     @Override
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixBatch;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Solves A*X = B for every system in a batch of small independent square systems. Unlike {@link BatchOps_DDF3} and
+ * the other fixed sized operations the matrices can be any size.  All the systems inside a block of
+ * {@link DMatrixBatch#BLOCK_LENGTH} matrices are processed together, one element at a time, so the inner loops
+ * run across the matrices with unit stride and no per-system objects or function calls are needed.
+ * </p>
+ *
+ * <p>
+ * To avoid declaring memory the decomposition is done in place, A is overwritten by its decomposition and B by the
+ * solution. The solution of a system which failed is undefined, but it has no effect on the other systems.
+ * </p>
+ *
+ * @see BatchLinearSolver_MT_DDF
+ * @author Peter Abeles
+ */
+public class BatchLinearSolver_DDF {
+    private static final int L = DMatrixBatch.BLOCK_LENGTH;
+
+    /**
+     * Solves each system using LU decomposition with partial pivoting. A system fails if it's singular, i.e. a pivot
+     * is less than or equal to {@link UtilEjml#EPS} times the largest element in its matrix.
+     *
+     * @param A (Input) Square matrices. (Output) LU decomposition with rows in pivot order.
+     * @param B (Input) Right hand side with the same number of rows as A. (Output) The solution X.
+     * @param success (Optional) Storage for if each system was successfully solved. Modified.
+     * @return true if all were successful or false if one or more failed.
+     */
+    public static boolean solveLU( DMatrixBatch A , DMatrixBatch B , @Nullable boolean[] success ) {
+        checkInput(A,B,success);
+        return solveLU(A,B,success,0,A.size);
+    }
+
+    /**
+     * Solves each system using Cholesky decomposition. The matrices must be symmetric positive definite and
+     * only their lower triangle is read. A system fails if it's not positive definite.
+     *
+     * @param A (Input) SPD matrices. (Output) Lower triangle contains the lower Cholesky factor.  The upper triangle
+     *          is not modified.
+     * @param B (Input) Right hand side with the same number of rows as A. (Output) The solution X.
+     * @param success (Optional) Storage for if each system was successfully solved. Modified.
+     * @return true if all were successful or false if one or more failed.
+     */
+    public static boolean solveChol( DMatrixBatch A , DMatrixBatch B , @Nullable boolean[] success ) {
+        checkInput(A,B,success);
+        return solveChol(A,B,success,0,A.size);
+    }
+
+    /**
+     * Solves the systems from index0 to index1 using LU. index0 must be the start of a block.
+     */
+    static boolean solveLU( DMatrixBatch A , DMatrixBatch B , @Nullable boolean[] success ,
+                            int index0 , int index1 ) {
+        final int n = A.numRows;
+        final int m = B.numCols;
+        final double[] DA = A.data, DB = B.data;
+
+        final double[] tol = new double[L];
+        final double[] inv = new double[L];
+        final double[] max = new double[L];
+        final double[] l = new double[L];
+        final int[] pivot = new int[L];
+        final boolean[] ok = new boolean[L];
+
+        boolean all = true;
+        for( int block = index0; block < index1; block += L ) {
+            final int lanes = Math.min(L,index1-block);
+            final int offA = block*n*n;
+            final int offB = block*n*m;
+
+            // tolerance for singular systems is relative to the largest element
+            for( int lane = 0; lane < lanes; lane++ ) {
+                tol[lane] = 0;
+                ok[lane] = true;
+            }
+            for( int i = offA; i < offA+n*n*L; i += L ) {
+                for( int lane = 0; lane < lanes; lane++ ) {
+                    double v = Math.abs(DA[i+lane]);
+                    if( v > tol[lane] ) tol[lane] = v;
+                }
+            }
+            for( int lane = 0; lane < lanes; lane++ ) {
+                tol[lane] *= UtilEjml.EPS;
+            }
+
+            for( int k = 0; k < n; k++ ) {
+                // find the pivot in each system
+                int indexKK = offA + (k*n+k)*L;
+                for( int lane = 0; lane < lanes; lane++ ) {
+                    max[lane] = Math.abs(DA[indexKK+lane]);
+                    pivot[lane] = k;
+                }
+                for( int i = k+1; i < n; i++ ) {
+                    int indexIK = offA + (i*n+k)*L;
+                    for( int lane = 0; lane < lanes; lane++ ) {
+                        double v = Math.abs(DA[indexIK+lane]);
+                        if( v > max[lane] ) {
+                            max[lane] = v;
+                            pivot[lane] = i;
+                        }
+                    }
+                }
+
+                // swap rows in A and B
+                for( int lane = 0; lane < lanes; lane++ ) {
+                    int p = pivot[lane];
+                    if( p != k ) {
+                        swapRows(DA,offA+lane,n,k,p);
+                        swapRows(DB,offB+lane,m,k,p);
+                    }
+                    // written so that a NaN pivot also fails
+                    if( !(max[lane] > tol[lane]) ) {
+                        ok[lane] = false;
+                        inv[lane] = 0;
+                    } else {
+                        inv[lane] = 1.0/DA[indexKK+lane];
+                    }
+                }
+
+                // eliminate the elements below the pivot
+                for( int i = k+1; i < n; i++ ) {
+                    int indexIK = offA + (i*n+k)*L;
+                    for( int lane = 0; lane < lanes; lane++ ) {
+                        l[lane] = DA[indexIK+lane] *= inv[lane];
+                    }
+                    for( int j = k+1; j < n; j++ ) {
+                        int indexIJ = offA + (i*n+j)*L;
+                        int indexKJ = offA + (k*n+j)*L;
+                        for( int lane = 0; lane < lanes; lane++ ) {
+                            DA[indexIJ+lane] -= l[lane]*DA[indexKJ+lane];
+                        }
+                    }
+                    for( int j = 0; j < m; j++ ) {
+                        int indexIJ = offB + (i*m+j)*L;
+                        int indexKJ = offB + (k*m+j)*L;
+                        for( int lane = 0; lane < lanes; lane++ ) {
+                            DB[indexIJ+lane] -= l[lane]*DB[indexKJ+lane];
+                        }
+                    }
+                }
+            }
+
+            // solve U*X = B
+            for( int i = n-1; i >= 0; i-- ) {
+                int indexII = offA + (i*n+i)*L;
+                for( int lane = 0; lane < lanes; lane++ ) {
+                    inv[lane] = ok[lane] ? 1.0/DA[indexII+lane] : 0;
+                }
+                for( int j = 0; j < m; j++ ) {
+                    int indexIJ = offB + (i*m+j)*L;
+                    for( int k = i+1; k < n; k++ ) {
+                        int indexIK = offA + (i*n+k)*L;
+                        int indexKJ = offB + (k*m+j)*L;
+                        for( int lane = 0; lane < lanes; lane++ ) {
+                            DB[indexIJ+lane] -= DA[indexIK+lane]*DB[indexKJ+lane];
+                        }
+                    }
+                    for( int lane = 0; lane < lanes; lane++ ) {
+                        DB[indexIJ+lane] *= inv[lane];
+                    }
+                }
+            }
+
+            all &= saveResults(ok,lanes,block,success);
+        }
+        return all;
+    }
+
+    /**
+     * Solves the systems from index0 to index1 using Cholesky. index0 must be the start of a block.
+     */
+    static boolean solveChol( DMatrixBatch A , DMatrixBatch B , @Nullable boolean[] success ,
+                              int index0 , int index1 ) {
+        final int n = A.numRows;
+        final int m = B.numCols;
+        final double[] DA = A.data, DB = B.data;
+
+        final double[] inv = new double[L];
+        final boolean[] ok = new boolean[L];
+
+        boolean all = true;
+        for( int block = index0; block < index1; block += L ) {
+            final int lanes = Math.min(L,index1-block);
+            final int offA = block*n*n;
+            final int offB = block*n*m;
+
+            for( int lane = 0; lane < lanes; lane++ ) {
+                ok[lane] = true;
+            }
+
+            // right looking decomposition of the lower triangle
+            for( int k = 0; k < n; k++ ) {
+                int indexKK = offA + (k*n+k)*L;
+                for( int lane = 0; lane < lanes; lane++ ) {
+                    double d = DA[indexKK+lane];
+                    if( d > 0 ) {
+                        d = Math.sqrt(d);
+                        DA[indexKK+lane] = d;
+                        inv[lane] = 1.0/d;
+                    } else {
+                        ok[lane] = false;
+                        inv[lane] = 0;
+                    }
+                }
+                for( int i = k+1; i < n; i++ ) {
+                    int indexIK = offA + (i*n+k)*L;
+                    for( int lane = 0; lane < lanes; lane++ ) {
+                        DA[indexIK+lane] *= inv[lane];
+                    }
+                }
+                for( int i = k+1; i < n; i++ ) {
+                    int indexIK = offA + (i*n+k)*L;
+                    for( int j = k+1; j <= i; j++ ) {
+                        int indexIJ = offA + (i*n+j)*L;
+                        int indexJK = offA + (j*n+k)*L;
+                        for( int lane = 0; lane < lanes; lane++ ) {
+                            DA[indexIJ+lane] -= DA[indexIK+lane]*DA[indexJK+lane];
+                        }
+                    }
+                }
+            }
+
+            // solve L*Y = B
+            for( int i = 0; i < n; i++ ) {
+                int indexII = offA + (i*n+i)*L;
+                for( int lane = 0; lane < lanes; lane++ ) {
+                    inv[lane] = ok[lane] ? 1.0/DA[indexII+lane] : 0;
+                }
+                for( int j = 0; j < m; j++ ) {
+                    int indexIJ = offB + (i*m+j)*L;
+                    for( int k = 0; k < i; k++ ) {
+                        int indexIK = offA + (i*n+k)*L;
+                        int indexKJ = offB + (k*m+j)*L;
+                        for( int lane = 0; lane < lanes; lane++ ) {
+                            DB[indexIJ+lane] -= DA[indexIK+lane]*DB[indexKJ+lane];
+                        }
+                    }
+                    for( int lane = 0; lane < lanes; lane++ ) {
+                        DB[indexIJ+lane] *= inv[lane];
+                    }
+                }
+            }
+
+            // solve L'*X = Y
+            for( int i = n-1; i >= 0; i-- ) {
+                int indexII = offA + (i*n+i)*L;
+                for( int lane = 0; lane < lanes; lane++ ) {
+                    inv[lane] = ok[lane] ? 1.0/DA[indexII+lane] : 0;
+                }
+                for( int j = 0; j < m; j++ ) {
+                    int indexIJ = offB + (i*m+j)*L;
+                    for( int k = i+1; k < n; k++ ) {
+                        int indexKI = offA + (k*n+i)*L;
+                        int indexKJ = offB + (k*m+j)*L;
+                        for( int lane = 0; lane < lanes; lane++ ) {
+                            DB[indexIJ+lane] -= DA[indexKI+lane]*DB[indexKJ+lane];
+                        }
+                    }
+                    for( int lane = 0; lane < lanes; lane++ ) {
+                        DB[indexIJ+lane] *= inv[lane];
+                    }
+                }
+            }
+
+            all &= saveResults(ok,lanes,block,success);
+        }
+        return all;
+    }
+
+    private static void swapRows( double[] data , int offset , int numCols , int rowA , int rowB ) {
+        int indexA = offset + rowA*numCols*L;
+        int indexB = offset + rowB*numCols*L;
+        for( int j = 0; j < numCols; j++ , indexA += L , indexB += L ) {
+            double tmp = data[indexA];
+            data[indexA] = data[indexB];
+            data[indexB] = tmp;
+        }
+    }
+
+    private static boolean saveResults( boolean[] ok , int lanes , int block , @Nullable boolean[] success ) {
+        boolean all = true;
+        for( int lane = 0; lane < lanes; lane++ ) {
+            if( success != null )
+                success[block+lane] = ok[lane];
+            all &= ok[lane];
+        }
+        return all;
+    }
+
+    static void checkInput( DMatrixBatch A , DMatrixBatch B , @Nullable boolean[] success ) {
+        if( A.numRows != A.numCols )
+            throw new MatrixDimensionException("The matrices in A must be square");
+        if( A.numRows != B.numRows )
+            throw new MatrixDimensionException("A and B must have the same number of rows");
+        if( A.size != B.size )
+            throw new MatrixDimensionException("The 'A' and 'B' batches must have the same size");
+        if( success != null && success.length < A.size )
+            throw new IllegalArgumentException("'success' is too small");
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixBatch;
+
+import javax.annotation.Nullable;
+
+import static org.ejml.dense.fixed.BatchLinearSolver_DDF.checkInput;
+
+/**
+ * <p>
+ * Multi-threaded version of {@link BatchLinearSolver_DDF}.  The blocks of matrices are split between the threads and
+ * each system is solved the same way as in the single threaded version, so the results are identical.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BatchLinearSolver_MT_DDF {
+
+    // minimum number of blocks given to a thread
+    private static final int MIN_BLOCKS = 4;
+
+    /**
+     * @see BatchLinearSolver_DDF#solveLU
+     */
+    public static boolean solveLU( DMatrixBatch A , DMatrixBatch B , @Nullable boolean[] success ) {
+        checkInput(A,B,success);
+        return solve(true,A,B,success);
+    }
+
+    /**
+     * @see BatchLinearSolver_DDF#solveChol
+     */
+    public static boolean solveChol( DMatrixBatch A , DMatrixBatch B , @Nullable boolean[] success ) {
+        checkInput(A,B,success);
+        return solve(false,A,B,success);
+    }
+
+    private static boolean solve( boolean lu , DMatrixBatch A , DMatrixBatch B , @Nullable boolean[] success ) {
+        final int L = DMatrixBatch.BLOCK_LENGTH;
+        final int numBlocks = (A.size+L-1)/L;
+        // only ever set to true so the threads writing to it at the same time is not an issue
+        final boolean[] failed = new boolean[1];
+
+        EjmlConcurrency.loopBlocks(0,numBlocks,MIN_BLOCKS,(block0,block1)->{
+            int index0 = block0*L;
+            int index1 = Math.min(A.size,block1*L);
+            boolean ok = lu ?
+                    BatchLinearSolver_DDF.solveLU(A,B,success,index0,index1) :
+                    BatchLinearSolver_DDF.solveChol(A,B,success,index0,index1);
+            if( !ok )
+                failed[0] = true;
+        });
+
+        return !failed[0];
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixBatch;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>Operations on batches of 3 x 3 matrices. Each function performs the same operation
+ * as its equivalent in CommonOps_DDF3 on every matrix in the batch and produces the same results.</p>
+ *
+ * <p>DO NOT MODIFY.  Automatically generated code created by GenerateBatchOps_DDF</p>
+ *
+ * @see DMatrixBatch
+ * @author Peter Abeles
+ */
+public class BatchOps_DDF3 {
+    private static final int L = DMatrixBatch.BLOCK_LENGTH;
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a + b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> + b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as Batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c A batch where the results are stored. Modified.
+     */
+    public static void add( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        c.reshape(3,3,a.size);
+
+        final double[] A = a.data, B = b.data, C = c.data;
+        final int length = c.getDataLength();
+        for( int i = 0; i < length; i++ ) {
+            C[i] = A[i] + B[i];
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void mult( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same batch as 'c'");
+        c.reshape(3,3,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = b.data, C = c.data;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*9;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double a1 = A[i];
+                double a2 = A[i+L];
+                double a3 = A[i+2*L];
+                C[i] = a1*B[i] + a2*B[i+3*L] + a3*B[i+6*L];
+                C[i+L] = a1*B[i+L] + a2*B[i+4*L] + a3*B[i+7*L];
+                C[i+2*L] = a1*B[i+2*L] + a2*B[i+5*L] + a3*B[i+8*L];
+                a1 = A[i+3*L];
+                a2 = A[i+4*L];
+                a3 = A[i+5*L];
+                C[i+3*L] = a1*B[i] + a2*B[i+3*L] + a3*B[i+6*L];
+                C[i+4*L] = a1*B[i+L] + a2*B[i+4*L] + a3*B[i+7*L];
+                C[i+5*L] = a1*B[i+2*L] + a2*B[i+5*L] + a3*B[i+8*L];
+                a1 = A[i+6*L];
+                a2 = A[i+7*L];
+                a3 = A[i+8*L];
+                C[i+6*L] = a1*B[i] + a2*B[i+3*L] + a3*B[i+6*L];
+                C[i+7*L] = a1*B[i+L] + a2*B[i+4*L] + a3*B[i+7*L];
+                C[i+8*L] = a1*B[i+2*L] + a2*B[i+5*L] + a3*B[i+8*L];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a * b<sup>T</sup> <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransB( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same batch as 'c'");
+        c.reshape(3,3,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = b.data, C = c.data;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*9;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double a1 = A[i];
+                double a2 = A[i+L];
+                double a3 = A[i+2*L];
+                C[i] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L];
+                C[i+L] = a1*B[i+3*L] + a2*B[i+4*L] + a3*B[i+5*L];
+                C[i+2*L] = a1*B[i+6*L] + a2*B[i+7*L] + a3*B[i+8*L];
+                a1 = A[i+3*L];
+                a2 = A[i+4*L];
+                a3 = A[i+5*L];
+                C[i+3*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L];
+                C[i+4*L] = a1*B[i+3*L] + a2*B[i+4*L] + a3*B[i+5*L];
+                C[i+5*L] = a1*B[i+6*L] + a2*B[i+7*L] + a3*B[i+8*L];
+                a1 = A[i+6*L];
+                a2 = A[i+7*L];
+                a3 = A[i+8*L];
+                C[i+6*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L];
+                C[i+7*L] = a1*B[i+3*L] + a2*B[i+4*L] + a3*B[i+5*L];
+                C[i+8*L] = a1*B[i+6*L] + a2*B[i+7*L] + a3*B[i+8*L];
+            }
+        }
+    }
+
+    /**
+     * Inverts each matrix in 'a' using minor matrices and stores the results in 'inv'.  Scaling is
+     * applied to improve stability against overflow and underflow.
+     *
+     * WARNING: Potentially less stable than using LU decomposition.
+     *
+     * @param a Input batch. Not modified.
+     * @param inv Inverted output batch. Can be the same instance as 'a'. Modified.
+     * @param success (Optional) Storage for if each inversion was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean invert( DMatrixBatch a , DMatrixBatch inv , @Nullable boolean[] success ) {
+        checkShape(a);
+        if( success != null && success.length < a.size )
+            throw new IllegalArgumentException("'success' is too small");
+        inv.reshape(3,3,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = inv.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*9;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double max = Math.abs(A[i]);
+                double tmp12 = Math.abs(A[i+L]); if( tmp12 > max ) max = tmp12;
+                double tmp13 = Math.abs(A[i+2*L]); if( tmp13 > max ) max = tmp13;
+                double tmp21 = Math.abs(A[i+3*L]); if( tmp21 > max ) max = tmp21;
+                double tmp22 = Math.abs(A[i+4*L]); if( tmp22 > max ) max = tmp22;
+                double tmp23 = Math.abs(A[i+5*L]); if( tmp23 > max ) max = tmp23;
+                double tmp31 = Math.abs(A[i+6*L]); if( tmp31 > max ) max = tmp31;
+                double tmp32 = Math.abs(A[i+7*L]); if( tmp32 > max ) max = tmp32;
+                double tmp33 = Math.abs(A[i+8*L]); if( tmp33 > max ) max = tmp33;
+                double scale = 1.0/max;
+
+                double a11 = A[i]*scale;
+                double a12 = A[i+L]*scale;
+                double a13 = A[i+2*L]*scale;
+                double a21 = A[i+3*L]*scale;
+                double a22 = A[i+4*L]*scale;
+                double a23 = A[i+5*L]*scale;
+                double a31 = A[i+6*L]*scale;
+                double a32 = A[i+7*L]*scale;
+                double a33 = A[i+8*L]*scale;
+
+                double m11 = a22*a33 - a23*a32;
+                double m12 = -( a21*a33 - a23*a31);
+                double m13 = a21*a32 - a22*a31;
+                double m21 = -( a12*a33 - a13*a32);
+                double m22 = a11*a33 - a13*a31;
+                double m23 = -( a11*a32 - a12*a31);
+                double m31 = a12*a23 - a13*a22;
+                double m32 = -( a11*a23 - a13*a21);
+                double m33 = a11*a22 - a12*a21;
+
+                double det = (a11*m11 + a12*m12 + a13*m13)/scale;
+
+                B[i] = m11/det;
+                B[i+L] = m21/det;
+                B[i+2*L] = m31/det;
+                B[i+3*L] = m12/det;
+                B[i+4*L] = m22/det;
+                B[i+5*L] = m32/det;
+                B[i+6*L] = m13/det;
+                B[i+7*L] = m23/det;
+                B[i+8*L] = m33/det;
+
+                boolean ok = det != 0.0 && !Double.isNaN(det) && !Double.isInfinite(det);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Performs a lower Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) lower cholesky.
+     * @param success (Optional) Storage for if each decomposition was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean cholL( DMatrixBatch A , @Nullable boolean[] success ) {
+        checkShape(A);
+        if( success != null && success.length < A.size )
+            throw new IllegalArgumentException("'success' is too small");
+
+        final int N = A.size;
+        final double[] D = A.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*9;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                D[i] = Math.sqrt(D[i]);
+                D[i+L] = 0;
+                D[i+2*L] = 0;
+                D[i+3*L] = (D[i+3*L])/D[i];
+                D[i+4*L] = Math.sqrt(D[i+4*L]-D[i+3*L]*D[i+3*L]);
+                D[i+5*L] = 0;
+                D[i+6*L] = (D[i+6*L])/D[i];
+                D[i+7*L] = (D[i+7*L]-D[i+6*L]*D[i+3*L])/D[i+4*L];
+                D[i+8*L] = Math.sqrt(D[i+8*L]-D[i+6*L]*D[i+6*L]-D[i+7*L]*D[i+7*L]);
+
+                boolean ok = !UtilEjml.isUncountable(D[i+8*L]);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Performs an upper Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) upper cholesky.
+     * @param success (Optional) Storage for if each decomposition was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean cholU( DMatrixBatch A , @Nullable boolean[] success ) {
+        checkShape(A);
+        if( success != null && success.length < A.size )
+            throw new IllegalArgumentException("'success' is too small");
+
+        final int N = A.size;
+        final double[] D = A.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*9;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                D[i] = Math.sqrt(D[i]);
+                D[i+3*L] = 0;
+                D[i+6*L] = 0;
+                D[i+L] = (D[i+L])/D[i];
+                D[i+4*L] = Math.sqrt(D[i+4*L]-D[i+L]*D[i+L]);
+                D[i+7*L] = 0;
+                D[i+2*L] = (D[i+2*L])/D[i];
+                D[i+5*L] = (D[i+5*L]-D[i+L]*D[i+2*L])/D[i+4*L];
+                D[i+8*L] = Math.sqrt(D[i+8*L]-D[i+2*L]*D[i+2*L]-D[i+5*L]*D[i+5*L]);
+
+                boolean ok = !UtilEjml.isUncountable(D[i+8*L]);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    private static void checkShape( DMatrixBatch a ) {
+        if( a.numRows != 3 || a.numCols != 3 )
+            throw new MatrixDimensionException("Expected a batch of 3x3 matrices");
+    }
+}
+
@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixBatch;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>Operations on batches of 4 x 4 matrices. Each function performs the same operation
+ * as its equivalent in CommonOps_DDF4 on every matrix in the batch and produces the same results.</p>
+ *
+ * <p>DO NOT MODIFY.  Automatically generated code created by GenerateBatchOps_DDF</p>
+ *
+ * @see DMatrixBatch
+ * @author Peter Abeles
+ */
+public class BatchOps_DDF4 {
+    private static final int L = DMatrixBatch.BLOCK_LENGTH;
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a + b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> + b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as Batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c A batch where the results are stored. Modified.
+     */
+    public static void add( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        c.reshape(4,4,a.size);
+
+        final double[] A = a.data, B = b.data, C = c.data;
+        final int length = c.getDataLength();
+        for( int i = 0; i < length; i++ ) {
+            C[i] = A[i] + B[i];
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void mult( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same batch as 'c'");
+        c.reshape(4,4,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = b.data, C = c.data;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*16;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double a1 = A[i];
+                double a2 = A[i+L];
+                double a3 = A[i+2*L];
+                double a4 = A[i+3*L];
+                C[i] = a1*B[i] + a2*B[i+4*L] + a3*B[i+8*L] + a4*B[i+12*L];
+                C[i+L] = a1*B[i+L] + a2*B[i+5*L] + a3*B[i+9*L] + a4*B[i+13*L];
+                C[i+2*L] = a1*B[i+2*L] + a2*B[i+6*L] + a3*B[i+10*L] + a4*B[i+14*L];
+                C[i+3*L] = a1*B[i+3*L] + a2*B[i+7*L] + a3*B[i+11*L] + a4*B[i+15*L];
+                a1 = A[i+4*L];
+                a2 = A[i+5*L];
+                a3 = A[i+6*L];
+                a4 = A[i+7*L];
+                C[i+4*L] = a1*B[i] + a2*B[i+4*L] + a3*B[i+8*L] + a4*B[i+12*L];
+                C[i+5*L] = a1*B[i+L] + a2*B[i+5*L] + a3*B[i+9*L] + a4*B[i+13*L];
+                C[i+6*L] = a1*B[i+2*L] + a2*B[i+6*L] + a3*B[i+10*L] + a4*B[i+14*L];
+                C[i+7*L] = a1*B[i+3*L] + a2*B[i+7*L] + a3*B[i+11*L] + a4*B[i+15*L];
+                a1 = A[i+8*L];
+                a2 = A[i+9*L];
+                a3 = A[i+10*L];
+                a4 = A[i+11*L];
+                C[i+8*L] = a1*B[i] + a2*B[i+4*L] + a3*B[i+8*L] + a4*B[i+12*L];
+                C[i+9*L] = a1*B[i+L] + a2*B[i+5*L] + a3*B[i+9*L] + a4*B[i+13*L];
+                C[i+10*L] = a1*B[i+2*L] + a2*B[i+6*L] + a3*B[i+10*L] + a4*B[i+14*L];
+                C[i+11*L] = a1*B[i+3*L] + a2*B[i+7*L] + a3*B[i+11*L] + a4*B[i+15*L];
+                a1 = A[i+12*L];
+                a2 = A[i+13*L];
+                a3 = A[i+14*L];
+                a4 = A[i+15*L];
+                C[i+12*L] = a1*B[i] + a2*B[i+4*L] + a3*B[i+8*L] + a4*B[i+12*L];
+                C[i+13*L] = a1*B[i+L] + a2*B[i+5*L] + a3*B[i+9*L] + a4*B[i+13*L];
+                C[i+14*L] = a1*B[i+2*L] + a2*B[i+6*L] + a3*B[i+10*L] + a4*B[i+14*L];
+                C[i+15*L] = a1*B[i+3*L] + a2*B[i+7*L] + a3*B[i+11*L] + a4*B[i+15*L];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a * b<sup>T</sup> <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransB( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same batch as 'c'");
+        c.reshape(4,4,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = b.data, C = c.data;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*16;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double a1 = A[i];
+                double a2 = A[i+L];
+                double a3 = A[i+2*L];
+                double a4 = A[i+3*L];
+                C[i] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L];
+                C[i+L] = a1*B[i+4*L] + a2*B[i+5*L] + a3*B[i+6*L] + a4*B[i+7*L];
+                C[i+2*L] = a1*B[i+8*L] + a2*B[i+9*L] + a3*B[i+10*L] + a4*B[i+11*L];
+                C[i+3*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L];
+                a1 = A[i+4*L];
+                a2 = A[i+5*L];
+                a3 = A[i+6*L];
+                a4 = A[i+7*L];
+                C[i+4*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L];
+                C[i+5*L] = a1*B[i+4*L] + a2*B[i+5*L] + a3*B[i+6*L] + a4*B[i+7*L];
+                C[i+6*L] = a1*B[i+8*L] + a2*B[i+9*L] + a3*B[i+10*L] + a4*B[i+11*L];
+                C[i+7*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L];
+                a1 = A[i+8*L];
+                a2 = A[i+9*L];
+                a3 = A[i+10*L];
+                a4 = A[i+11*L];
+                C[i+8*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L];
+                C[i+9*L] = a1*B[i+4*L] + a2*B[i+5*L] + a3*B[i+6*L] + a4*B[i+7*L];
+                C[i+10*L] = a1*B[i+8*L] + a2*B[i+9*L] + a3*B[i+10*L] + a4*B[i+11*L];
+                C[i+11*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L];
+                a1 = A[i+12*L];
+                a2 = A[i+13*L];
+                a3 = A[i+14*L];
+                a4 = A[i+15*L];
+                C[i+12*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L];
+                C[i+13*L] = a1*B[i+4*L] + a2*B[i+5*L] + a3*B[i+6*L] + a4*B[i+7*L];
+                C[i+14*L] = a1*B[i+8*L] + a2*B[i+9*L] + a3*B[i+10*L] + a4*B[i+11*L];
+                C[i+15*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L];
+            }
+        }
+    }
+
+    /**
+     * Inverts each matrix in 'a' using minor matrices and stores the results in 'inv'.  Scaling is
+     * applied to improve stability against overflow and underflow.
+     *
+     * WARNING: Potentially less stable than using LU decomposition.
+     *
+     * @param a Input batch. Not modified.
+     * @param inv Inverted output batch. Can be the same instance as 'a'. Modified.
+     * @param success (Optional) Storage for if each inversion was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean invert( DMatrixBatch a , DMatrixBatch inv , @Nullable boolean[] success ) {
+        checkShape(a);
+        if( success != null && success.length < a.size )
+            throw new IllegalArgumentException("'success' is too small");
+        inv.reshape(4,4,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = inv.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*16;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double max = Math.abs(A[i]);
+                double tmp12 = Math.abs(A[i+L]); if( tmp12 > max ) max = tmp12;
+                double tmp13 = Math.abs(A[i+2*L]); if( tmp13 > max ) max = tmp13;
+                double tmp14 = Math.abs(A[i+3*L]); if( tmp14 > max ) max = tmp14;
+                double tmp21 = Math.abs(A[i+4*L]); if( tmp21 > max ) max = tmp21;
+                double tmp22 = Math.abs(A[i+5*L]); if( tmp22 > max ) max = tmp22;
+                double tmp23 = Math.abs(A[i+6*L]); if( tmp23 > max ) max = tmp23;
+                double tmp24 = Math.abs(A[i+7*L]); if( tmp24 > max ) max = tmp24;
+                double tmp31 = Math.abs(A[i+8*L]); if( tmp31 > max ) max = tmp31;
+                double tmp32 = Math.abs(A[i+9*L]); if( tmp32 > max ) max = tmp32;
+                double tmp33 = Math.abs(A[i+10*L]); if( tmp33 > max ) max = tmp33;
+                double tmp34 = Math.abs(A[i+11*L]); if( tmp34 > max ) max = tmp34;
+                double tmp41 = Math.abs(A[i+12*L]); if( tmp41 > max ) max = tmp41;
+                double tmp42 = Math.abs(A[i+13*L]); if( tmp42 > max ) max = tmp42;
+                double tmp43 = Math.abs(A[i+14*L]); if( tmp43 > max ) max = tmp43;
+                double tmp44 = Math.abs(A[i+15*L]); if( tmp44 > max ) max = tmp44;
+                double scale = 1.0/max;
+
+                double a11 = A[i]*scale;
+                double a12 = A[i+L]*scale;
+                double a13 = A[i+2*L]*scale;
+                double a14 = A[i+3*L]*scale;
+                double a21 = A[i+4*L]*scale;
+                double a22 = A[i+5*L]*scale;
+                double a23 = A[i+6*L]*scale;
+                double a24 = A[i+7*L]*scale;
+                double a31 = A[i+8*L]*scale;
+                double a32 = A[i+9*L]*scale;
+                double a33 = A[i+10*L]*scale;
+                double a34 = A[i+11*L]*scale;
+                double a41 = A[i+12*L]*scale;
+                double a42 = A[i+13*L]*scale;
+                double a43 = A[i+14*L]*scale;
+                double a44 = A[i+15*L]*scale;
+
+                double m11 =  + a22*(a33*a44 - a34*a43) - a23*(a32*a44 - a34*a42) + a24*(a32*a43 - a33*a42);
+                double m12 = -(  + a21*(a33*a44 - a34*a43) - a23*(a31*a44 - a34*a41) + a24*(a31*a43 - a33*a41));
+                double m13 =  + a21*(a32*a44 - a34*a42) - a22*(a31*a44 - a34*a41) + a24*(a31*a42 - a32*a41);
+                double m14 = -(  + a21*(a32*a43 - a33*a42) - a22*(a31*a43 - a33*a41) + a23*(a31*a42 - a32*a41));
+                double m21 = -(  + a12*(a33*a44 - a34*a43) - a13*(a32*a44 - a34*a42) + a14*(a32*a43 - a33*a42));
+                double m22 =  + a11*(a33*a44 - a34*a43) - a13*(a31*a44 - a34*a41) + a14*(a31*a43 - a33*a41);
+                double m23 = -(  + a11*(a32*a44 - a34*a42) - a12*(a31*a44 - a34*a41) + a14*(a31*a42 - a32*a41));
+                double m24 =  + a11*(a32*a43 - a33*a42) - a12*(a31*a43 - a33*a41) + a13*(a31*a42 - a32*a41);
+                double m31 =  + a12*(a23*a44 - a24*a43) - a13*(a22*a44 - a24*a42) + a14*(a22*a43 - a23*a42);
+                double m32 = -(  + a11*(a23*a44 - a24*a43) - a13*(a21*a44 - a24*a41) + a14*(a21*a43 - a23*a41));
+                double m33 =  + a11*(a22*a44 - a24*a42) - a12*(a21*a44 - a24*a41) + a14*(a21*a42 - a22*a41);
+                double m34 = -(  + a11*(a22*a43 - a23*a42) - a12*(a21*a43 - a23*a41) + a13*(a21*a42 - a22*a41));
+                double m41 = -(  + a12*(a23*a34 - a24*a33) - a13*(a22*a34 - a24*a32) + a14*(a22*a33 - a23*a32));
+                double m42 =  + a11*(a23*a34 - a24*a33) - a13*(a21*a34 - a24*a31) + a14*(a21*a33 - a23*a31);
+                double m43 = -(  + a11*(a22*a34 - a24*a32) - a12*(a21*a34 - a24*a31) + a14*(a21*a32 - a22*a31));
+                double m44 =  + a11*(a22*a33 - a23*a32) - a12*(a21*a33 - a23*a31) + a13*(a21*a32 - a22*a31);
+
+                double det = (a11*m11 + a12*m12 + a13*m13 + a14*m14)/scale;
+
+                B[i] = m11/det;
+                B[i+L] = m21/det;
+                B[i+2*L] = m31/det;
+                B[i+3*L] = m41/det;
+                B[i+4*L] = m12/det;
+                B[i+5*L] = m22/det;
+                B[i+6*L] = m32/det;
+                B[i+7*L] = m42/det;
+                B[i+8*L] = m13/det;
+                B[i+9*L] = m23/det;
+                B[i+10*L] = m33/det;
+                B[i+11*L] = m43/det;
+                B[i+12*L] = m14/det;
+                B[i+13*L] = m24/det;
+                B[i+14*L] = m34/det;
+                B[i+15*L] = m44/det;
+
+                boolean ok = det != 0.0 && !Double.isNaN(det) && !Double.isInfinite(det);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Performs a lower Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) lower cholesky.
+     * @param success (Optional) Storage for if each decomposition was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean cholL( DMatrixBatch A , @Nullable boolean[] success ) {
+        checkShape(A);
+        if( success != null && success.length < A.size )
+            throw new IllegalArgumentException("'success' is too small");
+
+        final int N = A.size;
+        final double[] D = A.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*16;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                D[i] = Math.sqrt(D[i]);
+                D[i+L] = 0;
+                D[i+2*L] = 0;
+                D[i+3*L] = 0;
+                D[i+4*L] = (D[i+4*L])/D[i];
+                D[i+5*L] = Math.sqrt(D[i+5*L]-D[i+4*L]*D[i+4*L]);
+                D[i+6*L] = 0;
+                D[i+7*L] = 0;
+                D[i+8*L] = (D[i+8*L])/D[i];
+                D[i+9*L] = (D[i+9*L]-D[i+8*L]*D[i+4*L])/D[i+5*L];
+                D[i+10*L] = Math.sqrt(D[i+10*L]-D[i+8*L]*D[i+8*L]-D[i+9*L]*D[i+9*L]);
+                D[i+11*L] = 0;
+                D[i+12*L] = (D[i+12*L])/D[i];
+                D[i+13*L] = (D[i+13*L]-D[i+12*L]*D[i+4*L])/D[i+5*L];
+                D[i+14*L] = (D[i+14*L]-D[i+12*L]*D[i+8*L]-D[i+13*L]*D[i+9*L])/D[i+10*L];
+                D[i+15*L] = Math.sqrt(D[i+15*L]-D[i+12*L]*D[i+12*L]-D[i+13*L]*D[i+13*L]-D[i+14*L]*D[i+14*L]);
+
+                boolean ok = !UtilEjml.isUncountable(D[i+15*L]);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Performs an upper Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) upper cholesky.
+     * @param success (Optional) Storage for if each decomposition was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean cholU( DMatrixBatch A , @Nullable boolean[] success ) {
+        checkShape(A);
+        if( success != null && success.length < A.size )
+            throw new IllegalArgumentException("'success' is too small");
+
+        final int N = A.size;
+        final double[] D = A.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*16;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                D[i] = Math.sqrt(D[i]);
+                D[i+4*L] = 0;
+                D[i+8*L] = 0;
+                D[i+12*L] = 0;
+                D[i+L] = (D[i+L])/D[i];
+                D[i+5*L] = Math.sqrt(D[i+5*L]-D[i+L]*D[i+L]);
+                D[i+9*L] = 0;
+                D[i+13*L] = 0;
+                D[i+2*L] = (D[i+2*L])/D[i];
+                D[i+6*L] = (D[i+6*L]-D[i+L]*D[i+2*L])/D[i+5*L];
+                D[i+10*L] = Math.sqrt(D[i+10*L]-D[i+2*L]*D[i+2*L]-D[i+6*L]*D[i+6*L]);
+                D[i+14*L] = 0;
+                D[i+3*L] = (D[i+3*L])/D[i];
+                D[i+7*L] = (D[i+7*L]-D[i+L]*D[i+3*L])/D[i+5*L];
+                D[i+11*L] = (D[i+11*L]-D[i+2*L]*D[i+3*L]-D[i+6*L]*D[i+7*L])/D[i+10*L];
+                D[i+15*L] = Math.sqrt(D[i+15*L]-D[i+3*L]*D[i+3*L]-D[i+7*L]*D[i+7*L]-D[i+11*L]*D[i+11*L]);
+
+                boolean ok = !UtilEjml.isUncountable(D[i+15*L]);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    private static void checkShape( DMatrixBatch a ) {
+        if( a.numRows != 4 || a.numCols != 4 )
+            throw new MatrixDimensionException("Expected a batch of 4x4 matrices");
+    }
+}
+
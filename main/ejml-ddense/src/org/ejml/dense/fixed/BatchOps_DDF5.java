@@ -0,0 +1,483 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixBatch;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>Operations on batches of 5 x 5 matrices. Each function performs the same operation
+ * as its equivalent in CommonOps_DDF5 on every matrix in the batch and produces the same results.</p>
+ *
+ * <p>DO NOT MODIFY.  Automatically generated code created by GenerateBatchOps_DDF</p>
+ *
+ * @see DMatrixBatch
+ * @author Peter Abeles
+ */
+public class BatchOps_DDF5 {
+    private static final int L = DMatrixBatch.BLOCK_LENGTH;
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a + b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> + b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as Batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c A batch where the results are stored. Modified.
+     */
+    public static void add( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        c.reshape(5,5,a.size);
+
+        final double[] A = a.data, B = b.data, C = c.data;
+        final int length = c.getDataLength();
+        for( int i = 0; i < length; i++ ) {
+            C[i] = A[i] + B[i];
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void mult( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same batch as 'c'");
+        c.reshape(5,5,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = b.data, C = c.data;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*25;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double a1 = A[i];
+                double a2 = A[i+L];
+                double a3 = A[i+2*L];
+                double a4 = A[i+3*L];
+                double a5 = A[i+4*L];
+                C[i] = a1*B[i] + a2*B[i+5*L] + a3*B[i+10*L] + a4*B[i+15*L] + a5*B[i+20*L];
+                C[i+L] = a1*B[i+L] + a2*B[i+6*L] + a3*B[i+11*L] + a4*B[i+16*L] + a5*B[i+21*L];
+                C[i+2*L] = a1*B[i+2*L] + a2*B[i+7*L] + a3*B[i+12*L] + a4*B[i+17*L] + a5*B[i+22*L];
+                C[i+3*L] = a1*B[i+3*L] + a2*B[i+8*L] + a3*B[i+13*L] + a4*B[i+18*L] + a5*B[i+23*L];
+                C[i+4*L] = a1*B[i+4*L] + a2*B[i+9*L] + a3*B[i+14*L] + a4*B[i+19*L] + a5*B[i+24*L];
+                a1 = A[i+5*L];
+                a2 = A[i+6*L];
+                a3 = A[i+7*L];
+                a4 = A[i+8*L];
+                a5 = A[i+9*L];
+                C[i+5*L] = a1*B[i] + a2*B[i+5*L] + a3*B[i+10*L] + a4*B[i+15*L] + a5*B[i+20*L];
+                C[i+6*L] = a1*B[i+L] + a2*B[i+6*L] + a3*B[i+11*L] + a4*B[i+16*L] + a5*B[i+21*L];
+                C[i+7*L] = a1*B[i+2*L] + a2*B[i+7*L] + a3*B[i+12*L] + a4*B[i+17*L] + a5*B[i+22*L];
+                C[i+8*L] = a1*B[i+3*L] + a2*B[i+8*L] + a3*B[i+13*L] + a4*B[i+18*L] + a5*B[i+23*L];
+                C[i+9*L] = a1*B[i+4*L] + a2*B[i+9*L] + a3*B[i+14*L] + a4*B[i+19*L] + a5*B[i+24*L];
+                a1 = A[i+10*L];
+                a2 = A[i+11*L];
+                a3 = A[i+12*L];
+                a4 = A[i+13*L];
+                a5 = A[i+14*L];
+                C[i+10*L] = a1*B[i] + a2*B[i+5*L] + a3*B[i+10*L] + a4*B[i+15*L] + a5*B[i+20*L];
+                C[i+11*L] = a1*B[i+L] + a2*B[i+6*L] + a3*B[i+11*L] + a4*B[i+16*L] + a5*B[i+21*L];
+                C[i+12*L] = a1*B[i+2*L] + a2*B[i+7*L] + a3*B[i+12*L] + a4*B[i+17*L] + a5*B[i+22*L];
+                C[i+13*L] = a1*B[i+3*L] + a2*B[i+8*L] + a3*B[i+13*L] + a4*B[i+18*L] + a5*B[i+23*L];
+                C[i+14*L] = a1*B[i+4*L] + a2*B[i+9*L] + a3*B[i+14*L] + a4*B[i+19*L] + a5*B[i+24*L];
+                a1 = A[i+15*L];
+                a2 = A[i+16*L];
+                a3 = A[i+17*L];
+                a4 = A[i+18*L];
+                a5 = A[i+19*L];
+                C[i+15*L] = a1*B[i] + a2*B[i+5*L] + a3*B[i+10*L] + a4*B[i+15*L] + a5*B[i+20*L];
+                C[i+16*L] = a1*B[i+L] + a2*B[i+6*L] + a3*B[i+11*L] + a4*B[i+16*L] + a5*B[i+21*L];
+                C[i+17*L] = a1*B[i+2*L] + a2*B[i+7*L] + a3*B[i+12*L] + a4*B[i+17*L] + a5*B[i+22*L];
+                C[i+18*L] = a1*B[i+3*L] + a2*B[i+8*L] + a3*B[i+13*L] + a4*B[i+18*L] + a5*B[i+23*L];
+                C[i+19*L] = a1*B[i+4*L] + a2*B[i+9*L] + a3*B[i+14*L] + a4*B[i+19*L] + a5*B[i+24*L];
+                a1 = A[i+20*L];
+                a2 = A[i+21*L];
+                a3 = A[i+22*L];
+                a4 = A[i+23*L];
+                a5 = A[i+24*L];
+                C[i+20*L] = a1*B[i] + a2*B[i+5*L] + a3*B[i+10*L] + a4*B[i+15*L] + a5*B[i+20*L];
+                C[i+21*L] = a1*B[i+L] + a2*B[i+6*L] + a3*B[i+11*L] + a4*B[i+16*L] + a5*B[i+21*L];
+                C[i+22*L] = a1*B[i+2*L] + a2*B[i+7*L] + a3*B[i+12*L] + a4*B[i+17*L] + a5*B[i+22*L];
+                C[i+23*L] = a1*B[i+3*L] + a2*B[i+8*L] + a3*B[i+13*L] + a4*B[i+18*L] + a5*B[i+23*L];
+                C[i+24*L] = a1*B[i+4*L] + a2*B[i+9*L] + a3*B[i+14*L] + a4*B[i+19*L] + a5*B[i+24*L];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a * b<sup>T</sup> <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransB( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same batch as 'c'");
+        c.reshape(5,5,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = b.data, C = c.data;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*25;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double a1 = A[i];
+                double a2 = A[i+L];
+                double a3 = A[i+2*L];
+                double a4 = A[i+3*L];
+                double a5 = A[i+4*L];
+                C[i] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L];
+                C[i+L] = a1*B[i+5*L] + a2*B[i+6*L] + a3*B[i+7*L] + a4*B[i+8*L] + a5*B[i+9*L];
+                C[i+2*L] = a1*B[i+10*L] + a2*B[i+11*L] + a3*B[i+12*L] + a4*B[i+13*L] + a5*B[i+14*L];
+                C[i+3*L] = a1*B[i+15*L] + a2*B[i+16*L] + a3*B[i+17*L] + a4*B[i+18*L] + a5*B[i+19*L];
+                C[i+4*L] = a1*B[i+20*L] + a2*B[i+21*L] + a3*B[i+22*L] + a4*B[i+23*L] + a5*B[i+24*L];
+                a1 = A[i+5*L];
+                a2 = A[i+6*L];
+                a3 = A[i+7*L];
+                a4 = A[i+8*L];
+                a5 = A[i+9*L];
+                C[i+5*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L];
+                C[i+6*L] = a1*B[i+5*L] + a2*B[i+6*L] + a3*B[i+7*L] + a4*B[i+8*L] + a5*B[i+9*L];
+                C[i+7*L] = a1*B[i+10*L] + a2*B[i+11*L] + a3*B[i+12*L] + a4*B[i+13*L] + a5*B[i+14*L];
+                C[i+8*L] = a1*B[i+15*L] + a2*B[i+16*L] + a3*B[i+17*L] + a4*B[i+18*L] + a5*B[i+19*L];
+                C[i+9*L] = a1*B[i+20*L] + a2*B[i+21*L] + a3*B[i+22*L] + a4*B[i+23*L] + a5*B[i+24*L];
+                a1 = A[i+10*L];
+                a2 = A[i+11*L];
+                a3 = A[i+12*L];
+                a4 = A[i+13*L];
+                a5 = A[i+14*L];
+                C[i+10*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L];
+                C[i+11*L] = a1*B[i+5*L] + a2*B[i+6*L] + a3*B[i+7*L] + a4*B[i+8*L] + a5*B[i+9*L];
+                C[i+12*L] = a1*B[i+10*L] + a2*B[i+11*L] + a3*B[i+12*L] + a4*B[i+13*L] + a5*B[i+14*L];
+                C[i+13*L] = a1*B[i+15*L] + a2*B[i+16*L] + a3*B[i+17*L] + a4*B[i+18*L] + a5*B[i+19*L];
+                C[i+14*L] = a1*B[i+20*L] + a2*B[i+21*L] + a3*B[i+22*L] + a4*B[i+23*L] + a5*B[i+24*L];
+                a1 = A[i+15*L];
+                a2 = A[i+16*L];
+                a3 = A[i+17*L];
+                a4 = A[i+18*L];
+                a5 = A[i+19*L];
+                C[i+15*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L];
+                C[i+16*L] = a1*B[i+5*L] + a2*B[i+6*L] + a3*B[i+7*L] + a4*B[i+8*L] + a5*B[i+9*L];
+                C[i+17*L] = a1*B[i+10*L] + a2*B[i+11*L] + a3*B[i+12*L] + a4*B[i+13*L] + a5*B[i+14*L];
+                C[i+18*L] = a1*B[i+15*L] + a2*B[i+16*L] + a3*B[i+17*L] + a4*B[i+18*L] + a5*B[i+19*L];
+                C[i+19*L] = a1*B[i+20*L] + a2*B[i+21*L] + a3*B[i+22*L] + a4*B[i+23*L] + a5*B[i+24*L];
+                a1 = A[i+20*L];
+                a2 = A[i+21*L];
+                a3 = A[i+22*L];
+                a4 = A[i+23*L];
+                a5 = A[i+24*L];
+                C[i+20*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L];
+                C[i+21*L] = a1*B[i+5*L] + a2*B[i+6*L] + a3*B[i+7*L] + a4*B[i+8*L] + a5*B[i+9*L];
+                C[i+22*L] = a1*B[i+10*L] + a2*B[i+11*L] + a3*B[i+12*L] + a4*B[i+13*L] + a5*B[i+14*L];
+                C[i+23*L] = a1*B[i+15*L] + a2*B[i+16*L] + a3*B[i+17*L] + a4*B[i+18*L] + a5*B[i+19*L];
+                C[i+24*L] = a1*B[i+20*L] + a2*B[i+21*L] + a3*B[i+22*L] + a4*B[i+23*L] + a5*B[i+24*L];
+            }
+        }
+    }
+
+    /**
+     * Inverts each matrix in 'a' using minor matrices and stores the results in 'inv'.  Scaling is
+     * applied to improve stability against overflow and underflow.
+     *
+     * WARNING: Potentially less stable than using LU decomposition.
+     *
+     * @param a Input batch. Not modified.
+     * @param inv Inverted output batch. Can be the same instance as 'a'. Modified.
+     * @param success (Optional) Storage for if each inversion was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean invert( DMatrixBatch a , DMatrixBatch inv , @Nullable boolean[] success ) {
+        checkShape(a);
+        if( success != null && success.length < a.size )
+            throw new IllegalArgumentException("'success' is too small");
+        inv.reshape(5,5,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = inv.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*25;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double max = Math.abs(A[i]);
+                double tmp12 = Math.abs(A[i+L]); if( tmp12 > max ) max = tmp12;
+                double tmp13 = Math.abs(A[i+2*L]); if( tmp13 > max ) max = tmp13;
+                double tmp14 = Math.abs(A[i+3*L]); if( tmp14 > max ) max = tmp14;
+                double tmp15 = Math.abs(A[i+4*L]); if( tmp15 > max ) max = tmp15;
+                double tmp21 = Math.abs(A[i+5*L]); if( tmp21 > max ) max = tmp21;
+                double tmp22 = Math.abs(A[i+6*L]); if( tmp22 > max ) max = tmp22;
+                double tmp23 = Math.abs(A[i+7*L]); if( tmp23 > max ) max = tmp23;
+                double tmp24 = Math.abs(A[i+8*L]); if( tmp24 > max ) max = tmp24;
+                double tmp25 = Math.abs(A[i+9*L]); if( tmp25 > max ) max = tmp25;
+                double tmp31 = Math.abs(A[i+10*L]); if( tmp31 > max ) max = tmp31;
+                double tmp32 = Math.abs(A[i+11*L]); if( tmp32 > max ) max = tmp32;
+                double tmp33 = Math.abs(A[i+12*L]); if( tmp33 > max ) max = tmp33;
+                double tmp34 = Math.abs(A[i+13*L]); if( tmp34 > max ) max = tmp34;
+                double tmp35 = Math.abs(A[i+14*L]); if( tmp35 > max ) max = tmp35;
+                double tmp41 = Math.abs(A[i+15*L]); if( tmp41 > max ) max = tmp41;
+                double tmp42 = Math.abs(A[i+16*L]); if( tmp42 > max ) max = tmp42;
+                double tmp43 = Math.abs(A[i+17*L]); if( tmp43 > max ) max = tmp43;
+                double tmp44 = Math.abs(A[i+18*L]); if( tmp44 > max ) max = tmp44;
+                double tmp45 = Math.abs(A[i+19*L]); if( tmp45 > max ) max = tmp45;
+                double tmp51 = Math.abs(A[i+20*L]); if( tmp51 > max ) max = tmp51;
+                double tmp52 = Math.abs(A[i+21*L]); if( tmp52 > max ) max = tmp52;
+                double tmp53 = Math.abs(A[i+22*L]); if( tmp53 > max ) max = tmp53;
+                double tmp54 = Math.abs(A[i+23*L]); if( tmp54 > max ) max = tmp54;
+                double tmp55 = Math.abs(A[i+24*L]); if( tmp55 > max ) max = tmp55;
+                double scale = 1.0/max;
+
+                double a11 = A[i]*scale;
+                double a12 = A[i+L]*scale;
+                double a13 = A[i+2*L]*scale;
+                double a14 = A[i+3*L]*scale;
+                double a15 = A[i+4*L]*scale;
+                double a21 = A[i+5*L]*scale;
+                double a22 = A[i+6*L]*scale;
+                double a23 = A[i+7*L]*scale;
+                double a24 = A[i+8*L]*scale;
+                double a25 = A[i+9*L]*scale;
+                double a31 = A[i+10*L]*scale;
+                double a32 = A[i+11*L]*scale;
+                double a33 = A[i+12*L]*scale;
+                double a34 = A[i+13*L]*scale;
+                double a35 = A[i+14*L]*scale;
+                double a41 = A[i+15*L]*scale;
+                double a42 = A[i+16*L]*scale;
+                double a43 = A[i+17*L]*scale;
+                double a44 = A[i+18*L]*scale;
+                double a45 = A[i+19*L]*scale;
+                double a51 = A[i+20*L]*scale;
+                double a52 = A[i+21*L]*scale;
+                double a53 = A[i+22*L]*scale;
+                double a54 = A[i+23*L]*scale;
+                double a55 = A[i+24*L]*scale;
+
+                double m11 =  + a22*( + a33*(a44*a55 - a45*a54) - a34*(a43*a55 - a45*a53) + a35*(a43*a54 - a44*a53)) - a23*( + a32*(a44*a55 - a45*a54) - a34*(a42*a55 - a45*a52) + a35*(a42*a54 - a44*a52)) + a24*( + a32*(a43*a55 - a45*a53) - a33*(a42*a55 - a45*a52) + a35*(a42*a53 - a43*a52)) - a25*( + a32*(a43*a54 - a44*a53) - a33*(a42*a54 - a44*a52) + a34*(a42*a53 - a43*a52));
+                double m12 = -(  + a21*( + a33*(a44*a55 - a45*a54) - a34*(a43*a55 - a45*a53) + a35*(a43*a54 - a44*a53)) - a23*( + a31*(a44*a55 - a45*a54) - a34*(a41*a55 - a45*a51) + a35*(a41*a54 - a44*a51)) + a24*( + a31*(a43*a55 - a45*a53) - a33*(a41*a55 - a45*a51) + a35*(a41*a53 - a43*a51)) - a25*( + a31*(a43*a54 - a44*a53) - a33*(a41*a54 - a44*a51) + a34*(a41*a53 - a43*a51)));
+                double m13 =  + a21*( + a32*(a44*a55 - a45*a54) - a34*(a42*a55 - a45*a52) + a35*(a42*a54 - a44*a52)) - a22*( + a31*(a44*a55 - a45*a54) - a34*(a41*a55 - a45*a51) + a35*(a41*a54 - a44*a51)) + a24*( + a31*(a42*a55 - a45*a52) - a32*(a41*a55 - a45*a51) + a35*(a41*a52 - a42*a51)) - a25*( + a31*(a42*a54 - a44*a52) - a32*(a41*a54 - a44*a51) + a34*(a41*a52 - a42*a51));
+                double m14 = -(  + a21*( + a32*(a43*a55 - a45*a53) - a33*(a42*a55 - a45*a52) + a35*(a42*a53 - a43*a52)) - a22*( + a31*(a43*a55 - a45*a53) - a33*(a41*a55 - a45*a51) + a35*(a41*a53 - a43*a51)) + a23*( + a31*(a42*a55 - a45*a52) - a32*(a41*a55 - a45*a51) + a35*(a41*a52 - a42*a51)) - a25*( + a31*(a42*a53 - a43*a52) - a32*(a41*a53 - a43*a51) + a33*(a41*a52 - a42*a51)));
+                double m15 =  + a21*( + a32*(a43*a54 - a44*a53) - a33*(a42*a54 - a44*a52) + a34*(a42*a53 - a43*a52)) - a22*( + a31*(a43*a54 - a44*a53) - a33*(a41*a54 - a44*a51) + a34*(a41*a53 - a43*a51)) + a23*( + a31*(a42*a54 - a44*a52) - a32*(a41*a54 - a44*a51) + a34*(a41*a52 - a42*a51)) - a24*( + a31*(a42*a53 - a43*a52) - a32*(a41*a53 - a43*a51) + a33*(a41*a52 - a42*a51));
+                double m21 = -(  + a12*( + a33*(a44*a55 - a45*a54) - a34*(a43*a55 - a45*a53) + a35*(a43*a54 - a44*a53)) - a13*( + a32*(a44*a55 - a45*a54) - a34*(a42*a55 - a45*a52) + a35*(a42*a54 - a44*a52)) + a14*( + a32*(a43*a55 - a45*a53) - a33*(a42*a55 - a45*a52) + a35*(a42*a53 - a43*a52)) - a15*( + a32*(a43*a54 - a44*a53) - a33*(a42*a54 - a44*a52) + a34*(a42*a53 - a43*a52)));
+                double m22 =  + a11*( + a33*(a44*a55 - a45*a54) - a34*(a43*a55 - a45*a53) + a35*(a43*a54 - a44*a53)) - a13*( + a31*(a44*a55 - a45*a54) - a34*(a41*a55 - a45*a51) + a35*(a41*a54 - a44*a51)) + a14*( + a31*(a43*a55 - a45*a53) - a33*(a41*a55 - a45*a51) + a35*(a41*a53 - a43*a51)) - a15*( + a31*(a43*a54 - a44*a53) - a33*(a41*a54 - a44*a51) + a34*(a41*a53 - a43*a51));
+                double m23 = -(  + a11*( + a32*(a44*a55 - a45*a54) - a34*(a42*a55 - a45*a52) + a35*(a42*a54 - a44*a52)) - a12*( + a31*(a44*a55 - a45*a54) - a34*(a41*a55 - a45*a51) + a35*(a41*a54 - a44*a51)) + a14*( + a31*(a42*a55 - a45*a52) - a32*(a41*a55 - a45*a51) + a35*(a41*a52 - a42*a51)) - a15*( + a31*(a42*a54 - a44*a52) - a32*(a41*a54 - a44*a51) + a34*(a41*a52 - a42*a51)));
+                double m24 =  + a11*( + a32*(a43*a55 - a45*a53) - a33*(a42*a55 - a45*a52) + a35*(a42*a53 - a43*a52)) - a12*( + a31*(a43*a55 - a45*a53) - a33*(a41*a55 - a45*a51) + a35*(a41*a53 - a43*a51)) + a13*( + a31*(a42*a55 - a45*a52) - a32*(a41*a55 - a45*a51) + a35*(a41*a52 - a42*a51)) - a15*( + a31*(a42*a53 - a43*a52) - a32*(a41*a53 - a43*a51) + a33*(a41*a52 - a42*a51));
+                double m25 = -(  + a11*( + a32*(a43*a54 - a44*a53) - a33*(a42*a54 - a44*a52) + a34*(a42*a53 - a43*a52)) - a12*( + a31*(a43*a54 - a44*a53) - a33*(a41*a54 - a44*a51) + a34*(a41*a53 - a43*a51)) + a13*( + a31*(a42*a54 - a44*a52) - a32*(a41*a54 - a44*a51) + a34*(a41*a52 - a42*a51)) - a14*( + a31*(a42*a53 - a43*a52) - a32*(a41*a53 - a43*a51) + a33*(a41*a52 - a42*a51)));
+                double m31 =  + a12*( + a23*(a44*a55 - a45*a54) - a24*(a43*a55 - a45*a53) + a25*(a43*a54 - a44*a53)) - a13*( + a22*(a44*a55 - a45*a54) - a24*(a42*a55 - a45*a52) + a25*(a42*a54 - a44*a52)) + a14*( + a22*(a43*a55 - a45*a53) - a23*(a42*a55 - a45*a52) + a25*(a42*a53 - a43*a52)) - a15*( + a22*(a43*a54 - a44*a53) - a23*(a42*a54 - a44*a52) + a24*(a42*a53 - a43*a52));
+                double m32 = -(  + a11*( + a23*(a44*a55 - a45*a54) - a24*(a43*a55 - a45*a53) + a25*(a43*a54 - a44*a53)) - a13*( + a21*(a44*a55 - a45*a54) - a24*(a41*a55 - a45*a51) + a25*(a41*a54 - a44*a51)) + a14*( + a21*(a43*a55 - a45*a53) - a23*(a41*a55 - a45*a51) + a25*(a41*a53 - a43*a51)) - a15*( + a21*(a43*a54 - a44*a53) - a23*(a41*a54 - a44*a51) + a24*(a41*a53 - a43*a51)));
+                double m33 =  + a11*( + a22*(a44*a55 - a45*a54) - a24*(a42*a55 - a45*a52) + a25*(a42*a54 - a44*a52)) - a12*( + a21*(a44*a55 - a45*a54) - a24*(a41*a55 - a45*a51) + a25*(a41*a54 - a44*a51)) + a14*( + a21*(a42*a55 - a45*a52) - a22*(a41*a55 - a45*a51) + a25*(a41*a52 - a42*a51)) - a15*( + a21*(a42*a54 - a44*a52) - a22*(a41*a54 - a44*a51) + a24*(a41*a52 - a42*a51));
+                double m34 = -(  + a11*( + a22*(a43*a55 - a45*a53) - a23*(a42*a55 - a45*a52) + a25*(a42*a53 - a43*a52)) - a12*( + a21*(a43*a55 - a45*a53) - a23*(a41*a55 - a45*a51) + a25*(a41*a53 - a43*a51)) + a13*( + a21*(a42*a55 - a45*a52) - a22*(a41*a55 - a45*a51) + a25*(a41*a52 - a42*a51)) - a15*( + a21*(a42*a53 - a43*a52) - a22*(a41*a53 - a43*a51) + a23*(a41*a52 - a42*a51)));
+                double m35 =  + a11*( + a22*(a43*a54 - a44*a53) - a23*(a42*a54 - a44*a52) + a24*(a42*a53 - a43*a52)) - a12*( + a21*(a43*a54 - a44*a53) - a23*(a41*a54 - a44*a51) + a24*(a41*a53 - a43*a51)) + a13*( + a21*(a42*a54 - a44*a52) - a22*(a41*a54 - a44*a51) + a24*(a41*a52 - a42*a51)) - a14*( + a21*(a42*a53 - a43*a52) - a22*(a41*a53 - a43*a51) + a23*(a41*a52 - a42*a51));
+                double m41 = -(  + a12*( + a23*(a34*a55 - a35*a54) - a24*(a33*a55 - a35*a53) + a25*(a33*a54 - a34*a53)) - a13*( + a22*(a34*a55 - a35*a54) - a24*(a32*a55 - a35*a52) + a25*(a32*a54 - a34*a52)) + a14*( + a22*(a33*a55 - a35*a53) - a23*(a32*a55 - a35*a52) + a25*(a32*a53 - a33*a52)) - a15*( + a22*(a33*a54 - a34*a53) - a23*(a32*a54 - a34*a52) + a24*(a32*a53 - a33*a52)));
+                double m42 =  + a11*( + a23*(a34*a55 - a35*a54) - a24*(a33*a55 - a35*a53) + a25*(a33*a54 - a34*a53)) - a13*( + a21*(a34*a55 - a35*a54) - a24*(a31*a55 - a35*a51) + a25*(a31*a54 - a34*a51)) + a14*( + a21*(a33*a55 - a35*a53) - a23*(a31*a55 - a35*a51) + a25*(a31*a53 - a33*a51)) - a15*( + a21*(a33*a54 - a34*a53) - a23*(a31*a54 - a34*a51) + a24*(a31*a53 - a33*a51));
+                double m43 = -(  + a11*( + a22*(a34*a55 - a35*a54) - a24*(a32*a55 - a35*a52) + a25*(a32*a54 - a34*a52)) - a12*( + a21*(a34*a55 - a35*a54) - a24*(a31*a55 - a35*a51) + a25*(a31*a54 - a34*a51)) + a14*( + a21*(a32*a55 - a35*a52) - a22*(a31*a55 - a35*a51) + a25*(a31*a52 - a32*a51)) - a15*( + a21*(a32*a54 - a34*a52) - a22*(a31*a54 - a34*a51) + a24*(a31*a52 - a32*a51)));
+                double m44 =  + a11*( + a22*(a33*a55 - a35*a53) - a23*(a32*a55 - a35*a52) + a25*(a32*a53 - a33*a52)) - a12*( + a21*(a33*a55 - a35*a53) - a23*(a31*a55 - a35*a51) + a25*(a31*a53 - a33*a51)) + a13*( + a21*(a32*a55 - a35*a52) - a22*(a31*a55 - a35*a51) + a25*(a31*a52 - a32*a51)) - a15*( + a21*(a32*a53 - a33*a52) - a22*(a31*a53 - a33*a51) + a23*(a31*a52 - a32*a51));
+                double m45 = -(  + a11*( + a22*(a33*a54 - a34*a53) - a23*(a32*a54 - a34*a52) + a24*(a32*a53 - a33*a52)) - a12*( + a21*(a33*a54 - a34*a53) - a23*(a31*a54 - a34*a51) + a24*(a31*a53 - a33*a51)) + a13*( + a21*(a32*a54 - a34*a52) - a22*(a31*a54 - a34*a51) + a24*(a31*a52 - a32*a51)) - a14*( + a21*(a32*a53 - a33*a52) - a22*(a31*a53 - a33*a51) + a23*(a31*a52 - a32*a51)));
+                double m51 =  + a12*( + a23*(a34*a45 - a35*a44) - a24*(a33*a45 - a35*a43) + a25*(a33*a44 - a34*a43)) - a13*( + a22*(a34*a45 - a35*a44) - a24*(a32*a45 - a35*a42) + a25*(a32*a44 - a34*a42)) + a14*( + a22*(a33*a45 - a35*a43) - a23*(a32*a45 - a35*a42) + a25*(a32*a43 - a33*a42)) - a15*( + a22*(a33*a44 - a34*a43) - a23*(a32*a44 - a34*a42) + a24*(a32*a43 - a33*a42));
+                double m52 = -(  + a11*( + a23*(a34*a45 - a35*a44) - a24*(a33*a45 - a35*a43) + a25*(a33*a44 - a34*a43)) - a13*( + a21*(a34*a45 - a35*a44) - a24*(a31*a45 - a35*a41) + a25*(a31*a44 - a34*a41)) + a14*( + a21*(a33*a45 - a35*a43) - a23*(a31*a45 - a35*a41) + a25*(a31*a43 - a33*a41)) - a15*( + a21*(a33*a44 - a34*a43) - a23*(a31*a44 - a34*a41) + a24*(a31*a43 - a33*a41)));
+                double m53 =  + a11*( + a22*(a34*a45 - a35*a44) - a24*(a32*a45 - a35*a42) + a25*(a32*a44 - a34*a42)) - a12*( + a21*(a34*a45 - a35*a44) - a24*(a31*a45 - a35*a41) + a25*(a31*a44 - a34*a41)) + a14*( + a21*(a32*a45 - a35*a42) - a22*(a31*a45 - a35*a41) + a25*(a31*a42 - a32*a41)) - a15*( + a21*(a32*a44 - a34*a42) - a22*(a31*a44 - a34*a41) + a24*(a31*a42 - a32*a41));
+                double m54 = -(  + a11*( + a22*(a33*a45 - a35*a43) - a23*(a32*a45 - a35*a42) + a25*(a32*a43 - a33*a42)) - a12*( + a21*(a33*a45 - a35*a43) - a23*(a31*a45 - a35*a41) + a25*(a31*a43 - a33*a41)) + a13*( + a21*(a32*a45 - a35*a42) - a22*(a31*a45 - a35*a41) + a25*(a31*a42 - a32*a41)) - a15*( + a21*(a32*a43 - a33*a42) - a22*(a31*a43 - a33*a41) + a23*(a31*a42 - a32*a41)));
+                double m55 =  + a11*( + a22*(a33*a44 - a34*a43) - a23*(a32*a44 - a34*a42) + a24*(a32*a43 - a33*a42)) - a12*( + a21*(a33*a44 - a34*a43) - a23*(a31*a44 - a34*a41) + a24*(a31*a43 - a33*a41)) + a13*( + a21*(a32*a44 - a34*a42) - a22*(a31*a44 - a34*a41) + a24*(a31*a42 - a32*a41)) - a14*( + a21*(a32*a43 - a33*a42) - a22*(a31*a43 - a33*a41) + a23*(a31*a42 - a32*a41));
+
+                double det = (a11*m11 + a12*m12 + a13*m13 + a14*m14 + a15*m15)/scale;
+
+                B[i] = m11/det;
+                B[i+L] = m21/det;
+                B[i+2*L] = m31/det;
+                B[i+3*L] = m41/det;
+                B[i+4*L] = m51/det;
+                B[i+5*L] = m12/det;
+                B[i+6*L] = m22/det;
+                B[i+7*L] = m32/det;
+                B[i+8*L] = m42/det;
+                B[i+9*L] = m52/det;
+                B[i+10*L] = m13/det;
+                B[i+11*L] = m23/det;
+                B[i+12*L] = m33/det;
+                B[i+13*L] = m43/det;
+                B[i+14*L] = m53/det;
+                B[i+15*L] = m14/det;
+                B[i+16*L] = m24/det;
+                B[i+17*L] = m34/det;
+                B[i+18*L] = m44/det;
+                B[i+19*L] = m54/det;
+                B[i+20*L] = m15/det;
+                B[i+21*L] = m25/det;
+                B[i+22*L] = m35/det;
+                B[i+23*L] = m45/det;
+                B[i+24*L] = m55/det;
+
+                boolean ok = det != 0.0 && !Double.isNaN(det) && !Double.isInfinite(det);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Performs a lower Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) lower cholesky.
+     * @param success (Optional) Storage for if each decomposition was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean cholL( DMatrixBatch A , @Nullable boolean[] success ) {
+        checkShape(A);
+        if( success != null && success.length < A.size )
+            throw new IllegalArgumentException("'success' is too small");
+
+        final int N = A.size;
+        final double[] D = A.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*25;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                D[i] = Math.sqrt(D[i]);
+                D[i+L] = 0;
+                D[i+2*L] = 0;
+                D[i+3*L] = 0;
+                D[i+4*L] = 0;
+                D[i+5*L] = (D[i+5*L])/D[i];
+                D[i+6*L] = Math.sqrt(D[i+6*L]-D[i+5*L]*D[i+5*L]);
+                D[i+7*L] = 0;
+                D[i+8*L] = 0;
+                D[i+9*L] = 0;
+                D[i+10*L] = (D[i+10*L])/D[i];
+                D[i+11*L] = (D[i+11*L]-D[i+10*L]*D[i+5*L])/D[i+6*L];
+                D[i+12*L] = Math.sqrt(D[i+12*L]-D[i+10*L]*D[i+10*L]-D[i+11*L]*D[i+11*L]);
+                D[i+13*L] = 0;
+                D[i+14*L] = 0;
+                D[i+15*L] = (D[i+15*L])/D[i];
+                D[i+16*L] = (D[i+16*L]-D[i+15*L]*D[i+5*L])/D[i+6*L];
+                D[i+17*L] = (D[i+17*L]-D[i+15*L]*D[i+10*L]-D[i+16*L]*D[i+11*L])/D[i+12*L];
+                D[i+18*L] = Math.sqrt(D[i+18*L]-D[i+15*L]*D[i+15*L]-D[i+16*L]*D[i+16*L]-D[i+17*L]*D[i+17*L]);
+                D[i+19*L] = 0;
+                D[i+20*L] = (D[i+20*L])/D[i];
+                D[i+21*L] = (D[i+21*L]-D[i+20*L]*D[i+5*L])/D[i+6*L];
+                D[i+22*L] = (D[i+22*L]-D[i+20*L]*D[i+10*L]-D[i+21*L]*D[i+11*L])/D[i+12*L];
+                D[i+23*L] = (D[i+23*L]-D[i+20*L]*D[i+15*L]-D[i+21*L]*D[i+16*L]-D[i+22*L]*D[i+17*L])/D[i+18*L];
+                D[i+24*L] = Math.sqrt(D[i+24*L]-D[i+20*L]*D[i+20*L]-D[i+21*L]*D[i+21*L]-D[i+22*L]*D[i+22*L]-D[i+23*L]*D[i+23*L]);
+
+                boolean ok = !UtilEjml.isUncountable(D[i+24*L]);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Performs an upper Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) upper cholesky.
+     * @param success (Optional) Storage for if each decomposition was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean cholU( DMatrixBatch A , @Nullable boolean[] success ) {
+        checkShape(A);
+        if( success != null && success.length < A.size )
+            throw new IllegalArgumentException("'success' is too small");
+
+        final int N = A.size;
+        final double[] D = A.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*25;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                D[i] = Math.sqrt(D[i]);
+                D[i+5*L] = 0;
+                D[i+10*L] = 0;
+                D[i+15*L] = 0;
+                D[i+20*L] = 0;
+                D[i+L] = (D[i+L])/D[i];
+                D[i+6*L] = Math.sqrt(D[i+6*L]-D[i+L]*D[i+L]);
+                D[i+11*L] = 0;
+                D[i+16*L] = 0;
+                D[i+21*L] = 0;
+                D[i+2*L] = (D[i+2*L])/D[i];
+                D[i+7*L] = (D[i+7*L]-D[i+L]*D[i+2*L])/D[i+6*L];
+                D[i+12*L] = Math.sqrt(D[i+12*L]-D[i+2*L]*D[i+2*L]-D[i+7*L]*D[i+7*L]);
+                D[i+17*L] = 0;
+                D[i+22*L] = 0;
+                D[i+3*L] = (D[i+3*L])/D[i];
+                D[i+8*L] = (D[i+8*L]-D[i+L]*D[i+3*L])/D[i+6*L];
+                D[i+13*L] = (D[i+13*L]-D[i+2*L]*D[i+3*L]-D[i+7*L]*D[i+8*L])/D[i+12*L];
+                D[i+18*L] = Math.sqrt(D[i+18*L]-D[i+3*L]*D[i+3*L]-D[i+8*L]*D[i+8*L]-D[i+13*L]*D[i+13*L]);
+                D[i+23*L] = 0;
+                D[i+4*L] = (D[i+4*L])/D[i];
+                D[i+9*L] = (D[i+9*L]-D[i+L]*D[i+4*L])/D[i+6*L];
+                D[i+14*L] = (D[i+14*L]-D[i+2*L]*D[i+4*L]-D[i+7*L]*D[i+9*L])/D[i+12*L];
+                D[i+19*L] = (D[i+19*L]-D[i+3*L]*D[i+4*L]-D[i+8*L]*D[i+9*L]-D[i+13*L]*D[i+14*L])/D[i+18*L];
+                D[i+24*L] = Math.sqrt(D[i+24*L]-D[i+4*L]*D[i+4*L]-D[i+9*L]*D[i+9*L]-D[i+14*L]*D[i+14*L]-D[i+19*L]*D[i+19*L]);
+
+                boolean ok = !UtilEjml.isUncountable(D[i+24*L]);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    private static void checkShape( DMatrixBatch a ) {
+        if( a.numRows != 5 || a.numCols != 5 )
+            throw new MatrixDimensionException("Expected a batch of 5x5 matrices");
+    }
+}
+
@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixBatch;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>Operations on batches of 6 x 6 matrices. Each function performs the same operation
+ * as its equivalent in CommonOps_DDF6 on every matrix in the batch and produces the same results.</p>
+ *
+ * <p>DO NOT MODIFY.  Automatically generated code created by GenerateBatchOps_DDF</p>
+ *
+ * @see DMatrixBatch
+ * @author Peter Abeles
+ */
+public class BatchOps_DDF6 {
+    private static final int L = DMatrixBatch.BLOCK_LENGTH;
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a + b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> + b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as Batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c A batch where the results are stored. Modified.
+     */
+    public static void add( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        c.reshape(6,6,a.size);
+
+        final double[] A = a.data, B = b.data, C = c.data;
+        final int length = c.getDataLength();
+        for( int i = 0; i < length; i++ ) {
+            C[i] = A[i] + B[i];
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void mult( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same batch as 'c'");
+        c.reshape(6,6,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = b.data, C = c.data;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*36;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double a1 = A[i];
+                double a2 = A[i+L];
+                double a3 = A[i+2*L];
+                double a4 = A[i+3*L];
+                double a5 = A[i+4*L];
+                double a6 = A[i+5*L];
+                C[i] = a1*B[i] + a2*B[i+6*L] + a3*B[i+12*L] + a4*B[i+18*L] + a5*B[i+24*L] + a6*B[i+30*L];
+                C[i+L] = a1*B[i+L] + a2*B[i+7*L] + a3*B[i+13*L] + a4*B[i+19*L] + a5*B[i+25*L] + a6*B[i+31*L];
+                C[i+2*L] = a1*B[i+2*L] + a2*B[i+8*L] + a3*B[i+14*L] + a4*B[i+20*L] + a5*B[i+26*L] + a6*B[i+32*L];
+                C[i+3*L] = a1*B[i+3*L] + a2*B[i+9*L] + a3*B[i+15*L] + a4*B[i+21*L] + a5*B[i+27*L] + a6*B[i+33*L];
+                C[i+4*L] = a1*B[i+4*L] + a2*B[i+10*L] + a3*B[i+16*L] + a4*B[i+22*L] + a5*B[i+28*L] + a6*B[i+34*L];
+                C[i+5*L] = a1*B[i+5*L] + a2*B[i+11*L] + a3*B[i+17*L] + a4*B[i+23*L] + a5*B[i+29*L] + a6*B[i+35*L];
+                a1 = A[i+6*L];
+                a2 = A[i+7*L];
+                a3 = A[i+8*L];
+                a4 = A[i+9*L];
+                a5 = A[i+10*L];
+                a6 = A[i+11*L];
+                C[i+6*L] = a1*B[i] + a2*B[i+6*L] + a3*B[i+12*L] + a4*B[i+18*L] + a5*B[i+24*L] + a6*B[i+30*L];
+                C[i+7*L] = a1*B[i+L] + a2*B[i+7*L] + a3*B[i+13*L] + a4*B[i+19*L] + a5*B[i+25*L] + a6*B[i+31*L];
+                C[i+8*L] = a1*B[i+2*L] + a2*B[i+8*L] + a3*B[i+14*L] + a4*B[i+20*L] + a5*B[i+26*L] + a6*B[i+32*L];
+                C[i+9*L] = a1*B[i+3*L] + a2*B[i+9*L] + a3*B[i+15*L] + a4*B[i+21*L] + a5*B[i+27*L] + a6*B[i+33*L];
+                C[i+10*L] = a1*B[i+4*L] + a2*B[i+10*L] + a3*B[i+16*L] + a4*B[i+22*L] + a5*B[i+28*L] + a6*B[i+34*L];
+                C[i+11*L] = a1*B[i+5*L] + a2*B[i+11*L] + a3*B[i+17*L] + a4*B[i+23*L] + a5*B[i+29*L] + a6*B[i+35*L];
+                a1 = A[i+12*L];
+                a2 = A[i+13*L];
+                a3 = A[i+14*L];
+                a4 = A[i+15*L];
+                a5 = A[i+16*L];
+                a6 = A[i+17*L];
+                C[i+12*L] = a1*B[i] + a2*B[i+6*L] + a3*B[i+12*L] + a4*B[i+18*L] + a5*B[i+24*L] + a6*B[i+30*L];
+                C[i+13*L] = a1*B[i+L] + a2*B[i+7*L] + a3*B[i+13*L] + a4*B[i+19*L] + a5*B[i+25*L] + a6*B[i+31*L];
+                C[i+14*L] = a1*B[i+2*L] + a2*B[i+8*L] + a3*B[i+14*L] + a4*B[i+20*L] + a5*B[i+26*L] + a6*B[i+32*L];
+                C[i+15*L] = a1*B[i+3*L] + a2*B[i+9*L] + a3*B[i+15*L] + a4*B[i+21*L] + a5*B[i+27*L] + a6*B[i+33*L];
+                C[i+16*L] = a1*B[i+4*L] + a2*B[i+10*L] + a3*B[i+16*L] + a4*B[i+22*L] + a5*B[i+28*L] + a6*B[i+34*L];
+                C[i+17*L] = a1*B[i+5*L] + a2*B[i+11*L] + a3*B[i+17*L] + a4*B[i+23*L] + a5*B[i+29*L] + a6*B[i+35*L];
+                a1 = A[i+18*L];
+                a2 = A[i+19*L];
+                a3 = A[i+20*L];
+                a4 = A[i+21*L];
+                a5 = A[i+22*L];
+                a6 = A[i+23*L];
+                C[i+18*L] = a1*B[i] + a2*B[i+6*L] + a3*B[i+12*L] + a4*B[i+18*L] + a5*B[i+24*L] + a6*B[i+30*L];
+                C[i+19*L] = a1*B[i+L] + a2*B[i+7*L] + a3*B[i+13*L] + a4*B[i+19*L] + a5*B[i+25*L] + a6*B[i+31*L];
+                C[i+20*L] = a1*B[i+2*L] + a2*B[i+8*L] + a3*B[i+14*L] + a4*B[i+20*L] + a5*B[i+26*L] + a6*B[i+32*L];
+                C[i+21*L] = a1*B[i+3*L] + a2*B[i+9*L] + a3*B[i+15*L] + a4*B[i+21*L] + a5*B[i+27*L] + a6*B[i+33*L];
+                C[i+22*L] = a1*B[i+4*L] + a2*B[i+10*L] + a3*B[i+16*L] + a4*B[i+22*L] + a5*B[i+28*L] + a6*B[i+34*L];
+                C[i+23*L] = a1*B[i+5*L] + a2*B[i+11*L] + a3*B[i+17*L] + a4*B[i+23*L] + a5*B[i+29*L] + a6*B[i+35*L];
+                a1 = A[i+24*L];
+                a2 = A[i+25*L];
+                a3 = A[i+26*L];
+                a4 = A[i+27*L];
+                a5 = A[i+28*L];
+                a6 = A[i+29*L];
+                C[i+24*L] = a1*B[i] + a2*B[i+6*L] + a3*B[i+12*L] + a4*B[i+18*L] + a5*B[i+24*L] + a6*B[i+30*L];
+                C[i+25*L] = a1*B[i+L] + a2*B[i+7*L] + a3*B[i+13*L] + a4*B[i+19*L] + a5*B[i+25*L] + a6*B[i+31*L];
+                C[i+26*L] = a1*B[i+2*L] + a2*B[i+8*L] + a3*B[i+14*L] + a4*B[i+20*L] + a5*B[i+26*L] + a6*B[i+32*L];
+                C[i+27*L] = a1*B[i+3*L] + a2*B[i+9*L] + a3*B[i+15*L] + a4*B[i+21*L] + a5*B[i+27*L] + a6*B[i+33*L];
+                C[i+28*L] = a1*B[i+4*L] + a2*B[i+10*L] + a3*B[i+16*L] + a4*B[i+22*L] + a5*B[i+28*L] + a6*B[i+34*L];
+                C[i+29*L] = a1*B[i+5*L] + a2*B[i+11*L] + a3*B[i+17*L] + a4*B[i+23*L] + a5*B[i+29*L] + a6*B[i+35*L];
+                a1 = A[i+30*L];
+                a2 = A[i+31*L];
+                a3 = A[i+32*L];
+                a4 = A[i+33*L];
+                a5 = A[i+34*L];
+                a6 = A[i+35*L];
+                C[i+30*L] = a1*B[i] + a2*B[i+6*L] + a3*B[i+12*L] + a4*B[i+18*L] + a5*B[i+24*L] + a6*B[i+30*L];
+                C[i+31*L] = a1*B[i+L] + a2*B[i+7*L] + a3*B[i+13*L] + a4*B[i+19*L] + a5*B[i+25*L] + a6*B[i+31*L];
+                C[i+32*L] = a1*B[i+2*L] + a2*B[i+8*L] + a3*B[i+14*L] + a4*B[i+20*L] + a5*B[i+26*L] + a6*B[i+32*L];
+                C[i+33*L] = a1*B[i+3*L] + a2*B[i+9*L] + a3*B[i+15*L] + a4*B[i+21*L] + a5*B[i+27*L] + a6*B[i+33*L];
+                C[i+34*L] = a1*B[i+4*L] + a2*B[i+10*L] + a3*B[i+16*L] + a4*B[i+22*L] + a5*B[i+28*L] + a6*B[i+34*L];
+                C[i+35*L] = a1*B[i+5*L] + a2*B[i+11*L] + a3*B[i+17*L] + a4*B[i+23*L] + a5*B[i+29*L] + a6*B[i+35*L];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix in the batch:<br>
+     * <br>
+     * c = a * b<sup>T</sup> <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransB( DMatrixBatch a , DMatrixBatch b , DMatrixBatch c ) {
+        checkShape(a);
+        checkShape(b);
+        if( a.size != b.size )
+            throw new MatrixDimensionException("The 'a' and 'b' batches must have the same size");
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same batch as 'c'");
+        c.reshape(6,6,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = b.data, C = c.data;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*36;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                double a1 = A[i];
+                double a2 = A[i+L];
+                double a3 = A[i+2*L];
+                double a4 = A[i+3*L];
+                double a5 = A[i+4*L];
+                double a6 = A[i+5*L];
+                C[i] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L] + a6*B[i+5*L];
+                C[i+L] = a1*B[i+6*L] + a2*B[i+7*L] + a3*B[i+8*L] + a4*B[i+9*L] + a5*B[i+10*L] + a6*B[i+11*L];
+                C[i+2*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L] + a5*B[i+16*L] + a6*B[i+17*L];
+                C[i+3*L] = a1*B[i+18*L] + a2*B[i+19*L] + a3*B[i+20*L] + a4*B[i+21*L] + a5*B[i+22*L] + a6*B[i+23*L];
+                C[i+4*L] = a1*B[i+24*L] + a2*B[i+25*L] + a3*B[i+26*L] + a4*B[i+27*L] + a5*B[i+28*L] + a6*B[i+29*L];
+                C[i+5*L] = a1*B[i+30*L] + a2*B[i+31*L] + a3*B[i+32*L] + a4*B[i+33*L] + a5*B[i+34*L] + a6*B[i+35*L];
+                a1 = A[i+6*L];
+                a2 = A[i+7*L];
+                a3 = A[i+8*L];
+                a4 = A[i+9*L];
+                a5 = A[i+10*L];
+                a6 = A[i+11*L];
+                C[i+6*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L] + a6*B[i+5*L];
+                C[i+7*L] = a1*B[i+6*L] + a2*B[i+7*L] + a3*B[i+8*L] + a4*B[i+9*L] + a5*B[i+10*L] + a6*B[i+11*L];
+                C[i+8*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L] + a5*B[i+16*L] + a6*B[i+17*L];
+                C[i+9*L] = a1*B[i+18*L] + a2*B[i+19*L] + a3*B[i+20*L] + a4*B[i+21*L] + a5*B[i+22*L] + a6*B[i+23*L];
+                C[i+10*L] = a1*B[i+24*L] + a2*B[i+25*L] + a3*B[i+26*L] + a4*B[i+27*L] + a5*B[i+28*L] + a6*B[i+29*L];
+                C[i+11*L] = a1*B[i+30*L] + a2*B[i+31*L] + a3*B[i+32*L] + a4*B[i+33*L] + a5*B[i+34*L] + a6*B[i+35*L];
+                a1 = A[i+12*L];
+                a2 = A[i+13*L];
+                a3 = A[i+14*L];
+                a4 = A[i+15*L];
+                a5 = A[i+16*L];
+                a6 = A[i+17*L];
+                C[i+12*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L] + a6*B[i+5*L];
+                C[i+13*L] = a1*B[i+6*L] + a2*B[i+7*L] + a3*B[i+8*L] + a4*B[i+9*L] + a5*B[i+10*L] + a6*B[i+11*L];
+                C[i+14*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L] + a5*B[i+16*L] + a6*B[i+17*L];
+                C[i+15*L] = a1*B[i+18*L] + a2*B[i+19*L] + a3*B[i+20*L] + a4*B[i+21*L] + a5*B[i+22*L] + a6*B[i+23*L];
+                C[i+16*L] = a1*B[i+24*L] + a2*B[i+25*L] + a3*B[i+26*L] + a4*B[i+27*L] + a5*B[i+28*L] + a6*B[i+29*L];
+                C[i+17*L] = a1*B[i+30*L] + a2*B[i+31*L] + a3*B[i+32*L] + a4*B[i+33*L] + a5*B[i+34*L] + a6*B[i+35*L];
+                a1 = A[i+18*L];
+                a2 = A[i+19*L];
+                a3 = A[i+20*L];
+                a4 = A[i+21*L];
+                a5 = A[i+22*L];
+                a6 = A[i+23*L];
+                C[i+18*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L] + a6*B[i+5*L];
+                C[i+19*L] = a1*B[i+6*L] + a2*B[i+7*L] + a3*B[i+8*L] + a4*B[i+9*L] + a5*B[i+10*L] + a6*B[i+11*L];
+                C[i+20*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L] + a5*B[i+16*L] + a6*B[i+17*L];
+                C[i+21*L] = a1*B[i+18*L] + a2*B[i+19*L] + a3*B[i+20*L] + a4*B[i+21*L] + a5*B[i+22*L] + a6*B[i+23*L];
+                C[i+22*L] = a1*B[i+24*L] + a2*B[i+25*L] + a3*B[i+26*L] + a4*B[i+27*L] + a5*B[i+28*L] + a6*B[i+29*L];
+                C[i+23*L] = a1*B[i+30*L] + a2*B[i+31*L] + a3*B[i+32*L] + a4*B[i+33*L] + a5*B[i+34*L] + a6*B[i+35*L];
+                a1 = A[i+24*L];
+                a2 = A[i+25*L];
+                a3 = A[i+26*L];
+                a4 = A[i+27*L];
+                a5 = A[i+28*L];
+                a6 = A[i+29*L];
+                C[i+24*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L] + a6*B[i+5*L];
+                C[i+25*L] = a1*B[i+6*L] + a2*B[i+7*L] + a3*B[i+8*L] + a4*B[i+9*L] + a5*B[i+10*L] + a6*B[i+11*L];
+                C[i+26*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L] + a5*B[i+16*L] + a6*B[i+17*L];
+                C[i+27*L] = a1*B[i+18*L] + a2*B[i+19*L] + a3*B[i+20*L] + a4*B[i+21*L] + a5*B[i+22*L] + a6*B[i+23*L];
+                C[i+28*L] = a1*B[i+24*L] + a2*B[i+25*L] + a3*B[i+26*L] + a4*B[i+27*L] + a5*B[i+28*L] + a6*B[i+29*L];
+                C[i+29*L] = a1*B[i+30*L] + a2*B[i+31*L] + a3*B[i+32*L] + a4*B[i+33*L] + a5*B[i+34*L] + a6*B[i+35*L];
+                a1 = A[i+30*L];
+                a2 = A[i+31*L];
+                a3 = A[i+32*L];
+                a4 = A[i+33*L];
+                a5 = A[i+34*L];
+                a6 = A[i+35*L];
+                C[i+30*L] = a1*B[i] + a2*B[i+L] + a3*B[i+2*L] + a4*B[i+3*L] + a5*B[i+4*L] + a6*B[i+5*L];
+                C[i+31*L] = a1*B[i+6*L] + a2*B[i+7*L] + a3*B[i+8*L] + a4*B[i+9*L] + a5*B[i+10*L] + a6*B[i+11*L];
+                C[i+32*L] = a1*B[i+12*L] + a2*B[i+13*L] + a3*B[i+14*L] + a4*B[i+15*L] + a5*B[i+16*L] + a6*B[i+17*L];
+                C[i+33*L] = a1*B[i+18*L] + a2*B[i+19*L] + a3*B[i+20*L] + a4*B[i+21*L] + a5*B[i+22*L] + a6*B[i+23*L];
+                C[i+34*L] = a1*B[i+24*L] + a2*B[i+25*L] + a3*B[i+26*L] + a4*B[i+27*L] + a5*B[i+28*L] + a6*B[i+29*L];
+                C[i+35*L] = a1*B[i+30*L] + a2*B[i+31*L] + a3*B[i+32*L] + a4*B[i+33*L] + a5*B[i+34*L] + a6*B[i+35*L];
+            }
+        }
+    }
+
+    /**
+     * Inverts each matrix in 'a' using Gauss-Jordan elimination with partial pivoting and stores the
+     * results in 'inv'. If a matrix is singular then its inverse is filled with NaN.
+     *
+     * @param a Input batch. Not modified.
+     * @param inv Inverted output batch. Can be the same instance as 'a'. Modified.
+     * @param success (Optional) Storage for if each inversion was successful. Modified.
+     * @return true if all were successful or false if one or more failed.
+     */
+    public static boolean invert( DMatrixBatch a , DMatrixBatch inv , @Nullable boolean[] success ) {
+        checkShape(a);
+        if( success != null && success.length < a.size )
+            throw new IllegalArgumentException("'success' is too small");
+        inv.reshape(6,6,a.size);
+
+        final int N = a.size;
+        final double[] A = a.data, B = inv.data;
+        final double[] m = new double[36];
+        final double[] v = new double[36];
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*36;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                for( int e = 0; e < 36; e++ ) {
+                    m[e] = A[i+e*L];
+                    v[e] = 0;
+                }
+                for( int e = 0; e < 6; e++ ) {
+                    v[e*7] = 1;
+                }
+
+                boolean ok = true;
+                for( int col = 0; col < 6 && ok; col++ ) {
+                    // select the row with the largest magnitude pivot
+                    int pivot = col;
+                    double best = Math.abs(m[col*6+col]);
+                    for( int row = col+1; row < 6; row++ ) {
+                        double tmp = Math.abs(m[row*6+col]);
+                        if( tmp > best ) {
+                            best = tmp;
+                            pivot = row;
+                        }
+                    }
+                    if( best == 0.0 || UtilEjml.isUncountable(best) ) {
+                        ok = false;
+                        break;
+                    }
+                    if( pivot != col ) {
+                        for( int k = 0; k < 6; k++ ) {
+                            double tmp = m[col*6+k]; m[col*6+k] = m[pivot*6+k]; m[pivot*6+k] = tmp;
+                            tmp = v[col*6+k]; v[col*6+k] = v[pivot*6+k]; v[pivot*6+k] = tmp;
+                        }
+                    }
+
+                    double d = m[col*6+col];
+                    for( int k = 0; k < 6; k++ ) {
+                        m[col*6+k] /= d;
+                        v[col*6+k] /= d;
+                    }
+                    for( int row = 0; row < 6; row++ ) {
+                        double f = m[row*6+col];
+                        if( row == col || f == 0.0 )
+                            continue;
+                        for( int k = 0; k < 6; k++ ) {
+                            m[row*6+k] -= f*m[col*6+k];
+                            v[row*6+k] -= f*v[col*6+k];
+                        }
+                    }
+                }
+
+                for( int e = 0; e < 36; e++ ) {
+                    B[i+e*L] = ok ? v[e] : Double.NaN;
+                }
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Performs a lower Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) lower cholesky.
+     * @param success (Optional) Storage for if each decomposition was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean cholL( DMatrixBatch A , @Nullable boolean[] success ) {
+        checkShape(A);
+        if( success != null && success.length < A.size )
+            throw new IllegalArgumentException("'success' is too small");
+
+        final int N = A.size;
+        final double[] D = A.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*36;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                D[i] = Math.sqrt(D[i]);
+                D[i+L] = 0;
+                D[i+2*L] = 0;
+                D[i+3*L] = 0;
+                D[i+4*L] = 0;
+                D[i+5*L] = 0;
+                D[i+6*L] = (D[i+6*L])/D[i];
+                D[i+7*L] = Math.sqrt(D[i+7*L]-D[i+6*L]*D[i+6*L]);
+                D[i+8*L] = 0;
+                D[i+9*L] = 0;
+                D[i+10*L] = 0;
+                D[i+11*L] = 0;
+                D[i+12*L] = (D[i+12*L])/D[i];
+                D[i+13*L] = (D[i+13*L]-D[i+12*L]*D[i+6*L])/D[i+7*L];
+                D[i+14*L] = Math.sqrt(D[i+14*L]-D[i+12*L]*D[i+12*L]-D[i+13*L]*D[i+13*L]);
+                D[i+15*L] = 0;
+                D[i+16*L] = 0;
+                D[i+17*L] = 0;
+                D[i+18*L] = (D[i+18*L])/D[i];
+                D[i+19*L] = (D[i+19*L]-D[i+18*L]*D[i+6*L])/D[i+7*L];
+                D[i+20*L] = (D[i+20*L]-D[i+18*L]*D[i+12*L]-D[i+19*L]*D[i+13*L])/D[i+14*L];
+                D[i+21*L] = Math.sqrt(D[i+21*L]-D[i+18*L]*D[i+18*L]-D[i+19*L]*D[i+19*L]-D[i+20*L]*D[i+20*L]);
+                D[i+22*L] = 0;
+                D[i+23*L] = 0;
+                D[i+24*L] = (D[i+24*L])/D[i];
+                D[i+25*L] = (D[i+25*L]-D[i+24*L]*D[i+6*L])/D[i+7*L];
+                D[i+26*L] = (D[i+26*L]-D[i+24*L]*D[i+12*L]-D[i+25*L]*D[i+13*L])/D[i+14*L];
+                D[i+27*L] = (D[i+27*L]-D[i+24*L]*D[i+18*L]-D[i+25*L]*D[i+19*L]-D[i+26*L]*D[i+20*L])/D[i+21*L];
+                D[i+28*L] = Math.sqrt(D[i+28*L]-D[i+24*L]*D[i+24*L]-D[i+25*L]*D[i+25*L]-D[i+26*L]*D[i+26*L]-D[i+27*L]*D[i+27*L]);
+                D[i+29*L] = 0;
+                D[i+30*L] = (D[i+30*L])/D[i];
+                D[i+31*L] = (D[i+31*L]-D[i+30*L]*D[i+6*L])/D[i+7*L];
+                D[i+32*L] = (D[i+32*L]-D[i+30*L]*D[i+12*L]-D[i+31*L]*D[i+13*L])/D[i+14*L];
+                D[i+33*L] = (D[i+33*L]-D[i+30*L]*D[i+18*L]-D[i+31*L]*D[i+19*L]-D[i+32*L]*D[i+20*L])/D[i+21*L];
+                D[i+34*L] = (D[i+34*L]-D[i+30*L]*D[i+24*L]-D[i+31*L]*D[i+25*L]-D[i+32*L]*D[i+26*L]-D[i+33*L]*D[i+27*L])/D[i+28*L];
+                D[i+35*L] = Math.sqrt(D[i+35*L]-D[i+30*L]*D[i+30*L]-D[i+31*L]*D[i+31*L]-D[i+32*L]*D[i+32*L]-D[i+33*L]*D[i+33*L]-D[i+34*L]*D[i+34*L]);
+
+                boolean ok = !UtilEjml.isUncountable(D[i+35*L]);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Performs an upper Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) upper cholesky.
+     * @param success (Optional) Storage for if each decomposition was successful. Modified.
+     * @return true if all were successful or false if one or more failed.  Not always reliable.
+     */
+    public static boolean cholU( DMatrixBatch A , @Nullable boolean[] success ) {
+        checkShape(A);
+        if( success != null && success.length < A.size )
+            throw new IllegalArgumentException("'success' is too small");
+
+        final int N = A.size;
+        final double[] D = A.data;
+        boolean all = true;
+        for( int block = 0; block < N; block += L ) {
+            final int start = block*36;
+            final int end = start + Math.min(L,N-block);
+            for( int i = start; i < end; i++ ) {
+                D[i] = Math.sqrt(D[i]);
+                D[i+6*L] = 0;
+                D[i+12*L] = 0;
+                D[i+18*L] = 0;
+                D[i+24*L] = 0;
+                D[i+30*L] = 0;
+                D[i+L] = (D[i+L])/D[i];
+                D[i+7*L] = Math.sqrt(D[i+7*L]-D[i+L]*D[i+L]);
+                D[i+13*L] = 0;
+                D[i+19*L] = 0;
+                D[i+25*L] = 0;
+                D[i+31*L] = 0;
+                D[i+2*L] = (D[i+2*L])/D[i];
+                D[i+8*L] = (D[i+8*L]-D[i+L]*D[i+2*L])/D[i+7*L];
+                D[i+14*L] = Math.sqrt(D[i+14*L]-D[i+2*L]*D[i+2*L]-D[i+8*L]*D[i+8*L]);
+                D[i+20*L] = 0;
+                D[i+26*L] = 0;
+                D[i+32*L] = 0;
+                D[i+3*L] = (D[i+3*L])/D[i];
+                D[i+9*L] = (D[i+9*L]-D[i+L]*D[i+3*L])/D[i+7*L];
+                D[i+15*L] = (D[i+15*L]-D[i+2*L]*D[i+3*L]-D[i+8*L]*D[i+9*L])/D[i+14*L];
+                D[i+21*L] = Math.sqrt(D[i+21*L]-D[i+3*L]*D[i+3*L]-D[i+9*L]*D[i+9*L]-D[i+15*L]*D[i+15*L]);
+                D[i+27*L] = 0;
+                D[i+33*L] = 0;
+                D[i+4*L] = (D[i+4*L])/D[i];
+                D[i+10*L] = (D[i+10*L]-D[i+L]*D[i+4*L])/D[i+7*L];
+                D[i+16*L] = (D[i+16*L]-D[i+2*L]*D[i+4*L]-D[i+8*L]*D[i+10*L])/D[i+14*L];
+                D[i+22*L] = (D[i+22*L]-D[i+3*L]*D[i+4*L]-D[i+9*L]*D[i+10*L]-D[i+15*L]*D[i+16*L])/D[i+21*L];
+                D[i+28*L] = Math.sqrt(D[i+28*L]-D[i+4*L]*D[i+4*L]-D[i+10*L]*D[i+10*L]-D[i+16*L]*D[i+16*L]-D[i+22*L]*D[i+22*L]);
+                D[i+34*L] = 0;
+                D[i+5*L] = (D[i+5*L])/D[i];
+                D[i+11*L] = (D[i+11*L]-D[i+L]*D[i+5*L])/D[i+7*L];
+                D[i+17*L] = (D[i+17*L]-D[i+2*L]*D[i+5*L]-D[i+8*L]*D[i+11*L])/D[i+14*L];
+                D[i+23*L] = (D[i+23*L]-D[i+3*L]*D[i+5*L]-D[i+9*L]*D[i+11*L]-D[i+15*L]*D[i+17*L])/D[i+21*L];
+                D[i+29*L] = (D[i+29*L]-D[i+4*L]*D[i+5*L]-D[i+10*L]*D[i+11*L]-D[i+16*L]*D[i+17*L]-D[i+22*L]*D[i+23*L])/D[i+28*L];
+                D[i+35*L] = Math.sqrt(D[i+35*L]-D[i+5*L]*D[i+5*L]-D[i+11*L]*D[i+11*L]-D[i+17*L]*D[i+17*L]-D[i+23*L]*D[i+23*L]-D[i+29*L]*D[i+29*L]);
+
+                boolean ok = !UtilEjml.isUncountable(D[i+35*L]);
+                if( success != null )
+                    success[block+i-start] = ok;
+                all &= ok;
+            }
+        }
+        return all;
+    }
+
+    private static void checkShape( DMatrixBatch a ) {
+        if( a.numRows != 6 || a.numCols != 6 )
+            throw new MatrixDimensionException("Expected a batch of 6x6 matrices");
+    }
+}
+
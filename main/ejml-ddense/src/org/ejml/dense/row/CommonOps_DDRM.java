@@ -22,16 +22,23 @@ import org.ejml.EjmlParameters;
 import org.ejml.LinearSolverSafe;
 import org.ejml.MatrixDimensionException;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.*;
 import org.ejml.dense.row.decomposition.TriangularSolver_DDRM;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionBase_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionBlock_DDRM;
 import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
 import org.ejml.dense.row.linsol.chol.LinearSolverChol_DDRM;
 import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
 import org.ejml.dense.row.linsol.svd.SolvePseudoInverseSvd_DDRM;
 import org.ejml.dense.row.misc.*;
 import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMult_MT_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMultPacked_MT_DDRM;
 import org.ejml.dense.row.mult.MatrixMultProduct_DDRM;
+import org.ejml.dense.row.mult.MatrixMultProduct_MT_DDRM;
 import org.ejml.dense.row.mult.MatrixVectorMult_DDRM;
 import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
@@ -76,8 +83,18 @@ public class CommonOps_DDRM {
     {
         if( b.numCols == 1 ) {
             MatrixVectorMult_DDRM.mult(a, b, c);
+        } else if( usePackedMult(a,b) ) {
+            if( useConcurrentMult(a.numRows,a.numCols) ) {
+                MatrixMatrixMultPacked_MT_DDRM.mult(a,b,c,null);
+            } else {
+                MatrixMatrixMultPacked_DDRM.mult(a,b,c,null,null);
+            }
         } else if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
-            MatrixMatrixMult_DDRM.mult_reorder(a,b,c);
+            if( useConcurrentMult(a.numRows,a.numCols) ) {
+                MatrixMatrixMult_MT_DDRM.mult_reorder(a,b,c);
+            } else {
+                MatrixMatrixMult_DDRM.mult_reorder(a,b,c);
+            }
         } else {
             MatrixMatrixMult_DDRM.mult_small(a,b,c);
         }
@@ -99,8 +116,18 @@ public class CommonOps_DDRM {
     public static void mult(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
-            MatrixMatrixMult_DDRM.mult_reorder(alpha, a, b, c);
+        if( usePackedMult(a,b) ) {
+            if( useConcurrentMult(a.numRows,a.numCols) ) {
+                MatrixMatrixMultPacked_MT_DDRM.mult(alpha,a,b,c,null);
+            } else {
+                MatrixMatrixMultPacked_DDRM.mult(alpha,a,b,c,null,null);
+            }
+        } else if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
+            if( useConcurrentMult(a.numRows,a.numCols) ) {
+                MatrixMatrixMult_MT_DDRM.mult_reorder(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_DDRM.mult_reorder(alpha, a, b, c);
+            }
         } else {
             MatrixMatrixMult_DDRM.mult_small(alpha,a,b,c);
         }
@@ -130,7 +157,11 @@ public class CommonOps_DDRM {
             }
         } else if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH  ) {
-            MatrixMatrixMult_DDRM.multTransA_reorder(a, b, c);
+            if( useConcurrentMult(a.numCols,a.numRows) ) {
+                MatrixMatrixMult_MT_DDRM.multTransA_reorder(a, b, c);
+            } else {
+                MatrixMatrixMult_DDRM.multTransA_reorder(a, b, c);
+            }
         } else {
             MatrixMatrixMult_DDRM.multTransA_small(a, b, c);
         }
@@ -154,7 +185,11 @@ public class CommonOps_DDRM {
         // TODO add a matrix vectory multiply here
         if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
-            MatrixMatrixMult_DDRM.multTransA_reorder(alpha, a, b, c);
+            if( useConcurrentMult(a.numCols,a.numRows) ) {
+                MatrixMatrixMult_MT_DDRM.multTransA_reorder(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_DDRM.multTransA_reorder(alpha, a, b, c);
+            }
         } else {
             MatrixMatrixMult_DDRM.multTransA_small(alpha, a, b, c);
         }
@@ -176,6 +211,8 @@ public class CommonOps_DDRM {
     {
         if( b.numRows == 1 ) {
             MatrixVectorMult_DDRM.mult(a, b, c);
+        } else if( useConcurrentMult(a.numRows,a.numCols) ) {
+            MatrixMatrixMult_MT_DDRM.multTransB(a, b, c);
         } else {
             MatrixMatrixMult_DDRM.multTransB(a, b, c);
         }
@@ -197,7 +234,11 @@ public class CommonOps_DDRM {
     public static void multTransB(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        MatrixMatrixMult_DDRM.multTransB(alpha,a,b,c);
+        if( useConcurrentMult(a.numRows,a.numCols) ) {
+            MatrixMatrixMult_MT_DDRM.multTransB(alpha,a,b,c);
+        } else {
+            MatrixMatrixMult_DDRM.multTransB(alpha,a,b,c);
+        }
     }
 
     /**
@@ -222,7 +263,11 @@ public class CommonOps_DDRM {
                 MatrixVectorMult_DDRM.multTransA_small(a,b,c);
             }
         } else if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
-            MatrixMatrixMult_DDRM.multTransAB_aux(a, b, c, null);
+            if( useConcurrentMult(a.numCols,a.numRows) ) {
+                MatrixMatrixMult_MT_DDRM.multTransAB_aux(a, b, c);
+            } else {
+                MatrixMatrixMult_DDRM.multTransAB_aux(a, b, c, null);
+            }
         } else {
             MatrixMatrixMult_DDRM.multTransAB(a, b, c);
         }
@@ -245,12 +290,43 @@ public class CommonOps_DDRM {
     {
         // TODO add a matrix vectory multiply here
         if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
-            MatrixMatrixMult_DDRM.multTransAB_aux(alpha, a, b, c, null);
+            if( useConcurrentMult(a.numCols,a.numRows) ) {
+                MatrixMatrixMult_MT_DDRM.multTransAB_aux(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_DDRM.multTransAB_aux(alpha, a, b, c, null);
+            }
         } else {
             MatrixMatrixMult_DDRM.multTransAB(alpha, a, b, c);
         }
     }
 
+    /**
+     * Returns true if a matrix multiplication is large enough that the multi-threaded algorithms should be used.
+     *
+     * @param rowsC Number of rows in the output matrix
+     * @param inner Length of the inner product
+     */
+    private static boolean useConcurrentMult( int rowsC , int inner ) {
+        return EjmlConcurrency.USE_CONCURRENT &&
+                rowsC >= EjmlParameters.MULT_CONCURRENT_SWITCH && inner >= EjmlParameters.MULT_CONCURRENT_SWITCH;
+    }
+
+    /**
+     * Returns true if all the dimensions in c = a*b are large enough for the packed algorithm to be faster.
+     */
+    private static boolean usePackedMult( DMatrix1Row a , DMatrix1Row b ) {
+        return a.numRows >= EjmlParameters.MULT_PACKED_SWITCH && a.numCols >= EjmlParameters.MULT_PACKED_SWITCH &&
+                b.numCols >= EjmlParameters.MULT_PACKED_SWITCH;
+    }
+
+    /**
+     * Returns true if both dimensions of 'a' are large enough for the packed inner and outer products to be faster.
+     */
+    private static boolean usePackedProduct( DMatrix1Row a ) {
+        return a.numRows >= EjmlParameters.MULT_PRODUCT_PACKED_SWITCH &&
+                a.numCols >= EjmlParameters.MULT_PRODUCT_PACKED_SWITCH;
+    }
+
     /**
      * <p>
      * Computes the dot product or inner product between two vectors.  If the two vectors are columns vectors
@@ -278,7 +354,8 @@ public class CommonOps_DDRM {
      * </p>
      * 
      * <p>
-     * Is faster than using a generic matrix multiplication by taking advantage of symmetry.  For
+     * Is faster than using a generic matrix multiplication by taking advantage of symmetry.  Large matrices
+     * use a cache blocked algorithm which can be multi-threaded.  For
      * vectors there is an even faster option, see {@link VectorVectorMult_DDRM#innerProd(DMatrixD1, DMatrixD1)}
      * </p>
      *
@@ -289,7 +366,13 @@ public class CommonOps_DDRM {
     {
         c.reshape(a.numCols,a.numCols);
 
-        if( a.numCols >= EjmlParameters.MULT_INNER_SWITCH ) {
+        if( usePackedProduct(a) ) {
+            if( useConcurrentMult(a.numCols,a.numRows) ) {
+                MatrixMultProduct_MT_DDRM.inner_packed(a, c);
+            } else {
+                MatrixMultProduct_DDRM.inner_packed(a, c, null, null);
+            }
+        } else if( a.numCols >= EjmlParameters.MULT_INNER_SWITCH ) {
             MatrixMultProduct_DDRM.inner_small(a, c);
         } else {
             MatrixMultProduct_DDRM.inner_reorder(a, c);
@@ -305,7 +388,8 @@ public class CommonOps_DDRM {
      * </p>
      *
      * <p>
-     * Is faster than using a generic matrix multiplication by taking advantage of symmetry.
+     * Is faster than using a generic matrix multiplication by taking advantage of symmetry.  Large matrices
+     * use a cache blocked algorithm which can be multi-threaded.
      * </p>
      *
      * @param a The matrix being multiplied. Not modified.
@@ -315,7 +399,15 @@ public class CommonOps_DDRM {
     {
         c.reshape(a.numRows,a.numRows);
 
-        MatrixMultProduct_DDRM.outer(a, c);
+        if( usePackedProduct(a) ) {
+            if( useConcurrentMult(a.numRows,a.numCols) ) {
+                MatrixMultProduct_MT_DDRM.outer_packed(a, c);
+            } else {
+                MatrixMultProduct_DDRM.outer_packed(a, c, null, null);
+            }
+        } else {
+            MatrixMultProduct_DDRM.outer(a, c);
+        }
     }
 
     /**
@@ -334,9 +426,19 @@ public class CommonOps_DDRM {
     {
         if( b.numCols == 1 ) {
             MatrixVectorMult_DDRM.multAdd(a, b, c);
+        } else if( usePackedMult(a,b) ) {
+            if( useConcurrentMult(a.numRows,a.numCols) ) {
+                MatrixMatrixMultPacked_MT_DDRM.multAdd(a,b,c,null);
+            } else {
+                MatrixMatrixMultPacked_DDRM.multAdd(a,b,c,null,null);
+            }
         } else {
             if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
-                MatrixMatrixMult_DDRM.multAdd_reorder(a,b,c);
+                if( useConcurrentMult(a.numRows,a.numCols) ) {
+                    MatrixMatrixMult_MT_DDRM.multAdd_reorder(a,b,c);
+                } else {
+                    MatrixMatrixMult_DDRM.multAdd_reorder(a,b,c);
+                }
             } else {
                 MatrixMatrixMult_DDRM.multAdd_small(a,b,c);
             }
@@ -359,8 +461,18 @@ public class CommonOps_DDRM {
     public static void multAdd(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
-            MatrixMatrixMult_DDRM.multAdd_reorder(alpha, a, b, c);
+        if( usePackedMult(a,b) ) {
+            if( useConcurrentMult(a.numRows,a.numCols) ) {
+                MatrixMatrixMultPacked_MT_DDRM.multAdd(alpha,a,b,c,null);
+            } else {
+                MatrixMatrixMultPacked_DDRM.multAdd(alpha,a,b,c,null,null);
+            }
+        } else if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
+            if( useConcurrentMult(a.numRows,a.numCols) ) {
+                MatrixMatrixMult_MT_DDRM.multAdd_reorder(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_DDRM.multAdd_reorder(alpha, a, b, c);
+            }
         } else {
             MatrixMatrixMult_DDRM.multAdd_small(alpha,a,b,c);
         }
@@ -389,7 +501,11 @@ public class CommonOps_DDRM {
         } else {
             if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                     b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH  ) {
-                MatrixMatrixMult_DDRM.multAddTransA_reorder(a, b, c);
+                if( useConcurrentMult(a.numCols,a.numRows) ) {
+                    MatrixMatrixMult_MT_DDRM.multAddTransA_reorder(a, b, c);
+                } else {
+                    MatrixMatrixMult_DDRM.multAddTransA_reorder(a, b, c);
+                }
             } else {
                 MatrixMatrixMult_DDRM.multAddTransA_small(a, b, c);
             }
@@ -414,7 +530,11 @@ public class CommonOps_DDRM {
         // TODO add a matrix vectory multiply here
         if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
-            MatrixMatrixMult_DDRM.multAddTransA_reorder(alpha, a, b, c);
+            if( useConcurrentMult(a.numCols,a.numRows) ) {
+                MatrixMatrixMult_MT_DDRM.multAddTransA_reorder(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_DDRM.multAddTransA_reorder(alpha, a, b, c);
+            }
         } else {
             MatrixMatrixMult_DDRM.multAddTransA_small(alpha, a, b, c);
         }
@@ -434,7 +554,11 @@ public class CommonOps_DDRM {
      */
     public static void multAddTransB(DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
-        MatrixMatrixMult_DDRM.multAddTransB(a,b,c);
+        if( useConcurrentMult(a.numRows,a.numCols) ) {
+            MatrixMatrixMult_MT_DDRM.multAddTransB(a,b,c);
+        } else {
+            MatrixMatrixMult_DDRM.multAddTransB(a,b,c);
+        }
     }
 
     /**
@@ -453,7 +577,11 @@ public class CommonOps_DDRM {
     public static void multAddTransB(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        MatrixMatrixMult_DDRM.multAddTransB(alpha,a,b,c);
+        if( useConcurrentMult(a.numRows,a.numCols) ) {
+            MatrixMatrixMult_MT_DDRM.multAddTransB(alpha,a,b,c);
+        } else {
+            MatrixMatrixMult_DDRM.multAddTransB(alpha,a,b,c);
+        }
     }
 
     /**
@@ -478,7 +606,11 @@ public class CommonOps_DDRM {
                 MatrixVectorMult_DDRM.multAddTransA_small(a,b,c);
             }
         } else if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
-            MatrixMatrixMult_DDRM.multAddTransAB_aux(a,b,c,null);
+            if( useConcurrentMult(a.numCols,a.numRows) ) {
+                MatrixMatrixMult_MT_DDRM.multAddTransAB_aux(a,b,c);
+            } else {
+                MatrixMatrixMult_DDRM.multAddTransAB_aux(a,b,c,null);
+            }
         } else {
             MatrixMatrixMult_DDRM.multAddTransAB(a,b,c);
         }
@@ -501,7 +633,11 @@ public class CommonOps_DDRM {
     {
         // TODO add a matrix vectory multiply here
         if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
-            MatrixMatrixMult_DDRM.multAddTransAB_aux(alpha, a, b, c, null);
+            if( useConcurrentMult(a.numCols,a.numRows) ) {
+                MatrixMatrixMult_MT_DDRM.multAddTransAB_aux(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_DDRM.multAddTransAB_aux(alpha, a, b, c, null);
+            }
         } else {
             MatrixMatrixMult_DDRM.multAddTransAB(alpha, a, b, c);
         }
@@ -608,7 +744,9 @@ public class CommonOps_DDRM {
      * <p>
      * For square matrices the transpose is truly in-place and does not require
      * additional memory.  For non-square matrices, internally a temporary matrix is declared and
-     * {@link #transpose(DMatrixRMaj, DMatrixRMaj)} is invoked.
+     * {@link #transpose(DMatrixRMaj, DMatrixRMaj)} is invoked. If {@link EjmlParameters#MEMORY} is
+     * {@link EjmlParameters.MemoryUsage#LOW_MEMORY LOW_MEMORY} then non-square matrices are instead transposed
+     * in-place with {@link TransposeAlgs_DDRM#cycle}, which is slower but doesn't need a temporary matrix.
      * </p>
      *
      * @param mat The matrix that is to be transposed. Modified.
@@ -616,6 +754,8 @@ public class CommonOps_DDRM {
     public static void transpose( DMatrixRMaj mat ) {
         if( mat.numCols == mat.numRows ){
             TransposeAlgs_DDRM.square(mat);
+        } else if( EjmlParameters.MEMORY == EjmlParameters.MemoryUsage.LOW_MEMORY ) {
+            TransposeAlgs_DDRM.cycle(mat);
         } else {
             DMatrixRMaj b = new DMatrixRMaj(mat.numCols,mat.numRows);
             transpose(mat,b);
@@ -646,9 +786,12 @@ public class CommonOps_DDRM {
         }
 
         if( A.numRows > EjmlParameters.TRANSPOSE_SWITCH &&
-                A.numCols > EjmlParameters.TRANSPOSE_SWITCH )
-            TransposeAlgs_DDRM.block(A,A_tran,EjmlParameters.BLOCK_WIDTH);
-        else
+                A.numCols > EjmlParameters.TRANSPOSE_SWITCH ) {
+            if( EjmlConcurrency.USE_CONCURRENT )
+                TransposeAlgs_MT_DDRM.block(A,A_tran,EjmlParameters.BLOCK_WIDTH);
+            else
+                TransposeAlgs_DDRM.block(A,A_tran,EjmlParameters.BLOCK_WIDTH);
+        } else
             TransposeAlgs_DDRM.standard(A,A_tran);
 
         return A_tran;
@@ -702,7 +845,8 @@ public class CommonOps_DDRM {
                 return mat.get(0);
             }
         } else {
-            LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
+            LUDecompositionBase_DDRM alg = numCol >= EjmlParameters.SWITCH_BLOCK_LU ?
+                    new LUDecompositionBlock_DDRM() : new LUDecompositionAlt_DDRM();
 
             if( alg.inputModified() ) {
                 mat = mat.copy();
@@ -743,7 +887,8 @@ public class CommonOps_DDRM {
                 mat.set(0, 1.0/mat.get(0));
             }
         } else {
-            LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
+            LUDecompositionBase_DDRM alg = mat.numCols >= EjmlParameters.SWITCH_BLOCK_LU ?
+                    new LUDecompositionBlock_DDRM() : new LUDecompositionAlt_DDRM();
             LinearSolverLu_DDRM solver = new LinearSolverLu_DDRM(alg);
             if( solver.setA(mat) ) {
                 solver.invert(mat);
@@ -791,7 +936,8 @@ public class CommonOps_DDRM {
                 result.set(0,  1.0/mat.get(0));
             }
         } else {
-            LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
+            LUDecompositionBase_DDRM alg = mat.numCols >= EjmlParameters.SWITCH_BLOCK_LU ?
+                    new LUDecompositionBlock_DDRM() : new LUDecompositionAlt_DDRM();
             LinearSolverLu_DDRM solver = new LinearSolverLu_DDRM(alg);
 
             if( solver.modifiesA() )
@@ -1531,9 +1677,7 @@ public class CommonOps_DDRM {
 
         int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            a.times(i, b.get(i));
-        }
+        SimdOps_DDRM.elementMult(a.data,b.data,a.data,length);
     }
 
     /**
@@ -1554,9 +1698,7 @@ public class CommonOps_DDRM {
 
         int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            c.set(i, a.get(i) * b.get(i));
-        }
+        SimdOps_DDRM.elementMult(a.data,b.data,c.data,length);
     }
 
     /**
@@ -1575,9 +1717,7 @@ public class CommonOps_DDRM {
 
         int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            a.div(i, b.get(i));
-        }
+        SimdOps_DDRM.elementDiv(a.data,b.data,a.data,length);
     }
 
     /**
@@ -1598,9 +1738,7 @@ public class CommonOps_DDRM {
 
         int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            c.set(i, a.get(i) / b.get(i));
-        }
+        SimdOps_DDRM.elementDiv(a.data,b.data,c.data,length);
     }
 
     /**
@@ -2101,9 +2239,7 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            a.plus(i, b.get(i));
-        }
+        SimdOps_DDRM.add(a.data,b.data,a.data,length);
     }
 
     /**
@@ -2125,9 +2261,7 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            a.plus(i, beta * b.get(i));
-        }
+        SimdOps_DDRM.axpy(beta,b.data,0,a.data,0,length);
     }
 
     /**
@@ -2155,9 +2289,7 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            c.set(i, a.get(i) + b.get(i));
-        }
+        SimdOps_DDRM.add(a.data,b.data,c.data,length);
     }
 
     /**
@@ -2352,9 +2484,7 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            a.data[i] -= b.data[i];
-        }
+        SimdOps_DDRM.subtract(a.data,b.data,a.data,length);
     }
 
     /**
@@ -2380,9 +2510,7 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            c.data[i] = a.data[i] - b.data[i];
-        }
+        SimdOps_DDRM.subtract(a.data,b.data,c.data,length);
     }
 
     /**
@@ -2401,9 +2529,7 @@ public class CommonOps_DDRM {
         // slightly compared to other libraries since it involves an extra multiplication.
         final int size = a.getNumElements();
 
-        for( int i = 0; i < size; i++ ) {
-            a.data[i] *= alpha;
-        }
+        SimdOps_DDRM.scale(alpha,a.data,0,a.data,0,size);
     }
 
     /**
@@ -2423,9 +2549,7 @@ public class CommonOps_DDRM {
 
         final int size = a.getNumElements();
 
-        for( int i = 0; i < size; i++ ) {
-            b.data[i] = a.data[i]*alpha;
-        }
+        SimdOps_DDRM.scale(alpha,a.data,0,b.data,0,size);
     }
 
     /**
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition;
+
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.misc.SimdOps_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Solves triangular systems of equations with multiple right hand sides (TRSM). Either op(T)*X = B or
+ * X*op(T) = B is solved, where T is a square triangular matrix, op(T) is T or T<sup>T</sup>, and B is a matrix
+ * which is overwritten by X.
+ * </p>
+ *
+ * <p>
+ * Unlike {@link TriangularSolver_DDRM}, which solves for one column at a time, all of the columns are solved
+ * together. T is split into blocks of {@link EjmlParameters#BLOCK_WIDTH}. Only the diagonal blocks are solved
+ * directly, with inner loops that move along the rows of B. The rest of the work is a matrix multiplication which
+ * is done using {@link MatrixMatrixMultPacked_DDRM}.
+ * </p>
+ *
+ * <p>
+ * Only the specified triangle in T is read. If 'unit' is true then the diagonal elements are assumed to be one
+ * and are not read either, e.g. the lower triangle of an LU decomposition.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangularSolverBlock_DDRM {
+
+    /**
+     * Solves op(T)*X = B. B is n by m and is overwritten by X.
+     *
+     * @param lower true if T is lower triangular or false if upper triangular
+     * @param transT If true op(T) = T<sup>T</sup>, otherwise op(T) = T
+     * @param unit If true the diagonal of T is assumed to be all ones
+     * @param T (Input) n by n triangular matrix. Not modified.
+     * @param B (Input) n by m matrix. (Output) The solution X. Modified.
+     * @param workA (Optional) Storage for packed blocks. Can be null.
+     * @param workB (Optional) Storage for packed panels. Can be null.
+     */
+    public static void solveLeft( boolean lower , boolean transT , boolean unit ,
+                                  DMatrixRMaj T , DMatrixRMaj B ,
+                                  @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        if( T.numRows != T.numCols )
+            throw new MatrixDimensionException("T must be square");
+        if( T.numRows != B.numRows )
+            throw new MatrixDimensionException("Rows in B must match the size of T");
+
+        final int n = T.numRows, m = B.numCols;
+        if( n == 0 || m == 0 )
+            return;
+
+        final double[] t = T.data, b = B.data;
+        // index of op(T)(i,j) is i*rs + j*cs
+        final int rs = transT ? 1 : n, cs = transT ? n : 1;
+        final int bw = EjmlParameters.BLOCK_WIDTH;
+        final int numBlocks = (n+bw-1)/bw;
+
+        double[] packedA = MatrixMatrixMultPacked_DDRM.reshape(workA,MatrixMatrixMultPacked_DDRM.packedLengthA(n,bw));
+        double[] packedB = MatrixMatrixMultPacked_DDRM.reshape(workB,MatrixMatrixMultPacked_DDRM.packedLengthB(bw,m));
+
+        if( lower != transT ) {
+            // op(T) is lower triangular. Forward substitution
+            for( int block = 0; block < numBlocks; block++ ) {
+                int k0 = block*bw, k1 = Math.min(n,k0+bw);
+
+                for( int i = k0; i < k1; i++ ) {
+                    int rowI = i*m;
+                    for( int p = k0; p < i; p++ ) {
+                        SimdOps_DDRM.axpy(-t[i*rs+p*cs],b,p*m,b,rowI,m);
+                    }
+                    if( !unit )
+                        divide(b,rowI,m,t[i*rs+i*cs]);
+                }
+
+                // B(k1:n,:) = B(k1:n,:) - op(T)(k1:n,k0:k1)*X(k0:k1,:)
+                if( k1 < n ) {
+                    MatrixMatrixMultPacked_DDRM.gemm(-1.0,transT,t,k1*rs+k0*cs,n,false,b,k0*m,m,
+                            b,k1*m,m,n-k1,m,k1-k0,packedA,packedB);
+                }
+            }
+        } else {
+            // op(T) is upper triangular. Backwards substitution
+            for( int block = numBlocks-1; block >= 0; block-- ) {
+                int k0 = block*bw, k1 = Math.min(n,k0+bw);
+
+                for( int i = k1-1; i >= k0; i-- ) {
+                    int rowI = i*m;
+                    for( int p = i+1; p < k1; p++ ) {
+                        SimdOps_DDRM.axpy(-t[i*rs+p*cs],b,p*m,b,rowI,m);
+                    }
+                    if( !unit )
+                        divide(b,rowI,m,t[i*rs+i*cs]);
+                }
+
+                // B(0:k0,:) = B(0:k0,:) - op(T)(0:k0,k0:k1)*X(k0:k1,:)
+                if( k0 > 0 ) {
+                    MatrixMatrixMultPacked_DDRM.gemm(-1.0,transT,t,k0*cs,n,false,b,k0*m,m,
+                            b,0,m,k0,m,k1-k0,packedA,packedB);
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves X*op(T) = B. B is m by n and is overwritten by X.
+     *
+     * @param lower true if T is lower triangular or false if upper triangular
+     * @param transT If true op(T) = T<sup>T</sup>, otherwise op(T) = T
+     * @param unit If true the diagonal of T is assumed to be all ones
+     * @param T (Input) n by n triangular matrix. Not modified.
+     * @param B (Input) m by n matrix. (Output) The solution X. Modified.
+     * @param workA (Optional) Storage for packed blocks. Can be null.
+     * @param workB (Optional) Storage for packed panels. Can be null.
+     */
+    public static void solveRight( boolean lower , boolean transT , boolean unit ,
+                                   DMatrixRMaj T , DMatrixRMaj B ,
+                                   @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        if( T.numRows != T.numCols )
+            throw new MatrixDimensionException("T must be square");
+        if( T.numRows != B.numCols )
+            throw new MatrixDimensionException("Columns in B must match the size of T");
+
+        final int n = T.numRows, m = B.numRows;
+        if( n == 0 || m == 0 )
+            return;
+
+        final double[] t = T.data, b = B.data;
+        final int rs = transT ? 1 : n, cs = transT ? n : 1;
+        final int bw = EjmlParameters.BLOCK_WIDTH;
+        final int numBlocks = (n+bw-1)/bw;
+
+        double[] packedA = MatrixMatrixMultPacked_DDRM.reshape(workA,MatrixMatrixMultPacked_DDRM.packedLengthA(m,bw));
+        double[] packedB = MatrixMatrixMultPacked_DDRM.reshape(workB,MatrixMatrixMultPacked_DDRM.packedLengthB(bw,n));
+
+        if( lower != transT ) {
+            // op(T) is lower triangular. Solve for the last column first
+            for( int block = numBlocks-1; block >= 0; block-- ) {
+                int k0 = block*bw, k1 = Math.min(n,k0+bw);
+
+                for( int row = 0; row < m; row++ ) {
+                    int rowB = row*n;
+                    for( int j = k1-1; j >= k0; j-- ) {
+                        double sum = b[rowB+j];
+                        for( int p = j+1; p < k1; p++ ) {
+                            sum -= b[rowB+p]*t[p*rs+j*cs];
+                        }
+                        b[rowB+j] = unit ? sum : sum/t[j*rs+j*cs];
+                    }
+                }
+
+                // B(:,0:k0) = B(:,0:k0) - X(:,k0:k1)*op(T)(k0:k1,0:k0)
+                if( k0 > 0 ) {
+                    MatrixMatrixMultPacked_DDRM.gemm(-1.0,false,b,k0,n,transT,t,k0*rs,n,
+                            b,0,n,m,k0,k1-k0,packedA,packedB);
+                }
+            }
+        } else {
+            // op(T) is upper triangular. Solve for the first column first
+            for( int block = 0; block < numBlocks; block++ ) {
+                int k0 = block*bw, k1 = Math.min(n,k0+bw);
+
+                for( int row = 0; row < m; row++ ) {
+                    int rowB = row*n;
+                    for( int j = k0; j < k1; j++ ) {
+                        double sum = b[rowB+j];
+                        for( int p = k0; p < j; p++ ) {
+                            sum -= b[rowB+p]*t[p*rs+j*cs];
+                        }
+                        b[rowB+j] = unit ? sum : sum/t[j*rs+j*cs];
+                    }
+                }
+
+                // B(:,k1:n) = B(:,k1:n) - X(:,k0:k1)*op(T)(k0:k1,k1:n)
+                if( k1 < n ) {
+                    MatrixMatrixMultPacked_DDRM.gemm(-1.0,false,b,k0,n,transT,t,k0*rs+k1*cs,n,
+                            b,k1,n,m,n-k1,k1-k0,packedA,packedB);
+                }
+            }
+        }
+    }
+
+    private static void divide( double[] x , int offset , int length , double value ) {
+        for( int i = 0; i < length; i++ ) {
+            x[offset+i] /= value;
+        }
+    }
+}
@@ -0,0 +1,577 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.bidiagonal;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.qr.QrHelperFunctions_DDRM;
+
+/**
+ * <p>
+ * Bidiagonal decomposition which processes the rows and columns in blocks. While a block is being reduced the
+ * matrices X and Y are built up so that the remainder of the matrix can be updated all at once using matrix
+ * multiplication, A = A - U*Y<sup>T</sup> - X*V<sup>T</sup>, instead of two rank-1 updates per column.  U and V
+ * are extracted using block reflectors, I - W*T*W<sup>T</sup>, which are also applied with matrix multiplication.
+ * </p>
+ *
+ * <p>
+ * The reflectors are stored in the same format as {@link BidiagonalDecompositionRow_DDRM}, which is used to
+ * extract B.
+ * </p>
+ *
+ * <p>
+ * Based off of the algorithm used in LAPACK's DGEBRD and DLABRD routines, see J. J. Dongarra, D. C. Sorensen,
+ * and S. J. Hammarling, "Block reduction of matrices to condensed forms for eigenvalue computations"
+ * Journal of Computational and Applied Mathematics 27 (1989) 215-227
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BidiagonalDecompositionBlock_DDRM extends BidiagonalDecompositionRow_DDRM {
+
+    /**
+     * Default number of rows and columns in a block. Wide enough that the matrix multiplications are done
+     * using the packed algorithm, see {@link org.ejml.EjmlParameters#MULT_PACKED_SWITCH}.
+     */
+    public static final int DEFAULT_BLOCK_WIDTH = 128;
+
+    // number of rows and columns in each block
+    private int blockWidth;
+
+    // X and Y for the block being processed. Rows correspond to the rows and columns in A, respectively.
+    private DMatrixRMaj X = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Y = new DMatrixRMaj(1,1);
+
+    // the diagonal and super diagonal elements of the block. While processing a block the elements in A are
+    // set to one since they are part of the reflectors
+    private double diag[] = new double[1];
+    private double off[] = new double[1];
+
+    // reflector for the current row
+    private double v[] = new double[1];
+    // work space
+    private double tmp0[] = new double[1];
+    private double tmp1[] = new double[1];
+
+    // used to update the remainder of the matrix. L = [U X] and R = [Y^T ; V^T]
+    private DMatrixRMaj L = new DMatrixRMaj(1,1);
+    private DMatrixRMaj R = new DMatrixRMaj(1,1);
+    private DMatrixRMaj C = new DMatrixRMaj(1,1);
+
+    // used to apply block reflectors when extracting U and V
+    private DMatrixRMaj W = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Wt = new DMatrixRMaj(1,1);
+    private DMatrixRMaj T = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Q = new DMatrixRMaj(1,1);
+    private DMatrixRMaj WtQ = new DMatrixRMaj(1,1);
+    private DMatrixRMaj TWtQ = new DMatrixRMaj(1,1);
+    private DMatrixRMaj work = new DMatrixRMaj(1,1);
+
+    /**
+     * @param blockWidth Number of rows and columns which are processed at once.
+     */
+    public BidiagonalDecompositionBlock_DDRM( int blockWidth ) {
+        if( blockWidth <= 0 )
+            throw new IllegalArgumentException("blockWidth must be positive");
+        this.blockWidth = blockWidth;
+    }
+
+    /**
+     * Uses a block width of {@link #DEFAULT_BLOCK_WIDTH}
+     */
+    public BidiagonalDecompositionBlock_DDRM() {
+        this(DEFAULT_BLOCK_WIDTH);
+    }
+
+    @Override
+    protected void init(DMatrixRMaj A) {
+        super.init(A);
+
+        int max = Math.max(m,n);
+        if( v.length < max ) {
+            v = new double[max];
+        }
+        if( diag.length < blockWidth ) {
+            diag = new double[blockWidth];
+            off = new double[blockWidth];
+            tmp0 = new double[blockWidth];
+            tmp1 = new double[blockWidth];
+        }
+    }
+
+    @Override
+    protected boolean _decompose() {
+        for( int k = 0; k < min; k += blockWidth ) {
+            int width = Math.min(blockWidth,min-k);
+
+            decomposeBlock(k,width);
+            updateRemainder(k,width);
+
+            // put back the elements which were replaced with ones
+            final double a[] = UBV.data;
+            for( int i = 0; i < width; i++ ) {
+                int c = k+i;
+                a[c*n+c] = diag[i];
+                if( c+1 < n )
+                    a[c*n+c+1] = off[i];
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the reflectors for the rows and columns in the block, along with X and Y. Only the rows and
+     * columns in the block are modified.
+     */
+    private void decomposeBlock( int k , int width ) {
+        final double a[] = UBV.data;
+
+        X.reshape(m,width);
+        Y.reshape(n,width);
+        CommonOps_DDRM.fill(X,0);
+        CommonOps_DDRM.fill(Y,0);
+        final double x[] = X.data;
+        final double y[] = Y.data;
+
+        for( int p = 0; p < width; p++ ) {
+            final int i = k+p;
+
+            //------------ Column i
+            // apply the previous reflectors: A(i:m,i) -= U(i:m,0:p)*Y(i,0:p)^T + X(i:m,0:p)*V(0:p,i)
+            if( p > 0 ) {
+                // copy the column in V(0:p,i) so that it's accessed sequentially
+                for( int q = 0; q < p; q++ ) {
+                    tmp1[q] = a[(k+q)*n+i];
+                }
+                int indexY = i*width;
+                for( int r = i; r < m; r++ ) {
+                    double sum = 0;
+                    int indexA = r*n+k;
+                    int indexX = r*width;
+                    for( int q = 0; q < p; q++ ) {
+                        sum += a[indexA+q]*y[indexY+q] + x[indexX+q]*tmp1[q];
+                    }
+                    a[r*n+i] -= sum;
+                }
+            }
+
+            double gammaU = householderColumn(i,p);
+
+            //------------ Y(i+1:n,p)
+            if( i+1 < n ) {
+                // Y(i+1:n,p) = A(i:m,i+1:n)^T*u
+                multTransRows(i,i+1);
+
+                // tmp0 = U(i:m,0:p)^T*u and tmp1 = X(i:m,0:p)^T*u
+                for( int q = 0; q < p; q++ ) {
+                    tmp0[q] = 0;
+                    tmp1[q] = 0;
+                }
+                for( int r = i; r < m; r++ ) {
+                    double ur = u[r];
+                    int indexA = r*n+k;
+                    int indexX = r*width;
+                    for( int q = 0; q < p; q++ ) {
+                        tmp0[q] += a[indexA+q]*ur;
+                        tmp1[q] += x[indexX+q]*ur;
+                    }
+                }
+
+                // Y(i+1:n,p) -= Y(i+1:n,0:p)*tmp0 + V(0:p,i+1:n)^T*tmp1
+                for( int q = 0; q < p; q++ ) {
+                    double t = tmp1[q];
+                    int indexA = (k+q)*n;
+                    for( int j = i+1; j < n; j++ ) {
+                        v[j] -= a[indexA+j]*t;
+                    }
+                }
+                for( int j = i+1; j < n; j++ ) {
+                    int indexY = j*width;
+                    double sum = v[j];
+                    for( int q = 0; q < p; q++ ) {
+                        sum -= y[indexY+q]*tmp0[q];
+                    }
+                    y[indexY+p] = gammaU*sum;
+                }
+            }
+
+            //------------ Row i
+            if( i+1 >= n ) {
+                gammasV[i] = 0;
+                continue;
+            }
+            // apply the reflectors: A(i,i+1:n) -= Y(i+1:n,0:p+1)*U(i,0:p+1)^T + V(0:p,i+1:n)^T*X(i,0:p)^T
+            {
+                int indexRow = i*n;
+                for( int q = 0; q < p; q++ ) {
+                    double t = x[i*width+q];
+                    int indexA = (k+q)*n;
+                    for( int j = i+1; j < n; j++ ) {
+                        a[indexRow+j] -= a[indexA+j]*t;
+                    }
+                }
+                for( int j = i+1; j < n; j++ ) {
+                    int indexY = j*width;
+                    double sum = 0;
+                    for( int q = 0; q <= p; q++ ) {
+                        sum += y[indexY+q]*a[indexRow+k+q];
+                    }
+                    a[indexRow+j] -= sum;
+                }
+            }
+
+            double gammaV = householderRow(i,p);
+
+            //------------ X(i+1:m,p)
+            if( i+1 < m ) {
+                // X(i+1:m,p) = A(i+1:m,i+1:n)*v
+                multRows(i+1,i+1,p);
+
+                // tmp0 = Y(i+1:n,0:p+1)^T*v and tmp1 = V(0:p,i+1:n)*v
+                for( int q = 0; q <= p; q++ ) {
+                    tmp0[q] = 0;
+                }
+                for( int j = i+1; j < n; j++ ) {
+                    double vj = v[j];
+                    int indexY = j*width;
+                    for( int q = 0; q <= p; q++ ) {
+                        tmp0[q] += y[indexY+q]*vj;
+                    }
+                }
+                for( int q = 0; q < p; q++ ) {
+                    int indexA = (k+q)*n;
+                    double sum = 0;
+                    for( int j = i+1; j < n; j++ ) {
+                        sum += a[indexA+j]*v[j];
+                    }
+                    tmp1[q] = sum;
+                }
+
+                // X(i+1:m,p) -= U(i+1:m,0:p+1)*tmp0 + X(i+1:m,0:p)*tmp1
+                for( int r = i+1; r < m; r++ ) {
+                    int indexA = r*n+k;
+                    int indexX = r*width;
+                    double sum = x[indexX+p];
+                    for( int q = 0; q <= p; q++ ) {
+                        sum -= a[indexA+q]*tmp0[q];
+                    }
+                    for( int q = 0; q < p; q++ ) {
+                        sum -= x[indexX+q]*tmp1[q];
+                    }
+                    x[indexX+p] = gammaV*sum;
+                }
+            }
+        }
+    }
+
+    /**
+     * v(col0:n) = A(row0:m,col0:n)<sup>T</sup>*u(row0:m). Four rows are processed at the same time to reduce the
+     * number of times 'v' is read and written.
+     */
+    private void multTransRows( int row0 , int col0 ) {
+        final double a[] = UBV.data;
+
+        for( int j = col0; j < n; j++ ) {
+            v[j] = 0;
+        }
+
+        int row = row0;
+        for( ; row+3 < m; row += 4 ) {
+            double u0 = u[row], u1 = u[row+1], u2 = u[row+2], u3 = u[row+3];
+            int index0 = row*n;
+            int index1 = index0 + n;
+            int index2 = index1 + n;
+            int index3 = index2 + n;
+            for( int j = col0; j < n; j++ ) {
+                v[j] += a[index0+j]*u0 + a[index1+j]*u1 + a[index2+j]*u2 + a[index3+j]*u3;
+            }
+        }
+        for( ; row < m; row++ ) {
+            double ur = u[row];
+            int indexA = row*n;
+            for( int j = col0; j < n; j++ ) {
+                v[j] += a[indexA+j]*ur;
+            }
+        }
+    }
+
+    /**
+     * X(row0:m,p) = A(row0:m,col0:n)*v(col0:n). This is where most of the time is spent in a block. To make
+     * better use of the CPU, four rows are processed at the same time.
+     */
+    private void multRows( int row0 , int col0 , int p ) {
+        final double a[] = UBV.data;
+        final double x[] = X.data;
+        final int width = X.numCols;
+
+        int row = row0;
+        for( ; row+3 < m; row += 4 ) {
+            double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+            int index0 = row*n + col0;
+            int index1 = index0 + n;
+            int index2 = index1 + n;
+            int index3 = index2 + n;
+            for( int j = col0; j < n; j++ ) {
+                double val = v[j];
+                sum0 += a[index0++]*val;
+                sum1 += a[index1++]*val;
+                sum2 += a[index2++]*val;
+                sum3 += a[index3++]*val;
+            }
+            x[row*width+p] = sum0;
+            x[(row+1)*width+p] = sum1;
+            x[(row+2)*width+p] = sum2;
+            x[(row+3)*width+p] = sum3;
+        }
+        for( ; row < m; row++ ) {
+            double sum = 0;
+            int indexA = row*n + col0;
+            for( int j = col0; j < n; j++ ) {
+                sum += a[indexA++]*v[j];
+            }
+            x[row*width+p] = sum;
+        }
+    }
+
+    /**
+     * Computes the reflector which zeros the elements below the diagonal in column i. The reflector is written
+     * into 'u' and below the diagonal. The diagonal element is saved and replaced with one.
+     *
+     * @return gamma for the reflector
+     */
+    private double householderColumn( int i , int p ) {
+        final double a[] = UBV.data;
+
+        double max = 0;
+        for( int r = i; r < m; r++ ) {
+            double val = u[r] = a[r*n+i];
+            val = Math.abs(val);
+            if( val > max )
+                max = val;
+        }
+
+        double gamma;
+        if( max > 0 ) {
+            double tau = QrHelperFunctions_DDRM.computeTauAndDivide(i, m, u, max);
+            double nu = u[i] + tau;
+            QrHelperFunctions_DDRM.divideElements_Bcol(i + 1, m, n, u, a, i, nu);
+            gamma = nu/tau;
+            diag[p] = -tau*max;
+        } else {
+            // the column is already zero and the reflector is the identity matrix
+            gamma = 0;
+            diag[p] = a[i*n+i];
+        }
+        u[i] = 1.0;
+        a[i*n+i] = 1.0;
+        gammasU[i] = gamma;
+        return gamma;
+    }
+
+    /**
+     * Computes the reflector which zeros the elements to the right of the super diagonal in row i. The reflector
+     * is written into 'v' and to the right of the super diagonal. The super diagonal element is saved and
+     * replaced with one.
+     *
+     * @return gamma for the reflector
+     */
+    private double householderRow( int i , int p ) {
+        final double a[] = UBV.data;
+        final int row = i*n;
+
+        double max = QrHelperFunctions_DDRM.findMax(a, row + i + 1, n - i - 1);
+
+        double gamma;
+        if( max > 0 ) {
+            double tau = QrHelperFunctions_DDRM.computeTauAndDivide(i + 1, n, a, row, max);
+            double nu = a[row+i+1] + tau;
+            QrHelperFunctions_DDRM.divideElements_Brow(i + 2, n, v, a, row, nu);
+            gamma = nu/tau;
+            off[p] = -tau*max;
+        } else {
+            // the row is already zero and the reflector is the identity matrix
+            for( int j = i+2; j < n; j++ ) {
+                v[j] = 0;
+            }
+            gamma = 0;
+            off[p] = a[row+i+1];
+        }
+        v[i+1] = 1.0;
+        a[row+i+1] = 1.0;
+        gammasV[i] = gamma;
+        return gamma;
+    }
+
+    /**
+     * Updates the rows and columns after the block.<br>
+     * A(k+w:m,k+w:n) = A(k+w:m,k+w:n) - U*Y<sup>T</sup> - X*V<sup>T</sup>
+     */
+    private void updateRemainder( int k , int width ) {
+        final int row0 = k+width;
+        final int numRows = m-row0;
+        final int numCols = n-row0;
+        if( numRows <= 0 || numCols <= 0 )
+            return;
+
+        final double a[] = UBV.data;
+
+        // L = [U X]
+        L.reshape(numRows,2*width);
+        for( int r = 0; r < numRows; r++ ) {
+            System.arraycopy(a,(row0+r)*n+k,L.data,r*2*width,width);
+            System.arraycopy(X.data,(row0+r)*width,L.data,r*2*width+width,width);
+        }
+
+        // R = [Y^T ; V^T]
+        R.reshape(2*width,numCols);
+        for( int i = 0; i < width; i++ ) {
+            int indexR = i*numCols;
+            for( int j = 0; j < numCols; j++ ) {
+                R.data[indexR+j] = Y.data[(row0+j)*width+i];
+            }
+            System.arraycopy(a,(k+i)*n+row0,R.data,(width+i)*numCols,numCols);
+        }
+
+        CommonOps_DDRM.extract(UBV,row0,m,row0,n,C);
+        CommonOps_DDRM.multAdd(-1,L,R,C);
+        CommonOps_DDRM.insert(C,UBV,row0,row0);
+    }
+
+    @Override
+    public DMatrixRMaj getU(DMatrixRMaj U, boolean transpose, boolean compact) {
+        U = handleU(U, transpose, compact,m,n,min);
+
+        if( transpose ) {
+            work.reshape(U.numCols,U.numRows);
+            computeQ(work,true);
+            CommonOps_DDRM.transpose(work,U);
+        } else {
+            computeQ(U,true);
+        }
+        return U;
+    }
+
+    @Override
+    public DMatrixRMaj getV(DMatrixRMaj V, boolean transpose, boolean compact) {
+        V = handleV(V, transpose, compact,m,n,min);
+
+        if( transpose ) {
+            work.reshape(V.numCols,V.numRows);
+            computeQ(work,false);
+            CommonOps_DDRM.transpose(work,V);
+        } else {
+            computeQ(V,false);
+        }
+        return V;
+    }
+
+    /**
+     * Computes U or V by applying the reflectors to an identity matrix. The reflectors are processed in blocks
+     * starting with the last one. Each block is applied as a block reflector, I - W*T*W<sup>T</sup>.
+     *
+     * @param Qout Storage for the results. Has the correct shape.
+     * @param isU true for U and false for V
+     */
+    private void computeQ( DMatrixRMaj Qout , boolean isU ) {
+        CommonOps_DDRM.setIdentity(Qout);
+
+        // reflector j starts at element j+offset
+        final int offset = isU ? 0 : 1;
+        final int length = isU ? m : n;
+        final double gammas[] = isU ? gammasU : gammasV;
+        final int numReflectors = Math.min(min,length-offset);
+        final double a[] = UBV.data;
+
+        int numBlocks = (numReflectors+blockWidth-1)/blockWidth;
+        for( int block = numBlocks-1; block >= 0; block-- ) {
+            final int k = block*blockWidth;
+            final int width = Math.min(blockWidth,numReflectors-k);
+            final int start = k+offset;
+            final int rows = length-start;
+            final int cols = Qout.numCols-start;
+            if( cols <= 0 )
+                continue;
+
+            // W^T, one reflector in each row
+            Wt.reshape(width,rows);
+            CommonOps_DDRM.fill(Wt,0);
+            for( int i = 0; i < width; i++ ) {
+                int j = k+i;
+                int indexW = i*rows;
+                Wt.data[indexW+i] = 1;
+                if( isU ) {
+                    for( int r = j+1; r < m; r++ ) {
+                        Wt.data[indexW+r-start] = a[r*n+j];
+                    }
+                } else {
+                    System.arraycopy(a,j*n+j+2,Wt.data,indexW+i+1,n-j-2);
+                }
+            }
+            computeT(Wt,gammas,k,width);
+
+            // Q = (I - W*T*W^T)*Q
+            CommonOps_DDRM.extract(Qout,start,length,start,Qout.numCols,Q);
+            CommonOps_DDRM.mult(Wt,Q,WtQ);
+            CommonOps_DDRM.mult(T,WtQ,TWtQ);
+            W.reshape(rows,width);
+            CommonOps_DDRM.transpose(Wt,W);
+            CommonOps_DDRM.multAdd(-1,W,TWtQ,Q);
+            CommonOps_DDRM.insert(Q,Qout,start,start);
+        }
+    }
+
+    /**
+     * Computes the upper triangular matrix T for the block reflector H(k)*...*H(k+width-1) = I - W*T*W<sup>T</sup>
+     */
+    private void computeT( DMatrixRMaj Wt , double gammas[] , int k , int width ) {
+        T.reshape(width,width);
+        CommonOps_DDRM.fill(T,0);
+        final int rows = Wt.numCols;
+
+        for( int i = 0; i < width; i++ ) {
+            double gamma = gammas[k+i];
+
+            // tmp0 = W(:,0:i)^T*w_i
+            for( int q = 0; q < i; q++ ) {
+                double sum = 0;
+                int indexA = q*rows;
+                int indexB = i*rows;
+                for( int r = i; r < rows; r++ ) {
+                    sum += Wt.data[indexA+r]*Wt.data[indexB+r];
+                }
+                tmp0[q] = sum;
+            }
+
+            // T(0:i,i) = -gamma*T(0:i,0:i)*tmp0
+            for( int q = 0; q < i; q++ ) {
+                double sum = 0;
+                for( int l = q; l < i; l++ ) {
+                    sum += T.data[q*width+l]*tmp0[l];
+                }
+                T.data[q*width+i] = -gamma*sum;
+            }
+            T.data[i*width+i] = gamma;
+        }
+    }
+
+    public int getBlockWidth() {
+        return blockWidth;
+    }
+}
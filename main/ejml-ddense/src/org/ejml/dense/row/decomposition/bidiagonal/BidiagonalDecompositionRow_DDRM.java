@@ -35,21 +35,21 @@ public class BidiagonalDecompositionRow_DDRM
         implements BidiagonalDecomposition_F64<DMatrixRMaj>
 {
     // A combined matrix that stores te upper Hessenberg matrix and the orthogonal matrix.
-    private DMatrixRMaj UBV;
+    protected DMatrixRMaj UBV;
 
     // number of rows
-    private int m;
+    protected int m;
     // number of columns
-    private int n;
+    protected int n;
     // the smaller of m or n
-    private int min;
+    protected int min;
 
     // the first element in the orthogonal vectors
-    private double gammasU[];
-    private double gammasV[];
+    protected double gammasU[];
+    protected double gammasV[];
     // temporary storage
-    private double b[];
-    private double u[];
+    protected double b[];
+    protected double u[];
 
     /**
      * Creates a decompose that defines the specified amount of memory.
@@ -282,7 +282,7 @@ public class BidiagonalDecompositionRow_DDRM
     /**
      * Internal function for computing the decomposition.
      */
-    private boolean _decompose() {
+    protected boolean _decompose() {
         for( int k = 0; k < min; k++ ) {
 //            UBV.print();
             computeU(k);
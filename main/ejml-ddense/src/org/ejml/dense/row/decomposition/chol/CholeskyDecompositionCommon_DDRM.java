@@ -57,6 +57,12 @@ public abstract class CholeskyDecompositionCommon_DDRM
     // storage for computed determinant
     protected Complex_F64 det = new Complex_F64();
 
+    // work space for updates. copy of the update vectors, the rotations, and a copy of T for downdates
+    private DMatrixRMaj updateX = new DMatrixRMaj(1,1);
+    private double updateC[] = new double[1];
+    private double updateS[] = new double[1];
+    private DMatrixRMaj updateT = new DMatrixRMaj(1,1);
+
     /**
      * Specifies if a lower or upper variant should be constructed.
      *
@@ -189,4 +195,116 @@ public abstract class CholeskyDecompositionCommon_DDRM
 
         return det;
     }
-}
\ No newline at end of file
+
+    /**
+     * <p>
+     * Modifies the decomposition so that it's the decomposition of A + V*V<sup>T</sup>, where A is the matrix which
+     * was decomposed. This takes O(k*n<sup>2</sup>) operations instead of the O(n<sup>3</sup>) needed to decompose
+     * the matrix again. The triangular matrix is modified in place.
+     * </p>
+     *
+     * <p>
+     * Each column in V is applied using a sequence of plane rotations. The columns are processed together so that
+     * the triangular matrix is only traversed once for all of them.
+     * </p>
+     *
+     * <p>
+     * If V contains NaN or values so large that the factor overflows then false is returned and the decomposition
+     * is left unchanged.
+     * </p>
+     *
+     * @param V Matrix with n rows. Each column is a vector in the update. Not modified.
+     * @return true if successful or false if the factor could not be computed.
+     */
+    public boolean update( DMatrixRMaj V ) {
+        return modifyFactor(V,1.0);
+    }
+
+    /**
+     * <p>
+     * Modifies the decomposition so that it's the decomposition of A - V*V<sup>T</sup>, where A is the matrix which
+     * was decomposed. See {@link #update(DMatrixRMaj)}.
+     * </p>
+     *
+     * <p>
+     * If the modified matrix is not positive definite then false is returned and the decomposition is left
+     * unchanged.
+     * </p>
+     *
+     * @param V Matrix with n rows. Each column is a vector in the downdate. Not modified.
+     * @return true if successful or false if the modified matrix is not positive definite.
+     */
+    public boolean downdate( DMatrixRMaj V ) {
+        return modifyFactor(V,-1.0);
+    }
+
+    /**
+     * Updates or downdates the factor. If it fails the factor is restored to what it was before.
+     */
+    private boolean modifyFactor( DMatrixRMaj V , double sign ) {
+        updateT.reshape(n,n);
+        System.arraycopy(t,0,updateT.data,0,n*n);
+
+        if( !updateFactor(V,sign) ) {
+            System.arraycopy(updateT.data,0,t,0,n*n);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Applies the rotations one column of the lower triangular factor at a time. When it's upper triangular
+     * the column in the lower triangular factor is a row.
+     *
+     * @param sign 1 for an update and -1 for a downdate
+     * @return false if a diagonal element is no longer positive
+     */
+    private boolean updateFactor( DMatrixRMaj V , double sign ) {
+        if( V.numRows != n )
+            throw new IllegalArgumentException("V must have "+n+" rows");
+
+        final int k = V.numCols;
+        updateX.set(V);
+        if( updateC.length < k ) {
+            updateC = new double[k];
+            updateS = new double[k];
+        }
+        final double[] x = updateX.data;
+        final double[] c = updateC;
+        final double[] s = updateS;
+
+        // index of element (i,j) in the lower triangular factor is i*strideRow + j*strideCol
+        final int strideRow = lower ? n : 1;
+        final int strideCol = lower ? 1 : n;
+
+        for( int j = 0; j < n; j++ ) {
+            // rotations which zero element j in each vector
+            int indexJJ = j*n+j;
+            double ljj = t[indexJJ];
+            for( int p = 0; p < k; p++ ) {
+                double xj = x[j*k+p];
+                double r2 = ljj*ljj + sign*xj*xj;
+                if( !(r2 > 0) || Double.isInfinite(r2) )
+                    return false;
+                double r = Math.sqrt(r2);
+                c[p] = r/ljj;
+                s[p] = xj/ljj;
+                ljj = r;
+            }
+            t[indexJJ] = ljj;
+
+            // apply the rotations to the rest of the column
+            for( int i = j+1; i < n; i++ ) {
+                int indexIJ = i*strideRow + j*strideCol;
+                int indexX = i*k;
+                double lij = t[indexIJ];
+                for( int p = 0; p < k; p++ ) {
+                    lij = (lij + sign*s[p]*x[indexX+p])/c[p];
+                    x[indexX+p] = c[p]*x[indexX+p] - s[p]*lij;
+                }
+                t[indexIJ] = lij;
+            }
+        }
+        return true;
+    }
+}
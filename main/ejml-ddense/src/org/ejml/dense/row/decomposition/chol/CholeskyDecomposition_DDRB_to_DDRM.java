@@ -19,11 +19,13 @@
 package org.ejml.dense.row.decomposition.chol;
 
 import org.ejml.EjmlParameters;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.Complex_F64;
 import org.ejml.data.DMatrixRBlock;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.block.MatrixOps_DDRB;
 import org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_DDRB;
+import org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_MT_DDRB;
 import org.ejml.dense.row.decomposition.BaseDecomposition_DDRB_to_DDRM;
 import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 
@@ -37,8 +39,37 @@ import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 public class CholeskyDecomposition_DDRB_to_DDRM
         extends BaseDecomposition_DDRB_to_DDRM implements CholeskyDecomposition_F64<DMatrixRMaj> {
 
+    // single and multi-threaded decompositions. The multi-threaded one is null if concurrency is off
+    CholeskyOuterForm_DDRB algSerial;
+    CholeskyOuterForm_DDRB algConcurrent;
+
+    /**
+     * Multi-threaded algorithms are used if {@link EjmlConcurrency#USE_CONCURRENT} is true
+     *
+     * @param lower Should it decompose it into a lower triangular matrix or not.
+     */
     public CholeskyDecomposition_DDRB_to_DDRM(boolean lower) {
+        this(lower,EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    /**
+     * @param lower Should it decompose it into a lower triangular matrix or not.
+     * @param concurrent If true then {@link CholeskyOuterForm_MT_DDRB} is used on matrices which are at least
+     *                   {@link EjmlParameters#MULT_CONCURRENT_SWITCH} in size.
+     */
+    public CholeskyDecomposition_DDRB_to_DDRM(boolean lower, boolean concurrent) {
         super(new CholeskyOuterForm_DDRB(lower), EjmlParameters.BLOCK_WIDTH);
+        algSerial = (CholeskyOuterForm_DDRB)alg;
+        if( concurrent )
+            algConcurrent = new CholeskyOuterForm_MT_DDRB(lower);
+    }
+
+    @Override
+    public boolean decompose(DMatrixRMaj A) {
+        // the work is mostly block matrix multiplications so the same threshold is used
+        boolean useConcurrent = algConcurrent != null && A.numCols >= EjmlParameters.MULT_CONCURRENT_SWITCH;
+        alg = useConcurrent ? algConcurrent : algSerial;
+        return super.decompose(A);
     }
 
     @Override
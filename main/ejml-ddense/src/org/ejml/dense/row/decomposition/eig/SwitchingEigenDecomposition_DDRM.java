@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.decomposition.eig;
 
+import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
 import org.ejml.data.Complex_F64;
 import org.ejml.data.DMatrixRMaj;
@@ -29,7 +30,8 @@ import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 /**
  * Checks to see what type of matrix is being decomposed and calls different eigenvalue decomposition
  * algorithms depending on the results.  This primarily checks to see if the matrix is symmetric or not.
- *
+ * Large symmetric matrices are decomposed using {@link SymmetricDivideConquerDecomposition_DDRM} when
+ * eigenvectors are needed.
  *
  * @author Peter Abeles
  */
@@ -38,7 +40,11 @@ public class SwitchingEigenDecomposition_DDRM
     // tolerance used in deciding if a matrix is symmetric or not
     private double tol;
 
+    // algorithm used on the most recent symmetric matrix
     EigenDecomposition_F64<DMatrixRMaj> symmetricAlg;
+    // symmetric algorithms for matrices below and above SWITCH_EIG_DIVIDE_CONQUER. Created when first needed
+    EigenDecomposition_F64<DMatrixRMaj> symmetricSmallAlg;
+    EigenDecomposition_F64<DMatrixRMaj> symmetricLargeAlg;
     EigenDecomposition_F64<DMatrixRMaj> generalAlg;
 
     boolean symmetric;
@@ -54,6 +60,10 @@ public class SwitchingEigenDecomposition_DDRM
      */
     public SwitchingEigenDecomposition_DDRM(int matrixSize , boolean computeVectors , double tol ) {
         symmetricAlg = DecompositionFactory_DDRM.eig(matrixSize,computeVectors,true);
+        if( symmetricAlg instanceof SymmetricDivideConquerDecomposition_DDRM )
+            symmetricLargeAlg = symmetricAlg;
+        else
+            symmetricSmallAlg = symmetricAlg;
         generalAlg = DecompositionFactory_DDRM.eig(matrixSize,computeVectors,false);
         this.computeVectors = computeVectors;
         this.tol = tol;
@@ -90,6 +100,19 @@ public class SwitchingEigenDecomposition_DDRM
 
         symmetric = MatrixFeatures_DDRM.isSymmetric(A,tol);
 
+        // the matrix might be much larger or smaller than the size it was configured for
+        if( symmetric ) {
+            if( computeVectors && A.numRows >= EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER ) {
+                if( symmetricLargeAlg == null )
+                    symmetricLargeAlg = DecompositionFactory_DDRM.eig(A.numRows,true,true);
+                symmetricAlg = symmetricLargeAlg;
+            } else {
+                if( symmetricSmallAlg == null )
+                    symmetricSmallAlg = DecompositionFactory_DDRM.eig(A.numRows,computeVectors,true);
+                symmetricAlg = symmetricSmallAlg;
+            }
+        }
+
         return symmetric ?
                 symmetricAlg.decompose(A) :
                 generalAlg.decompose(A);
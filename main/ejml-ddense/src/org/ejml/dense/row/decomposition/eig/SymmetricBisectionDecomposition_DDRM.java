@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricBisectionAlgorithm_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+
+
+/**
+ * <p>
+ * Computes a subset of the eigenvalues, and optionally their eigenvectors, of a real symmetric matrix. The
+ * eigenvalues can be selected by their index when sorted in ascending order, by an interval which contains them,
+ * or as the largest eigenvalues. By default all the eigenvalues are found.
+ * </p>
+ *
+ * <p>
+ * The matrix is first reduced to a tridiagonal matrix, A = Q*T*Q<sup>T</sup>. Then the selected eigenvalues of T are
+ * found using bisection and their eigenvectors using inverse iteration, see {@link SymmetricBisectionAlgorithm_DDRM}.
+ * Only the selected eigenvectors are multiplied by Q and Q is never explicitly computed. When only a few
+ * eigenvalues are needed this is much faster than {@link SymmetricQRAlgorithmDecomposition_DDRM}.
+ * </p>
+ *
+ * <p>
+ * Eigenvalues are returned in ascending order. {@link #getNumberOfEigenvalues()} is the number of eigenvalues which
+ * were found and not the size of the matrix.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricBisectionDecomposition_DDRM
+        implements EigenDecomposition_F64<DMatrixRMaj> {
+
+    // how the eigenvalues are selected
+    private enum Selection {
+        ALL,
+        INDEXES,
+        INTERVAL,
+        LARGEST
+    }
+
+    // computes a tridiagonal matrix whose eigenvalues are the same as the original
+    private TridiagonalDecompositionHouseholder_DDRM decomp = new TridiagonalDecompositionHouseholder_DDRM();
+    // computes eigenvalues and eigenvectors of the tridiagonal matrix
+    private SymmetricBisectionAlgorithm_DDRM alg = new SymmetricBisectionAlgorithm_DDRM();
+
+    // should it compute eigenvectors or just eigenvalues
+    private boolean computeVectors;
+
+    private Selection selection = Selection.ALL;
+    private int start,end;
+    private double lower,upper;
+
+    // where the tridiagonal matrix is stored
+    private double diag[];
+    private double off[];
+
+    // the found eigenvalues
+    private double values[];
+
+    // eigenvectors of the original matrix in the columns
+    private DMatrixRMaj V = new DMatrixRMaj(1,1);
+    // the extracted eigenvectors
+    private DMatrixRMaj eigenvectors[];
+
+    /**
+     * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
+     */
+    public SymmetricBisectionDecomposition_DDRM( boolean computeVectors ) {
+        this.computeVectors = computeVectors;
+    }
+
+    public SymmetricBisectionDecomposition_DDRM() {
+        this(true);
+    }
+
+    /**
+     * Only eigenvalues with these indexes, when all the eigenvalues are sorted in ascending order, are found.
+     *
+     * @param start Index of the first eigenvalue. Inclusive.
+     * @param end Index of the last eigenvalue. Exclusive.
+     */
+    public void selectIndexes( int start , int end ) {
+        if( start < 0 || start > end )
+            throw new IllegalArgumentException("Invalid range of indexes. start="+start+" end="+end);
+        this.selection = Selection.INDEXES;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Only eigenvalues &lambda; in the interval lower &le; &lambda; &lt; upper are found.
+     *
+     * @param lower Lower limit of the interval. Inclusive.
+     * @param upper Upper limit of the interval. Exclusive.
+     */
+    public void selectInterval( double lower , double upper ) {
+        if( !(lower <= upper) )
+            throw new IllegalArgumentException("Invalid interval. lower="+lower+" upper="+upper);
+        this.selection = Selection.INTERVAL;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Only the specified number of the largest eigenvalues are found. If the matrix is smaller than this
+     * then all of them are found.
+     *
+     * @param count Number of eigenvalues.
+     */
+    public void selectLargest( int count ) {
+        if( count < 0 )
+            throw new IllegalArgumentException("count can't be negative");
+        this.selection = Selection.LARGEST;
+        this.start = count;
+    }
+
+    /**
+     * All the eigenvalues are found. This is the default.
+     */
+    public void selectAll() {
+        this.selection = Selection.ALL;
+    }
+
+    @Override
+    public int getNumberOfEigenvalues() {
+        return alg.getNumberOfEigenvalues();
+    }
+
+    @Override
+    public Complex_F64 getEigenvalue(int index) {
+        return new Complex_F64(values[index],0);
+    }
+
+    @Override
+    public DMatrixRMaj getEigenVector(int index) {
+        if( !computeVectors )
+            throw new IllegalArgumentException("Configured to not compute eignevectors");
+        return eigenvectors[index];
+    }
+
+    /**
+     * Index of the first found eigenvalue when all the eigenvalues are sorted in ascending order
+     */
+    public int getFirstIndex() {
+        return alg.getFirstIndex();
+    }
+
+    /**
+     * Decomposes the matrix.
+     *
+     * @param orig The matrix which is being decomposed.  Modified.
+     * @return true if it decomposed the matrix or false if an error was detected.  This will not catch all errors.
+     */
+    @Override
+    public boolean decompose(DMatrixRMaj orig) {
+        if( orig.numCols != orig.numRows )
+            throw new IllegalArgumentException("Matrix must be square.");
+        if( orig.numCols <= 0 )
+            return false;
+
+        int N = orig.numRows;
+
+        if( !decomp.decompose(orig) )
+            return false;
+
+        if( diag == null || diag.length < N ) {
+            diag = new double[N];
+            off = new double[N];
+        }
+        decomp.getDiagonal(diag,off);
+
+        boolean success;
+        switch( selection ) {
+            case ALL: success = alg.processIndexes(N,diag,off,0,N); break;
+            case INDEXES: success = alg.processIndexes(N,diag,off,start,end); break;
+            case INTERVAL: success = alg.processInterval(N,diag,off,lower,upper); break;
+            case LARGEST: success = alg.processIndexes(N,diag,off,Math.max(0,N-start),N); break;
+            default: throw new RuntimeException("Unknown selection");
+        }
+        if( !success )
+            return false;
+
+        values = alg.getEigenvalues(values);
+
+        if( computeVectors ) {
+            // eigenvectors of the original matrix are Q*Z
+            if( alg.computeVectors(V) == null )
+                return false;
+            decomp.applyQ(V);
+
+            if( eigenvectors != null && eigenvectors.length != V.numCols )
+                eigenvectors = null;
+            eigenvectors = CommonOps_DDRM.columnsToVector(V,eigenvectors);
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return decomp.inputModified();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricDivideConquerAlgorithm_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.ejml.interfaces.decomposition.TridiagonalSimilarDecomposition_F64;
+
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a real symmetric matrix. The matrix is first reduced to a
+ * tridiagonal matrix, A = Q*T*Q<sup>T</sup>, which is then decomposed using the divide and conquer algorithm,
+ * T = Z*D*Z<sup>T</sup>. The eigenvectors are found by computing Q*Z.  Unlike {@link SymmetricQRAlgorithmDecomposition_DDRM},
+ * where the eigenvectors are updated one rotation at a time, most of the work is done using matrix multiplication.
+ * This makes it much faster for large matrices.
+ * </p>
+ *
+ * <p>
+ * Eigenvalues are always computed along with their eigenvectors. If only eigenvalues are needed then use
+ * {@link SymmetricQRAlgorithmDecomposition_DDRM} instead.
+ * </p>
+ *
+ * @see SymmetricDivideConquerAlgorithm_DDRM
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricDivideConquerDecomposition_DDRM
+        implements EigenDecomposition_F64<DMatrixRMaj> {
+
+    // computes a tridiagonal matrix whose eigenvalues are the same as the original
+    private TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp;
+    // computes eigenvalues and eigenvectors of the tridiagonal matrix
+    private SymmetricDivideConquerAlgorithm_DDRM alg;
+
+    // where the tridiagonal matrix is stored
+    private double diag[];
+    private double off[];
+
+    // the found eigenvalues
+    private double values[];
+
+    // orthogonal matrix from the tridiagonal decomposition and the eigenvectors
+    private DMatrixRMaj Q;
+    private DMatrixRMaj V = new DMatrixRMaj(1,1);
+    // the extracted eigenvectors
+    private DMatrixRMaj eigenvectors[];
+
+    public SymmetricDivideConquerDecomposition_DDRM( TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp ,
+                                                     SymmetricDivideConquerAlgorithm_DDRM alg ) {
+        this.decomp = decomp;
+        this.alg = alg;
+    }
+
+    /**
+     * @param matrixSize Number of rows and columns that the returned decomposition is optimized for.
+     * @param concurrent If true then the tridiagonal matrix is decomposed using multiple threads.
+     */
+    public SymmetricDivideConquerDecomposition_DDRM( int matrixSize , boolean concurrent ) {
+        this(DecompositionFactory_DDRM.tridiagonal(matrixSize),
+                new SymmetricDivideConquerAlgorithm_DDRM(SymmetricDivideConquerAlgorithm_DDRM.DEFAULT_MIN_SIZE,concurrent));
+    }
+
+    public SymmetricDivideConquerDecomposition_DDRM( int matrixSize ) {
+        this(matrixSize, EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    public SymmetricDivideConquerDecomposition_DDRM() {
+        this(0);
+    }
+
+    /**
+     * Used to limit the number of internal QR iterations that the QR algorithm performs on small sub-problems.
+     *
+     * @param max The maximum number of QR iterations it will perform.
+     */
+    public void setMaxIterations( int max ) {
+        alg.setMaxIterations(max);
+    }
+
+    @Override
+    public int getNumberOfEigenvalues() {
+        return alg.getNumberOfEigenvalues();
+    }
+
+    @Override
+    public Complex_F64 getEigenvalue(int index) {
+        return new Complex_F64(values[index],0);
+    }
+
+    @Override
+    public DMatrixRMaj getEigenVector(int index) {
+        return eigenvectors[index];
+    }
+
+    /**
+     * Decomposes the matrix.
+     *
+     * @param orig The matrix which is being decomposed.  Not modified.
+     * @return true if it decomposed the matrix or false if an error was detected.  This will not catch all errors.
+     */
+    @Override
+    public boolean decompose(DMatrixRMaj orig) {
+        if( orig.numCols != orig.numRows )
+            throw new IllegalArgumentException("Matrix must be square.");
+        if( orig.numCols <= 0 )
+            return false;
+
+        int N = orig.numRows;
+
+        if( !decomp.decompose(orig) )
+            return false;
+
+        if( diag == null || diag.length < N ) {
+            diag = new double[N];
+            off = new double[N];
+            values = new double[N];
+        }
+        decomp.getDiagonal(diag,off);
+
+        if( !alg.process(N,diag,off) )
+            return false;
+
+        System.arraycopy(alg.getEigenvalues(),0,values,0,N);
+
+        // eigenvectors of the original matrix are Q*Z
+        if( Q != null )
+            Q.reshape(N,N);
+        Q = decomp.getQ(Q,false);
+        V.reshape(N,N);
+        CommonOps_DDRM.mult(Q,alg.getQ(),V);
+
+        if( eigenvectors != null && eigenvectors.length != N )
+            eigenvectors = null;
+        eigenvectors = CommonOps_DDRM.columnsToVector(V,eigenvectors);
+
+        return true;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return decomp.inputModified();
+    }
+}
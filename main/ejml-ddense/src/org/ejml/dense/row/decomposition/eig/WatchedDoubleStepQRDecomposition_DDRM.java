@@ -54,7 +54,16 @@ public class WatchedDoubleStepQRDecomposition_DDRM
     boolean computeVectors;
 
     public WatchedDoubleStepQRDecomposition_DDRM(boolean computeVectors) {
-        hessenberg = new HessenbergSimilarDecomposition_DDRM(10);
+        this(new HessenbergSimilarDecomposition_DDRM(10),computeVectors);
+    }
+
+    /**
+     * @param hessenberg Used to reduce the matrix into Hessenberg form
+     * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
+     */
+    public WatchedDoubleStepQRDecomposition_DDRM(HessenbergSimilarDecomposition_DDRM hessenberg,
+                                                  boolean computeVectors) {
+        this.hessenberg = hessenberg;
         algValue = new WatchedDoubleStepQREigenvalue_DDRM();
         algVector = new WatchedDoubleStepQREigenvector_DDRM();
 
@@ -0,0 +1,559 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Computes selected eigenvalues and eigenvectors of a symmetric tridiagonal matrix. Eigenvalues are found using
+ * bisection on the Sturm sequence, which counts the number of eigenvalues less than a value. Each eigenvalue
+ * is found independently of the others, so only the requested eigenvalues are computed. They can be specified by
+ * their index when sorted in ascending order or by an interval which contains them. Eigenvectors are then
+ * found using inverse iteration. Vectors which belong to eigenvalues which are close to each other are
+ * orthogonalized against each other. The matrix is split into independent blocks wherever an off diagonal element
+ * is negligible and each eigenvector is only computed inside of its block.
+ * </p>
+ *
+ * <p>
+ * When only a few eigenvalues are needed this is much faster than {@link SymmetricQrAlgorithm_DDRM}, which always
+ * finds all of them. The approach follows what's done in LAPACK's DSTEBZ and DSTEIN.
+ * </p>
+ *
+ * <p>
+ * W. Barth, R. S. Martin, and J. H. Wilkinson, "Calculation of the eigenvalues of a symmetric tridiagonal
+ * matrix by the method of bisection" Numerische Mathematik 9 (1967) 386-393
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricBisectionAlgorithm_DDRM {
+
+    // maximum number of inverse iterations for each eigenvector
+    int maxIterations = 5;
+    // number of times inverse iteration is started from a new random vector before giving up
+    private static final int MAX_ATTEMPTS = 2;
+    // number of inverse iterations after the vector has converged
+    private static final int EXTRA_ITERATIONS = 2;
+
+    // size of the matrix
+    private int N;
+    // diagonal and off diagonal elements after being scaled
+    private double diag[] = new double[1];
+    private double off[] = new double[1];
+    // off diagonal elements squared
+    private double off2[] = new double[1];
+
+    // The matrix is split into blocks where the off diagonal elements are negligible. Block i is from
+    // blockStart[i] to blockStart[i+1]
+    private int blockStart[] = new int[2];
+    private int numBlocks;
+
+    // the matrix was divided by this value to avoid overflow
+    private double scale;
+    // infinity norm of the scaled matrix
+    private double norm;
+    // smallest allowed pivot in the Sturm sequence
+    private double pivmin;
+    // all the eigenvalues are inside this interval
+    private double lowerBound,upperBound;
+    // eigenvalues are found to within this tolerance
+    private double tol;
+
+    // the found eigenvalues, scaled, and which block they belong to
+    private double values[] = new double[1];
+    private int valueBlock[] = new int[1];
+    private int numValues;
+    // index of the first eigenvalue found
+    private int firstIndex;
+
+    // the final bracket from bisection
+    private double bisectLo,bisectHi;
+
+    // LU decomposition of T - lambda*I with partial pivoting. U has three diagonals
+    private double u0[] = new double[1];
+    private double u1[] = new double[1];
+    private double u2[] = new double[1];
+    private double mult[] = new double[1];
+    private boolean swapped[] = new boolean[1];
+    // work space for inverse iteration
+    private double x[] = new double[1];
+    private int order[] = new int[1];
+    private int cluster[] = new int[1];
+
+    // used to create the initial vector in inverse iteration
+    private Random rand = new Random();
+
+    /**
+     * Computes the eigenvalues which have the specified indexes when sorted in ascending order.
+     *
+     * @param sideLength Number of rows and columns in the input matrix.
+     * @param diag Diagonal elements from tridiagonal matrix. Not modified.
+     * @param off Off diagonal elements from tridiagonal matrix. Not modified.
+     * @param start Index of the first eigenvalue. Inclusive.
+     * @param end Index of the last eigenvalue. Exclusive.
+     * @return true if it succeeds and false if it fails.
+     */
+    public boolean processIndexes( int sideLength , double diag[] , double off[] , int start , int end ) {
+        if( start < 0 || end > sideLength || start > end )
+            throw new IllegalArgumentException("Invalid range of indexes. start="+start+" end="+end);
+        setMatrix(sideLength,diag,off);
+        firstIndex = start;
+        if( start == end ) {
+            numValues = 0;
+            return true;
+        }
+
+        // find an interval which contains the requested eigenvalues
+        bisect(start,lowerBound,upperBound,0,N);
+        double lower = bisectLo;
+        bisect(end-1,lower,upperBound,0,N);
+        double upper = bisectHi;
+
+        findValues(lower,upper);
+
+        // If eigenvalues are tied then the interval can contain more than were requested. Since they are in
+        // order the extras are at the start and end
+        int extraLow = start - count(lower,0,N);
+        int total = end-start;
+        if( extraLow > 0 ) {
+            System.arraycopy(values,extraLow,values,0,total);
+            System.arraycopy(valueBlock,extraLow,valueBlock,0,total);
+        }
+        numValues = total;
+        return true;
+    }
+
+    /**
+     * Computes all the eigenvalues &lambda; in the interval lower &le; &lambda; &lt; upper.
+     *
+     * @param sideLength Number of rows and columns in the input matrix.
+     * @param diag Diagonal elements from tridiagonal matrix. Not modified.
+     * @param off Off diagonal elements from tridiagonal matrix. Not modified.
+     * @param lower Lower limit of the interval. Inclusive.
+     * @param upper Upper limit of the interval. Exclusive.
+     * @return true if it succeeds and false if it fails.
+     */
+    public boolean processInterval( int sideLength , double diag[] , double off[] , double lower , double upper ) {
+        if( !(lower <= upper) )
+            throw new IllegalArgumentException("Invalid interval. lower="+lower+" upper="+upper);
+        setMatrix(sideLength,diag,off);
+
+        // outside of the bounds the number of eigenvalues doesn't change
+        lower = Math.max(lower/scale,lowerBound);
+        upper = Math.max(Math.min(upper/scale,upperBound),lower);
+
+        firstIndex = count(lower,0,N);
+        findValues(lower,upper);
+        return true;
+    }
+
+    /**
+     * Copies the matrix, scales it, splits it into blocks, and computes bounds on its eigenvalues
+     */
+    private void setMatrix( int sideLength , double diag[] , double off[] ) {
+        this.N = sideLength;
+        if( this.diag.length < N ) {
+            this.diag = new double[N];
+            this.off = new double[N];
+            this.off2 = new double[N];
+            this.values = new double[N];
+            this.valueBlock = new int[N];
+            this.blockStart = new int[N+1];
+        }
+
+        scale = 0;
+        for( int i = 0; i < N; i++ ) {
+            scale = Math.max(scale,Math.abs(diag[i]));
+        }
+        for( int i = 0; i < N-1; i++ ) {
+            scale = Math.max(scale,Math.abs(off[i]));
+        }
+        if( scale == 0 )
+            scale = 1;
+
+        for( int i = 0; i < N; i++ ) {
+            this.diag[i] = diag[i]/scale;
+        }
+
+        // split the matrix where the off diagonal elements are negligible
+        final double eps = UtilEjml.EPS;
+        double maxOff2 = 0;
+        numBlocks = 0;
+        blockStart[0] = 0;
+        for( int i = 0; i < N-1; i++ ) {
+            double e = off[i]/scale;
+            double e2 = e*e;
+            if( e2 <= Math.abs(this.diag[i]*this.diag[i+1])*eps*eps + Double.MIN_NORMAL ) {
+                e = e2 = 0;
+                blockStart[++numBlocks] = i+1;
+            }
+            this.off[i] = e;
+            this.off2[i] = e2;
+            maxOff2 = Math.max(maxOff2,e2);
+        }
+        blockStart[++numBlocks] = N;
+        pivmin = Double.MIN_NORMAL*Math.max(1,maxOff2);
+
+        // Gershgorin circles
+        lowerBound = Double.MAX_VALUE;
+        upperBound = -Double.MAX_VALUE;
+        for( int i = 0; i < N; i++ ) {
+            double r = 0;
+            if( i > 0 )
+                r += Math.abs(this.off[i-1]);
+            if( i < N-1 )
+                r += Math.abs(this.off[i]);
+            lowerBound = Math.min(lowerBound,this.diag[i]-r);
+            upperBound = Math.max(upperBound,this.diag[i]+r);
+        }
+        norm = Math.max(Math.abs(lowerBound),Math.abs(upperBound));
+        // make sure round off errors can't push an eigenvalue outside the bounds
+        double fudge = 2*eps*norm*N + 2*pivmin;
+        lowerBound -= fudge;
+        upperBound += fudge;
+
+        tol = Math.max(eps*norm,2*pivmin);
+    }
+
+    /**
+     * Finds all the eigenvalues in the interval, one block at a time, and sorts them
+     */
+    private void findValues( double lower , double upper ) {
+        numValues = 0;
+        for( int block = 0; block < numBlocks; block++ ) {
+            int r0 = blockStart[block];
+            int r1 = blockStart[block+1];
+
+            int first = count(lower,r0,r1);
+            int last = count(upper,r0,r1);
+
+            double lo = lower;
+            for( int index = first; index < last; index++ ) {
+                bisect(index,lo,upper,r0,r1);
+                // the eigenvalues are found in order so this is a lower bound for the next one
+                lo = bisectLo;
+                values[numValues] = (bisectLo+bisectHi)/2;
+                valueBlock[numValues++] = block;
+            }
+        }
+
+        // eigenvalues are already in order inside of each block
+        for( int i = 1; i < numValues; i++ ) {
+            double v = values[i];
+            int b = valueBlock[i];
+            int j = i-1;
+            while( j >= 0 && values[j] > v ) {
+                values[j+1] = values[j];
+                valueBlock[j+1] = valueBlock[j];
+                j--;
+            }
+            values[j+1] = v;
+            valueBlock[j+1] = b;
+        }
+    }
+
+    /**
+     * Uses bisection to find the eigenvalue with the specified index inside of rows r0 to r1. The number of
+     * eigenvalues less than 'lo' must be less than or equal to the index and for 'hi' it must be more than the index.
+     */
+    private void bisect( int index , double lo , double hi , int r0 , int r1 ) {
+        final double eps = UtilEjml.EPS;
+        while( true ) {
+            double mid = (lo+hi)/2;
+            if( hi-lo <= Math.max(tol,2*eps*Math.max(Math.abs(lo),Math.abs(hi))) || mid == lo || mid == hi )
+                break;
+            if( count(mid,r0,r1) <= index )
+                lo = mid;
+            else
+                hi = mid;
+        }
+        bisectLo = lo;
+        bisectHi = hi;
+    }
+
+    /**
+     * Returns the number of eigenvalues which are less than the value
+     *
+     * @param value The value being tested
+     * @return Number of eigenvalues less than value
+     */
+    public int countLessThan( double value ) {
+        return count(value/scale,0,N);
+    }
+
+    /**
+     * Computes the Sturm sequence of the scaled matrix for rows r0 to r1
+     */
+    private int count( double x , int r0 , int r1 ) {
+        int count = 0;
+        double q = 1;
+        for( int i = r0; i < r1; i++ ) {
+            q = diag[i] - x - (i > r0 ? off2[i-1]/q : 0);
+            if( q <= pivmin ) {
+                count++;
+                q = Math.min(q,-pivmin);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Computes the eigenvectors of the found eigenvalues using inverse iteration.
+     *
+     * @param Z (Optional) Storage for the eigenvectors. If null a new matrix is declared. Modified.
+     * @return The eigenvectors, one in each column, in the same order as the eigenvalues. null if inverse
+     * iteration failed to converge for one of them.
+     */
+    public DMatrixRMaj computeVectors( DMatrixRMaj Z ) {
+        if( Z == null )
+            Z = new DMatrixRMaj(N,numValues);
+        else
+            Z.reshape(N,numValues);
+        Z.zero();
+        if( x.length < N ) {
+            u0 = new double[N];
+            u1 = new double[N];
+            u2 = new double[N];
+            mult = new double[N];
+            swapped = new boolean[N];
+            x = new double[N];
+            order = new int[N];
+            cluster = new int[N];
+        }
+        // the same vectors are found each time it's called
+        rand.setSeed(234);
+
+        // process the eigenvalues one block at a time. counting sort by block keeps them in ascending order
+        int offsets[] = new int[numBlocks+1];
+        for( int j = 0; j < numValues; j++ ) {
+            offsets[valueBlock[j]+1]++;
+        }
+        for( int block = 0; block < numBlocks; block++ ) {
+            offsets[block+1] += offsets[block];
+        }
+        for( int j = 0; j < numValues; j++ ) {
+            order[offsets[valueBlock[j]]++] = j;
+        }
+
+        final double eps = UtilEjml.EPS;
+        // eigenvalues closer than this are in the same cluster and their vectors are orthogonalized
+        double orthoTol = 0.001*norm;
+
+        int numCluster = 0;
+        int previousBlock = -1;
+        double previous = 0;
+        for( int idx = 0; idx < numValues; idx++ ) {
+            int j = order[idx];
+            int block = valueBlock[j];
+            int r0 = blockStart[block];
+            int m = blockStart[block+1]-r0;
+
+            // the vector of a 1x1 block is known
+            if( m == 1 ) {
+                Z.data[r0*numValues+j] = 1;
+                previousBlock = block;
+                numCluster = 0;
+                continue;
+            }
+
+            double lambda = values[j];
+            if( block != previousBlock || lambda - previous > orthoTol ) {
+                numCluster = 0;
+            } else {
+                // identical eigenvalues are moved apart so that different vectors are found
+                double pertol = 10*Math.abs(eps*lambda);
+                if( lambda - previous < pertol )
+                    lambda = previous + pertol;
+            }
+            previous = lambda;
+            previousBlock = block;
+
+            factor(lambda,r0,m);
+
+            // the vector has converged once it grows this large
+            double growth = Math.sqrt(0.1/m);
+            int converged = 0;
+            for( int attempt = 0; attempt < MAX_ATTEMPTS && converged == 0; attempt++ ) {
+                for( int i = 0; i < m; i++ ) {
+                    x[i] = rand.nextDouble()*2-1;
+                }
+                converged = inverseIteration(Z,r0,m,numCluster,growth);
+            }
+            if( converged == 0 )
+                return null;
+
+            // normalize and make the largest element positive
+            double length = 0;
+            int largest = 0;
+            for( int i = 0; i < m; i++ ) {
+                length += x[i]*x[i];
+                if( Math.abs(x[i]) > Math.abs(x[largest]) )
+                    largest = i;
+            }
+            length = Math.sqrt(length);
+            if( x[largest] < 0 )
+                length = -length;
+            for( int i = 0; i < m; i++ ) {
+                Z.data[(r0+i)*numValues+j] = x[i]/length;
+            }
+            cluster[numCluster++] = j;
+        }
+
+        return Z;
+    }
+
+    /**
+     * Performs inverse iteration on x in the block starting at row r0 with m rows. The
+     * vector is kept orthogonal to the eigenvectors in the cluster.
+     *
+     * @return Number of iterations after the vector grew large enough to be converged. 0 if it never converged.
+     */
+    private int inverseIteration( DMatrixRMaj Z , int r0 , int m , int numCluster , double growth ) {
+        final double eps = UtilEjml.EPS;
+        int numValues = Z.numCols;
+        int converged = 0;
+        for( int iter = 0; iter < maxIterations; iter++ ) {
+            // scale the input to avoid overflow
+            double sum = 0;
+            for( int i = 0; i < m; i++ ) {
+                sum += Math.abs(x[i]);
+            }
+            double s = m*norm*Math.max(eps,Math.abs(u0[m-1]))/sum;
+            for( int i = 0; i < m; i++ ) {
+                x[i] *= s;
+            }
+
+            solve(m);
+
+            // remove components from eigenvectors with close eigenvalues
+            for( int c = 0; c < numCluster; c++ ) {
+                int k = cluster[c];
+                double dot = 0;
+                for( int i = 0; i < m; i++ ) {
+                    dot += x[i]*Z.data[(r0+i)*numValues+k];
+                }
+                for( int i = 0; i < m; i++ ) {
+                    x[i] -= dot*Z.data[(r0+i)*numValues+k];
+                }
+            }
+
+            double max = 0;
+            for( int i = 0; i < m; i++ ) {
+                max = Math.max(max,Math.abs(x[i]));
+            }
+            if( max >= growth && ++converged > EXTRA_ITERATIONS )
+                break;
+        }
+        return converged;
+    }
+
+    /**
+     * LU decomposition of T - lambda*I with partial pivoting for the block starting at row r0 with m rows.
+     * Pivots which are almost zero are replaced with a small value.
+     */
+    private void factor( double lambda , int r0 , int m ) {
+        double tiny = UtilEjml.EPS*norm;
+
+        // the current row only has elements at k and k+1
+        double p = diag[r0] - lambda;
+        double q = off[r0];
+        for( int k = 0; k < m-1; k++ ) {
+            double c = off[r0+k];
+            double a = diag[r0+k+1] - lambda;
+            double b = k+1 < m-1 ? off[r0+k+1] : 0;
+
+            if( Math.abs(p) >= Math.abs(c) ) {
+                swapped[k] = false;
+                if( Math.abs(p) < tiny )
+                    p = p < 0 ? -tiny : tiny;
+                double s = c/p;
+                mult[k] = s;
+                u0[k] = p; u1[k] = q; u2[k] = 0;
+                p = a - s*q;
+                q = b;
+            } else {
+                swapped[k] = true;
+                double s = p/c;
+                mult[k] = s;
+                u0[k] = c; u1[k] = a; u2[k] = b;
+                p = q - s*a;
+                q = -s*b;
+            }
+        }
+        if( Math.abs(p) < tiny )
+            p = p < 0 ? -tiny : tiny;
+        u0[m-1] = p;
+    }
+
+    /**
+     * Solves (T - lambda*I)*x = x using the LU decomposition of a block with m rows
+     */
+    private void solve( int m ) {
+        for( int k = 0; k < m-1; k++ ) {
+            if( swapped[k] ) {
+                double t = x[k];
+                x[k] = x[k+1];
+                x[k+1] = t;
+            }
+            x[k+1] -= mult[k]*x[k];
+        }
+
+        x[m-1] /= u0[m-1];
+        x[m-2] = (x[m-2] - u1[m-2]*x[m-1])/u0[m-2];
+        for( int k = m-3; k >= 0; k-- ) {
+            x[k] = (x[k] - u1[k]*x[k+1] - u2[k]*x[k+2])/u0[k];
+        }
+    }
+
+    /**
+     * Returns the found eigenvalues in ascending order
+     *
+     * @param values (Optional) Storage for the eigenvalues. If null a new array is declared. Modified.
+     */
+    public double[] getEigenvalues( double values[] ) {
+        if( values == null || values.length < numValues )
+            values = new double[numValues];
+        for( int i = 0; i < numValues; i++ ) {
+            values[i] = this.values[i]*scale;
+        }
+        return values;
+    }
+
+    public double getEigenvalue( int index ) {
+        return values[index]*scale;
+    }
+
+    /**
+     * Number of eigenvalues that were found
+     */
+    public int getNumberOfEigenvalues() {
+        return numValues;
+    }
+
+    /**
+     * Index of the first found eigenvalue when all the eigenvalues are sorted in ascending order
+     */
+    public int getFirstIndex() {
+        return firstIndex;
+    }
+}
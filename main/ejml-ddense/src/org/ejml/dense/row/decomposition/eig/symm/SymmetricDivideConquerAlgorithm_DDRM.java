@@ -0,0 +1,653 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a symmetric tridiagonal matrix using Cuppen's divide and conquer
+ * algorithm. The matrix is split in half by a rank-1 modification, T = diag(T<sub>1</sub>,T<sub>2</sub>) +
+ * &rho;*v*v<sup>T</sup>, and each half is solved recursively. Two halves are merged by solving the secular equation
+ * for the eigenvalues of D + &rho;*z*z<sup>T</sup>, then the eigenvectors are found by multiplying the eigenvectors
+ * of the two halves against the eigenvectors of D + &rho;*z*z<sup>T</sup>. Small sub-problems are solved using
+ * {@link SymmetricQrAlgorithm_DDRM}.
+ * </p>
+ *
+ * <p>
+ * Most of the work is done in the matrix multiplications while merging. The two halves are independent and can be
+ * solved concurrently, as can the roots of the secular equation.
+ * </p>
+ *
+ * <p>
+ * Eigenvalues which are already known are removed (deflated) before the secular equation is solved and the
+ * eigenvectors are computed using the approach of Gu and Eisenstat so that they are numerically orthogonal.
+ * Deflation follows what's done in LAPACK's DLAED2.
+ * </p>
+ *
+ * <p>
+ * J. J. M. Cuppen, "A divide and conquer method for the symmetric tridiagonal eigenproblem"
+ * Numerische Mathematik 36 (1981) 177-195<br>
+ * M. Gu and S. C. Eisenstat, "A Divide-and-Conquer Algorithm for the Symmetric Tridiagonal Eigenproblem"
+ * SIAM Journal on Matrix Analysis and Applications 16 (1995) 172-191
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricDivideConquerAlgorithm_DDRM {
+
+    /**
+     * Default size of the largest sub-problem which is solved directly instead of being split
+     */
+    public static final int DEFAULT_MIN_SIZE = 32;
+
+    // column types. Used to avoid multiplying blocks which are known to be zero
+    private static final int TOP = 0;
+    private static final int DENSE = 1;
+    private static final int BOTTOM = 2;
+
+    // maximum number of iterations when solving for a single root of the secular equation
+    private static final int MAX_SECULAR_ITERATIONS = 200;
+
+    // sub-problems this size or smaller are solved directly
+    private int minSize;
+    // if true sub-problems are processed concurrently
+    private boolean concurrent;
+
+    // maximum number of QR iterations when solving the small sub-problems
+    private int maxIterations = 20;
+
+    // size of the matrix
+    private int N;
+    // diagonal and off diagonal elements. The diagonal is replaced with the eigenvalues
+    private double diag[] = new double[1];
+    private double off[] = new double[1];
+    // eigenvectors are stored in the columns
+    private DMatrixRMaj Q = new DMatrixRMaj(1,1);
+
+    // set to true if a sub-problem fails
+    private boolean failed;
+
+    /**
+     * @param minSize Sub-problems this size or smaller are solved directly using the QR algorithm.
+     * @param concurrent If true then sub-problems are processed using multiple threads.
+     */
+    public SymmetricDivideConquerAlgorithm_DDRM( int minSize , boolean concurrent ) {
+        if( minSize < 1 )
+            throw new IllegalArgumentException("minSize must be at least one");
+        this.minSize = minSize;
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Uses {@link #DEFAULT_MIN_SIZE} and {@link EjmlConcurrency#USE_CONCURRENT}
+     */
+    public SymmetricDivideConquerAlgorithm_DDRM() {
+        this(DEFAULT_MIN_SIZE, EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    /**
+     * Used to limit the number of internal QR iterations when solving small sub-problems.
+     *
+     * @param max The maximum number of QR iterations it will perform.
+     */
+    public void setMaxIterations( int max ) {
+        this.maxIterations = max;
+    }
+
+    /**
+     * Computes the eigenvalues and eigenvectors of the tridiagonal matrix.
+     *
+     * @param sideLength Number of rows and columns in the input matrix.
+     * @param diag Diagonal elements from tridiagonal matrix. Not modified.
+     * @param off Off diagonal elements from tridiagonal matrix. Not modified.
+     * @return true if it succeeds and false if it fails.
+     */
+    public boolean process( int sideLength , double diag[] , double off[] ) {
+        this.N = sideLength;
+        if( this.diag.length < N ) {
+            this.diag = new double[N];
+            this.off = new double[N];
+        }
+        System.arraycopy(diag,0,this.diag,0,N);
+        if( N > 1 )
+            System.arraycopy(off,0,this.off,0,N-1);
+        Q.reshape(N,N);
+        Q.zero();
+        failed = false;
+
+        if( N == 0 )
+            return true;
+
+        // scale the matrix to avoid overflow and underflow
+        double scale = 0;
+        for( int i = 0; i < N; i++ ) {
+            scale = Math.max(scale,Math.abs(this.diag[i]));
+        }
+        for( int i = 0; i < N-1; i++ ) {
+            scale = Math.max(scale,Math.abs(this.off[i]));
+        }
+        if( scale == 0 ) {
+            CommonOps_DDRM.setIdentity(Q);
+            return true;
+        }
+        for( int i = 0; i < N; i++ ) {
+            this.diag[i] /= scale;
+        }
+        for( int i = 0; i < N-1; i++ ) {
+            this.off[i] /= scale;
+        }
+
+        solve(0,N);
+
+        for( int i = 0; i < N; i++ ) {
+            this.diag[i] *= scale;
+        }
+
+        return !failed;
+    }
+
+    /**
+     * Recursively computes the eigenvalues and eigenvectors of the sub-matrix which starts at 'offset'. When
+     * done diag contains the eigenvalues in ascending order and the block in Q contains the eigenvectors.
+     */
+    private void solve( final int offset , final int size ) {
+        if( size <= minSize ) {
+            solveSmall(offset,size);
+            return;
+        }
+
+        final int n1 = size/2;
+        final int split = offset+n1;
+
+        // T = diag(T1,T2) + |beta|*v*v' where v = [e_last ; sign(beta)*e_first]
+        double beta = off[split-1];
+        diag[split-1] -= Math.abs(beta);
+        diag[split] -= Math.abs(beta);
+
+        if( concurrent ) {
+            EjmlConcurrency.invokeAll(()->solve(offset,n1), ()->solve(split,size-n1));
+        } else {
+            solve(offset,n1);
+            solve(split,size-n1);
+        }
+
+        if( failed )
+            return;
+
+        merge(offset,n1,size,beta);
+    }
+
+    /**
+     * Solves a small sub-problem using the QR algorithm
+     */
+    private void solveSmall( int offset , int size ) {
+        double d[] = new double[size];
+        double e[] = new double[Math.max(1,size-1)];
+        System.arraycopy(diag,offset,d,0,size);
+        if( size > 1 )
+            System.arraycopy(off,offset,e,0,size-1);
+
+        // rows of V will be the eigenvectors
+        DMatrixRMaj V = CommonOps_DDRM.identity(size);
+
+        SymmetricQREigenHelper_DDRM helper = new SymmetricQREigenHelper_DDRM();
+        SymmetricQrAlgorithm_DDRM alg = new SymmetricQrAlgorithm_DDRM(helper);
+        alg.setMaxIterations(maxIterations);
+        helper.init(d,e,size);
+        helper.setQ(V);
+        alg.setFastEigenvalues(false);
+        if( !alg.process(-1,null,null) ) {
+            failed = true;
+            return;
+        }
+
+        // sort the eigenvalues into ascending order
+        int order[] = new int[size];
+        for( int i = 0; i < size; i++ ) {
+            order[i] = i;
+        }
+        for( int i = 1; i < size; i++ ) {
+            int o = order[i];
+            int j = i-1;
+            while( j >= 0 && d[order[j]] > d[o] ) {
+                order[j+1] = order[j];
+                j--;
+            }
+            order[j+1] = o;
+        }
+
+        for( int i = 0; i < size; i++ ) {
+            int o = order[i];
+            diag[offset+i] = d[o];
+            for( int row = 0; row < size; row++ ) {
+                Q.data[(offset+row)*N+offset+i] = V.data[o*size+row];
+            }
+        }
+    }
+
+    /**
+     * Merges two solved sub-problems together.
+     *
+     * @param offset First row and column in the sub-problem
+     * @param n1 Size of the first half
+     * @param n Size of both halves
+     * @param beta The off diagonal element which was removed
+     */
+    private void merge( final int offset , final int n1 , final int n , double beta ) {
+        final double eps = UtilEjml.EPS;
+
+        //---------- Set up D + rho*z*z' with ||z|| = 1
+        double rho = 2*Math.abs(beta);
+        double sign = beta >= 0 ? 1 : -1;
+        double z[] = new double[n];
+        final double sqrt2 = Math.sqrt(2);
+        for( int i = 0; i < n1; i++ ) {
+            z[i] = Q.data[(offset+n1-1)*N+offset+i]/sqrt2;
+        }
+        for( int i = n1; i < n; i++ ) {
+            z[i] = sign*Q.data[(offset+n1)*N+offset+i]/sqrt2;
+        }
+
+        // merge the two halves so that the diagonal elements are in ascending order
+        int col[] = new int[n];
+        double dl[] = new double[n];
+        double zl[] = new double[n];
+        int type[] = new int[n];
+        for( int i = 0, a = 0, b = n1; i < n; i++ ) {
+            int c;
+            if( b >= n || (a < n1 && diag[offset+a] <= diag[offset+b]) ) {
+                c = a++;
+            } else {
+                c = b++;
+            }
+            col[i] = c;
+            dl[i] = diag[offset+c];
+            zl[i] = z[c];
+            type[i] = c < n1 ? TOP : BOTTOM;
+        }
+
+        //---------- Deflation
+        double maxD = 0, maxZ = 0;
+        for( int i = 0; i < n; i++ ) {
+            maxD = Math.max(maxD,Math.abs(dl[i]));
+            maxZ = Math.max(maxZ,Math.abs(zl[i]));
+        }
+        double tol = 8*eps*Math.max(maxD,maxZ);
+
+        boolean deflated[] = new boolean[n];
+        int prev = -1;
+        for( int i = 0; i < n; i++ ) {
+            if( rho*Math.abs(zl[i]) <= tol ) {
+                // z is tiny so this is already an eigenvalue
+                deflated[i] = true;
+                continue;
+            }
+            if( prev >= 0 ) {
+                // see if the two diagonal elements are close enough that one can be deflated after a rotation
+                double s = zl[prev];
+                double c = zl[i];
+                double tau = Math.sqrt(c*c + s*s);
+                double t = dl[i] - dl[prev];
+                c /= tau;
+                s = -s/tau;
+                if( Math.abs(t*c*s) <= tol ) {
+                    zl[i] = tau;
+                    zl[prev] = 0;
+                    rotateColumns(offset,n,col[prev],col[i],c,s);
+                    if( type[prev] != type[i] ) {
+                        type[prev] = DENSE;
+                        type[i] = DENSE;
+                    }
+                    t = dl[prev]*c*c + dl[i]*s*s;
+                    dl[i] = dl[prev]*s*s + dl[i]*c*c;
+                    dl[prev] = t;
+                    deflated[prev] = true;
+                }
+            }
+            prev = i;
+        }
+
+        // the values which are left
+        int K = 0;
+        for( int i = 0; i < n; i++ ) {
+            if( !deflated[i] )
+                K++;
+        }
+        final double dk[] = new double[K];
+        final double zk[] = new double[K];
+        int kept[] = new int[K];
+        for( int i = 0, k = 0; i < n; i++ ) {
+            if( !deflated[i] ) {
+                kept[k] = i;
+                dk[k] = dl[i];
+                zk[k++] = zl[i];
+            }
+        }
+
+        //---------- Solve the secular equation. delta(i,j) = dk[i] - lambda[j]
+        final DMatrixRMaj delta = new DMatrixRMaj(K,K);
+        final int origin[] = new int[K];
+        final double mu[] = new double[K];
+        final double _rho = rho;
+        if( concurrent && K >= 2*minSize ) {
+            EjmlConcurrency.loopBlocks(0,K,minSize,(j0,j1)->{
+                for( int j = j0; j < j1; j++ ) {
+                    solveSecular(j,dk,zk,_rho,delta,origin,mu);
+                }
+            });
+        } else {
+            for( int j = 0; j < K; j++ ) {
+                solveSecular(j,dk,zk,rho,delta,origin,mu);
+            }
+        }
+
+        //---------- Eigenvectors of D + rho*z*z'. Recompute z so that they are orthogonal
+        DMatrixRMaj U = new DMatrixRMaj(K,K);
+        for( int i = 0; i < K; i++ ) {
+            double prod = -delta.data[i*K+i]/rho;
+            for( int j = 0; j < K; j++ ) {
+                if( j != i )
+                    prod *= -delta.data[i*K+j]/(dk[j]-dk[i]);
+            }
+            double zhat = Math.sqrt(Math.abs(prod));
+            if( zk[i] < 0 )
+                zhat = -zhat;
+            for( int j = 0; j < K; j++ ) {
+                U.data[i*K+j] = zhat/delta.data[i*K+j];
+            }
+        }
+        for( int j = 0; j < K; j++ ) {
+            double norm = 0;
+            for( int i = 0; i < K; i++ ) {
+                double v = U.data[i*K+j];
+                norm += v*v;
+            }
+            norm = Math.sqrt(norm);
+            for( int i = 0; i < K; i++ ) {
+                U.data[i*K+j] /= norm;
+            }
+        }
+
+        //---------- Multiply the eigenvectors of each half against U. Blocks which are zero are skipped
+        DMatrixRMaj W = new DMatrixRMaj(n,K);
+        multiplyVectors(offset,0,n1,kept,col,type,BOTTOM,U,W);
+        multiplyVectors(offset,n1,n,kept,col,type,TOP,U,W);
+
+        //---------- Sort the eigenvalues and save the results
+        int numDeflated = n-K;
+        int deflatedIdx[] = new int[numDeflated];
+        for( int i = 0, k = 0; i < n; i++ ) {
+            if( deflated[i] )
+                deflatedIdx[k++] = i;
+        }
+        // rotations can change the order slightly
+        for( int i = 1; i < numDeflated; i++ ) {
+            int o = deflatedIdx[i];
+            int j = i-1;
+            while( j >= 0 && dl[deflatedIdx[j]] > dl[o] ) {
+                deflatedIdx[j+1] = deflatedIdx[j];
+                j--;
+            }
+            deflatedIdx[j+1] = o;
+        }
+
+        DMatrixRMaj out = new DMatrixRMaj(n,n);
+        double values[] = new double[n];
+        for( int i = 0, a = 0, b = 0; i < n; i++ ) {
+            boolean useRoot;
+            if( a >= K ) {
+                useRoot = false;
+            } else if( b >= numDeflated ) {
+                useRoot = true;
+            } else {
+                useRoot = dk[origin[a]] + mu[a] <= dl[deflatedIdx[b]];
+            }
+            if( useRoot ) {
+                values[i] = dk[origin[a]] + mu[a];
+                for( int row = 0; row < n; row++ ) {
+                    out.data[row*n+i] = W.data[row*K+a];
+                }
+                a++;
+            } else {
+                int d = deflatedIdx[b++];
+                values[i] = dl[d];
+                int c = offset+col[d];
+                for( int row = 0; row < n; row++ ) {
+                    out.data[row*n+i] = Q.data[(offset+row)*N+c];
+                }
+            }
+        }
+
+        System.arraycopy(values,0,diag,offset,n);
+        for( int row = 0; row < n; row++ ) {
+            System.arraycopy(out.data,row*n,Q.data,(offset+row)*N+offset,n);
+        }
+    }
+
+    /**
+     * Computes rows row0 to row1 of the merged eigenvectors, W = Q*U. Columns of Q which are zero in these
+     * rows are skipped.
+     *
+     * @param skipType Type of column which is zero in these rows
+     */
+    private void multiplyVectors( int offset , int row0 , int row1 ,
+                                  int kept[] , int col[] , int type[] , int skipType ,
+                                  DMatrixRMaj U , DMatrixRMaj W ) {
+        int K = kept.length;
+        int numRows = row1-row0;
+
+        int count = 0;
+        for( int k = 0; k < K; k++ ) {
+            if( type[kept[k]] != skipType )
+                count++;
+        }
+        if( count == 0 || numRows == 0 )
+            return;
+
+        DMatrixRMaj A = new DMatrixRMaj(numRows,count);
+        DMatrixRMaj B = new DMatrixRMaj(count,K);
+        for( int k = 0, c = 0; k < K; k++ ) {
+            int i = kept[k];
+            if( type[i] == skipType )
+                continue;
+            int colQ = offset+col[i];
+            for( int row = 0; row < numRows; row++ ) {
+                A.data[row*count+c] = Q.data[(offset+row0+row)*N+colQ];
+            }
+            System.arraycopy(U.data,k*K,B.data,c*K,K);
+            c++;
+        }
+
+        DMatrixRMaj C = new DMatrixRMaj(numRows,K);
+        CommonOps_DDRM.mult(A,B,C);
+        System.arraycopy(C.data,0,W.data,row0*K,numRows*K);
+    }
+
+    /**
+     * Applies a Givens rotation to two columns in the sub-problem
+     */
+    private void rotateColumns( int offset , int n , int colA , int colB , double c , double s ) {
+        int indexA = offset*N + offset + colA;
+        int indexB = offset*N + offset + colB;
+        for( int row = 0; row < n; row++ , indexA += N , indexB += N ) {
+            double a = Q.data[indexA];
+            double b = Q.data[indexB];
+            Q.data[indexA] = c*a + s*b;
+            Q.data[indexB] = c*b - s*a;
+        }
+    }
+
+    /**
+     * Finds the j-th root of the secular equation, f(&lambda;) = 1 + &rho;*&sum;<sub>i</sub> z<sub>i</sub><sup>2</sup>/(d<sub>i</sub>-&lambda;).
+     * To retain precision the root is found relative to the closest pole, &lambda; = d[origin] + &mu;. Each iteration
+     * approximates f using the two poles closest to the root and the current bracket is used to safeguard the
+     * steps.
+     *
+     * @param delta (Output) Column j is set to d[i] - &lambda;
+     * @param origin (Output) Index of the pole the root is relative to
+     * @param mu (Output) Location of the root relative to the pole
+     */
+    static void solveSecular( int j , double d[] , double z[] , double rho ,
+                              DMatrixRMaj delta , int origin[] , double mu[] ) {
+        final int K = d.length;
+        final double eps = UtilEjml.EPS;
+
+        // which poles are used in the approximation. Poles up to 'left' are summed in psi and the rest in phi
+        int left, org;
+        double lo, hi;
+        if( j < K-1 ) {
+            left = j;
+            double gap = d[j+1]-d[j];
+            double mid = gap/2;
+            // sign of f at the middle of the interval determines which pole the root is closer to
+            double f = 1;
+            for( int i = 0; i < K; i++ ) {
+                f += rho*z[i]*z[i]/((d[i]-d[j]) - mid);
+            }
+            if( f >= 0 ) {
+                org = j;
+                lo = 0;
+                hi = mid;
+            } else {
+                org = j+1;
+                lo = mid-gap;
+                hi = 0;
+            }
+        } else {
+            left = K-2;
+            org = K-1;
+            double sum = 0;
+            for( int i = 0; i < K; i++ ) {
+                sum += z[i]*z[i];
+            }
+            lo = 0;
+            hi = rho*sum;
+            if( K == 1 ) {
+                // the root can be found exactly
+                origin[j] = org;
+                mu[j] = hi;
+                delta.data[j] = -hi;
+                return;
+            }
+        }
+
+        double x = (lo+hi)/2;
+        for( int iter = 0; iter < MAX_SECULAR_ITERATIONS; iter++ ) {
+            double psi = 0, dpsi = 0, phi = 0, dphi = 0;
+            for( int i = 0; i < K; i++ ) {
+                double del = (d[i]-d[org]) - x;
+                delta.data[i*K+j] = del;
+                double t = z[i]/del;
+                if( i <= left ) {
+                    psi += rho*z[i]*t;
+                    dpsi += rho*t*t;
+                } else {
+                    phi += rho*z[i]*t;
+                    dphi += rho*t*t;
+                }
+            }
+            double f = 1 + psi + phi;
+
+            double err = 8*eps*(1 + Math.abs(psi) + Math.abs(phi)) + eps*Math.abs(x)*(dpsi+dphi);
+            if( Math.abs(f) <= err )
+                break;
+
+            // f is increasing so the root is to the right if f is negative
+            if( f < 0 )
+                lo = x;
+            else
+                hi = x;
+
+            if( hi-lo <= 2*eps*Math.max(Math.abs(lo),Math.abs(hi)) )
+                break;
+
+            // approximate f(eta) = c + A/(dl-eta) + B/(dr-eta) and find its root
+            double dl = delta.data[left*K+j];
+            double dr = delta.data[(left+1)*K+j];
+            double A = dl*dl*dpsi;
+            double B = dr*dr*dphi;
+            double c = f - dl*dpsi - dr*dphi;
+            double a = c*(dl+dr) + A + B;
+            double b = dl*dr*f;
+
+            double eta = Double.NaN;
+            if( c == 0 ) {
+                if( a != 0 )
+                    eta = b/a;
+            } else {
+                double disc = Math.sqrt(Math.abs(a*a - 4*b*c));
+                double r0, r1;
+                if( a >= 0 ) {
+                    r0 = (a + disc)/(2*c);
+                    r1 = 2*b/(a + disc);
+                } else {
+                    r0 = (a - disc)/(2*c);
+                    r1 = 2*b/(a - disc);
+                }
+                // interior roots are between the two poles and the last root is after both of them
+                double upper = j < K-1 ? dr : Double.MAX_VALUE;
+                if( r0 > dl && r0 < upper && (j < K-1 || r0 > dr) )
+                    eta = r0;
+                else if( r1 > dl && r1 < upper && (j < K-1 || r1 > dr) )
+                    eta = r1;
+            }
+
+            double next = x + eta;
+            if( !(next > lo && next < hi) ) {
+                next = (lo+hi)/2;
+            }
+            if( next == x )
+                break;
+            x = next;
+        }
+
+        // make sure delta is up to date with the final value of x
+        for( int i = 0; i < K; i++ ) {
+            delta.data[i*K+j] = (d[i]-d[org]) - x;
+        }
+        origin[j] = org;
+        mu[j] = x;
+    }
+
+    /**
+     * Returns the eigenvalues in ascending order
+     */
+    public double[] getEigenvalues() {
+        return diag;
+    }
+
+    /**
+     * Returns a matrix which contains the eigenvectors in its columns
+     */
+    public DMatrixRMaj getQ() {
+        return Q;
+    }
+
+    public int getNumberOfEigenvalues() {
+        return N;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+}
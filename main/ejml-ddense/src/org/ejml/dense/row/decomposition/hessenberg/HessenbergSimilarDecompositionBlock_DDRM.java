@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.hessenberg;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+/**
+ * <p>
+ * Hessenberg decomposition which processes the columns in blocks. The reflectors in a block are combined into
+ * a single block reflector Q = I - V*T*V<sup>T</sup>, which is then applied to the remainder of the matrix
+ * using matrix multiplication instead of one rank-1 update at a time.  While processing a block the product
+ * Y = A*V*T is built up column by column, which is used to apply the block reflector from the right side.
+ * </p>
+ *
+ * <p>
+ * The reflectors are stored in the same format as {@link HessenbergSimilarDecomposition_DDRM}, which is used
+ * to extract Q and H.
+ * </p>
+ *
+ * <p>
+ * Based off of the algorithm used in LAPACK's DGEHRD and DLAHR2 routines, see G. Quintana-Orti and
+ * R. van de Geijn, "Improving the performance of reduction to Hessenberg form" ACM Transactions on
+ * Mathematical Software 32 (2006) 180-194
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HessenbergSimilarDecompositionBlock_DDRM extends HessenbergSimilarDecomposition_DDRM {
+
+    /**
+     * Default number of columns in a block. Wide enough that the matrix multiplications with the block reflector
+     * are done using the packed algorithm, see {@link org.ejml.EjmlParameters#MULT_PACKED_SWITCH}.
+     */
+    public static final int DEFAULT_BLOCK_WIDTH = 128;
+
+    // number of columns in each block
+    private int blockWidth;
+
+    // the block reflector. V is stored in row-major and transposed formats
+    private DMatrixRMaj V = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Vt = new DMatrixRMaj(1,1);
+    private DMatrixRMaj VtAll = new DMatrixRMaj(1,1);
+    private DMatrixRMaj T = new DMatrixRMaj(1,1);
+    // Y = A*V*T
+    private DMatrixRMaj Y = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Ytop = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Ybot = new DMatrixRMaj(1,1);
+
+    // the columns to the right of the block. Split into the rows above and inside of the reflectors
+    private DMatrixRMaj Ctop = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Cbot = new DMatrixRMaj(1,1);
+    private DMatrixRMaj W = new DMatrixRMaj(1,1);
+    private DMatrixRMaj W2 = new DMatrixRMaj(1,1);
+
+    // work space
+    private double col[] = new double[1];
+    private double z[] = new double[1];
+
+    /**
+     * @param blockWidth Number of columns which are processed at once.
+     */
+    public HessenbergSimilarDecompositionBlock_DDRM( int blockWidth ) {
+        super(5);
+        if( blockWidth <= 0 )
+            throw new IllegalArgumentException("blockWidth must be positive");
+        this.blockWidth = blockWidth;
+    }
+
+    /**
+     * Uses a block width of {@link #DEFAULT_BLOCK_WIDTH}
+     */
+    public HessenbergSimilarDecompositionBlock_DDRM() {
+        this(DEFAULT_BLOCK_WIDTH);
+    }
+
+    @Override
+    protected boolean _decompose() {
+        if( col.length < N ) {
+            col = new double[N];
+            z = new double[N];
+        }
+
+        for( int k = 0; k < N-2; k += blockWidth ) {
+            int width = Math.min(blockWidth,N-2-k);
+
+            decomposeBlock(k,width);
+            updateRemainder(k,width);
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the reflectors for columns k to k+width-1 as well as V, T, and Y. Only those columns are modified.
+     */
+    private void decomposeBlock( int k , int width ) {
+        final double h[] = QH.data;
+        // number of rows in the reflectors. First row is k+1
+        final int m = N-k-1;
+
+        V.reshape(m,width);
+        T.reshape(width,width);
+        Y.reshape(N,width);
+        CommonOps_DDRM.fill(V,0);
+        CommonOps_DDRM.fill(T,0);
+
+        for( int i = 0; i < width; i++ ) {
+            final int c = k + i;
+
+            for( int row = 0; row < N; row++ ) {
+                col[row] = h[row*N+c];
+            }
+
+            if( i > 0 ) {
+                // apply the previous reflectors from the right: col = col - Y*V(c,:)^T
+                int indexV = (i-1)*width;
+                for( int row = 0; row < N; row++ ) {
+                    int indexY = row*width;
+                    double sum = 0;
+                    for( int j = 0; j < i; j++ ) {
+                        sum += Y.data[indexY+j]*V.data[indexV+j];
+                    }
+                    col[row] -= sum;
+                }
+
+                // apply them from the left: col = (I - V*T^T*V^T)*col
+                // z = V^T*col
+                for( int j = 0; j < i; j++ ) {
+                    z[j] = 0;
+                }
+                for( int r = 0; r < m; r++ ) {
+                    double val = col[k+1+r];
+                    int indexVr = r*width;
+                    for( int j = 0; j < i; j++ ) {
+                        z[j] += V.data[indexVr+j]*val;
+                    }
+                }
+                // z = T^T*z
+                for( int j = i-1; j >= 0; j-- ) {
+                    double sum = 0;
+                    for( int l = 0; l <= j; l++ ) {
+                        sum += T.data[l*width+j]*z[l];
+                    }
+                    z[j] = sum;
+                }
+                // col = col - V*z
+                for( int r = 0; r < m; r++ ) {
+                    int indexVr = r*width;
+                    double sum = 0;
+                    for( int j = 0; j < i; j++ ) {
+                        sum += V.data[indexVr+j]*z[j];
+                    }
+                    col[k+1+r] -= sum;
+                }
+            }
+
+            double gamma = householder(c);
+
+            // save the column
+            for( int row = 0; row <= c; row++ ) {
+                h[row*N+c] = col[row];
+            }
+            for( int row = c+2; row < N; row++ ) {
+                V.data[(row-k-1)*width+i] = u[row];
+            }
+            V.data[i*width+i] = 1;
+
+            // Y(:,i) = gamma*(A*v - Y*V^T*v)
+            // z = V^T*v
+            for( int j = 0; j < i; j++ ) {
+                double sum = 0;
+                for( int r = i; r < m; r++ ) {
+                    sum += V.data[r*width+j]*V.data[r*width+i];
+                }
+                z[j] = sum;
+            }
+            multRows(c+1);
+            for( int row = 0; row < N; row++ ) {
+                double sum = col[row];
+                int indexY = row*width;
+                for( int j = 0; j < i; j++ ) {
+                    sum -= Y.data[indexY+j]*z[j];
+                }
+                Y.data[indexY+i] = gamma*sum;
+            }
+
+            // T(0:i,i) = -gamma*T(0:i,0:i)*z
+            for( int j = 0; j < i; j++ ) {
+                double sum = 0;
+                for( int l = j; l < i; l++ ) {
+                    sum += T.data[j*width+l]*z[l];
+                }
+                T.data[j*width+i] = -gamma*sum;
+            }
+            T.data[i*width+i] = gamma;
+        }
+    }
+
+    /**
+     * col = A(:,col0:N)*u(col0:N). This is where most of the time is spent in a block. To make better use of the
+     * CPU, four rows are processed at the same time.
+     */
+    private void multRows( int col0 ) {
+        final double h[] = QH.data;
+        int row = 0;
+        for( ; row+3 < N; row += 4 ) {
+            double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+            int index0 = row*N + col0;
+            int index1 = index0 + N;
+            int index2 = index1 + N;
+            int index3 = index2 + N;
+            for( int j = col0; j < N; j++ ) {
+                double val = u[j];
+                sum0 += h[index0++]*val;
+                sum1 += h[index1++]*val;
+                sum2 += h[index2++]*val;
+                sum3 += h[index3++]*val;
+            }
+            col[row] = sum0;
+            col[row+1] = sum1;
+            col[row+2] = sum2;
+            col[row+3] = sum3;
+        }
+        for( ; row < N; row++ ) {
+            double sum = 0;
+            int indexA = row*N + col0;
+            for( int j = col0; j < N; j++ ) {
+                sum += h[indexA++]*u[j];
+            }
+            col[row] = sum;
+        }
+    }
+
+    /**
+     * Computes the reflector which zeros the elements below the sub-diagonal in column c.  The reflector is
+     * written into 'u' and the lower part of column 'c'.  Same as what's done in the parent.
+     *
+     * @return gamma for the reflector
+     */
+    private double householder( int c ) {
+        final double h[] = QH.data;
+
+        double max = 0;
+        for( int i = c+1; i < N; i++ ) {
+            double val = u[i] = col[i];
+            val = Math.abs(val);
+            if( val > max )
+                max = val;
+        }
+
+        if( max > 0 ) {
+            double tau = 0;
+            for( int i = c+1; i < N; i++ ) {
+                double val = u[i] /= max;
+                tau += val*val;
+            }
+
+            tau = Math.sqrt(tau);
+
+            if( u[c+1] < 0 )
+                tau = -tau;
+
+            double nu = u[c+1] + tau;
+            u[c+1] = 1.0;
+
+            for( int i = c+2; i < N; i++ ) {
+                h[i*N+c] = u[i] /= nu;
+            }
+
+            double gamma = nu/tau;
+            gammas[c] = gamma;
+            h[(c+1)*N+c] = -tau*max;
+            return gamma;
+        } else {
+            // the column is already zero and the reflector is the identity matrix
+            for( int i = c+2; i < N; i++ ) {
+                u[i] = 0;
+            }
+            u[c+1] = 1.0;
+            h[(c+1)*N+c] = 0;
+            gammas[c] = 0;
+            return 0;
+        }
+    }
+
+    /**
+     * Applies the block reflector to the columns to the right of the block.<br>
+     * A = (I - V*T<sup>T</sup>*V<sup>T</sup>)*(A - Y*V<sup>T</sup>)
+     */
+    private void updateRemainder( int k , int width ) {
+        final int m = N-k-1;
+        final int col0 = k+width;
+        final int numCols = N-col0;
+        if( numCols <= 0 )
+            return;
+
+        // Only the rows in V which line up with the columns being updated are used
+        Vt.reshape(width,numCols);
+        for( int i = 0; i < width; i++ ) {
+            for( int j = 0; j < numCols; j++ ) {
+                Vt.data[i*numCols+j] = V.data[(col0-k-1+j)*width+i];
+            }
+        }
+
+        Ytop.reshape(k+1,width);
+        Ybot.reshape(m,width);
+        System.arraycopy(Y.data,0,Ytop.data,0,Ytop.getNumElements());
+        System.arraycopy(Y.data,Ytop.getNumElements(),Ybot.data,0,Ybot.getNumElements());
+
+        CommonOps_DDRM.extract(QH,0,k+1,col0,N,Ctop);
+        CommonOps_DDRM.extract(QH,k+1,N,col0,N,Cbot);
+
+        // rows above the reflectors are only modified by the right side
+        CommonOps_DDRM.multAdd(-1,Ytop,Vt,Ctop);
+
+        // C = C - Y*V^T
+        CommonOps_DDRM.multAdd(-1,Ybot,Vt,Cbot);
+        // C = C - V*T^T*V^T*C
+        VtAll.reshape(width,m);
+        CommonOps_DDRM.transpose(V,VtAll);
+        CommonOps_DDRM.mult(VtAll,Cbot,W);
+        CommonOps_DDRM.multTransA(T,W,W2);
+        CommonOps_DDRM.multAdd(-1,V,W2,Cbot);
+
+        CommonOps_DDRM.insert(Ctop,QH,0,col0);
+        CommonOps_DDRM.insert(Cbot,QH,k+1,col0);
+    }
+
+    public int getBlockWidth() {
+        return blockWidth;
+    }
+}
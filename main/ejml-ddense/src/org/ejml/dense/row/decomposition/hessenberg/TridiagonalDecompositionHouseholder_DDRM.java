@@ -149,6 +149,27 @@ public class TridiagonalDecompositionHouseholder_DDRM
         return Q;
     }
 
+    /**
+     * B = Q*B. Much less expensive than computing Q when B only has a few columns, e.g. when only some
+     * eigenvectors of the tridiagonal matrix are converted into eigenvectors of the original matrix.
+     *
+     * @param B Matrix that is being multiplied by Q.  Is modified.
+     */
+    public void applyQ( DMatrixRMaj B ) {
+        if( B.numRows != N )
+            throw new IllegalArgumentException("B must have "+N+" rows.");
+        if( b.length < B.numCols )
+            b = new double[ B.numCols ];
+
+        for( int j = N-2; j >= 0; j-- ) {
+            int index = j*N+j+1;
+            double before = QT.data[index];
+            QT.data[index] = 1;
+            QrHelperFunctions_DDRM.rank1UpdateMultR(B, QT.data, j*N, gammas[j+1], 0, j+1, N, b);
+            QT.data[index] = before;
+        }
+    }
+
     /**
      * Decomposes the provided symmetric matrix.
      *
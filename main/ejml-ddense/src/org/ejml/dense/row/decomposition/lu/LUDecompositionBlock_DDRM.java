@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.lu;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.misc.SimdOps_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMultPacked_MT_DDRM;
+
+
+/**
+ * <p>
+ * LU decomposition with partial pivoting which processes the columns in blocks. A block of columns, the panel,
+ * is decomposed using an unblocked algorithm. Its row pivots are applied to the entire matrix, then the rows to
+ * the right of the panel are solved for using a triangular solve and the remainder of the matrix is updated
+ * using a single matrix multiplication, A<sub>22</sub> = A<sub>22</sub> - L<sub>21</sub>*U<sub>12</sub>.
+ * Almost all of the work is done in the matrix multiplication which can be done using multiple threads.
+ * </p>
+ *
+ * <p>
+ * The pivots are stored in the same format as {@link LUDecompositionAlt_DDRM} so it can be used with the same
+ * linear solvers. Based off of the right looking algorithm used in LAPACK's DGETRF.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LUDecompositionBlock_DDRM extends LUDecompositionBase_DDRM {
+
+    /**
+     * Default number of columns in a block. Wide enough that the matrix multiplications are done
+     * using the packed algorithm, see {@link org.ejml.EjmlParameters#MULT_PACKED_SWITCH}.
+     */
+    public static final int DEFAULT_BLOCK_WIDTH = 128;
+
+    // number of columns in each block
+    private int blockWidth;
+
+    // if true then the rows to the right of the panel are solved and updated using multiple threads
+    private boolean concurrent;
+
+    // work space for matrix multiplication
+    private DGrowArray workA = new DGrowArray();
+    private DGrowArray workB = new DGrowArray();
+
+    /**
+     * @param blockWidth Number of columns which are processed at once.
+     * @param concurrent If true then the remainder of the matrix is updated using multiple threads.
+     */
+    public LUDecompositionBlock_DDRM( int blockWidth , boolean concurrent ) {
+        if( blockWidth <= 0 )
+            throw new IllegalArgumentException("blockWidth must be positive");
+        this.blockWidth = blockWidth;
+        this.concurrent = concurrent;
+    }
+
+    public LUDecompositionBlock_DDRM( int blockWidth ) {
+        this(blockWidth, EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    /**
+     * Uses a block width of {@link #DEFAULT_BLOCK_WIDTH}
+     */
+    public LUDecompositionBlock_DDRM() {
+        this(DEFAULT_BLOCK_WIDTH);
+    }
+
+    /**
+     * Decomposes the matrix one block of columns at a time
+     *
+     * @param a The matrix that is to be decomposed.  Not modified.
+     * @return true If the matrix can be decomposed and false if it can not.
+     */
+    @Override
+    public boolean decompose( DMatrixRMaj a ) {
+        decomposeCommonInit(a);
+
+        int min = Math.min(m,n);
+        for( int j0 = 0; j0 < min; j0 += blockWidth ) {
+            int j1 = Math.min(min,j0+blockWidth);
+
+            decomposePanel(j0,j1);
+
+            if( j1 < n ) {
+                solveRowBlock(j0,j1);
+                if( j1 < m )
+                    updateRemainder(j0,j1);
+            }
+        }
+        // columns without a pivot in wide matrices
+        for( int j = min; j < n; j++ ) {
+            indx[j] = j;
+        }
+
+        return true;
+    }
+
+    /**
+     * Decomposes columns j0 to j1 using partial pivoting. Only the elements inside the panel are updated but the
+     * entire row is swapped.
+     */
+    private void decomposePanel( int j0 , int j1 ) {
+        for( int j = j0; j < j1; j++ ) {
+            // Find pivot and exchange if necessary.
+            int p = j;
+            double max = Math.abs(dataLU[j*n+j]);
+            for( int i = j+1; i < m; i++ ) {
+                double v = Math.abs(dataLU[i*n+j]);
+                if( v > max ) {
+                    p = i;
+                    max = v;
+                }
+            }
+
+            if( p != j ) {
+                int rowP = p*n;
+                int rowJ = j*n;
+                int endP = rowP+n;
+                for (;rowP < endP; rowP++,rowJ++) {
+                    double t = dataLU[rowP];
+                    dataLU[rowP] = dataLU[rowJ];
+                    dataLU[rowJ] = t;
+                }
+                int k = pivot[p]; pivot[p] = pivot[j]; pivot[j] = k;
+                pivsign = -pivsign;
+            }
+            indx[j] = p;
+
+            // Compute multipliers and update the remainder of the panel
+            double lujj = dataLU[j*n+j];
+            if( lujj == 0 )
+                continue;
+
+            int rowJ = j*n;
+            int length = j1-j-1;
+            for( int i = j+1; i < m; i++ ) {
+                int rowI = i*n;
+                double l = dataLU[rowI+j] /= lujj;
+                if( l != 0 )
+                    SimdOps_DDRM.axpy(-l,dataLU,rowJ+j+1,dataLU,rowI+j+1,length);
+            }
+        }
+    }
+
+    /**
+     * Solves for the rows in U which are to the right of the panel, U<sub>12</sub> = L<sub>11</sub><sup>-1</sup>*A<sub>12</sub>
+     */
+    private void solveRowBlock( int j0 , int j1 ) {
+        if( concurrent ) {
+            EjmlConcurrency.loopBlocks(j1,n,blockWidth,(c0,c1)->solveRowBlock(j0,j1,c0,c1));
+        } else {
+            solveRowBlock(j0,j1,j1,n);
+        }
+    }
+
+    private void solveRowBlock( int j0 , int j1 , int col0 , int col1 ) {
+        int length = col1-col0;
+        for( int i = j0+1; i < j1; i++ ) {
+            int rowI = i*n;
+            for( int k = j0; k < i; k++ ) {
+                double l = dataLU[rowI+k];
+                if( l != 0 )
+                    SimdOps_DDRM.axpy(-l,dataLU,k*n+col0,dataLU,rowI+col0,length);
+            }
+        }
+    }
+
+    /**
+     * A<sub>22</sub> = A<sub>22</sub> - L<sub>21</sub>*U<sub>12</sub>
+     */
+    private void updateRemainder( int j0 , int j1 ) {
+        int rows = m-j1, cols = n-j1, inner = j1-j0;
+
+        workB.reshape(MatrixMatrixMultPacked_DDRM.packedLengthB(inner,cols));
+        if( concurrent ) {
+            MatrixMatrixMultPacked_MT_DDRM.gemm(-1.0,dataLU,j1*n+j0,n,dataLU,j0*n+j1,n,dataLU,j1*n+j1,n,
+                    rows,cols,inner,workB.data);
+        } else {
+            workA.reshape(MatrixMatrixMultPacked_DDRM.packedLengthA(rows,inner));
+            MatrixMatrixMultPacked_DDRM.gemm(-1.0,false,dataLU,j1*n+j0,n,false,dataLU,j0*n+j1,n,
+                    dataLU,j1*n+j1,n,rows,cols,inner,workA.data,workB.data);
+        }
+    }
+}
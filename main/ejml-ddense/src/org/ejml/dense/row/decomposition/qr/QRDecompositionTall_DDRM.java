@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.qr;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.concurrency.IntRangeConsumer;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.UtilDecompositons_DDRM;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Tall Skinny QR (TSQR) decomposition for matrices with many more rows than columns. The rows are split into chunks
+ * which are decomposed independently of each other. The R from each chunk is then merged with its neighbor in a
+ * binary reduction tree by decomposing the two stacked triangular matrices, until only one R is left. Each chunk
+ * and each level in the tree can be processed in parallel. A chunk only needs to be read once and small enough
+ * chunks will fit inside the CPU cache, unlike {@link QRDecompositionHouseholderColumn_DDRM} which goes through
+ * the entire matrix once for every column.
+ * </p>
+ *
+ * <p>
+ * Q is stored implicitly as the householder reflectors inside each chunk and tree node. In the implicit
+ * form R can be in any row, not just the first few, and the computed non-compact Q is reordered so that it
+ * matches the standard Q*R=A form.
+ * </p>
+ *
+ * <p>
+ * Rows can also be added incrementally using {@link #addRows}. Only R is saved, which is all that's needed to solve
+ * a least squares problem when the right hand side is appended as an extra column. This way the entire matrix
+ * never has to be in memory at the same time.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class QRDecompositionTall_DDRM implements QRDecomposition<DMatrixRMaj> {
+
+    /**
+     * Default number of rows in each chunk
+     */
+    public static final int DEFAULT_CHUNK_ROWS = 1000;
+
+    // number of rows in each chunk. A chunk will never have fewer rows than there are columns
+    protected int chunkRows;
+    // if true the chunks and nodes in each level of the tree are processed by multiple threads
+    protected boolean concurrent;
+
+    // size of the matrix which has been decomposed
+    protected int numRows, numCols, minLength;
+
+    // all the nodes in the tree, starting with the leaves. Nodes are recycled
+    protected List<Node> nodes = new ArrayList<>();
+    // number of nodes currently being used
+    protected int numNodes;
+    // index of the first node in each level. The last element is numNodes
+    protected int[] levels = new int[0];
+    protected int numLevels;
+
+    // the node with the final R
+    protected Node root;
+
+    // true if rows were added incrementally and only R is known
+    protected boolean incremental;
+    // R of all the rows which have been added incrementally and the node used to merge the next chunk into it
+    protected Node accumulated;
+    protected Node merge = new Node();
+
+    // storage for B when it's being multiplied by Q
+    protected DMatrixRMaj work = new DMatrixRMaj(1,1);
+
+    /**
+     * Uses {@link #DEFAULT_CHUNK_ROWS} and multiple threads if {@link EjmlConcurrency#USE_CONCURRENT} is true
+     */
+    public QRDecompositionTall_DDRM() {
+        this(DEFAULT_CHUNK_ROWS,EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    /**
+     * @param chunkRows Number of rows in each chunk. If less than the number of columns then the number of
+     *                  columns is used instead.
+     * @param concurrent If true then chunks are decomposed in parallel
+     */
+    public QRDecompositionTall_DDRM( int chunkRows , boolean concurrent ) {
+        if( chunkRows <= 0 )
+            throw new IllegalArgumentException("chunkRows must be positive");
+        this.chunkRows = chunkRows;
+        this.concurrent = concurrent;
+    }
+
+    @Override
+    public boolean decompose( DMatrixRMaj A ) {
+        numRows = A.numRows;
+        numCols = A.numCols;
+        minLength = Math.min(numRows,numCols);
+        incremental = false;
+        accumulated = null;
+
+        root = decomposeTree(A);
+
+        return !root.error;
+    }
+
+    /**
+     * Discards all the rows which have been added using {@link #addRows}.
+     */
+    public void reset() {
+        accumulated = null;
+        incremental = true;
+        numRows = numCols = minLength = 0;
+        root = null;
+    }
+
+    /**
+     * <p>
+     * Adds more rows to the matrix being decomposed without saving them. After rows have been added only R
+     * can be requested. Call {@link #reset()} before adding the first chunk of a new matrix.
+     * </p>
+     *
+     * <p>
+     * Each call merges the R of the new rows into the R of the rows added previously. For best performance
+     * pass in a few thousand rows at a time or more.
+     * </p>
+     *
+     * @param rows The rows being added. Not modified.
+     */
+    public void addRows( DMatrixRMaj rows ) {
+        if( !incremental || root == null ) {
+            reset();
+            numCols = rows.numCols;
+        } else if( rows.numCols != numCols ) {
+            throw new IllegalArgumentException("Number of columns doesn't match the previously added rows");
+        }
+        if( rows.numRows == 0 )
+            return;
+
+        Node chunkRoot = decomposeTree(rows);
+
+        if( accumulated == null ) {
+            // take ownership of the node so that it isn't recycled
+            accumulated = chunkRoot;
+            nodes.set(numNodes-1,new Node());
+        } else {
+            merge.decomposeMerge(accumulated,chunkRoot,numCols);
+            Node tmp = accumulated;
+            accumulated = merge;
+            merge = tmp;
+        }
+
+        numRows += rows.numRows;
+        minLength = Math.min(numRows,numCols);
+        root = accumulated;
+    }
+
+    /**
+     * Splits the rows into chunks, decomposes each chunk, then merges the results until only one node is left.
+     *
+     * @return The root of the tree
+     */
+    private Node decomposeTree( DMatrixRMaj A ) {
+        final int rowsChunk = Math.max(chunkRows,A.numCols);
+        final int numLeaves = Math.max(1,A.numRows/rowsChunk);
+
+        // Create the tree. Each level pairs up nodes in the previous level. If a level has an odd number
+        // of nodes the last one is passed on to the next level
+        numNodes = 0;
+        numLevels = 0;
+        int expectedLevels = 2;
+        for( int i = numLeaves; i > 1; i = (i+1)/2 )
+            expectedLevels++;
+        if( levels.length < expectedLevels )
+            levels = new int[expectedLevels];
+
+        levels[numLevels++] = 0;
+        for( int i = 0; i < numLeaves; i++ ) {
+            Node leaf = grabNode();
+            leaf.left = leaf.right = null;
+            leaf.row0 = (int)((long)i*A.numRows/numLeaves);
+            leaf.row1 = (int)((long)(i+1)*A.numRows/numLeaves);
+        }
+        int start = 0, carry = -1;
+        int length = numLeaves;
+        while( length + (carry >= 0 ? 1 : 0) > 1 ) {
+            levels[numLevels++] = numNodes;
+            int end = start+length;
+            int i = start;
+            if( carry >= 0 ) {
+                Node node = grabNode();
+                node.left = nodes.get(carry);
+                node.right = nodes.get(i++);
+                carry = -1;
+            }
+            for( ; i+1 < end; i += 2 ) {
+                Node node = grabNode();
+                node.left = nodes.get(i);
+                node.right = nodes.get(i+1);
+            }
+            if( i < end )
+                carry = i;
+            start = end;
+            length = numNodes-start;
+        }
+        levels[numLevels] = numNodes;
+
+        // decompose each level, starting at the leaves
+        final int numColsA = A.numCols;
+        loop(0,numLeaves,(i0,i1)->{
+            for( int i = i0; i < i1; i++ ) {
+                nodes.get(i).decomposeLeaf(A);
+            }
+        });
+        for( int level = 1; level < numLevels; level++ ) {
+            loop(levels[level],levels[level+1],(i0,i1)->{
+                for( int i = i0; i < i1; i++ ) {
+                    Node n = nodes.get(i);
+                    n.decomposeMerge(n.left,n.right,numColsA);
+                }
+            });
+        }
+
+        return nodes.get(numNodes-1);
+    }
+
+    private Node grabNode() {
+        if( numNodes == nodes.size() )
+            nodes.add(new Node());
+        return nodes.get(numNodes++);
+    }
+
+    private void loop( int start , int endExclusive , IntRangeConsumer consumer ) {
+        if( concurrent )
+            EjmlConcurrency.loopBlocks(start,endExclusive,consumer);
+        else
+            consumer.accept(start,endExclusive);
+    }
+
+    /**
+     * Computes Q<sup>T</sup>*B using the compact form of Q.
+     *
+     * @param B Matrix with the same number of rows as the decomposed matrix. Not modified.
+     * @param QtB Storage for the results. Reshaped to min(rows,cols) by B.numCols. Modified.
+     */
+    public void applyQTran( DMatrixRMaj B , DMatrixRMaj QtB ) {
+        checkQ();
+        if( B.numRows != numRows )
+            throw new IllegalArgumentException("B must have the same number of rows as the decomposed matrix");
+
+        work.set(B);
+        applyImplicit(work,true);
+
+        QtB.reshape(minLength,B.numCols);
+        for( int i = 0; i < minLength; i++ ) {
+            System.arraycopy(work.data,root.passedRow(i)*B.numCols,QtB.data,i*B.numCols,B.numCols);
+        }
+    }
+
+    /**
+     * Multiplies B by the implicit Q or Q<sup>T</sup> in place. The implicit Q maps the rows of R to
+     * {@link Node#passedRow} of the root instead of the first few rows.
+     */
+    private void applyImplicit( DMatrixRMaj B , boolean transposed ) {
+        final int numLeaves = levels[1] - levels[0];
+        if( transposed ) {
+            loop(0,numLeaves,(i0,i1)->{
+                double[] temp = new double[B.numCols];
+                for( int i = i0; i < i1; i++ ) {
+                    nodes.get(i).apply(B,true,temp);
+                }
+            });
+            for( int level = 1; level < numLevels; level++ ) {
+                applyLevel(B,level,true);
+            }
+        } else {
+            for( int level = numLevels-1; level >= 1; level-- ) {
+                applyLevel(B,level,false);
+            }
+            loop(0,numLeaves,(i0,i1)->{
+                double[] temp = new double[B.numCols];
+                for( int i = i0; i < i1; i++ ) {
+                    nodes.get(i).apply(B,false,temp);
+                }
+            });
+        }
+    }
+
+    private void applyLevel( DMatrixRMaj B , int level , boolean transposed ) {
+        loop(levels[level],levels[level+1],(i0,i1)->{
+            double[] temp = new double[B.numCols];
+            for( int i = i0; i < i1; i++ ) {
+                nodes.get(i).apply(B,transposed,temp);
+            }
+        });
+    }
+
+    private void checkQ() {
+        if( incremental )
+            throw new IllegalArgumentException("Q isn't saved when rows are added incrementally");
+    }
+
+    @Override
+    public DMatrixRMaj getQ( DMatrixRMaj Q , boolean compact ) {
+        checkQ();
+        int cols = compact ? minLength : numRows;
+        Q = UtilDecompositons_DDRM.checkZeros(Q,numRows,cols);
+
+        // R is in the rows selected by the root. Select those rows first then the rows which were zeroed
+        boolean[] used = new boolean[numRows];
+        for( int i = 0; i < minLength; i++ ) {
+            int row = root.passedRow(i);
+            used[row] = true;
+            Q.data[row*cols+i] = 1;
+        }
+        if( !compact ) {
+            for( int row = 0, col = minLength; row < numRows; row++ ) {
+                if( !used[row] )
+                    Q.data[row*cols+(col++)] = 1;
+            }
+        }
+
+        applyImplicit(Q,false);
+
+        return Q;
+    }
+
+    @Override
+    public DMatrixRMaj getR( DMatrixRMaj R , boolean compact ) {
+        if( compact ) {
+            R = UtilDecompositons_DDRM.checkZerosLT(R,minLength,numCols);
+        } else {
+            R = UtilDecompositons_DDRM.checkZerosLT(R,numRows,numCols);
+        }
+
+        if( root == null )
+            return R;
+
+        for( int j = 0; j < numCols; j++ ) {
+            double colR[] = root.dataQR[j];
+            int l = Math.min(j,minLength-1);
+            for( int i = 0; i <= l; i++ ) {
+                R.data[i*R.numCols+j] = colR[i];
+            }
+        }
+
+        return R;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    public void setChunkRows( int chunkRows ) {
+        this.chunkRows = chunkRows;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    public void setConcurrent( boolean concurrent ) {
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * A node in the reduction tree. Leaves decompose a chunk of rows in the input matrix and other nodes
+     * decompose the R of their two children stacked on top of each other.
+     */
+    protected static class Node extends QRDecompositionHouseholderColumn_DDRM {
+        // children. null for leaves
+        Node left, right;
+        // rows in the input matrix which a leaf decomposes
+        int row0, row1;
+        // which row in the implicit Q each row in a node's input came from
+        int[] indexes = new int[0];
+        // storage for rows in B when multiplying by Q
+        DMatrixRMaj work = new DMatrixRMaj(1,1);
+
+        void decomposeLeaf( DMatrixRMaj A ) {
+            setExpectedMaxSize(row1-row0,A.numCols);
+
+            for( int x = 0; x < numCols; x++ ) {
+                double colQ[] = dataQR[x];
+                int indexA = row0*A.numCols + x;
+                for( int y = 0; y < numRows; y++, indexA += A.numCols ) {
+                    colQ[y] = A.data[indexA];
+                }
+            }
+
+            decomposeInternal();
+        }
+
+        void decomposeMerge( Node a , Node b , int numCols ) {
+            setExpectedMaxSize(a.minLength+b.minLength,numCols);
+
+            if( indexes.length < numRows )
+                indexes = new int[numRows];
+            for( int i = 0; i < a.minLength; i++ ) {
+                indexes[i] = a.passedRow(i);
+            }
+            for( int i = 0; i < b.minLength; i++ ) {
+                indexes[a.minLength+i] = b.passedRow(i);
+            }
+
+            for( int x = 0; x < numCols; x++ ) {
+                copyColumnR(a,x,dataQR[x],0);
+                copyColumnR(b,x,dataQR[x],a.minLength);
+            }
+
+            decomposeInternal();
+        }
+
+        /**
+         * Copies a column of R in the child into the column of this node, including the zeros
+         */
+        private static void copyColumnR( Node child , int x , double[] col , int offset ) {
+            double[] src = child.dataQR[x];
+            int l = Math.min(x+1,child.minLength);
+            System.arraycopy(src,0,col,offset,l);
+            for( int i = l; i < child.minLength; i++ ) {
+                col[offset+i] = 0;
+            }
+        }
+
+        private void decomposeInternal() {
+            error = false;
+            for( int j = 0; j < minLength; j++ ) {
+                householder(j);
+                updateA(j);
+            }
+        }
+
+        /**
+         * The row in the implicit Q which the i-th row of R in this node ends up in
+         */
+        int passedRow( int i ) {
+            return left == null ? row0 + i : indexes[i];
+        }
+
+        /**
+         * Applies this node's reflectors to the rows in B it's responsible for
+         */
+        void apply( DMatrixRMaj B , boolean transposed , double[] temp ) {
+            if( left == null ) {
+                applyReflectors(B,-row0,row0,transposed,temp);
+            } else {
+                final int N = B.numCols;
+                work.reshape(numRows,N);
+                for( int i = 0; i < numRows; i++ ) {
+                    System.arraycopy(B.data,indexes[i]*N,work.data,i*N,N);
+                }
+                applyReflectors(work,0,0,transposed,temp);
+                for( int i = 0; i < numRows; i++ ) {
+                    System.arraycopy(work.data,i*N,B.data,indexes[i]*N,N);
+                }
+            }
+        }
+
+        private void applyReflectors( DMatrixRMaj B , int offsetU , int row0 , boolean transposed , double[] temp ) {
+            for( int k = 0; k < minLength; k++ ) {
+                int j = transposed ? k : minLength-1-k;
+                double []u = dataQR[j];
+
+                double vv = u[j];
+                u[j] = 1;
+                QrHelperFunctions_DDRM.rank1UpdateMultR(B, u, offsetU, gammas[j], 0, row0+j, row0+numRows, temp);
+                u[j] = vv;
+            }
+        }
+    }
+}
@@ -20,6 +20,9 @@ package org.ejml.dense.row.decomposition.qr;
 
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.TriangularSolver_DDRM;
+
+import java.util.Arrays;
 
 
 /**
@@ -43,9 +46,16 @@ import org.ejml.dense.row.CommonOps_DDRM;
  * </p>
  *
  * <p>
- * For more information see David S. Watkins, "Fundamentals of Matrix Computations" 2nd edition, pages 249-259.
- * It is also possible to add and remove columns efficiently, but this is less common and is not supported at
- * this time.
+ * Columns can be inserted and removed and a block of rows can be added at once. Each of these operations also
+ * has an R-only variant which updates R without Q.  In that case R is n by n and the cost of an update no longer
+ * depends on the number of rows in A, which is useful when only R<sup>T</sup>R = A<sup>T</sup>A is needed,
+ * e.g. recursive least-squares or stepwise regression. Rows are added using Householder reflectors and
+ * columns are inserted or removed using Givens rotations.
+ * </p>
+ *
+ * <p>
+ * For more information see David S. Watkins, "Fundamentals of Matrix Computations" 2nd edition, pages 249-259,
+ * and Golub and Van Loan, "Matrix Computations" 4th edition, section 6.5.
  * </p>
  * @author Peter Abeles
  */
@@ -73,6 +83,16 @@ public class QrUpdate_DDRM {
     // and exception.
     private boolean autoGrow;
 
+    // copy of the rows being added. After the update it contains the Householder vectors
+    private DMatrixRMaj rowsWork = new DMatrixRMaj(1,1);
+    private double tau[] = new double[0];
+    // work space for reflectors and column updates
+    private double w[] = new double[0];
+    private double w2[] = new double[0];
+    // Givens rotations which are applied to Q after R has been updated
+    private double givensC[] = new double[0];
+    private double givensS[] = new double[0];
+
     /**
      * Creates an update which can decompose matrices up to the specified size.  Autogrow
      * is set to false.
@@ -420,6 +440,478 @@ public class QrUpdate_DDRM {
         }
     }
 
+    /**
+     * <p>
+     * Adjusts the Q and R matrices to take in account a block of k rows being inserted into 'A' at the specified
+     * location.  This is much faster than adding the rows one at a time since R is updated using
+     * one Householder reflector for each column.  This operation requires about 4kn<sup>2</sup> + 4(m+k)kn flops.
+     * </p>
+     *
+     * @param Q The Q matrix which is to be modified, must be big enough to grow.  Must be m by m.  Is modified.
+     * @param R The R matrix which is to be modified, must be big enough to grow.  Must be m by n.  Is modified.
+     * @param rows The k rows being inserted.  Must be k by n.  Not modified.
+     * @param rowIndex The index in 'A' that the first row will be inserted at.
+     * @param resizeR Should the number of rows in R be changed?  The additional rows are all zero.
+     */
+    public void addRows( DMatrixRMaj Q , DMatrixRMaj R , DMatrixRMaj rows , int rowIndex , boolean resizeR ) {
+        if( Q.numRows != Q.numCols )
+            throw new IllegalArgumentException("Q should be square.");
+        int m = Q.numRows;
+        int n = R.numCols;
+        int k = rows.numRows;
+        if( rows.numCols != n )
+            throw new IllegalArgumentException("rows must have the same number of columns as R");
+        if( m < n )
+            throw new IllegalArgumentException("A must have at least as many rows as columns");
+        if( rowIndex < 0 || rowIndex > m )
+            throw new IllegalArgumentException("rowIndex is out of bounds");
+        int m_k = m+k;
+        if( Q.data.length < m_k*m_k )
+            throw new IllegalArgumentException("Q matrix does not have enough data to grow");
+        if( resizeR && R.data.length < m_k*n )
+            throw new IllegalArgumentException("R matrix does not have enough data to grow");
+
+        householderRows(R,rows);
+
+        // Q is augmented to [Q 0;0 I] with the rows permuted to where they were inserted in A then the
+        // reflectors are applied to it from the right
+        if( Qm == null )
+            Qm = new DMatrixRMaj(m,m);
+        Qm.set(Q);
+        Q.reshape(m_k,m_k, false);
+        double[] V = rowsWork.data;
+        for( int i = 0; i < m_k; i++ ) {
+            int indexQ = i*m_k;
+            if( i >= rowIndex && i < rowIndex+k ) {
+                Arrays.fill(Q.data,indexQ,indexQ+m_k,0);
+                Q.data[indexQ+m+i-rowIndex] = 1;
+            } else {
+                int src = i < rowIndex ? i : i-k;
+                System.arraycopy(Qm.data,src*m,Q.data,indexQ,m);
+                Arrays.fill(Q.data,indexQ+m,indexQ+m_k,0);
+            }
+
+            for( int j = 0; j < n; j++ ) {
+                if( tau[j] == 0 )
+                    continue;
+                double sum = Q.data[indexQ+j];
+                for( int l = 0; l < k; l++ ) {
+                    sum += V[l*n+j]*Q.data[indexQ+m+l];
+                }
+                sum *= tau[j];
+                Q.data[indexQ+j] -= sum;
+                for( int l = 0; l < k; l++ ) {
+                    Q.data[indexQ+m+l] -= sum*V[l*n+j];
+                }
+            }
+        }
+
+        if( resizeR ) {
+            R.reshape(m_k,n, false);
+            Arrays.fill(R.data,m*n,m_k*n,0);
+        }
+    }
+
+    /**
+     * <p>
+     * R-only variant of {@link #addRows(DMatrixRMaj, DMatrixRMaj, DMatrixRMaj, int, boolean)}.  Updates R so that
+     * R'<sup>T</sup>R' = R<sup>T</sup>R + rows<sup>T</sup>rows.  Requires about 4kn<sup>2</sup> flops and does
+     * not depend on the number of rows in 'A'.  The order the rows are added in does not matter.
+     * </p>
+     *
+     * @param R Upper triangular n by n matrix.  Is modified.
+     * @param rows The k rows being added.  Must be k by n.  Not modified.
+     */
+    public void addRowsNoQ( DMatrixRMaj R , DMatrixRMaj rows ) {
+        if( R.numRows < R.numCols )
+            throw new IllegalArgumentException("R must have at least as many rows as columns");
+        if( rows.numCols != R.numCols )
+            throw new IllegalArgumentException("rows must have the same number of columns as R");
+
+        householderRows(R,rows);
+    }
+
+    /**
+     * Zeros the rows being added by applying a Householder reflector to each column of [R;rows].  The vectors
+     * are saved in rowsWork and their scale factors in tau.
+     */
+    private void householderRows( DMatrixRMaj R , DMatrixRMaj rows ) {
+        int n = R.numCols;
+        int k = rows.numRows;
+
+        rowsWork.set(rows);
+        if( tau.length < n ) {
+            tau = new double[n];
+            w = new double[n];
+        }
+
+        double[] V = rowsWork.data;
+        for( int j = 0; j < n; j++ ) {
+            double max = Math.abs(R.data[j*n+j]);
+            for( int l = 0; l < k; l++ ) {
+                max = Math.max(max,Math.abs(V[l*n+j]));
+            }
+            double sigma = 0;
+            if( max != 0 ) {
+                for( int l = 0; l < k; l++ ) {
+                    double v = V[l*n+j]/max;
+                    sigma += v*v;
+                }
+            }
+            if( sigma == 0 ) {
+                // the column is already zero
+                tau[j] = 0;
+                continue;
+            }
+
+            double alpha = R.data[j*n+j]/max;
+            double beta = Math.sqrt(alpha*alpha + sigma);
+            if( alpha > 0 )
+                beta = -beta;
+            tau[j] = (beta-alpha)/beta;
+            double scale = 1.0/(alpha-beta);
+            for( int l = 0; l < k; l++ ) {
+                V[l*n+j] = V[l*n+j]/max*scale;
+            }
+            R.data[j*n+j] = beta*max;
+
+            // apply the reflector to the remaining columns
+            if( j+1 == n )
+                continue;
+            System.arraycopy(R.data,j*n+j+1,w,j+1,n-j-1);
+            for( int l = 0; l < k; l++ ) {
+                double v = V[l*n+j];
+                int indexV = l*n;
+                for( int col = j+1; col < n; col++ ) {
+                    w[col] += v*V[indexV+col];
+                }
+            }
+            for( int col = j+1; col < n; col++ ) {
+                w[col] *= tau[j];
+                R.data[j*n+col] -= w[col];
+            }
+            for( int l = 0; l < k; l++ ) {
+                double v = V[l*n+j];
+                int indexV = l*n;
+                for( int col = j+1; col < n; col++ ) {
+                    V[indexV+col] -= v*w[col];
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Adjusts the Q and R matrices to take in account a column being inserted into 'A' at the specified
+     * location.  The column is multiplied by Q<sup>T</sup> and then the elements below the diagonal are zeroed
+     * using Givens rotations.  This operation requires about 8m<sup>2</sup> flops.
+     * </p>
+     *
+     * @param Q The Q matrix.  Must be m by m.  Is modified.
+     * @param R The R matrix, must have enough data to grow.  Must be m by n and becomes m by n+1.  Is modified.
+     * @param column The column being inserted.  Length m.  Not modified.
+     * @param colIndex The index in 'A' that the column will be inserted at.
+     */
+    public void addColumn( DMatrixRMaj Q , DMatrixRMaj R , double[] column , int colIndex ) {
+        if( Q.numRows != Q.numCols )
+            throw new IllegalArgumentException("Q should be square.");
+        int m = Q.numRows;
+        int n = R.numCols;
+        if( R.numRows != m )
+            throw new IllegalArgumentException("R must have the same number of rows as Q");
+        if( colIndex < 0 || colIndex > n )
+            throw new IllegalArgumentException("colIndex is out of bounds");
+        if( R.data.length < m*(n+1) )
+            throw new IllegalArgumentException("R matrix does not have enough data to grow");
+        growColumnWork(m);
+
+        // w = Q'*column
+        Arrays.fill(w,0,m,0);
+        for( int i = 0; i < m; i++ ) {
+            double a = column[i];
+            if( a == 0 )
+                continue;
+            int indexQ = i*m;
+            for( int j = 0; j < m; j++ ) {
+                w[j] += a*Q.data[indexQ+j];
+            }
+        }
+
+        insertColumn(R,m,colIndex);
+
+        // Q = Q*G'
+        applyGivensToColumns(Q,colIndex,m-colIndex-1,false);
+    }
+
+    /**
+     * <p>
+     * R-only variant of {@link #addColumn(DMatrixRMaj, DMatrixRMaj, double[], int)}.  Since Q is not available
+     * the new column of R is found by solving R<sup>T</sup>r = A<sup>T</sup>a followed by one step of iterative
+     * refinement, i.e. the corrected semi-normal equations.  This requires about 8mn + 3n<sup>2</sup> flops.
+     * </p>
+     *
+     * <p>
+     * If the column is a linear combination of the columns already in 'A' then the new diagonal element in R will be
+     * zero or close to zero.
+     * </p>
+     *
+     * @param R Upper triangular n by n matrix, must have enough data to grow.  Becomes n+1 by n+1.  Is modified.
+     * @param A The 'A' matrix before the column is inserted.  m by n.  Not modified.
+     * @param column The column being inserted.  Length m.  Not modified.
+     * @param colIndex The index in 'A' that the column will be inserted at.
+     */
+    public void addColumnNoQ( DMatrixRMaj R , DMatrixRMaj A , double[] column , int colIndex ) {
+        int n = R.numCols;
+        int m = A.numRows;
+        if( R.numRows != n || A.numCols != n )
+            throw new IllegalArgumentException("R must be square and have the same number of columns as A");
+        if( colIndex < 0 || colIndex > n )
+            throw new IllegalArgumentException("colIndex is out of bounds");
+        if( R.data.length < (n+1)*(n+1) )
+            throw new IllegalArgumentException("R matrix does not have enough data to grow");
+        growColumnWork(Math.max(m,n+1));
+        if( w2.length < m )
+            w2 = new double[m];
+
+        // w2 = residual of column after it has been projected onto A
+        System.arraycopy(column,0,w2,0,m);
+        Arrays.fill(w,0,n,0);
+        for( int iter = 0; iter < 2; iter++ ) {
+            // dr = R^-T * A' * w2 and the residual is w2 - A*R^-1*dr
+            // The rotations haven't been computed yet so their storage is used as work space
+            double[] dr = givensC;
+            multTransA(A,w2,dr);
+            solveTranU(R.data,dr,n);
+            for( int i = 0; i < n; i++ ) {
+                w[i] += dr[i];
+            }
+            TriangularSolver_DDRM.solveU(R.data,dr,n);
+            for( int i = 0; i < m; i++ ) {
+                double sum = 0;
+                int indexA = i*n;
+                for( int j = 0; j < n; j++ ) {
+                    sum += A.data[indexA+j]*dr[j];
+                }
+                w2[i] -= sum;
+            }
+        }
+        double norm = 0;
+        for( int i = 0; i < m; i++ ) {
+            norm += w2[i]*w2[i];
+        }
+        w[n] = Math.sqrt(norm);
+
+        insertColumn(R,n+1,colIndex);
+    }
+
+    /**
+     * <p>
+     * Adjusts the Q and R matrices to take in account a column being removed from 'A'.  Removing the column
+     * turns R into an upper Hessenberg matrix, which is turned back into an upper triangular matrix using
+     * Givens rotations.  This operation requires about 3(n-colIndex)<sup>2</sup> + 6m(n-colIndex) flops.
+     * </p>
+     *
+     * @param Q The Q matrix.  Must be m by m.  Is modified.
+     * @param R The R matrix.  Must be m by n and becomes m by n-1.  Is modified.
+     * @param colIndex Index of the column being removed.
+     */
+    public void deleteColumn( DMatrixRMaj Q , DMatrixRMaj R , int colIndex ) {
+        if( Q.numRows != Q.numCols )
+            throw new IllegalArgumentException("Q should be square.");
+        if( R.numRows != Q.numRows )
+            throw new IllegalArgumentException("R must have the same number of rows as Q");
+        int numRotations = removeColumn(R,colIndex);
+
+        applyGivensToColumns(Q,colIndex,numRotations,true);
+    }
+
+    /**
+     * R-only variant of {@link #deleteColumn(DMatrixRMaj, DMatrixRMaj, int)}.  Requires about
+     * 3(n-colIndex)<sup>2</sup> flops.
+     *
+     * @param R Upper triangular n by n matrix.  Becomes n-1 by n-1.  Is modified.
+     * @param colIndex Index of the column being removed.
+     */
+    public void deleteColumnNoQ( DMatrixRMaj R , int colIndex ) {
+        if( R.numRows != R.numCols )
+            throw new IllegalArgumentException("R must be square");
+        int n = R.numCols;
+        removeColumn(R,colIndex);
+        // the last row is now zero
+        R.reshape(n-1,n-1, false);
+    }
+
+    /**
+     * Inserts w as a new column in R then zeros the elements below the diagonal in that column using Givens
+     * rotations between adjacent rows, starting at the bottom.
+     *
+     * @param numRows Number of rows in R after the column has been inserted
+     */
+    private void insertColumn( DMatrixRMaj R , int numRows , int colIndex ) {
+        int n = R.numCols;
+        int n1 = n+1;
+        int oldRows = R.numRows;
+
+        // shift the columns over in place, starting at the end so nothing is overwritten
+        R.reshape(numRows,n1, false);
+        for( int i = numRows-1; i >= 0; i-- ) {
+            int indexR = i*n1;
+            if( i < oldRows ) {
+                System.arraycopy(R.data,i*n+colIndex,R.data,indexR+colIndex+1,n-colIndex);
+                System.arraycopy(R.data,i*n,R.data,indexR,colIndex);
+            } else {
+                Arrays.fill(R.data,indexR,indexR+n1,0);
+            }
+            R.data[indexR+colIndex] = w[i];
+        }
+
+        for( int i = numRows-1; i > colIndex; i-- ) {
+            double xi = R.data[(i-1)*n1+colIndex];
+            double xj = R.data[i*n1+colIndex];
+            double c,s;
+            double r = xi*xi + xj*xj;
+            if( r != 0 ) {
+                r = Math.sqrt(r);
+                c = xi/r;
+                s = xj/r;
+            } else {
+                c = 1;
+                s = 0;
+            }
+            R.data[(i-1)*n1+colIndex] = r;
+            R.data[i*n1+colIndex] = 0;
+            // row i-1 is zero before column i, except for the inserted column
+            for( int col = i; col < n1; col++ ) {
+                double vali = R.data[(i-1)*n1+col];
+                double valj = R.data[i*n1+col];
+                R.data[(i-1)*n1+col] = c*vali + s*valj;
+                R.data[i*n1+col] = c*valj - s*vali;
+            }
+            givensC[i-colIndex-1] = c;
+            givensS[i-colIndex-1] = s;
+        }
+    }
+
+    /**
+     * Removes a column from R in place then zeros the sub-diagonal of the resulting Hessenberg matrix
+     * using Givens rotations.
+     *
+     * @return number of rotations
+     */
+    private int removeColumn( DMatrixRMaj R , int colIndex ) {
+        int m = R.numRows;
+        int n = R.numCols;
+        if( colIndex < 0 || colIndex >= n )
+            throw new IllegalArgumentException("colIndex is out of bounds");
+        int n1 = n-1;
+        growColumnWork(n);
+
+        for( int i = 0; i < m; i++ ) {
+            System.arraycopy(R.data,i*n,R.data,i*n1,colIndex);
+            System.arraycopy(R.data,i*n+colIndex+1,R.data,i*n1+colIndex,n1-colIndex);
+        }
+        R.reshape(m,n1, false);
+
+        int numRotations = Math.min(n1,m-1)-colIndex;
+        for( int j = colIndex; j < colIndex+numRotations; j++ ) {
+            double xi = R.data[j*n1+j];
+            double xj = R.data[(j+1)*n1+j];
+            double c,s;
+            double r = xi*xi + xj*xj;
+            if( r != 0 ) {
+                r = Math.sqrt(r);
+                c = xi/r;
+                s = xj/r;
+            } else {
+                c = 1;
+                s = 0;
+            }
+            R.data[j*n1+j] = r;
+            R.data[(j+1)*n1+j] = 0;
+            for( int col = j+1; col < n1; col++ ) {
+                double vali = R.data[j*n1+col];
+                double valj = R.data[(j+1)*n1+col];
+                R.data[j*n1+col] = c*vali + s*valj;
+                R.data[(j+1)*n1+col] = c*valj - s*vali;
+            }
+            givensC[j-colIndex] = c;
+            givensS[j-colIndex] = s;
+        }
+        return Math.max(0,numRotations);
+    }
+
+    /**
+     * Multiplies Q by the transpose of the saved Givens rotations, Q = Q*G'.  The rotations are applied one row
+     * at a time to reduce cache misses.
+     *
+     * @param forward If true then the rotations act on columns (j,j+1) starting at j=col0, otherwise on columns
+     *                (j-1,j) starting at j = col0+numRotations.
+     */
+    private void applyGivensToColumns( DMatrixRMaj Q , int col0 , int numRotations , boolean forward ) {
+        int m = Q.numCols;
+        for( int i = 0; i < Q.numRows; i++ ) {
+            int indexQ = i*m + col0;
+            if( forward ) {
+                for( int r = 0; r < numRotations; r++ ) {
+                    double c = givensC[r], s = givensS[r];
+                    double q1 = Q.data[indexQ+r];
+                    double q2 = Q.data[indexQ+r+1];
+                    Q.data[indexQ+r] = c*q1 + s*q2;
+                    Q.data[indexQ+r+1] = c*q2 - s*q1;
+                }
+            } else {
+                for( int r = numRotations-1; r >= 0; r-- ) {
+                    double c = givensC[r], s = givensS[r];
+                    double q1 = Q.data[indexQ+r];
+                    double q2 = Q.data[indexQ+r+1];
+                    Q.data[indexQ+r] = c*q1 + s*q2;
+                    Q.data[indexQ+r+1] = c*q2 - s*q1;
+                }
+            }
+        }
+    }
+
+    private void growColumnWork( int length ) {
+        if( w.length < length ) {
+            w = new double[length];
+            tau = new double[length];
+        }
+        if( givensC.length < length ) {
+            givensC = new double[length];
+            givensS = new double[length];
+        }
+    }
+
+    /**
+     * y = A'*x
+     */
+    private static void multTransA( DMatrixRMaj A , double[] x , double[] y ) {
+        int n = A.numCols;
+        Arrays.fill(y,0,n,0);
+        for( int i = 0; i < A.numRows; i++ ) {
+            double v = x[i];
+            if( v == 0 )
+                continue;
+            int indexA = i*n;
+            for( int j = 0; j < n; j++ ) {
+                y[j] += v*A.data[indexA+j];
+            }
+        }
+    }
+
+    /**
+     * Solves R'*x = b, where R is upper triangular.  b is overwritten with x.
+     */
+    private static void solveTranU( double[] R , double[] b , int n ) {
+        for( int i = 0; i < n; i++ ) {
+            double sum = b[i];
+            for( int k = 0; k < i; k++ ) {
+                sum -= R[k*n+i]*b[k];
+            }
+            b[i] = sum/R[i*n+i];
+        }
+    }
+
     public DMatrixRMaj getU_tran() {
         return U_tran;
     }
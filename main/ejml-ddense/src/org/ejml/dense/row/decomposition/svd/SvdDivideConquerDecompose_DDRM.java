@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.EjmlParameters;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionBlock_DDRM;
+import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionRow_DDRM;
+import org.ejml.dense.row.decomposition.svd.divideconquer.SvdDivideConquerAlgorithm_DDRM;
+import org.ejml.dense.row.decomposition.svd.implicitqr.SvdImplicitQrAlgorithm_DDRM;
+import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+
+
+/**
+ * <p>
+ * Computes the Singular value decomposition of a matrix using the divide and conquer algorithm. The matrix is first
+ * reduced to bidiagonal form, A=U*B*V<sup>T</sup>, then the SVD of B is found using
+ * {@link SvdDivideConquerAlgorithm_DDRM}. Finally the singular vectors of B are multiplied against U and V.
+ * Since most of the work is done inside of matrix multiplications this is much faster than
+ * {@link SvdImplicitQrDecompose_DDRM} for large matrices when the singular vectors are needed.
+ * </p>
+ *
+ * <p>
+ * If neither U or V are requested then the singular values are found using the implicit QR algorithm since
+ * divide and conquer offers no advantage.
+ * </p>
+ *
+ * @see SvdDivideConquerAlgorithm_DDRM
+ *
+ * @author Peter Abeles
+ */
+public class SvdDivideConquerDecompose_DDRM implements SingularValueDecomposition_F64<DMatrixRMaj> {
+
+    private int numRows;
+    private int numCols;
+
+    // dimensions of transposed matrix
+    private int numRowsT;
+    private int numColsT;
+
+    private BidiagonalDecomposition_F64<DMatrixRMaj> bidiag;
+    private SvdDivideConquerAlgorithm_DDRM alg;
+    private SvdImplicitQrAlgorithm_DDRM qralg = new SvdImplicitQrAlgorithm_DDRM();
+
+    double diag[];
+    double off[];
+
+    private DMatrixRMaj Ut;
+    private DMatrixRMaj Vt;
+
+    // work space for updating the singular vectors
+    private DMatrixRMaj tmp0 = new DMatrixRMaj(1,1);
+    private DMatrixRMaj tmp1 = new DMatrixRMaj(1,1);
+    private DMatrixRMaj tmp2 = new DMatrixRMaj(1,1);
+
+    private double singularValues[];
+    private int numSingular;
+
+    // compute a compact SVD
+    private boolean compact;
+    // What is actually computed
+    private boolean computeU;
+    private boolean computeV;
+
+    // What the user requested to be computed
+    // If the transpose is computed instead then what is actually computed is swapped
+    private boolean prefComputeU;
+    private boolean prefComputeV;
+
+    // Should it compute the transpose instead
+    private boolean transposed;
+
+    // Either a copy of the input matrix or a copy of it transposed
+    private DMatrixRMaj A_mod = new DMatrixRMaj(1,1);
+
+    /**
+     * Configures the class
+     *
+     * @param compact Compute a compact SVD
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     * @param concurrent If true then the bidiagonal matrix is decomposed using multiple threads.
+     */
+    public SvdDivideConquerDecompose_DDRM(boolean compact, boolean computeU, boolean computeV, boolean concurrent )
+    {
+        this.compact = compact;
+        this.prefComputeU = computeU;
+        this.prefComputeV = computeV;
+        this.alg = new SvdDivideConquerAlgorithm_DDRM(SvdDivideConquerAlgorithm_DDRM.DEFAULT_MIN_SIZE,concurrent);
+    }
+
+    public SvdDivideConquerDecompose_DDRM(boolean compact, boolean computeU, boolean computeV ) {
+        this(compact,computeU,computeV, EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return singularValues;
+    }
+
+    @Override
+    public int numberOfSingularValues() {
+        return numSingular;
+    }
+
+    @Override
+    public boolean isCompact() {
+        return compact;
+    }
+
+    @Override
+    public DMatrixRMaj getU(DMatrixRMaj U , boolean transpose) {
+        if( !prefComputeU )
+            throw new IllegalArgumentException("As requested U was not computed.");
+        if( transpose ) {
+            if( U == null )
+                return Ut;
+            U.set(Ut);
+        } else {
+            if( U == null )
+                U = new DMatrixRMaj(Ut.numCols,Ut.numRows);
+            else
+                U.reshape(Ut.numCols,Ut.numRows);
+
+            CommonOps_DDRM.transpose(Ut,U);
+        }
+
+        return U;
+    }
+
+    @Override
+    public DMatrixRMaj getV(DMatrixRMaj V , boolean transpose ) {
+        if( !prefComputeV )
+            throw new IllegalArgumentException("As requested V was not computed.");
+        if( transpose ) {
+            if( V == null )
+                return Vt;
+
+            V.set(Vt);
+        } else {
+            if( V == null )
+                V = new DMatrixRMaj(Vt.numCols,Vt.numRows);
+            else
+                V.reshape(Vt.numCols,Vt.numRows);
+
+            CommonOps_DDRM.transpose(Vt,V);
+        }
+
+        return V;
+    }
+
+    @Override
+    public DMatrixRMaj getW(DMatrixRMaj W ) {
+        int m = compact ? numSingular : numRows;
+        int n = compact ? numSingular : numCols;
+
+        if( W == null )
+            W = new DMatrixRMaj(m,n);
+        else {
+            W.reshape(m,n, false);
+            W.zero();
+        }
+
+        for( int i = 0; i < numSingular; i++ ) {
+            W.unsafe_set(i,i, singularValues[i]);
+        }
+
+        return W;
+    }
+
+    @Override
+    public boolean decompose(DMatrixRMaj orig) {
+        if( !setup(orig) )
+            return false;
+
+        if (bidiagonalization(orig))
+            return false;
+
+        if( computeU || computeV ) {
+            if( computeUWV() )
+                return false;
+        } else if( computeValues() ) {
+            return false;
+        }
+
+        // if transposed undo the transposition
+        undoTranspose();
+
+        return true;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    private boolean bidiagonalization(DMatrixRMaj orig) {
+        // change the matrix to bidiagonal form
+        if( transposed ) {
+            A_mod.reshape(orig.numCols,orig.numRows,false);
+            CommonOps_DDRM.transpose(orig,A_mod);
+        } else {
+            A_mod.reshape(orig.numRows,orig.numCols,false);
+            A_mod.set(orig);
+        }
+        return !bidiag.decompose(A_mod);
+    }
+
+    /**
+     * If the transpose was computed instead do some additional computations
+     */
+    private void undoTranspose() {
+        if( transposed ) {
+            DMatrixRMaj temp = Vt;
+            Vt = Ut;
+            Ut = temp;
+        }
+    }
+
+    /**
+     * Computes the SVD of the bidiagonal matrix, B = U<sub>b</sub>*W*V<sub>b</sub><sup>T</sup>, then updates U and V
+     * using matrix multiplication.
+     */
+    private boolean computeUWV() {
+        bidiag.getDiagonal(diag,off);
+        if( !alg.process(numColsT,diag,off) )
+            return true;
+
+        numSingular = numColsT;
+        System.arraycopy(alg.getSingularValues(),0,singularValues,0,numSingular);
+
+        // Ut = Ub'*Ut. Only the first numColsT rows of Ut are modified. The transpose is computed explicitly so
+        // that the faster matrix multiplication can be used
+        if( computeU ) {
+            Ut = bidiag.getU(Ut,true,compact);
+            tmp0.reshape(numColsT,numColsT);
+            CommonOps_DDRM.transpose(alg.getU(),tmp0);
+            tmp1.reshape(numColsT,numRowsT);
+            System.arraycopy(Ut.data,0,tmp1.data,0,numColsT*numRowsT);
+            tmp2.reshape(numColsT,numRowsT);
+            CommonOps_DDRM.mult(tmp0,tmp1,tmp2);
+            System.arraycopy(tmp2.data,0,Ut.data,0,numColsT*numRowsT);
+        }
+        // Vt = Vb'*Vt
+        if( computeV ) {
+            tmp1 = bidiag.getV(tmp1,true,compact);
+            tmp0.reshape(numColsT,numColsT);
+            CommonOps_DDRM.transpose(alg.getV(),tmp0);
+            if( Vt == null )
+                Vt = new DMatrixRMaj(numColsT,numColsT);
+            Vt.reshape(numColsT,numColsT);
+            CommonOps_DDRM.mult(tmp0,tmp1,Vt);
+        }
+
+        return false;
+    }
+
+    /**
+     * Only the singular values are needed so the implicit QR algorithm is used
+     */
+    private boolean computeValues() {
+        bidiag.getDiagonal(diag,off);
+        qralg.setMatrix(numRowsT,numColsT,diag,off);
+        qralg.setFastValues(true);
+        qralg.setUt(null);
+        qralg.setVt(null);
+        if( !qralg.process() )
+            return true;
+
+        numSingular = qralg.getNumberOfSingularValues();
+        for( int i = 0; i < numSingular; i++ ) {
+            singularValues[i] = Math.abs(qralg.getSingularValue(i));
+        }
+        return false;
+    }
+
+    private boolean setup(DMatrixRMaj orig) {
+        transposed = orig.numCols > orig.numRows;
+
+        // flag what should be computed and what should not be computed
+        if( transposed ) {
+            computeU = prefComputeV;
+            computeV = prefComputeU;
+            numRowsT = orig.numCols;
+            numColsT = orig.numRows;
+        } else {
+            computeU = prefComputeU;
+            computeV = prefComputeV;
+            numRowsT = orig.numRows;
+            numColsT = orig.numCols;
+        }
+
+        numRows = orig.numRows;
+        numCols = orig.numCols;
+
+        if( numRows == 0 || numCols == 0 )
+            return false;
+
+        if( diag == null || diag.length < numColsT ) {
+            diag = new double[ numColsT ];
+            off = new double[ numColsT-1 ];
+            singularValues = new double[ numColsT ];
+        }
+
+        if( numColsT >= EjmlParameters.SWITCH_BLOCK_BIDIAGONAL ) {
+            // large matrices are reduced in blocks so that most of the work is done by matrix multiplications
+            if( bidiag == null || !(bidiag instanceof BidiagonalDecompositionBlock_DDRM) ) {
+                bidiag = new BidiagonalDecompositionBlock_DDRM();
+            }
+        } else if( bidiag == null || bidiag.getClass() != BidiagonalDecompositionRow_DDRM.class ) {
+            bidiag = new BidiagonalDecompositionRow_DDRM();
+        }
+
+        return true;
+    }
+
+    @Override
+    public int numRows() {
+        return numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return numCols;
+    }
+}
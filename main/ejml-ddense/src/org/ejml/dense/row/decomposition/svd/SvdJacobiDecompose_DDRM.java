@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+
+
+/**
+ * <p>
+ * Computes the Singular value decomposition of a matrix using the one-sided Jacobi algorithm. Plane rotations are
+ * applied to pairs of columns in A until all the columns are orthogonal to each other. The norm of each column is
+ * then a singular value and the normalized columns are the left singular vectors. The rotations accumulated
+ * together are the right singular vectors.
+ * </p>
+ *
+ * <p>
+ * Each sweep visits every pair of columns using a round-robin ordering. The pairs in a single round don't share any
+ * columns with each other and are processed concurrently. Unlike methods which first reduce the matrix to
+ * bidiagonal form, small singular values are found with high relative accuracy. It's slower than
+ * {@link SvdImplicitQrDecompose_DDRM} on a single thread.
+ * </p>
+ *
+ * <p>
+ * James Demmel and Kresimir Veselic, "Jacobi's Method is More Accurate than QR" SIAM Journal on Matrix Analysis and
+ * Applications, 1992
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SvdJacobiDecompose_DDRM implements SingularValueDecomposition_F64<DMatrixRMaj> {
+
+    /**
+     * Maximum number of sweeps before it gives up
+     */
+    public static final int MAX_SWEEPS = 60;
+
+    // Rounds are processed concurrently when there are at least this many elements in the matrix
+    private static final int MIN_CONCURRENT = 10_000;
+
+    private int numRows;
+    private int numCols;
+
+    // dimensions of transposed matrix
+    private int numRowsT;
+    private int numColsT;
+
+    // Rows are the columns of A being orthogonalized. After it has converged they are the left singular vectors
+    private DMatrixRMaj Ut = new DMatrixRMaj(1,1);
+    // Accumulated rotations
+    private DMatrixRMaj Vt = new DMatrixRMaj(1,1);
+
+    private double singularValues[] = new double[0];
+    private int numSingular;
+
+    // pairs of columns for each round in a sweep
+    private int pairs[] = new int[0];
+    private int numPairs;
+    // two columns are considered orthogonal if the cosine of the angle between them is less than this
+    private double tol;
+    // which pairs were rotated in the current round
+    private boolean rotated[] = new boolean[0];
+
+    // used to fill in singular vectors that have a singular value of zero
+    private QRDecompositionHouseholderColumn_DDRM qr = new QRDecompositionHouseholderColumn_DDRM();
+    private DMatrixRMaj B = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Q = new DMatrixRMaj(1,1);
+
+    // compute a compact SVD
+    private boolean compact;
+    // What is actually computed
+    private boolean computeU;
+    private boolean computeV;
+
+    // What the user requested to be computed
+    // If the transpose is computed instead then what is actually computed is swapped
+    private boolean prefComputeU;
+    private boolean prefComputeV;
+
+    // Should it compute the transpose instead
+    private boolean transposed;
+
+    // if true then each round is processed using multiple threads
+    private boolean concurrent;
+
+    /**
+     * Configures the class
+     *
+     * @param compact Compute a compact SVD
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     * @param concurrent If true then the columns are rotated using multiple threads.
+     */
+    public SvdJacobiDecompose_DDRM(boolean compact, boolean computeU, boolean computeV, boolean concurrent ) {
+        this.compact = compact;
+        this.prefComputeU = computeU;
+        this.prefComputeV = computeV;
+        this.concurrent = concurrent;
+    }
+
+    public SvdJacobiDecompose_DDRM(boolean compact, boolean computeU, boolean computeV ) {
+        this(compact,computeU,computeV, EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return singularValues;
+    }
+
+    @Override
+    public int numberOfSingularValues() {
+        return numSingular;
+    }
+
+    @Override
+    public boolean isCompact() {
+        return compact;
+    }
+
+    @Override
+    public DMatrixRMaj getU(DMatrixRMaj U , boolean transpose) {
+        if( !prefComputeU )
+            throw new IllegalArgumentException("As requested U was not computed.");
+        DMatrixRMaj Ut = transposed ? this.Vt : this.Ut;
+        if( transpose ) {
+            if( U == null )
+                return Ut.copy();
+            U.set(Ut);
+        } else {
+            if( U == null )
+                U = new DMatrixRMaj(Ut.numCols,Ut.numRows);
+            else
+                U.reshape(Ut.numCols,Ut.numRows);
+
+            CommonOps_DDRM.transpose(Ut,U);
+        }
+
+        return U;
+    }
+
+    @Override
+    public DMatrixRMaj getV(DMatrixRMaj V , boolean transpose ) {
+        if( !prefComputeV )
+            throw new IllegalArgumentException("As requested V was not computed.");
+        DMatrixRMaj Vt = transposed ? this.Ut : this.Vt;
+        if( transpose ) {
+            if( V == null )
+                return Vt.copy();
+
+            V.set(Vt);
+        } else {
+            if( V == null )
+                V = new DMatrixRMaj(Vt.numCols,Vt.numRows);
+            else
+                V.reshape(Vt.numCols,Vt.numRows);
+
+            CommonOps_DDRM.transpose(Vt,V);
+        }
+
+        return V;
+    }
+
+    @Override
+    public DMatrixRMaj getW(DMatrixRMaj W ) {
+        int m = compact ? numSingular : numRows;
+        int n = compact ? numSingular : numCols;
+
+        if( W == null )
+            W = new DMatrixRMaj(m,n);
+        else {
+            W.reshape(m,n, false);
+            W.zero();
+        }
+
+        for( int i = 0; i < numSingular; i++ ) {
+            W.unsafe_set(i,i, singularValues[i]);
+        }
+
+        return W;
+    }
+
+    @Override
+    public boolean decompose(DMatrixRMaj orig) {
+        if( !setup(orig) )
+            return false;
+
+        // The rows in Ut are the columns in the matrix being decomposed
+        if( transposed ) {
+            Ut.set(orig);
+        } else {
+            Ut.reshape(numColsT,numRowsT);
+            CommonOps_DDRM.transpose(orig,Ut);
+        }
+
+        // scale the matrix to avoid overflow and underflow when computing the dot products
+        double scale = CommonOps_DDRM.elementMaxAbs(Ut);
+        if( scale == 0 )
+            scale = 1;
+        CommonOps_DDRM.divide(Ut,scale);
+
+        if( computeV ) {
+            Vt.reshape(numColsT,numColsT);
+            CommonOps_DDRM.setIdentity(Vt);
+        }
+
+        if( !sweep() )
+            return false;
+
+        numSingular = numColsT;
+        for( int i = 0; i < numColsT; i++ ) {
+            double norm = 0;
+            for( int k = 0, index = i*numRowsT; k < numRowsT; k++, index++ ) {
+                double v = Ut.data[index];
+                norm += v*v;
+            }
+            singularValues[i] = Math.sqrt(norm);
+        }
+
+        if( computeU ) {
+            computeLeftVectors();
+        }
+        for( int i = 0; i < numColsT; i++ ) {
+            singularValues[i] *= scale;
+        }
+
+        return true;
+    }
+
+    /**
+     * Applies rotations to pairs of columns until all of them are orthogonal
+     *
+     * @return true if it converged
+     */
+    private boolean sweep() {
+        // A round with an odd number of columns has a dummy column, which doesn't get paired
+        int N = numColsT + numColsT%2;
+        int numRounds = N-1;
+
+        // create the pairs for every round up front
+        if( pairs.length < numRounds*N )
+            pairs = new int[numRounds*N];
+        numPairs = N/2;
+        for( int round = 0; round < numRounds; round++ ) {
+            int index = round*N;
+            pairs[index++] = N-1;
+            pairs[index++] = round;
+            for( int k = 1; k < numPairs; k++ ) {
+                pairs[index++] = (round+k)%(N-1);
+                pairs[index++] = (round-k+N-1)%(N-1);
+            }
+        }
+        if( rotated.length < numPairs )
+            rotated = new boolean[numPairs];
+
+        boolean useConcurrent = concurrent && numRowsT*numColsT >= MIN_CONCURRENT;
+
+        for( int iter = 0; iter < MAX_SWEEPS; iter++ ) {
+            boolean changed = false;
+            for( int round = 0; round < numRounds; round++ ) {
+                final int offset = round*N;
+                if( useConcurrent ) {
+                    EjmlConcurrency.loopFor(0,numPairs,k->rotated[k]=rotate(pairs[offset+k*2],pairs[offset+k*2+1]));
+                } else {
+                    for( int k = 0; k < numPairs; k++ ) {
+                        rotated[k] = rotate(pairs[offset+k*2],pairs[offset+k*2+1]);
+                    }
+                }
+                for( int k = 0; k < numPairs; k++ ) {
+                    changed |= rotated[k];
+                }
+            }
+            if( !changed )
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rotates a pair of columns so that they are orthogonal to each other
+     *
+     * @return true if the columns were rotated or false if they were already orthogonal
+     */
+    private boolean rotate( int i , int j ) {
+        if( i >= numColsT || j >= numColsT )
+            return false;
+
+        final double[] u = Ut.data;
+        final int indexI = i*numRowsT;
+        final int indexJ = j*numRowsT;
+
+        double alpha = 0, beta = 0, gamma = 0;
+        for( int k = 0; k < numRowsT; k++ ) {
+            double a = u[indexI+k];
+            double b = u[indexJ+k];
+            alpha += a*a;
+            beta += b*b;
+            gamma += a*b;
+        }
+
+        if( gamma == 0 || Math.abs(gamma) <= tol*Math.sqrt(alpha*beta) )
+            return false;
+
+        double zeta = (beta-alpha)/(2.0*gamma);
+        double t = Math.signum(zeta)/(Math.abs(zeta) + Math.sqrt(1.0 + zeta*zeta));
+        if( zeta == 0 )
+            t = 1;
+        double c = 1.0/ Math.sqrt(1.0 + t*t);
+        double s = c*t;
+
+        rotateRows(u,indexI,indexJ,numRowsT,c,s);
+        if( computeV ) {
+            rotateRows(Vt.data,i*numColsT,j*numColsT,numColsT,c,s);
+        }
+        return true;
+    }
+
+    private static void rotateRows( double[] data , int indexI , int indexJ , int length , double c , double s ) {
+        for( int k = 0; k < length; k++ ) {
+            double a = data[indexI+k];
+            double b = data[indexJ+k];
+            data[indexI+k] = c*a - s*b;
+            data[indexJ+k] = s*a + c*b;
+        }
+    }
+
+    /**
+     * Normalizes the rows in Ut. Singular vectors which are not defined by the matrix, because their singular
+     * value is zero or it's not compact, are found by computing an orthonormal basis for the complement.
+     */
+    private void computeLeftVectors() {
+        int numVectors = compact ? numColsT : numRowsT;
+        int numKnown = 0;
+        for( int i = 0; i < numColsT; i++ ) {
+            double s = singularValues[i];
+            if( s == 0 )
+                continue;
+            numKnown++;
+            for( int k = 0, index = i*numRowsT; k < numRowsT; k++, index++ ) {
+                Ut.data[index] /= s;
+            }
+        }
+        Ut.reshape(numVectors,numRowsT,true);
+
+        if( numKnown == numVectors )
+            return;
+
+        // Householder QR of the known vectors. The last columns in Q are orthogonal to them
+        B.reshape(numRowsT,Math.max(1,numKnown));
+        B.zero();
+        for( int i = 0, col = 0; i < numColsT; i++ ) {
+            if( singularValues[i] == 0 )
+                continue;
+            for( int k = 0; k < numRowsT; k++ ) {
+                B.data[k*B.numCols+col] = Ut.data[i*numRowsT+k];
+            }
+            col++;
+        }
+        if( numKnown == 0 ) {
+            Q.reshape(numRowsT,numRowsT);
+            CommonOps_DDRM.setIdentity(Q);
+        } else {
+            qr.decompose(B);
+            Q.reshape(numRowsT,numRowsT);
+            qr.getQ(Q,false);
+        }
+
+        int col = numKnown;
+        for( int i = 0; i < numVectors; i++ ) {
+            if( i < numColsT && singularValues[i] != 0 )
+                continue;
+            for( int k = 0; k < numRowsT; k++ ) {
+                Ut.data[i*numRowsT+k] = Q.data[k*numRowsT+col];
+            }
+            col++;
+        }
+    }
+
+    private boolean setup(DMatrixRMaj orig) {
+        transposed = orig.numCols > orig.numRows;
+
+        // flag what should be computed and what should not be computed
+        if( transposed ) {
+            computeU = prefComputeV;
+            computeV = prefComputeU;
+            numRowsT = orig.numCols;
+            numColsT = orig.numRows;
+        } else {
+            computeU = prefComputeU;
+            computeV = prefComputeV;
+            numRowsT = orig.numRows;
+            numColsT = orig.numCols;
+        }
+
+        numRows = orig.numRows;
+        numCols = orig.numCols;
+        tol = Math.sqrt(numRowsT)*UtilEjml.EPS;
+
+        if( numRows == 0 || numCols == 0 )
+            return false;
+
+        if( singularValues.length < numColsT ) {
+            singularValues = new double[ numColsT ];
+        }
+
+        return true;
+    }
+
+    @Override
+    public int numRows() {
+        return numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return numCols;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
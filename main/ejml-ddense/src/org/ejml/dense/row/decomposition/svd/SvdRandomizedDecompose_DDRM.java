@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionTall_DDRM;
+import org.ejml.dense.row.misc.SimdOps_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+
+import java.util.Random;
+
+
+/**
+ * <p>
+ * Computes an approximate truncated SVD which contains only the largest singular values and their singular vectors.
+ * The randomized range finder of Halko, Martinsson, and Tropp is used. A is multiplied against a random Gaussian
+ * matrix with (rank + oversampling) columns, Y = A*&Omega;, and the columns of Y are made orthonormal, Q.
+ * Accuracy is improved with power iterations, Q = orth(A*orth(A<sup>T</sup>*Q)), which is needed when the singular
+ * values decay slowly. Then the small matrix B = Q<sup>T</sup>*A is decomposed, B = U<sub>b</sub>*W*V<sup>T</sup>,
+ * and U = Q*U<sub>b</sub>.
+ * </p>
+ *
+ * <p>
+ * For an m by n matrix and a rank of k the cost is O(m*n*k) instead of O(m*n*min(m,n)) for a full SVD, and A is
+ * only accessed through the products A*X and A<sup>T</sup>*X. The decomposition is always compact and the singular
+ * values are in descending order.
+ * </p>
+ *
+ * <p>
+ * N. Halko, P. G. Martinsson, and J. A. Tropp, "Finding structure with randomness: Probabilistic algorithms for
+ * constructing approximate matrix decompositions" SIAM Review 53 (2011) 217-288
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SvdRandomizedDecompose_DDRM implements SingularValueDecomposition_F64<DMatrixRMaj> {
+
+    /**
+     * Default number of additional random vectors used to find the range of A
+     */
+    public static final int DEFAULT_OVERSAMPLING = 10;
+    /**
+     * Default number of power iterations
+     */
+    public static final int DEFAULT_POWER_ITERATIONS = 2;
+
+    private int numRows;
+    private int numCols;
+
+    // number of singular values which are requested
+    private int rank;
+    // number of extra random vectors
+    private int oversampling;
+    // number of power iterations
+    private int powerIterations;
+
+    // What the user requested to be computed
+    private boolean computeU;
+    private boolean computeV;
+
+    // if true then A<sup>T</sup>*X is computed using multiple threads
+    private boolean concurrent;
+
+    // the random number generator is reset to this seed each time a matrix is decomposed
+    private long seed = 0xBEEF;
+    private Random rand = new Random();
+
+    // the matrix being decomposed
+    private DMatrixRMaj A;
+
+    // used to make the columns orthonormal
+    private QRDecompositionTall_DDRM qr = new QRDecompositionTall_DDRM();
+    // decomposes the small matrix
+    private SvdImplicitQrDecompose_DDRM svd = new SvdImplicitQrDecompose_DDRM(true,true,true,false);
+
+    private DMatrixRMaj Omega = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Y = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Q = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Z = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Zq = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Ub = new DMatrixRMaj(1,1);
+
+    // the results. Singular vectors are stored in the columns
+    private DMatrixRMaj U = new DMatrixRMaj(1,1);
+    private DMatrixRMaj V = new DMatrixRMaj(1,1);
+    private double singularValues[] = new double[0];
+    private int numSingular;
+
+    /**
+     * Configures the class
+     *
+     * @param rank The number of singular values and vectors which are computed.
+     * @param oversampling Number of additional random vectors. Improves accuracy. Try 10.
+     * @param powerIterations Number of power iterations. Improves accuracy when the singular values decay slowly. Try 2.
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     * @param concurrent If true then A<sup>T</sup>*X is computed using multiple threads.
+     */
+    public SvdRandomizedDecompose_DDRM( int rank , int oversampling , int powerIterations ,
+                                        boolean computeU , boolean computeV , boolean concurrent ) {
+        if( rank <= 0 )
+            throw new IllegalArgumentException("Rank must be positive");
+        if( oversampling < 0 || powerIterations < 0 )
+            throw new IllegalArgumentException("oversampling and powerIterations can't be negative");
+        this.rank = rank;
+        this.oversampling = oversampling;
+        this.powerIterations = powerIterations;
+        this.computeU = computeU;
+        this.computeV = computeV;
+        this.concurrent = concurrent;
+    }
+
+    public SvdRandomizedDecompose_DDRM( int rank , int oversampling , int powerIterations ,
+                                        boolean computeU , boolean computeV ) {
+        this(rank,oversampling,powerIterations,computeU,computeV,EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    /**
+     * Uses {@link #DEFAULT_OVERSAMPLING} and {@link #DEFAULT_POWER_ITERATIONS}
+     */
+    public SvdRandomizedDecompose_DDRM( int rank , boolean computeU , boolean computeV ) {
+        this(rank,DEFAULT_OVERSAMPLING,DEFAULT_POWER_ITERATIONS,computeU,computeV);
+    }
+
+    /**
+     * Specifies the seed used to create the random matrix. The random number generator is reseeded at the start
+     * of each decomposition so decomposing the same matrix twice produces the same results.
+     */
+    public void setSeed( long seed ) {
+        this.seed = seed;
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return singularValues;
+    }
+
+    @Override
+    public int numberOfSingularValues() {
+        return numSingular;
+    }
+
+    @Override
+    public boolean isCompact() {
+        return true;
+    }
+
+    @Override
+    public DMatrixRMaj getU(DMatrixRMaj U , boolean transpose) {
+        if( !computeU )
+            throw new IllegalArgumentException("As requested U was not computed.");
+        return copy(this.U,U,transpose);
+    }
+
+    @Override
+    public DMatrixRMaj getV(DMatrixRMaj V , boolean transpose ) {
+        if( !computeV )
+            throw new IllegalArgumentException("As requested V was not computed.");
+        return copy(this.V,V,transpose);
+    }
+
+    private static DMatrixRMaj copy( DMatrixRMaj src , DMatrixRMaj dst , boolean transpose ) {
+        if( transpose ) {
+            if( dst == null )
+                dst = new DMatrixRMaj(src.numCols,src.numRows);
+            else
+                dst.reshape(src.numCols,src.numRows);
+            CommonOps_DDRM.transpose(src,dst);
+        } else {
+            if( dst == null )
+                dst = src.copy();
+            else
+                dst.set(src);
+        }
+        return dst;
+    }
+
+    @Override
+    public DMatrixRMaj getW(DMatrixRMaj W ) {
+        if( W == null )
+            W = new DMatrixRMaj(numSingular,numSingular);
+        else {
+            W.reshape(numSingular,numSingular, false);
+            W.zero();
+        }
+
+        for( int i = 0; i < numSingular; i++ ) {
+            W.unsafe_set(i,i, singularValues[i]);
+        }
+
+        return W;
+    }
+
+    @Override
+    public boolean decompose(DMatrixRMaj orig) {
+        this.A = orig;
+        boolean ret = decompose(orig.numRows,orig.numCols);
+        this.A = null;
+        return ret;
+    }
+
+    /**
+     * Computes the decomposition. The matrix is only accessed through {@link #multA} and {@link #multTransA}
+     * so that other matrix types can be decomposed by overriding them.
+     *
+     * @param numRows Number of rows in the matrix being decomposed
+     * @param numCols Number of columns in the matrix being decomposed
+     * @return true if successful
+     */
+    protected boolean decompose( int numRows , int numCols ) {
+        this.numRows = numRows;
+        this.numCols = numCols;
+
+        if( numRows == 0 || numCols == 0 )
+            return false;
+
+        int minLength = Math.min(numRows,numCols);
+        int l = Math.min(rank+oversampling,minLength);
+        numSingular = Math.min(rank,minLength);
+
+        // find an orthonormal basis for the range of A
+        rand.setSeed(seed);
+        Omega.reshape(numCols,l);
+        RandomMatrices_DDRM.fillGaussian(Omega,0,1,rand);
+        multA(Omega,Y);
+        orthonormalize(Y,Q);
+
+        for( int i = 0; i < powerIterations; i++ ) {
+            multTransA(Q,Z);
+            orthonormalize(Z,Zq);
+            multA(Zq,Y);
+            orthonormalize(Y,Q);
+        }
+
+        // B = Q'*A. It's computed and decomposed as its transpose B' = A'*Q = Vb*W*Ub'
+        multTransA(Q,Z);
+        if( !svd.decompose(Z) )
+            return false;
+
+        double found[] = svd.getSingularValues();
+        DMatrixRMaj Vb = svd.getU(null,false);
+        DMatrixRMaj Ul = svd.getV(null,false);
+
+        // select the largest singular values
+        int order[] = new int[l];
+        for( int i = 0; i < l; i++ ) {
+            order[i] = i;
+        }
+        for( int i = 1; i < l; i++ ) {
+            int o = order[i];
+            int j = i-1;
+            while( j >= 0 && found[order[j]] < found[o] ) {
+                order[j+1] = order[j];
+                j--;
+            }
+            order[j+1] = o;
+        }
+
+        if( singularValues.length < numSingular )
+            singularValues = new double[numSingular];
+        for( int i = 0; i < numSingular; i++ ) {
+            singularValues[i] = found[order[i]];
+        }
+
+        if( computeV ) {
+            V.reshape(numCols,numSingular);
+            selectColumns(Vb,order,V);
+        }
+        if( computeU ) {
+            Ub.reshape(l,numSingular);
+            selectColumns(Ul,order,Ub);
+            U.reshape(numRows,numSingular);
+            CommonOps_DDRM.mult(Q,Ub,U);
+        }
+
+        return true;
+    }
+
+    private static void selectColumns( DMatrixRMaj src , int order[] , DMatrixRMaj dst ) {
+        for( int row = 0; row < src.numRows; row++ ) {
+            int indexSrc = row*src.numCols;
+            int indexDst = row*dst.numCols;
+            for( int col = 0; col < dst.numCols; col++ ) {
+                dst.data[indexDst+col] = src.data[indexSrc+order[col]];
+            }
+        }
+    }
+
+    /**
+     * Q = orthonormal basis for the columns in X. When A's rank is less than the number of columns in X the QR
+     * decomposition reports an error because a column is zero. That column's reflector is the identity so Q is
+     * still orthonormal and the failure is ignored. The extra columns end up with singular values of zero.
+     */
+    private void orthonormalize( DMatrixRMaj X , DMatrixRMaj Q ) {
+        qr.decompose(X);
+        Q.reshape(X.numRows,X.numCols);
+        qr.getQ(Q,true);
+    }
+
+    /**
+     * Y = A*X
+     */
+    protected void multA( DMatrixRMaj X , DMatrixRMaj Y ) {
+        Y.reshape(A.numRows,X.numCols);
+        CommonOps_DDRM.mult(A,X,Y);
+    }
+
+    /**
+     * Y = A<sup>T</sup>*X. The rows in A and X are traversed together so that A is only read once, unlike
+     * {@link CommonOps_DDRM#multTransA} which goes through A one column at a time.
+     */
+    protected void multTransA( DMatrixRMaj X , DMatrixRMaj Y ) {
+        Y.reshape(A.numCols,X.numCols);
+        Y.zero();
+        if( concurrent ) {
+            EjmlConcurrency.loopBlocks(0,A.numCols,20,(i0,i1)->multTransA(X,Y,i0,i1));
+        } else {
+            multTransA(X,Y,0,A.numCols);
+        }
+    }
+
+    /**
+     * Computes rows i0 to i1 in Y = A<sup>T</sup>*X
+     */
+    private void multTransA( DMatrixRMaj X , DMatrixRMaj Y , int i0 , int i1 ) {
+        final int L = X.numCols;
+        for( int k = 0; k < A.numRows; k++ ) {
+            int indexA = k*A.numCols;
+            int indexX = k*L;
+            for( int i = i0; i < i1; i++ ) {
+                SimdOps_DDRM.axpy(A.data[indexA+i],X.data,indexX,Y.data,i*L,L);
+            }
+        }
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    @Override
+    public int numRows() {
+        return numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return numCols;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getOversampling() {
+        return oversampling;
+    }
+
+    public int getPowerIterations() {
+        return powerIterations;
+    }
+}
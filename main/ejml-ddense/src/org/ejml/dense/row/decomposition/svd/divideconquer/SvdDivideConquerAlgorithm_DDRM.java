@@ -0,0 +1,693 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd.divideconquer;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_DDRM;
+
+/**
+ * <p>
+ * Computes the singular value decomposition of an upper bidiagonal matrix, B = U*&Sigma;*V<sup>T</sup>, using the
+ * divide and conquer algorithm of Gu and Eisenstat. The matrix is split at a middle row into an upper
+ * n<sub>1</sub> by (n<sub>1</sub>+1) bidiagonal, the middle row, and a lower bidiagonal. After each half has been
+ * solved recursively the problem is reduced to finding the SVD of a matrix whose first row is z and is otherwise
+ * diagonal. Its singular values are the roots of the secular equation,
+ * f(&sigma;) = 1 + &sum;<sub>i</sub> z<sub>i</sub><sup>2</sup>/(d<sub>i</sub><sup>2</sup>-&sigma;<sup>2</sup>),
+ * and its singular vectors are multiplied against the singular vectors of the two halves. Small sub-problems are
+ * solved using {@link SvdImplicitQrDecompose_DDRM}.
+ * </p>
+ *
+ * <p>
+ * Unlike {@link org.ejml.dense.row.decomposition.svd.implicitqr.SvdImplicitQrAlgorithm_DDRM}, which updates the
+ * singular vectors one rotation at a time, almost all of the work is done inside of matrix multiplications.
+ * The two halves are independent and can be solved concurrently, as can the roots of the secular equation.
+ * </p>
+ *
+ * <p>
+ * Singular values which are already known are removed (deflated) before the secular equation is solved and the
+ * singular vectors are computed using the approach of Gu and Eisenstat so that they are numerically orthogonal.
+ * Deflation follows what's done in LAPACK's DLASD2.
+ * </p>
+ *
+ * <p>
+ * M. Gu and S. C. Eisenstat, "A Divide-and-Conquer Algorithm for the Bidiagonal SVD"
+ * SIAM Journal on Matrix Analysis and Applications 16 (1995) 79-92
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SvdDivideConquerAlgorithm_DDRM {
+
+    /**
+     * Default size of the largest sub-problem which is solved directly instead of being split
+     */
+    public static final int DEFAULT_MIN_SIZE = 25;
+
+    // column types. Used to avoid multiplying blocks which are known to be zero
+    private static final int TOP = 0;
+    private static final int DENSE = 1;
+    private static final int BOTTOM = 2;
+    // only used by the left singular vector of the middle row
+    private static final int MIDDLE = 3;
+
+    // maximum number of iterations when solving for a single root of the secular equation
+    private static final int MAX_SECULAR_ITERATIONS = 200;
+
+    // sub-problems this size or smaller are solved directly
+    private int minSize;
+    // if true sub-problems are processed concurrently
+    private boolean concurrent;
+
+    // size of the matrix
+    private int N;
+    // diagonal and off diagonal elements. The diagonal is replaced with the singular values
+    private double diag[] = new double[1];
+    private double off[] = new double[1];
+    // left and right singular vectors are stored in the columns
+    private DMatrixRMaj U = new DMatrixRMaj(1,1);
+    private DMatrixRMaj V = new DMatrixRMaj(1,1);
+
+    // set to true if a sub-problem fails
+    private boolean failed;
+
+    /**
+     * @param minSize Sub-problems this size or smaller are solved directly using the QR algorithm.
+     * @param concurrent If true then sub-problems are processed using multiple threads.
+     */
+    public SvdDivideConquerAlgorithm_DDRM( int minSize , boolean concurrent ) {
+        if( minSize < 1 )
+            throw new IllegalArgumentException("minSize must be at least one");
+        this.minSize = minSize;
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Uses {@link #DEFAULT_MIN_SIZE} and {@link EjmlConcurrency#USE_CONCURRENT}
+     */
+    public SvdDivideConquerAlgorithm_DDRM() {
+        this(DEFAULT_MIN_SIZE, EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    /**
+     * Computes the SVD of a square upper bidiagonal matrix.
+     *
+     * @param sideLength Number of rows and columns in the input matrix.
+     * @param diag Diagonal elements from the bidiagonal matrix. Not modified.
+     * @param off Off diagonal elements from the bidiagonal matrix. Not modified.
+     * @return true if it succeeds and false if it fails.
+     */
+    public boolean process( int sideLength , double diag[] , double off[] ) {
+        this.N = sideLength;
+        if( this.diag.length < N ) {
+            this.diag = new double[N];
+            this.off = new double[N];
+        }
+        System.arraycopy(diag,0,this.diag,0,N);
+        if( N > 1 )
+            System.arraycopy(off,0,this.off,0,N-1);
+        U.reshape(N,N);
+        V.reshape(N,N);
+        U.zero();
+        V.zero();
+        failed = false;
+
+        if( N == 0 )
+            return true;
+
+        // scale the matrix to avoid overflow and underflow
+        double scale = 0;
+        for( int i = 0; i < N; i++ ) {
+            scale = Math.max(scale,Math.abs(this.diag[i]));
+        }
+        for( int i = 0; i < N-1; i++ ) {
+            scale = Math.max(scale,Math.abs(this.off[i]));
+        }
+        if( scale == 0 ) {
+            CommonOps_DDRM.setIdentity(U);
+            CommonOps_DDRM.setIdentity(V);
+            return true;
+        }
+        for( int i = 0; i < N; i++ ) {
+            this.diag[i] /= scale;
+        }
+        for( int i = 0; i < N-1; i++ ) {
+            this.off[i] /= scale;
+        }
+
+        solve(0,N,0);
+
+        for( int i = 0; i < N; i++ ) {
+            this.diag[i] *= scale;
+        }
+
+        return !failed;
+    }
+
+    /**
+     * Recursively computes the SVD of the n by (n+sqre) sub-matrix which starts at 'offset'. When done diag
+     * contains the singular values in ascending order, the block in U contains the left singular vectors and the
+     * block in V contains the right singular vectors. If sqre is one then the last column in the V block is the
+     * null space of the sub-matrix.
+     */
+    private void solve( final int offset , final int n , final int sqre ) {
+        if( n == 0 ) {
+            if( sqre == 1 )
+                V.data[offset*N+offset] = 1;
+            return;
+        }
+        if( n <= minSize ) {
+            solveSmall(offset,n,sqre);
+            return;
+        }
+
+        // B = [B1 0 ; alpha*e_k' beta*e_(k+1)' ; 0 B2]
+        final int k = n/2;
+        final int m = n + sqre;
+        double alpha = diag[offset+k];
+        double beta = k+1 < m ? off[offset+k] : 0;
+
+        if( concurrent ) {
+            EjmlConcurrency.invokeAll(()->solve(offset,k,1), ()->solve(offset+k+1,n-k-1,sqre));
+        } else {
+            solve(offset,k,1);
+            solve(offset+k+1,n-k-1,sqre);
+        }
+
+        if( failed )
+            return;
+
+        merge(offset,n,k,sqre,alpha,beta);
+    }
+
+    /**
+     * Solves a small sub-problem using the QR algorithm
+     */
+    private void solveSmall( int offset , int n , int sqre ) {
+        int m = n + sqre;
+        DMatrixRMaj B = new DMatrixRMaj(n,m);
+        for( int i = 0; i < n; i++ ) {
+            B.data[i*m+i] = diag[offset+i];
+            if( i+1 < m )
+                B.data[i*m+i+1] = off[offset+i];
+        }
+
+        SvdImplicitQrDecompose_DDRM svd = new SvdImplicitQrDecompose_DDRM(false,true,true,false);
+        if( !svd.decompose(B) ) {
+            failed = true;
+            return;
+        }
+        DMatrixRMaj Us = svd.getU(null,false);
+        DMatrixRMaj Vs = svd.getV(null,false);
+        double sv[] = svd.getSingularValues();
+
+        // sort the singular values into ascending order
+        int order[] = new int[n];
+        for( int i = 0; i < n; i++ ) {
+            order[i] = i;
+        }
+        for( int i = 1; i < n; i++ ) {
+            int o = order[i];
+            int j = i-1;
+            while( j >= 0 && sv[order[j]] > sv[o] ) {
+                order[j+1] = order[j];
+                j--;
+            }
+            order[j+1] = o;
+        }
+
+        for( int i = 0; i < n; i++ ) {
+            int o = order[i];
+            diag[offset+i] = sv[o];
+            for( int row = 0; row < n; row++ ) {
+                U.data[(offset+row)*N+offset+i] = Us.data[row*n+o];
+            }
+            for( int row = 0; row < m; row++ ) {
+                V.data[(offset+row)*N+offset+i] = Vs.data[row*m+o];
+            }
+        }
+        // the extra column in V is the null space
+        for( int row = 0; sqre == 1 && row < m; row++ ) {
+            V.data[(offset+row)*N+offset+n] = Vs.data[row*m+n];
+        }
+    }
+
+    /**
+     * Merges two solved sub-problems together.
+     *
+     * @param offset First row and column in the sub-problem
+     * @param n Number of rows in the sub-problem
+     * @param k Index of the middle row. Number of rows in the top half.
+     * @param sqre 1 if the sub-problem has one more column than rows or 0 if it's square
+     * @param alpha Diagonal element in the middle row
+     * @param beta Off diagonal element in the middle row
+     */
+    private void merge( final int offset , final int n , final int k , final int sqre ,
+                        double alpha , double beta ) {
+        final double eps = UtilEjml.EPS;
+        final int m = n + sqre;
+        final int mid = offset + k;
+
+        //---------- Columns of the inner matrix M, where B = U*M*V'. The first row of M is z and the
+        // rest of it is diagonal. Columns of U and V share the same index.
+        int col[] = new int[n];
+        double dl[] = new double[n];
+        double zl[] = new double[n];
+        int type[] = new int[n];
+
+        // the middle row's left singular vector is e_k and its column is unused by the two halves
+        U.data[mid*N+mid] = 1;
+
+        // combine the null space of the two halves into a single column
+        double zt = alpha*V.data[mid*N+mid];
+        double z0 = zt;
+        if( sqre == 1 ) {
+            int last = offset+m-1;
+            double zb = beta*V.data[(mid+1)*N+last];
+            z0 = Math.sqrt(zt*zt + zb*zb);
+            double c = 1, s = 0;
+            if( z0 != 0 ) {
+                c = zt/z0;
+                s = zb/z0;
+            }
+            rotateColumns(V,offset,m,mid,last,c,s);
+        }
+        col[0] = mid;
+        dl[0] = 0;
+        zl[0] = z0;
+        type[0] = MIDDLE;
+
+        // merge the two halves so that the singular values are in ascending order
+        for( int i = 1, a = 0, b = k+1; i < n; i++ ) {
+            int c;
+            if( b >= n || (a < k && diag[offset+a] <= diag[offset+b]) ) {
+                c = a++;
+                zl[i] = alpha*V.data[mid*N+offset+c];
+                type[i] = TOP;
+            } else {
+                c = b++;
+                zl[i] = beta*V.data[(mid+1)*N+offset+c];
+                type[i] = BOTTOM;
+            }
+            col[i] = offset+c;
+            dl[i] = diag[offset+c];
+        }
+
+        //---------- Deflation
+        double tol = Math.max(Math.abs(alpha),Math.abs(beta));
+        tol = 8*eps*Math.max(dl[n-1],tol);
+
+        boolean deflated[] = new boolean[n];
+        int prev = -1;
+        for( int i = 1; i < n; i++ ) {
+            if( Math.abs(zl[i]) <= tol ) {
+                // z is tiny so this is already a singular value
+                deflated[i] = true;
+                continue;
+            }
+            if( prev >= 0 && dl[i] - dl[prev] <= tol ) {
+                // the two singular values are close enough that one can be deflated after a rotation
+                double s = zl[prev];
+                double c = zl[i];
+                double tau = Math.sqrt(c*c + s*s);
+                c /= tau;
+                s = -s/tau;
+                zl[i] = tau;
+                zl[prev] = 0;
+                rotateColumns(U,offset,n,col[prev],col[i],c,s);
+                rotateColumns(V,offset,m,col[prev],col[i],c,s);
+                if( type[prev] != type[i] ) {
+                    type[prev] = DENSE;
+                    type[i] = DENSE;
+                }
+                deflated[prev] = true;
+            }
+            prev = i;
+        }
+
+        // the values which are left
+        int K = 0;
+        for( int i = 0; i < n; i++ ) {
+            if( !deflated[i] )
+                K++;
+        }
+        final double dk[] = new double[K];
+        final double zk[] = new double[K];
+        int kept[] = new int[K];
+        for( int i = 0, j = 0; i < n; i++ ) {
+            if( !deflated[i] ) {
+                kept[j] = i;
+                dk[j] = dl[i];
+                zk[j++] = zl[i];
+            }
+        }
+        // keep the poles distinct and z from being zero
+        if( K > 1 && dk[1] <= tol/2 )
+            dk[1] = tol/2;
+        if( Math.abs(zk[0]) <= tol )
+            zk[0] = tol;
+
+        //---------- Solve the secular equation. delta(i,j) = dk[i]^2 - sigma[j]^2
+        final DMatrixRMaj delta = new DMatrixRMaj(K,K);
+        final double sigma[] = new double[K];
+        if( concurrent && K >= 2*minSize ) {
+            EjmlConcurrency.loopBlocks(0,K,minSize,(j0,j1)->{
+                for( int j = j0; j < j1; j++ ) {
+                    sigma[j] = solveSecular(j,dk,zk,delta);
+                }
+            });
+        } else {
+            for( int j = 0; j < K; j++ ) {
+                sigma[j] = solveSecular(j,dk,zk,delta);
+            }
+        }
+
+        //---------- Singular vectors of M. Recompute z so that they are orthogonal
+        DMatrixRMaj Um = new DMatrixRMaj(K,K);
+        DMatrixRMaj Vm = new DMatrixRMaj(K,K);
+        for( int i = 0; i < K; i++ ) {
+            double prod = -delta.data[i*K+i];
+            for( int j = 0; j < K; j++ ) {
+                if( j != i )
+                    prod *= -delta.data[i*K+j]/((dk[j]-dk[i])*(dk[j]+dk[i]));
+            }
+            double zhat = Math.sqrt(Math.abs(prod));
+            if( zk[i] < 0 )
+                zhat = -zhat;
+            for( int j = 0; j < K; j++ ) {
+                double v = zhat/delta.data[i*K+j];
+                Vm.data[i*K+j] = v;
+                Um.data[i*K+j] = i == 0 ? -1 : dk[i]*v;
+            }
+        }
+        normalizeColumns(Um);
+        normalizeColumns(Vm);
+
+        //---------- Multiply the singular vectors of each half against those of M. Blocks which are zero are skipped
+        DMatrixRMaj Wu = new DMatrixRMaj(n,K);
+        DMatrixRMaj Wv = new DMatrixRMaj(m,K);
+        multiplyVectors(U,offset,0,k,kept,col,type,TOP,Um,Wu);
+        System.arraycopy(Um.data,0,Wu.data,k*K,K);
+        multiplyVectors(U,offset,k+1,n,kept,col,type,BOTTOM,Um,Wu);
+        // the merged null space is in both halves of V
+        type[0] = sqre == 1 ? DENSE : TOP;
+        multiplyVectors(V,offset,0,k+1,kept,col,type,TOP,Vm,Wv);
+        multiplyVectors(V,offset,k+1,m,kept,col,type,BOTTOM,Vm,Wv);
+
+        //---------- Sort the singular values and save the results
+        int numDeflated = n-K;
+        int deflatedIdx[] = new int[numDeflated];
+        for( int i = 0, j = 0; i < n; i++ ) {
+            if( deflated[i] )
+                deflatedIdx[j++] = i;
+        }
+
+        DMatrixRMaj outU = new DMatrixRMaj(n,n);
+        DMatrixRMaj outV = new DMatrixRMaj(m,n);
+        double values[] = new double[n];
+        for( int i = 0, a = 0, b = 0; i < n; i++ ) {
+            boolean useRoot;
+            if( a >= K ) {
+                useRoot = false;
+            } else if( b >= numDeflated ) {
+                useRoot = true;
+            } else {
+                useRoot = sigma[a] <= dl[deflatedIdx[b]];
+            }
+            if( useRoot ) {
+                values[i] = sigma[a];
+                for( int row = 0; row < n; row++ ) {
+                    outU.data[row*n+i] = Wu.data[row*K+a];
+                }
+                for( int row = 0; row < m; row++ ) {
+                    outV.data[row*n+i] = Wv.data[row*K+a];
+                }
+                a++;
+            } else {
+                int d = deflatedIdx[b++];
+                values[i] = dl[d];
+                int c = col[d];
+                for( int row = 0; row < n; row++ ) {
+                    outU.data[row*n+i] = U.data[(offset+row)*N+c];
+                }
+                for( int row = 0; row < m; row++ ) {
+                    outV.data[row*n+i] = V.data[(offset+row)*N+c];
+                }
+            }
+        }
+
+        // if sqre is one then the null space is already in the last column of V
+        System.arraycopy(values,0,diag,offset,n);
+        for( int row = 0; row < n; row++ ) {
+            System.arraycopy(outU.data,row*n,U.data,(offset+row)*N+offset,n);
+        }
+        for( int row = 0; row < m; row++ ) {
+            System.arraycopy(outV.data,row*n,V.data,(offset+row)*N+offset,n);
+        }
+    }
+
+    /**
+     * Computes rows row0 to row1 of the merged singular vectors, W = Q*S. Columns of Q which are zero in these
+     * rows are skipped.
+     *
+     * @param keepType Type of column which is not zero in these rows. All other types, except DENSE, are skipped.
+     */
+    private void multiplyVectors( DMatrixRMaj Q , int offset , int row0 , int row1 ,
+                                  int kept[] , int col[] , int type[] , int keepType ,
+                                  DMatrixRMaj S , DMatrixRMaj W ) {
+        int K = kept.length;
+        int numRows = row1-row0;
+
+        int count = 0;
+        for( int j = 0; j < K; j++ ) {
+            int t = type[kept[j]];
+            if( t == keepType || t == DENSE )
+                count++;
+        }
+        if( count == 0 || numRows == 0 )
+            return;
+
+        DMatrixRMaj A = new DMatrixRMaj(numRows,count);
+        DMatrixRMaj B = new DMatrixRMaj(count,K);
+        for( int j = 0, c = 0; j < K; j++ ) {
+            int i = kept[j];
+            int t = type[i];
+            if( t != keepType && t != DENSE )
+                continue;
+            int colQ = col[i];
+            for( int row = 0; row < numRows; row++ ) {
+                A.data[row*count+c] = Q.data[(offset+row0+row)*N+colQ];
+            }
+            System.arraycopy(S.data,j*K,B.data,c*K,K);
+            c++;
+        }
+
+        DMatrixRMaj C = new DMatrixRMaj(numRows,K);
+        CommonOps_DDRM.mult(A,B,C);
+        System.arraycopy(C.data,0,W.data,row0*K,numRows*K);
+    }
+
+    private static void normalizeColumns( DMatrixRMaj A ) {
+        int K = A.numCols;
+        for( int j = 0; j < K; j++ ) {
+            double norm = 0;
+            for( int i = 0; i < K; i++ ) {
+                double v = A.data[i*K+j];
+                norm += v*v;
+            }
+            norm = Math.sqrt(norm);
+            for( int i = 0; i < K; i++ ) {
+                A.data[i*K+j] /= norm;
+            }
+        }
+    }
+
+    /**
+     * Applies a Givens rotation to two columns in the sub-problem
+     */
+    private void rotateColumns( DMatrixRMaj Q , int offset , int numRows , int colA , int colB , double c , double s ) {
+        int indexA = offset*N + colA;
+        int indexB = offset*N + colB;
+        for( int row = 0; row < numRows; row++ , indexA += N , indexB += N ) {
+            double a = Q.data[indexA];
+            double b = Q.data[indexB];
+            Q.data[indexA] = c*a + s*b;
+            Q.data[indexB] = c*b - s*a;
+        }
+    }
+
+    /**
+     * Finds the j-th root of the secular equation, f(&sigma;) = 1 + &sum;<sub>i</sub> z<sub>i</sub><sup>2</sup>/(d<sub>i</sub><sup>2</sup>-&sigma;<sup>2</sup>),
+     * where d[0] = 0 and d is in ascending order. To retain precision the root is found relative to the closest
+     * pole, &sigma;<sup>2</sup> = d[origin]<sup>2</sup> + &mu;, and the differences between the poles are computed
+     * as (d[i]-d[origin])*(d[i]+d[origin]). Each iteration approximates f using the two poles closest to the
+     * root and the current bracket is used to safeguard the steps.
+     *
+     * @param delta (Output) Column j is set to d[i]<sup>2</sup> - &sigma;<sup>2</sup>
+     * @return The root, &sigma;
+     */
+    static double solveSecular( int j , double d[] , double z[] , DMatrixRMaj delta ) {
+        final int K = d.length;
+        final double eps = UtilEjml.EPS;
+
+        // which poles are used in the approximation. Poles up to 'left' are summed in psi and the rest in phi
+        int left, org;
+        double lo, hi;
+        if( j < K-1 ) {
+            left = j;
+            double gap = (d[j+1]-d[j])*(d[j+1]+d[j]);
+            double mid = gap/2;
+            // sign of f at the middle of the interval determines which pole the root is closer to
+            double f = 1;
+            for( int i = 0; i < K; i++ ) {
+                f += z[i]*z[i]/((d[i]-d[j])*(d[i]+d[j]) - mid);
+            }
+            if( f >= 0 ) {
+                org = j;
+                lo = 0;
+                hi = mid;
+            } else {
+                org = j+1;
+                lo = mid-gap;
+                hi = 0;
+            }
+        } else {
+            left = K-2;
+            org = K-1;
+            double sum = 0;
+            for( int i = 0; i < K; i++ ) {
+                sum += z[i]*z[i];
+            }
+            lo = 0;
+            hi = sum;
+            if( K == 1 ) {
+                // the root can be found exactly
+                delta.data[j] = -hi;
+                return Math.sqrt(d[org]*d[org] + hi);
+            }
+        }
+
+        double x = (lo+hi)/2;
+        for( int iter = 0; iter < MAX_SECULAR_ITERATIONS; iter++ ) {
+            double psi = 0, dpsi = 0, phi = 0, dphi = 0;
+            for( int i = 0; i < K; i++ ) {
+                double del = (d[i]-d[org])*(d[i]+d[org]) - x;
+                delta.data[i*K+j] = del;
+                double t = z[i]/del;
+                if( i <= left ) {
+                    psi += z[i]*t;
+                    dpsi += t*t;
+                } else {
+                    phi += z[i]*t;
+                    dphi += t*t;
+                }
+            }
+            double f = 1 + psi + phi;
+
+            double err = 8*eps*(1 + Math.abs(psi) + Math.abs(phi)) + eps*Math.abs(x)*(dpsi+dphi);
+            if( Math.abs(f) <= err )
+                break;
+
+            // f is increasing so the root is to the right if f is negative
+            if( f < 0 )
+                lo = x;
+            else
+                hi = x;
+
+            if( hi-lo <= 2*eps*Math.max(Math.abs(lo),Math.abs(hi)) )
+                break;
+
+            // approximate f(eta) = c + A/(dl-eta) + B/(dr-eta) and find its root
+            double dl = delta.data[left*K+j];
+            double dr = delta.data[(left+1)*K+j];
+            double A = dl*dl*dpsi;
+            double B = dr*dr*dphi;
+            double c = f - dl*dpsi - dr*dphi;
+            double a = c*(dl+dr) + A + B;
+            double b = dl*dr*f;
+
+            double eta = Double.NaN;
+            if( c == 0 ) {
+                if( a != 0 )
+                    eta = b/a;
+            } else {
+                double disc = Math.sqrt(Math.abs(a*a - 4*b*c));
+                double r0, r1;
+                if( a >= 0 ) {
+                    r0 = (a + disc)/(2*c);
+                    r1 = 2*b/(a + disc);
+                } else {
+                    r0 = (a - disc)/(2*c);
+                    r1 = 2*b/(a - disc);
+                }
+                // interior roots are between the two poles and the last root is after both of them
+                double upper = j < K-1 ? dr : Double.MAX_VALUE;
+                if( r0 > dl && r0 < upper && (j < K-1 || r0 > dr) )
+                    eta = r0;
+                else if( r1 > dl && r1 < upper && (j < K-1 || r1 > dr) )
+                    eta = r1;
+            }
+
+            double next = x + eta;
+            if( !(next > lo && next < hi) ) {
+                next = (lo+hi)/2;
+            }
+            if( next == x )
+                break;
+            x = next;
+        }
+
+        // make sure delta is up to date with the final value of x
+        for( int i = 0; i < K; i++ ) {
+            delta.data[i*K+j] = (d[i]-d[org])*(d[i]+d[org]) - x;
+        }
+        return Math.sqrt(d[org]*d[org] + x);
+    }
+
+    /**
+     * Returns the singular values in ascending order
+     */
+    public double[] getSingularValues() {
+        return diag;
+    }
+
+    /**
+     * Returns a matrix which contains the left singular vectors in its columns
+     */
+    public DMatrixRMaj getU() {
+        return U;
+    }
+
+    /**
+     * Returns a matrix which contains the right singular vectors in its columns
+     */
+    public DMatrixRMaj getV() {
+        return V;
+    }
+
+    public int getNumberOfSingularValues() {
+        return N;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+}
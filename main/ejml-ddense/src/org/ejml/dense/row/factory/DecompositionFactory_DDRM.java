@@ -20,6 +20,7 @@ package org.ejml.dense.row.factory;
 
 import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrix;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
@@ -31,14 +32,21 @@ import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionLDL_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.eig.SwitchingEigenDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.WatchedDoubleStepQRDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricDivideConquerAlgorithm_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecompositionBlock_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionBlock_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRColPivDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdDivideConquerDecompose_DDRM;
 import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdJacobiDecompose_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomizedDecompose_DDRM;
 import org.ejml.interfaces.decomposition.*;
 
 
@@ -116,6 +124,8 @@ public class DecompositionFactory_DDRM {
      * @return LUDecomposition
      */
     public static LUDecomposition_F64<DMatrixRMaj> lu(int numRows , int numCol ) {
+        if( Math.min(numRows,numCol) >= EjmlParameters.SWITCH_BLOCK_LU )
+            return new LUDecompositionBlock_DDRM();
         return new LUDecompositionAlt_DDRM();
     }
 
@@ -138,10 +148,37 @@ public class DecompositionFactory_DDRM {
      */
     public static SingularValueDecomposition_F64<DMatrixRMaj> svd(int numRows , int numCols ,
                                                                   boolean needU , boolean needV , boolean compact ) {
+        // Jacobi is more accurate and each sweep can be done in parallel
+        if( EjmlConcurrency.USE_CONCURRENT && EjmlParameters.SWITCH_SVD_JACOBI > 0 &&
+                Math.min(numRows,numCols) < EjmlParameters.SWITCH_SVD_JACOBI )
+            return new SvdJacobiDecompose_DDRM(compact,needU,needV,true);
+
+        // the singular vectors of large matrices are found faster using divide and conquer
+        if( (needU || needV) && Math.min(numRows,numCols) >= EjmlParameters.SWITCH_SVD_DIVIDE_CONQUER )
+            return new SvdDivideConquerDecompose_DDRM(compact,needU,needV);
+
         // Don't allow the tall decomposition by default since it *might* be less stable
         return new SvdImplicitQrDecompose_DDRM(compact,needU,needV,false);
     }
 
+    /**
+     * <p>
+     * Returns a {@link SingularValueDecomposition} which approximates the largest singular values and their singular
+     * vectors using a randomized algorithm. Much faster than a full SVD when the rank is much smaller than the
+     * matrix. The returned decomposition is always compact.
+     * </p>
+     *
+     * @see SvdRandomizedDecompose_DDRM
+     *
+     * @param rank Number of singular values which are computed.
+     * @param needU Should it compute the U matrix.
+     * @param needV Should it compute the V matrix.
+     * @return truncated SVD
+     */
+    public static SingularValueDecomposition_F64<DMatrixRMaj> svdTruncated( int rank , boolean needU , boolean needV ) {
+        return new SvdRandomizedDecompose_DDRM(rank,needU,needV);
+    }
+
     /**
      * Returns a {@link SingularValueDecomposition} that is NOT optimized for any specified matrix size.
      *
@@ -222,7 +259,12 @@ public class DecompositionFactory_DDRM {
                                                           boolean isSymmetric ) {
         if( isSymmetric ) {
             TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp = DecompositionFactory_DDRM.tridiagonal(matrixSize);
+            if( computeVectors && matrixSize >= EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER )
+                return new SymmetricDivideConquerDecomposition_DDRM(decomp,new SymmetricDivideConquerAlgorithm_DDRM());
             return new SymmetricQRAlgorithmDecomposition_DDRM(decomp,computeVectors);
+        } else if( matrixSize >= EjmlParameters.SWITCH_BLOCK_HESSENBERG ) {
+            return new WatchedDoubleStepQRDecomposition_DDRM(
+                    new HessenbergSimilarDecompositionBlock_DDRM(),computeVectors);
         } else
             return new WatchedDoubleStepQRDecomposition_DDRM(computeVectors);
     }
@@ -23,6 +23,7 @@ import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionCommon_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionBlock_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRColPivDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.linsol.AdjustableLinearSolver_DDRM;
 import org.ejml.dense.row.linsol.chol.LinearSolverChol_DDRB;
@@ -87,6 +88,8 @@ public class LinearSolverFactory_DDRM {
      * @return A new linear solver.
      */
     public static LinearSolverDense<DMatrixRMaj> linear(int matrixSize ) {
+        if( matrixSize >= EjmlParameters.SWITCH_BLOCK_LU )
+            return new LinearSolverLu_DDRM(new LUDecompositionBlock_DDRM());
         return new LinearSolverLu_DDRM(new LUDecompositionAlt_DDRM());
     }
 
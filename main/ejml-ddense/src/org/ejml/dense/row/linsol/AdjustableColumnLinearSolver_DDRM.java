@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol;
+
+import org.ejml.data.DMatrixRMaj;
+
+/**
+ * An {@link AdjustableLinearSolver_DDRM} which can also add several rows at once and add or remove columns of A.
+ * Adding or removing a column changes the number of unknowns.
+ *
+ * @author Peter Abeles
+ */
+public interface AdjustableColumnLinearSolver_DDRM extends AdjustableLinearSolver_DDRM {
+
+    /**
+     * Adds a block of rows to A.  This has the same effect as creating a new A and calling {@link #setA}.
+     *
+     * @param rows The rows being added to A.  Not modified.
+     * @param rowIndex Where the first row appears in A.
+     * @return if it succeeded or not.
+     */
+    boolean addRowsToA( DMatrixRMaj rows , int rowIndex );
+
+    /**
+     * Adds a column to A.  This has the same effect as creating a new A and calling {@link #setA}.
+     *
+     * @param A_col The column in A.
+     * @param colIndex Where the column appears in A.
+     * @return if it succeeded or not.
+     */
+    boolean addColumnToA( double []A_col , int colIndex );
+
+    /**
+     * Removes a column from A.  This has the same effect as creating a new A and calling {@link #setA}.
+     *
+     * @param index which column is removed from A.
+     * @return If it succeeded or not.
+     */
+    boolean removeColumnFromA( int index );
+}
@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.linsol.chol;
 
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.block.MatrixOps_DDRB;
 import org.ejml.dense.block.linsol.chol.CholeskyOuterSolver_DDRB;
@@ -33,8 +34,18 @@ import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
  */
 public class LinearSolverChol_DDRB extends LinearSolver_DDRB_to_DDRM {
 
+    /**
+     * Multi-threaded algorithms are used if {@link EjmlConcurrency#USE_CONCURRENT} is true
+     */
     public LinearSolverChol_DDRB() {
-        super(new CholeskyOuterSolver_DDRB());
+        this(EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    /**
+     * @param concurrent If true then multi-threaded algorithms are used.
+     */
+    public LinearSolverChol_DDRB( boolean concurrent ) {
+        super(new CholeskyOuterSolver_DDRB(concurrent));
     }
 
     /**
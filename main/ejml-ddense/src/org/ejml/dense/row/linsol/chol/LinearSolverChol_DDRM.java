@@ -18,8 +18,11 @@
 
 package org.ejml.dense.row.linsol.chol;
 
+import org.ejml.EjmlParameters;
+import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.SpecializedOps_DDRM;
+import org.ejml.dense.row.decomposition.TriangularSolverBlock_DDRM;
 import org.ejml.dense.row.decomposition.TriangularSolver_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionCommon_DDRM;
 import org.ejml.dense.row.linsol.LinearSolverAbstract_DDRM;
@@ -36,6 +39,10 @@ public class LinearSolverChol_DDRM extends LinearSolverAbstract_DDRM {
     double vv[];
     double t[];
 
+    // work space for the blocked triangular solver
+    DGrowArray workA = new DGrowArray();
+    DGrowArray workB = new DGrowArray();
+
     public LinearSolverChol_DDRM(CholeskyDecompositionCommon_DDRM decomposer) {
         this.decomposer = decomposer;
     }
@@ -57,6 +64,28 @@ public class LinearSolverChol_DDRM extends LinearSolverAbstract_DDRM {
         }
     }
 
+    /**
+     * Updates the decomposition so that it solves (A + V*V<sup>T</sup>)*x = b without decomposing the matrix again.
+     *
+     * @see CholeskyDecompositionCommon_DDRM#update(DMatrixRMaj)
+     * @param V Matrix with n rows. Each column is a vector in the update. Not modified.
+     * @return true if successful or false if the factor could not be computed.
+     */
+    public boolean update( DMatrixRMaj V ) {
+        return decomposer.update(V);
+    }
+
+    /**
+     * Updates the decomposition so that it solves (A - V*V<sup>T</sup>)*x = b without decomposing the matrix again.
+     *
+     * @see CholeskyDecompositionCommon_DDRM#downdate(DMatrixRMaj)
+     * @param V Matrix with n rows. Each column is a vector in the downdate. Not modified.
+     * @return true if successful or false if the modified matrix is not positive definite.
+     */
+    public boolean downdate( DMatrixRMaj V ) {
+        return decomposer.downdate(V);
+    }
+
     @Override
     public /**/double quality() {
         return SpecializedOps_DDRM.qualityTriangular(decomposer.getT());
@@ -84,13 +113,26 @@ public class LinearSolverChol_DDRM extends LinearSolverAbstract_DDRM {
         }
         X.reshape(n,B.numCols);
 
-        if(decomposer.isLower()) {
-            solveLower(A,B,X,vv);
+        if( B.numCols >= EjmlParameters.SOLVE_COLUMN_SWITCH || !decomposer.isLower() ) {
+            solveBlock(B,X);
         } else {
-            throw new RuntimeException("Implement");
+            solveLower(A,B,X,vv);
         }
     }
 
+    /**
+     * Solves for all the columns in B at the same time using blocked triangular solvers
+     */
+    private void solveBlock( DMatrixRMaj B , DMatrixRMaj X ) {
+        DMatrixRMaj T = decomposer.getT();
+        boolean lower = decomposer.isLower();
+
+        X.set(B);
+        // A = L*L' or A = U'*U
+        TriangularSolverBlock_DDRM.solveLeft(lower,!lower,false,T,X,workA,workB);
+        TriangularSolverBlock_DDRM.solveLeft(lower,lower,false,T,X,workA,workB);
+    }
+
     public static void solveLower(DMatrixRMaj L , DMatrixRMaj B , DMatrixRMaj X , double vv[] ) {
         final int numCols = B.numCols;
         final int N = L.numCols;
@@ -18,13 +18,18 @@
 
 package org.ejml.dense.row.linsol.lu;
 
+import org.ejml.EjmlParameters;
+import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.TriangularSolverBlock_DDRM;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionBase_DDRM;
 
 
 /**
  * For each column in the B matrix it makes a copy, which is then solved for and
  * writen into X.  By making a copy of the column cpu cache issues are reduced.
+ * If B has many columns then they are all solved at once using blocked triangular solvers, see
+ * {@link EjmlParameters#SOLVE_COLUMN_SWITCH}.
  *
  * @author Peter Abeles
  */
@@ -32,6 +37,10 @@ public class LinearSolverLu_DDRM extends LinearSolverLuBase_DDRM {
 
     boolean doImprove = false;
 
+    // work space for the blocked triangular solver
+    DGrowArray workA = new DGrowArray();
+    DGrowArray workB = new DGrowArray();
+
     public LinearSolverLu_DDRM(LUDecompositionBase_DDRM decomp) {
         super(decomp);
     }
@@ -48,6 +57,48 @@ public class LinearSolverLu_DDRM extends LinearSolverLuBase_DDRM {
             throw new IllegalArgumentException("Unexpected dimensions for X: X rows = "+X.numRows+" expected = "+numCols);
         X.reshape(numCols,B.numCols);
 
+        if( B.numCols >= EjmlParameters.SOLVE_COLUMN_SWITCH && numRows == numCols ) {
+            solveBlock(B,X);
+        } else {
+            solveColumns(B,X);
+        }
+
+        if( doImprove ) {
+            improveSol(B,X);
+        }
+    }
+
+    /**
+     * Solves for all the columns in B at the same time using blocked triangular solvers
+     */
+    private void solveBlock( DMatrixRMaj B , DMatrixRMaj X ) {
+        DMatrixRMaj LU = decomp.getLU();
+        int[] indx = decomp.getIndx();
+        final int numCols = B.numCols;
+
+        X.set(B);
+
+        // apply the row pivots in the same order as they were found
+        double[] dataX = X.data;
+        for( int i = 0; i < this.numCols; i++ ) {
+            int ip = indx[i];
+            if( ip == i )
+                continue;
+            int index0 = i*numCols, index1 = ip*numCols;
+            for( int j = 0; j < numCols; j++ ) {
+                double tmp = dataX[index0+j];
+                dataX[index0+j] = dataX[index1+j];
+                dataX[index1+j] = tmp;
+            }
+        }
+
+        // Solve L*Y = B, L has ones along its diagonal
+        TriangularSolverBlock_DDRM.solveLeft(true,false,true,LU,X,workA,workB);
+        // Solve U*X = Y
+        TriangularSolverBlock_DDRM.solveLeft(false,false,false,LU,X,workA,workB);
+    }
+
+    private void solveColumns( DMatrixRMaj B , DMatrixRMaj X ) {
         int numCols = B.numCols;
 
         double dataB[] = B.data;
@@ -67,9 +118,5 @@ public class LinearSolverLu_DDRM extends LinearSolverLuBase_DDRM {
             index = j;
             for( int i = 0; i < this.numCols; i++ , index += numCols ) dataX[index] = vv[i];
         }
-
-        if( doImprove ) {
-            improveSol(B,X);
-        }
     }
 }
@@ -22,16 +22,25 @@ import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.decomposition.qr.QrUpdate_DDRM;
-import org.ejml.dense.row.linsol.AdjustableLinearSolver_DDRM;
+import org.ejml.dense.row.linsol.AdjustableColumnLinearSolver_DDRM;
 
 
 /**
+ * <p>
  * A solver for QR decomposition that can efficiently modify the previous decomposition when
  * data is added or removed.
+ * </p>
+ *
+ * <p>
+ * Q is stored explicitly as an m by m matrix, so adding or removing a column costs O(m<sup>2</sup>) because
+ * the rotations are applied to Q as well as R. When there are many more rows than columns this can be much slower
+ * than the O(n<sup>2</sup>) needed to update R alone, see {@link QrUpdate_DDRM#addColumnNoQ} and
+ * {@link QrUpdate_DDRM#deleteColumnNoQ}.
+ * </p>
  *
  * @author Peter Abeles
  */
-public class AdjLinearSolverQr_DDRM extends LinearSolverQr_DDRM implements AdjustableLinearSolver_DDRM {
+public class AdjLinearSolverQr_DDRM extends LinearSolverQr_DDRM implements AdjustableColumnLinearSolver_DDRM {
 
     private QrUpdate_DDRM update;
 
@@ -70,15 +79,7 @@ public class AdjLinearSolverQr_DDRM extends LinearSolverQr_DDRM implements Adjus
 
     @Override
     public boolean addRowToA(double[] A_row , int rowIndex ) {
-        // see if it needs to grow the data structures
-        if( numRows + 1 > maxRows) {
-            // grow by 10%
-            int grow = maxRows / 10;
-            if( grow < 1 ) grow = 1;
-            maxRows = numRows + grow;
-            Q.reshape(maxRows,maxRows,true);
-            R.reshape(maxRows,maxCols,true);
-        }
+        growRows(1);
 
         update.addRow(Q,R,A_row,rowIndex,true);
         numRows++;
@@ -93,4 +94,70 @@ public class AdjLinearSolverQr_DDRM extends LinearSolverQr_DDRM implements Adjus
         return true;
     }
 
+    @Override
+    public boolean addRowsToA( DMatrixRMaj rows , int rowIndex ) {
+        growRows(rows.numRows);
+
+        update.addRows(Q,R,rows,rowIndex,true);
+        numRows += rows.numRows;
+
+        return true;
+    }
+
+    /**
+     * Adds a column to A. Fails if A would have more columns than rows.
+     *
+     * @see AdjustableColumnLinearSolver_DDRM#addColumnToA
+     */
+    @Override
+    public boolean addColumnToA( double[] A_col , int colIndex ) {
+        if( colIndex < 0 || colIndex > numCols )
+            throw new IllegalArgumentException("colIndex is out of bounds");
+        if( numCols + 1 > numRows )
+            return false;
+
+        // see if it needs to grow the data structures
+        if( numCols + 1 > maxCols ) {
+            maxCols = numCols + 1 + Math.max(1,maxCols/10);
+            R.reshape(maxRows,maxCols,true);
+            R.reshape(numRows,numCols,false);
+        }
+
+        update.addColumn(Q,R,A_col,colIndex);
+        numCols++;
+
+        return true;
+    }
+
+    /**
+     * Removes a column from A. Fails if it's the only column left.
+     *
+     * @see AdjustableColumnLinearSolver_DDRM#removeColumnFromA
+     */
+    @Override
+    public boolean removeColumnFromA( int index ) {
+        if( index < 0 || index >= numCols )
+            throw new IllegalArgumentException("index is out of bounds");
+        if( numCols <= 1 )
+            return false;
+
+        update.deleteColumn(Q,R,index);
+        numCols--;
+        return true;
+    }
+
+    /**
+     * Grows Q and R so that they can store the specified number of additional rows
+     */
+    private void growRows( int extra ) {
+        if( numRows + extra > maxRows) {
+            // grow by 10%
+            int grow = Math.max(extra,maxRows / 10);
+            maxRows = numRows + grow;
+            Q.reshape(maxRows,maxRows,true);
+            R.reshape(maxRows,maxCols,true);
+            Q.reshape(numRows,numRows,false);
+            R.reshape(numRows,numCols,false);
+        }
+    }
 }
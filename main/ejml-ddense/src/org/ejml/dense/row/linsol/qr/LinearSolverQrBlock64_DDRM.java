@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.linsol.qr;
 
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.block.linsol.qr.QrHouseHolderSolver_DDRB;
 import org.ejml.dense.row.linsol.LinearSolver_DDRB_to_DDRM;
@@ -31,7 +32,17 @@ import org.ejml.dense.row.linsol.LinearSolver_DDRB_to_DDRM;
  */
 public class LinearSolverQrBlock64_DDRM extends LinearSolver_DDRB_to_DDRM {
 
+    /**
+     * Multi-threaded algorithms are used if {@link EjmlConcurrency#USE_CONCURRENT} is true
+     */
     public LinearSolverQrBlock64_DDRM() {
-        super(new QrHouseHolderSolver_DDRB());
+        this(EjmlConcurrency.USE_CONCURRENT);
+    }
+
+    /**
+     * @param concurrent If true then multi-threaded algorithms are used.
+     */
+    public LinearSolverQrBlock64_DDRM( boolean concurrent ) {
+        super(new QrHouseHolderSolver_DDRB(concurrent));
     }
 }
@@ -18,8 +18,11 @@
 
 package org.ejml.dense.row.linsol.qr;
 
+import org.ejml.EjmlParameters;
+import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.SpecializedOps_DDRM;
+import org.ejml.dense.row.decomposition.TriangularSolverBlock_DDRM;
 import org.ejml.dense.row.decomposition.TriangularSolver_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.decomposition.qr.QrHelperFunctions_DDRM;
@@ -43,6 +46,11 @@ import org.ejml.interfaces.decomposition.QRDecomposition;
  * A column major decomposition is used in this solver.
  * <p>
  *
+ * <p>
+ * If B has many columns then Q<sup>T</sup> is applied to all the columns at once and R is solved for using
+ * a blocked triangular solver, see {@link EjmlParameters#SOLVE_COLUMN_SWITCH}.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public class LinearSolverQrHouseCol_DDRM extends LinearSolverAbstract_DDRM {
@@ -59,6 +67,11 @@ public class LinearSolverQrHouseCol_DDRM extends LinearSolverAbstract_DDRM {
     private DMatrixRMaj R = new DMatrixRMaj(1,1);
     private double gammas[];
 
+    // work space for when all the columns are solved at once
+    private DMatrixRMaj QtB = new DMatrixRMaj(1,1);
+    private DGrowArray workA = new DGrowArray();
+    private DGrowArray workB = new DGrowArray();
+
     /**
      * Creates a linear solver that uses QR decomposition.
      */
@@ -114,6 +127,11 @@ public class LinearSolverQrHouseCol_DDRM extends LinearSolverAbstract_DDRM {
             throw new IllegalArgumentException("Unexpected dimensions for X: X rows = "+X.numRows+" expected = "+numRows);
         X.reshape(numCols,B.numCols);
 
+        if( B.numCols >= EjmlParameters.SOLVE_COLUMN_SWITCH ) {
+            solveBlock(B,X);
+            return;
+        }
+
         int BnumCols = B.numCols;
         
         // solve each column one by one
@@ -148,6 +166,29 @@ public class LinearSolverQrHouseCol_DDRM extends LinearSolverAbstract_DDRM {
         }
     }
 
+    /**
+     * Solves for all the columns in B at the same time
+     */
+    private void solveBlock( DMatrixRMaj B , DMatrixRMaj X ) {
+        final int BnumCols = B.numCols;
+        QtB.set(B);
+        workA.reshape(BnumCols);
+
+        // QtB = Q'*B, each reflector is applied to all the columns at once
+        for( int n = 0; n < numCols; n++ ) {
+            double []u = QR[n];
+
+            double vv = u[n];
+            u[n] = 1;
+            QrHelperFunctions_DDRM.rank1UpdateMultR(QtB, u, gammas[n], 0, n, numRows, workA.data);
+            u[n] = vv;
+        }
+
+        // solve R*X = Q'*B, only the first numCols rows in Q'*B are needed
+        System.arraycopy(QtB.data,0,X.data,0,numCols*BnumCols);
+        TriangularSolverBlock_DDRM.solveLeft(false,false,false,R,X,workA,workB);
+    }
+
     @Override
     public boolean modifiesA() {
         return false;
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.qr;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.SpecializedOps_DDRM;
+import org.ejml.dense.row.decomposition.TriangularSolverBlock_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionTall_DDRM;
+import org.ejml.dense.row.linsol.LinearSolverAbstract_DDRM;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+
+
+/**
+ * <p>
+ * Least squares solver for tall skinny matrices using {@link QRDecompositionTall_DDRM}.
+ * <br>
+ * QRx=b<br>
+ * Rx=Q^T b<br>
+ * </p>
+ *
+ * <p>
+ * The system can also be provided a few rows at a time with {@link #addRows}, e.g. when the matrix is too large
+ * to fit in memory. The rows in B are appended to the rows in A and decomposed together, the top right
+ * corner of the resulting R is then Q<sup>T</sup>B. Only R is stored, so the memory used doesn't depend on the
+ * number of rows.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverQrTall_DDRM extends LinearSolverAbstract_DDRM {
+
+    private QRDecompositionTall_DDRM decomposer;
+
+    private DMatrixRMaj R = new DMatrixRMaj(1,1);
+
+    // work space
+    private DMatrixRMaj AB = new DMatrixRMaj(1,1);
+    private DGrowArray workA = new DGrowArray();
+    private DGrowArray workB = new DGrowArray();
+
+    // number of columns in A and B when rows are added incrementally
+    private int incrementalColsA = -1;
+    private int incrementalColsB = -1;
+
+    /**
+     * Creates a solver with the default parameters in {@link QRDecompositionTall_DDRM}
+     */
+    public LinearSolverQrTall_DDRM() {
+        this(new QRDecompositionTall_DDRM());
+    }
+
+    public LinearSolverQrTall_DDRM( QRDecompositionTall_DDRM decomposer ) {
+        this.decomposer = decomposer;
+    }
+
+    /**
+     * Performs TSQR decomposition on A
+     *
+     * @param A not modified.
+     */
+    @Override
+    public boolean setA(DMatrixRMaj A) {
+        if( A.numRows < A.numCols )
+            throw new IllegalArgumentException("Can't solve for wide systems.  More variables than equations.");
+
+        _setA(A);
+        incrementalColsA = -1;
+        if( !decomposer.decompose(A) )
+            return false;
+
+        decomposer.getR(R,true);
+        return true;
+    }
+
+    @Override
+    public /**/double quality() {
+        return SpecializedOps_DDRM.qualityTriangular(R);
+    }
+
+    /**
+     * Solves for X using the QR decomposition.
+     *
+     * @param B A matrix that is m by k.  Not modified.
+     * @param X An n by k matrix where the solution is written to.  Modified.
+     */
+    @Override
+    public void solve(DMatrixRMaj B, DMatrixRMaj X) {
+        if( B.numRows != numRows )
+            throw new IllegalArgumentException("Unexpected dimensions for B: B rows = "+B.numRows+" expected = "+numRows);
+
+        // X = R^-1 * Q^T * B
+        decomposer.applyQTran(B,X);
+        TriangularSolverBlock_DDRM.solveLeft(false,false,false,R,X,workA,workB);
+    }
+
+    /**
+     * Discards all rows which have been added by {@link #addRows}
+     */
+    public void reset() {
+        incrementalColsA = -1;
+        decomposer.reset();
+    }
+
+    /**
+     * Adds rows to the system A*X = B without saving them. Once all the rows have been added call
+     * {@link #solveIncremental}. Call {@link #reset()} before adding the rows for a new system.
+     *
+     * @param rowsA Rows in A. Not modified.
+     * @param rowsB The same rows in B. Not modified.
+     */
+    public void addRows( DMatrixRMaj rowsA , DMatrixRMaj rowsB ) {
+        if( rowsA.numRows != rowsB.numRows )
+            throw new IllegalArgumentException("A and B must have the same number of rows");
+        if( incrementalColsA < 0 ) {
+            decomposer.reset();
+            incrementalColsA = rowsA.numCols;
+            incrementalColsB = rowsB.numCols;
+        } else if( rowsA.numCols != incrementalColsA || rowsB.numCols != incrementalColsB ) {
+            throw new IllegalArgumentException("Number of columns doesn't match the previously added rows");
+        }
+
+        AB.reshape(rowsA.numRows,rowsA.numCols+rowsB.numCols);
+        CommonOps_DDRM.insert(rowsA,AB,0,0);
+        CommonOps_DDRM.insert(rowsB,AB,0,rowsA.numCols);
+
+        decomposer.addRows(AB);
+    }
+
+    /**
+     * Solves for X using all the rows which have been added by {@link #addRows}.
+     *
+     * @param X An n by k matrix where the solution is written to.  Modified.
+     * @return false if the system is singular
+     */
+    public boolean solveIncremental( DMatrixRMaj X ) {
+        if( incrementalColsA < 0 )
+            throw new IllegalArgumentException("No rows have been added");
+
+        final int n = incrementalColsA;
+        DMatrixRMaj RB = decomposer.getR(null,true);
+        if( RB.numRows < n )
+            throw new IllegalArgumentException("Can't solve for wide systems.  More variables than equations.");
+
+        // [ R  Q^T*B ] is in the top rows
+        R.reshape(n,n);
+        CommonOps_DDRM.extract(RB,0,n,0,n,R,0,0);
+        X.reshape(n,incrementalColsB);
+        CommonOps_DDRM.extract(RB,0,n,n,RB.numCols,X,0,0);
+
+        for( int i = 0; i < n; i++ ) {
+            if( R.data[i*n+i] == 0 )
+                return false;
+        }
+
+        TriangularSolverBlock_DDRM.solveLeft(false,false,false,R,X,workA,workB);
+        return true;
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return false;
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    @Override
+    public QRDecomposition<DMatrixRMaj> getDecomposition() {
+        return decomposer;
+    }
+}
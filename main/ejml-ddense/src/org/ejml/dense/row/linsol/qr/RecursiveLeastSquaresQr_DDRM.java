@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.qr;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.TriangularSolver_DDRM;
+import org.ejml.dense.row.decomposition.qr.QrUpdate_DDRM;
+
+
+/**
+ * <p>
+ * Solves the least-squares problem min ||A*X - B|| where the rows of A and B arrive as a stream.  Instead of
+ * storing A the R factor of the augmented matrix [A B] is updated as rows are added, using
+ * {@link QrUpdate_DDRM#addRowsNoQ}.  Adding a row requires O((n+p)<sup>2</sup>) operations and the solution can be
+ * computed at any time in O(n<sup>2</sup>p) operations, where n is the number of unknowns and p the number of
+ * columns in B.  Since R is updated directly, instead of the inverse of A<sup>T</sup>A like in the standard
+ * recursive least-squares algorithm, it is numerically stable.
+ * </p>
+ *
+ * <p>
+ * Old data can be discounted using a forgetting factor &lambda;, 0 &lt; &lambda; &le; 1.  Each time a row is added
+ * the weight of all previous rows is multiplied by &lambda;, which is done by scaling R by
+ * &radic;&lambda;.  When &lambda; = 1 the solution is the same as the ordinary least-squares solution of all the
+ * rows added so far.
+ * </p>
+ *
+ * <p>
+ * After the first call no memory is declared when rows are added, unless the block of rows is larger than any
+ * seen before.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RecursiveLeastSquaresQr_DDRM {
+
+    // number of unknowns and number of columns in B
+    private int numUnknowns;
+    private int numOutputs;
+
+    // forgetting factor
+    private double forgetting;
+
+    // R factor of the augmented matrix [A B], which is upper triangular. The upper right corner contains Q'*B
+    private DMatrixRMaj R;
+    // storage for rows after they have been weighted by the forgetting factor
+    private DMatrixRMaj rows = new DMatrixRMaj(1,1);
+
+    private QrUpdate_DDRM update = new QrUpdate_DDRM();
+
+    // total number of rows which have been added
+    private int numRowsAdded;
+
+    /**
+     * Creates a new solver
+     *
+     * @param numUnknowns Number of unknowns, i.e. columns in A.
+     * @param numOutputs Number of columns in B.
+     * @param forgetting The forgetting factor.  0 &lt; &lambda; &le; 1.  Set to 1 to weigh all the rows equally.
+     */
+    public RecursiveLeastSquaresQr_DDRM( int numUnknowns , int numOutputs , double forgetting ) {
+        if( numUnknowns <= 0 || numOutputs <= 0 )
+            throw new IllegalArgumentException("numUnknowns and numOutputs must be positive");
+        this.numUnknowns = numUnknowns;
+        this.numOutputs = numOutputs;
+        setForgetting(forgetting);
+
+        int N = numUnknowns + numOutputs;
+        R = new DMatrixRMaj(N,N);
+        rows.reshape(1,N);
+    }
+
+    /**
+     * Creates a solver with a single output
+     */
+    public RecursiveLeastSquaresQr_DDRM( int numUnknowns , double forgetting ) {
+        this(numUnknowns,1,forgetting);
+    }
+
+    /**
+     * Discards all the rows which have been added
+     */
+    public void reset() {
+        R.zero();
+        numRowsAdded = 0;
+    }
+
+    /**
+     * <p>
+     * Discards all the rows which have been added and adds Tikhonov regularization, which is equivalent to adding the
+     * rows &radic;&delta;I to A and zeros to B.  This ensures a solution can be found before n rows have been added.
+     * Like the other rows its influence decays if the forgetting factor is less than one.
+     * </p>
+     *
+     * @param delta Weight of the regularization.  Must be positive.
+     */
+    public void reset( double delta ) {
+        if( delta <= 0 )
+            throw new IllegalArgumentException("delta must be positive");
+        reset();
+        double v = Math.sqrt(delta);
+        for( int i = 0; i < numUnknowns; i++ ) {
+            R.unsafe_set(i,i,v);
+        }
+    }
+
+    /**
+     * Adds a single row.
+     *
+     * @param rowA Row in A.  Length n.  Not modified.
+     * @param rowB Row in B.  Length p.  Not modified.
+     */
+    public void addRow( double[] rowA , double[] rowB ) {
+        rows.reshape(1,numUnknowns+numOutputs);
+        System.arraycopy(rowA,0,rows.data,0,numUnknowns);
+        System.arraycopy(rowB,0,rows.data,numUnknowns,numOutputs);
+
+        discount(1);
+        update.addRowsNoQ(R,rows);
+        numRowsAdded++;
+    }
+
+    /**
+     * Adds a single row when there is only one output
+     *
+     * @param rowA Row in A.  Length n.  Not modified.
+     * @param b Value in B.
+     */
+    public void addRow( double[] rowA , double b ) {
+        if( numOutputs != 1 )
+            throw new IllegalArgumentException("Expected "+numOutputs+" outputs");
+        rows.reshape(1,numUnknowns+1);
+        System.arraycopy(rowA,0,rows.data,0,numUnknowns);
+        rows.data[numUnknowns] = b;
+
+        discount(1);
+        update.addRowsNoQ(R,rows);
+        numRowsAdded++;
+    }
+
+    /**
+     * Adds a block of rows.  This is faster than adding them one at a time and produces the same result, the rows
+     * are weighted as if they had been added in order.
+     *
+     * @param A Rows in A.  k by n.  Not modified.
+     * @param B Rows in B.  k by p.  Not modified.
+     */
+    public void addRows( DMatrixRMaj A , DMatrixRMaj B ) {
+        if( A.numCols != numUnknowns || B.numCols != numOutputs )
+            throw new IllegalArgumentException("Unexpected number of columns in A or B");
+        if( A.numRows != B.numRows )
+            throw new IllegalArgumentException("A and B must have the same number of rows");
+
+        int k = A.numRows;
+        int N = numUnknowns+numOutputs;
+        rows.reshape(k,N);
+        // the most recent row has a weight of one and each row before it is scaled by sqrt(forgetting)
+        double sqrtForgetting = Math.sqrt(forgetting);
+        double weight = 1;
+        for( int i = k-1; i >= 0; i-- ) {
+            int indexRows = i*N;
+            for( int j = 0; j < numUnknowns; j++ ) {
+                rows.data[indexRows+j] = weight*A.data[i*numUnknowns+j];
+            }
+            for( int j = 0; j < numOutputs; j++ ) {
+                rows.data[indexRows+numUnknowns+j] = weight*B.data[i*numOutputs+j];
+            }
+            weight *= sqrtForgetting;
+        }
+
+        discount(k);
+        update.addRowsNoQ(R,rows);
+        numRowsAdded += k;
+    }
+
+    /**
+     * Scales R to discount the rows which have already been added
+     *
+     * @param k Number of rows which are about to be added
+     */
+    private void discount( int k ) {
+        if( forgetting == 1.0 )
+            return;
+
+        double scale = Math.pow(forgetting,k*0.5);
+        int N = R.numCols;
+        for( int i = 0; i < N; i++ ) {
+            int index = i*N+i;
+            int end = (i+1)*N;
+            while( index < end ) {
+                R.data[index++] *= scale;
+            }
+        }
+    }
+
+    /**
+     * Computes the solution to the weighted least-squares problem given all the rows which have been added so far.
+     *
+     * @param X Storage for the solution.  Is reshaped to n by p.  Modified.
+     * @return false if the system is under determined or singular.
+     */
+    public boolean getSolution( DMatrixRMaj X ) {
+        int n = numUnknowns;
+        int N = n+numOutputs;
+        for( int i = 0; i < n; i++ ) {
+            if( R.data[i*N+i] == 0 )
+                return false;
+        }
+
+        X.reshape(n,numOutputs);
+        for( int i = 0; i < n; i++ ) {
+            System.arraycopy(R.data,i*N+n,X.data,i*numOutputs,numOutputs);
+        }
+        TriangularSolver_DDRM.solveU(R.data,0,N,n,X.data,0,numOutputs,numOutputs);
+
+        return true;
+    }
+
+    /**
+     * Returns the weighted sum of squared residuals, ||A*X - B||<sup>2</sup>, for the current solution.
+     */
+    public double getResidualSquared() {
+        int n = numUnknowns;
+        int N = n+numOutputs;
+        // the lower right corner is the R factor of the residuals
+        double total = 0;
+        for( int i = n; i < N; i++ ) {
+            for( int j = i; j < N; j++ ) {
+                double v = R.data[i*N+j];
+                total += v*v;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * The R factor of the augmented matrix [A B].  The upper left n by n block is the R factor of A.
+     */
+    public DMatrixRMaj getR() {
+        return R;
+    }
+
+    public double getForgetting() {
+        return forgetting;
+    }
+
+    public void setForgetting( double forgetting ) {
+        if( forgetting <= 0 || forgetting > 1 )
+            throw new IllegalArgumentException("forgetting must be in the range (0,1]");
+        this.forgetting = forgetting;
+    }
+
+    public int getNumUnknowns() {
+        return numUnknowns;
+    }
+
+    public int getNumOutputs() {
+        return numOutputs;
+    }
+
+    /**
+     * Total number of rows which have been added since it was created or reset
+     */
+    public int getNumRowsAdded() {
+        return numRowsAdded;
+    }
+}
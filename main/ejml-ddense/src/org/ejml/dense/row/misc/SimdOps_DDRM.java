@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+/**
+ * <p>
+ * Low level kernels which operate on sections of arrays and are used inside the inner loops of other
+ * operations. This is the scalar implementation which is used on Java 8.
+ * </p>
+ *
+ * <p>
+ * The jar is a multi-release jar and contains a second implementation of this class under
+ * META-INF/versions/17 which uses the incubating Vector API, i.e. explicit SIMD instructions. That version is
+ * only used when running on Java 17 or newer and the module has been added with
+ * "--add-modules jdk.incubator.vector". Otherwise it falls back to the same scalar code as this class.
+ * Every function, except for {@link #dot}, produces identical results in both versions. The vectorized dot
+ * product sums the elements in a different order and can differ by round off errors.
+ * </p>
+ *
+ * <p>
+ * There are no sanity checks. It is not recommended that any of these functions be used directly.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SimdOps_DDRM {
+
+    /**
+     * Returns true if the vectorized kernels are being used
+     */
+    public static boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Inner product of two sections of arrays:<br>
+     * sum(i=0:length-1; a[offsetA+i]*b[offsetB+i])
+     */
+    public static double dot( double[] a , int offsetA , double[] b , int offsetB , int length ) {
+        double total = 0;
+        for( int i = 0; i < length; i++ ) {
+            total += a[offsetA+i]*b[offsetB+i];
+        }
+        return total;
+    }
+
+    /**
+     * y[offsetY+i] = y[offsetY+i] + alpha*x[offsetX+i] for i = 0 to length-1
+     */
+    public static void axpy( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            y[offsetY+i] += alpha*x[offsetX+i];
+        }
+    }
+
+    /**
+     * y[offsetY+i] = alpha*x[offsetX+i] for i = 0 to length-1
+     */
+    public static void scale( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            y[offsetY+i] = alpha*x[offsetX+i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] + b[i] for i = 0 to length-1
+     */
+    public static void add( double[] a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] - b[i] for i = 0 to length-1
+     */
+    public static void subtract( double[] a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] - b[i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] * b[i] for i = 0 to length-1
+     */
+    public static void elementMult( double[] a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] * b[i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] / b[i] for i = 0 to length-1
+     */
+    public static void elementDiv( double[] a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] / b[i];
+        }
+    }
+}
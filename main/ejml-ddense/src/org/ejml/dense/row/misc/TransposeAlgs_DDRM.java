@@ -94,6 +94,98 @@ public class TransposeAlgs_DDRM {
         }
     }
 
+    /**
+     * Cache oblivious transpose. The matrix is recursively split in half along its longest side until a
+     * sub-matrix fits inside a block, which is then transposed directly. Unlike {@link #block} the sub-matrices
+     * stay close to square no matter what the matrix's shape is, making it less sensitive to the choice of
+     * block length.
+     *
+     * @param A Original matrix.  Not modified.
+     * @param A_tran Transposed matrix.  Modified.
+     * @param blockLength Maximum length of a side in a block.
+     */
+    public static void recursive( DMatrix1Row A , DMatrix1Row A_tran , final int blockLength ) {
+        recursive(A,A_tran,0,A.numRows,0,A.numCols,blockLength);
+    }
+
+    /**
+     * Transposes the sub-matrix of A from rows row0 to row1 and columns col0 to col1, upper extents exclusive.
+     *
+     * @see #recursive(DMatrix1Row, DMatrix1Row, int)
+     */
+    public static void recursive( DMatrix1Row A , DMatrix1Row A_tran ,
+                                  int row0 , int row1 , int col0 , int col1 , final int blockLength ) {
+        int rows = row1-row0;
+        int cols = col1-col0;
+
+        if( rows <= blockLength && cols <= blockLength ) {
+            for( int j = col0; j < col1; j++ ) {
+                int indexDst = j*A_tran.numCols + row0;
+                int indexSrc = row0*A.numCols + j;
+                int end = indexDst + rows;
+                for( ; indexDst < end; indexSrc += A.numCols ) {
+                    A_tran.data[indexDst++] = A.data[indexSrc];
+                }
+            }
+        } else if( rows >= cols ) {
+            int middle = row0 + rows/2;
+            recursive(A,A_tran,row0,middle,col0,col1,blockLength);
+            recursive(A,A_tran,middle,row1,col0,col1,blockLength);
+        } else {
+            int middle = col0 + cols/2;
+            recursive(A,A_tran,row0,row1,col0,middle,blockLength);
+            recursive(A,A_tran,row0,row1,middle,col1,blockLength);
+        }
+    }
+
+    /**
+     * <p>
+     * In-place transpose for a matrix of any shape. Elements are moved by following the cycles of the permutation
+     * which maps an element's index in the original matrix to its index in the transpose. The element at index
+     * k, with 0 &lt; k &lt; N-1 and N = rows*cols, is moved to index (k*rows) mod (N-1).
+     * </p>
+     *
+     * <p>
+     * The only additional memory is a bit set with one bit for each element which records which elements have
+     * already been moved. Memory access is very irregular so this is much slower than transposing into a
+     * second matrix. Use it when the matrix is too large to have a copy of it in memory.
+     * </p>
+     *
+     * @param mat The matrix that is transposed in-place. Its shape is changed. Modified.
+     */
+    public static void cycle( DMatrix1Row mat ) {
+        final int numRows = mat.numRows;
+        final int numCols = mat.numCols;
+        if( numRows == numCols ) {
+            square(mat);
+            return;
+        }
+
+        final double[] data = mat.data;
+        final int N = numRows*numCols;
+        final long modulus = N-1;
+        final long[] moved = new long[(N+63)/64];
+
+        // the first and last elements never move
+        for( int start = 1; start < N-1; start++ ) {
+            if( (moved[start >> 6] & (1L << start)) != 0 )
+                continue;
+
+            double value = data[start];
+            int index = start;
+            do {
+                index = (int)(((long)index*numRows)%modulus);
+                double tmp = data[index];
+                data[index] = value;
+                value = tmp;
+                moved[index >> 6] |= 1L << index;
+            } while( index != start );
+        }
+
+        mat.numRows = numCols;
+        mat.numCols = numRows;
+    }
+
     /**
      * A straight forward transpose.  Good for small non-square matrices.
      *
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrix1Row;
+
+/**
+ * Multi-threaded versions of the algorithms in {@link TransposeAlgs_DDRM}. The transposed matrix is split into
+ * horizontal strips, i.e. the original matrix into vertical strips, and each thread writes to a different strip.
+ * No sanity checks are performed.
+ *
+ * @author Peter Abeles
+ */
+public class TransposeAlgs_MT_DDRM {
+
+    /**
+     * @see TransposeAlgs_DDRM#block(DMatrix1Row, DMatrix1Row, int)
+     */
+    public static void block( DMatrix1Row A , DMatrix1Row A_tran , final int blockLength ) {
+        final int numStrips = (A.numCols+blockLength-1)/blockLength;
+
+        EjmlConcurrency.loopBlocks(0, numStrips, (s0,s1)->{
+            int col0 = s0*blockLength;
+            int col1 = Math.min(A.numCols,s1*blockLength);
+
+            for( int i = 0; i < A.numRows; i += blockLength ) {
+                int blockHeight = Math.min( blockLength , A.numRows - i);
+
+                for( int j = col0; j < col1; j += blockLength ) {
+                    int blockWidth = Math.min( blockLength , col1 - j);
+
+                    int indexSrc = i*A.numCols + j;
+                    int indexDst = j*A_tran.numCols + i;
+                    int indexSrcEnd = indexSrc + blockWidth;
+                    for( ; indexSrc < indexSrcEnd; indexSrc++ ) {
+                        int rowSrc = indexSrc;
+                        int rowDst = indexDst;
+                        int end = rowDst + blockHeight;
+                        for( ; rowDst < end; rowSrc += A.numCols ) {
+                            A_tran.data[ rowDst++ ] = A.data[ rowSrc ];
+                        }
+                        indexDst += A_tran.numCols;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @see TransposeAlgs_DDRM#recursive(DMatrix1Row, DMatrix1Row, int)
+     */
+    public static void recursive( DMatrix1Row A , DMatrix1Row A_tran , final int blockLength ) {
+        final int numStrips = (A.numCols+blockLength-1)/blockLength;
+
+        EjmlConcurrency.loopBlocks(0, numStrips, (s0,s1)->{
+            int col0 = s0*blockLength;
+            int col1 = Math.min(A.numCols,s1*blockLength);
+            TransposeAlgs_DDRM.recursive(A,A_tran,0,A.numRows,col0,col1,blockLength);
+        });
+    }
+}
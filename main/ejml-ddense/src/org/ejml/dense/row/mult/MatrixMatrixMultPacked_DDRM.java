@@ -0,0 +1,443 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrix1Row;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Matrix multiplication for large matrices where A and B are copied ("packed") into cache sized panels before
+ * being multiplied together. The algorithm has three levels of blocking:
+ * </p>
+ * <ol>
+ *     <li>B is split into panels of {@link #panelRowsB()} rows by {@link #panelColsB()} columns, which are
+ *     intended to fit inside the outer most cache.</li>
+ *     <li>A is split into blocks of {@link #blockRowsA()} rows by {@link #panelRowsB()} columns, which are
+ *     intended to fit inside the inner caches.</li>
+ *     <li>Inside of a block an unrolled {@link #MR} x {@link #NR} micro-kernel computes a tile of C while keeping
+ *     all of the intermediate sums in local variables, i.e. registers.</li>
+ * </ol>
+ *
+ * <p>
+ * Packing rearranges the elements so that the micro-kernel reads both A and B sequentially. Rows in A and
+ * columns in B are interleaved in slivers of width MR and NR. Slivers along the edges are padded with zeros
+ * so the micro-kernel never needs to handle partial tiles. All block sizes are derived from
+ * {@link EjmlParameters#BLOCK_WIDTH}.
+ * </p>
+ *
+ * <p>
+ * The packing overhead is O(N<sup>2</sup>) so this is only faster than {@link MatrixMatrixMult_DDRM#mult_reorder}
+ * once the matrices no longer fit inside the cache. See {@link EjmlParameters#MULT_PACKED_SWITCH}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMatrixMultPacked_DDRM {
+
+    /**
+     * Number of rows in the tile computed by the micro-kernel
+     */
+    public static final int MR = 4;
+    /**
+     * Number of columns in the tile computed by the micro-kernel
+     */
+    public static final int NR = 4;
+
+    /**
+     * Number of rows in a packed block of A. Is a multiple of {@link #MR}.
+     */
+    public static int blockRowsA() {
+        return roundUp(2*EjmlParameters.BLOCK_WIDTH,MR);
+    }
+
+    /**
+     * Number of rows in a packed panel of B, which is the same as the number of columns in a packed block of A.
+     */
+    public static int panelRowsB() {
+        return 4*EjmlParameters.BLOCK_WIDTH;
+    }
+
+    /**
+     * Number of columns in a packed panel of B. Is a multiple of {@link #NR}.
+     */
+    public static int panelColsB() {
+        return roundUp(32*EjmlParameters.BLOCK_WIDTH,NR);
+    }
+
+    /**
+     * c = a * b
+     *
+     * @param workA (Optional) Storage for packed blocks of A. Can be null.
+     * @param workB (Optional) Storage for packed panels of B. Can be null.
+     * @see CommonOps_DDRM#mult(DMatrix1Row, DMatrix1Row, DMatrix1Row)
+     */
+    public static void mult( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ,
+                             @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        gemm(1.0,a,b,c,false,workA,workB);
+    }
+
+    /**
+     * c = &alpha; * a * b
+     *
+     * @param workA (Optional) Storage for packed blocks of A. Can be null.
+     * @param workB (Optional) Storage for packed panels of B. Can be null.
+     * @see CommonOps_DDRM#mult(double, DMatrix1Row, DMatrix1Row, DMatrix1Row)
+     */
+    public static void mult( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ,
+                             @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        gemm(alpha,a,b,c,false,workA,workB);
+    }
+
+    /**
+     * c = c + a * b
+     *
+     * @param workA (Optional) Storage for packed blocks of A. Can be null.
+     * @param workB (Optional) Storage for packed panels of B. Can be null.
+     * @see CommonOps_DDRM#multAdd(DMatrix1Row, DMatrix1Row, DMatrix1Row)
+     */
+    public static void multAdd( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ,
+                                @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        gemm(1.0,a,b,c,true,workA,workB);
+    }
+
+    /**
+     * c = c + &alpha; * a * b
+     *
+     * @param workA (Optional) Storage for packed blocks of A. Can be null.
+     * @param workB (Optional) Storage for packed panels of B. Can be null.
+     * @see CommonOps_DDRM#multAdd(double, DMatrix1Row, DMatrix1Row, DMatrix1Row)
+     */
+    public static void multAdd( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ,
+                                @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        gemm(alpha,a,b,c,true,workA,workB);
+    }
+
+    private static void gemm( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c , boolean add ,
+                              @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        if( !checkInputs(a, b, c, add) )
+            return;
+
+        final int m = a.numRows, n = b.numCols, k = a.numCols;
+
+        double[] packedA = reshape(workA,packedLengthA(m,k));
+        double[] packedB = reshape(workB,packedLengthB(k,n));
+
+        gemm(alpha,a.data,0,a.numCols,b.data,0,b.numCols,c.data,0,c.numCols,m,n,k,packedA,packedB);
+    }
+
+    /**
+     * Multiplies two sub-matrices which are stored inside of larger row-major arrays and adds the results to
+     * the sub-matrix in C, i.e. C = C + &alpha;*A*B.
+     *
+     * @param offsetA Index of the first element in A
+     * @param strideA Number of elements between rows in A
+     * @param m Number of rows in A and C
+     * @param n Number of columns in B and C
+     * @param k Number of columns in A and rows in B
+     * @param packedA Storage for a packed block of A. See {@link #packedLengthA}
+     * @param packedB Storage for a packed panel of B. See {@link #packedLengthB}
+     */
+    static void gemm( double alpha , double[] A , int offsetA , int strideA ,
+                      double[] B , int offsetB , int strideB ,
+                      double[] C , int offsetC , int strideC ,
+                      int m , int n , int k , double[] packedA , double[] packedB )
+    {
+        gemm(alpha,false,A,offsetA,strideA,false,B,offsetB,strideB,C,offsetC,strideC,m,n,k,packedA,packedB);
+    }
+
+    /**
+     * Same as {@link #gemm(double, double[], int, int, double[], int, int, double[], int, int, int, int, int, double[], double[])}
+     * but A and/or B can be transposed, i.e. C = C + &alpha;*op(A)*op(B). The transpose is done while packing so
+     * it has almost no additional cost.
+     *
+     * @param transA If true then the sub-matrix in A is k by m and it's transposed.
+     * @param transB If true then the sub-matrix in B is n by k and it's transposed.
+     */
+    public static void gemm( double alpha , boolean transA , double[] A , int offsetA , int strideA ,
+                      boolean transB , double[] B , int offsetB , int strideB ,
+                      double[] C , int offsetC , int strideC ,
+                      int m , int n , int k , double[] packedA , double[] packedB )
+    {
+        final int mc = blockRowsA(), kc = panelRowsB(), nc = panelColsB();
+
+        for( int jc = 0; jc < n; jc += nc ) {
+            int nb = Math.min(nc,n-jc);
+            for( int pc = 0; pc < k; pc += kc ) {
+                int kb = Math.min(kc,k-pc);
+                if( transB )
+                    packBTran(B,offsetB + jc*strideB + pc,strideB,kb,nb,packedB);
+                else
+                    packB(B,offsetB + pc*strideB + jc,strideB,kb,nb,packedB);
+
+                for( int ic = 0; ic < m; ic += mc ) {
+                    int mb = Math.min(mc,m-ic);
+                    if( transA )
+                        packATran(alpha,A,offsetA + pc*strideA + ic,strideA,mb,kb,packedA);
+                    else
+                        packA(alpha,A,offsetA + ic*strideA + pc,strideA,mb,kb,packedA);
+                    multBlock(packedA,packedB,mb,nb,kb,C,offsetC + ic*strideC + jc,strideC);
+                }
+            }
+        }
+    }
+
+    /**
+     * Length of the array needed to store a packed block of A
+     */
+    public static int packedLengthA( int m , int k ) {
+        return Math.min(blockRowsA(),roundUp(m,MR))*Math.min(panelRowsB(),k);
+    }
+
+    /**
+     * Length of the array needed to store a packed panel of B
+     */
+    public static int packedLengthB( int k , int n ) {
+        return Math.min(panelRowsB(),k)*Math.min(panelColsB(),roundUp(n,NR));
+    }
+
+    /**
+     * Checks the input matrices, reshapes c, and zeros c if it's not being added to.
+     *
+     * @return true if there is anything left to compute
+     */
+    static boolean checkInputs( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c , boolean add ) {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numRows ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numRows,b.numCols);
+
+        // the micro-kernel always adds to c
+        if( !add )
+            CommonOps_DDRM.fill(c,0);
+
+        return a.numCols != 0 && a.numRows != 0 && b.numCols != 0;
+    }
+
+    /**
+     * Returns the internal array of 'work' after making sure it has at least 'length' elements. If 'work' is null
+     * then a new array is declared.
+     */
+    public static double[] reshape( @Nullable DGrowArray work , int length ) {
+        if( work == null )
+            work = new DGrowArray();
+        work.reshape(length);
+        return work.data;
+    }
+
+    static int roundUp( int value , int multiple ) {
+        return ((value+multiple-1)/multiple)*multiple;
+    }
+
+    /**
+     * Copies a sub-matrix of A, scaled by alpha, into slivers that are MR rows wide. Inside a sliver the elements
+     * are ordered by column, then row.
+     */
+    static void packA( double alpha , double[] dataA , int offset , int stride , int rows , int cols , double[] packed ) {
+        int index = 0;
+        for( int i = 0; i < rows; i += MR ) {
+            int rowsSliver = Math.min(MR,rows-i);
+            int indexA = offset + i*stride;
+
+            if( rowsSliver == MR ) {
+                for( int p = 0; p < cols; p++ , indexA++ ) {
+                    packed[index++] = alpha*dataA[indexA];
+                    packed[index++] = alpha*dataA[indexA+stride];
+                    packed[index++] = alpha*dataA[indexA+2*stride];
+                    packed[index++] = alpha*dataA[indexA+3*stride];
+                }
+            } else {
+                for( int p = 0; p < cols; p++ , indexA++ ) {
+                    for( int r = 0; r < MR; r++ ) {
+                        packed[index++] = r < rowsSliver ? alpha*dataA[indexA+r*stride] : 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #packA} but the sub-matrix is transposed. The source sub-matrix has 'cols' rows and 'rows' columns.
+     */
+    static void packATran( double alpha , double[] dataA , int offset , int stride , int rows , int cols , double[] packed ) {
+        int index = 0;
+        for( int i = 0; i < rows; i += MR ) {
+            int rowsSliver = Math.min(MR,rows-i);
+            int indexA = offset + i;
+
+            if( rowsSliver == MR ) {
+                for( int p = 0; p < cols; p++ , indexA += stride ) {
+                    packed[index++] = alpha*dataA[indexA];
+                    packed[index++] = alpha*dataA[indexA+1];
+                    packed[index++] = alpha*dataA[indexA+2];
+                    packed[index++] = alpha*dataA[indexA+3];
+                }
+            } else {
+                for( int p = 0; p < cols; p++ , indexA += stride ) {
+                    for( int r = 0; r < MR; r++ ) {
+                        packed[index++] = r < rowsSliver ? alpha*dataA[indexA+r] : 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a sub-matrix of B into slivers that are NR columns wide. Inside a sliver the elements are ordered
+     * by row, then column.
+     */
+    static void packB( double[] dataB , int offset , int stride , int rows , int cols , double[] packed ) {
+        int index = 0;
+        for( int j = 0; j < cols; j += NR ) {
+            int colsSliver = Math.min(NR,cols-j);
+            int indexB = offset + j;
+
+            if( colsSliver == NR ) {
+                for( int p = 0; p < rows; p++ , indexB += stride ) {
+                    packed[index++] = dataB[indexB];
+                    packed[index++] = dataB[indexB+1];
+                    packed[index++] = dataB[indexB+2];
+                    packed[index++] = dataB[indexB+3];
+                }
+            } else {
+                for( int p = 0; p < rows; p++ , indexB += stride ) {
+                    for( int q = 0; q < NR; q++ ) {
+                        packed[index++] = q < colsSliver ? dataB[indexB+q] : 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #packB} but the sub-matrix is transposed. The source sub-matrix has 'cols' rows and 'rows' columns.
+     */
+    static void packBTran( double[] dataB , int offset , int stride , int rows , int cols , double[] packed ) {
+        int index = 0;
+        for( int j = 0; j < cols; j += NR ) {
+            int colsSliver = Math.min(NR,cols-j);
+            int indexB = offset + j*stride;
+
+            if( colsSliver == NR ) {
+                for( int p = 0; p < rows; p++ , indexB++ ) {
+                    packed[index++] = dataB[indexB];
+                    packed[index++] = dataB[indexB+stride];
+                    packed[index++] = dataB[indexB+2*stride];
+                    packed[index++] = dataB[indexB+3*stride];
+                }
+            } else {
+                for( int p = 0; p < rows; p++ , indexB++ ) {
+                    for( int q = 0; q < NR; q++ ) {
+                        packed[index++] = q < colsSliver ? dataB[indexB+q*stride] : 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies a packed block of A against a packed panel of B and adds the results to C
+     */
+    static void multBlock( double[] packedA , double[] packedB , int rows , int cols , int inner ,
+                           double[] dataC , int offsetC , int strideC )
+    {
+        for( int j = 0; j < cols; j += NR ) {
+            int offsetB = j*inner;
+            int colsTile = Math.min(NR,cols-j);
+            for( int i = 0; i < rows; i += MR ) {
+                int offsetA = i*inner;
+                int rowsTile = Math.min(MR,rows-i);
+                kernel(packedA,offsetA,packedB,offsetB,inner,dataC,offsetC+i*strideC+j,strideC,rowsTile,colsTile);
+            }
+        }
+    }
+
+    /**
+     * Computes a MR x NR tile in C. All the sums are kept in local variables until the very end
+     */
+    static void kernel( double[] packedA , int offsetA , double[] packedB , int offsetB , int inner ,
+                        double[] dataC , int indexC , int stride , int rowsTile , int colsTile )
+    {
+        double c00=0,c01=0,c02=0,c03=0;
+        double c10=0,c11=0,c12=0,c13=0;
+        double c20=0,c21=0,c22=0,c23=0;
+        double c30=0,c31=0,c32=0,c33=0;
+
+        int indexA = offsetA, indexB = offsetB;
+        for( int p = 0; p < inner; p++ ) {
+            double a0 = packedA[indexA  ], a1 = packedA[indexA+1];
+            double a2 = packedA[indexA+2], a3 = packedA[indexA+3];
+            double b0 = packedB[indexB  ], b1 = packedB[indexB+1];
+            double b2 = packedB[indexB+2], b3 = packedB[indexB+3];
+
+            c00 += a0*b0; c01 += a0*b1; c02 += a0*b2; c03 += a0*b3;
+            c10 += a1*b0; c11 += a1*b1; c12 += a1*b2; c13 += a1*b3;
+            c20 += a2*b0; c21 += a2*b1; c22 += a2*b2; c23 += a2*b3;
+            c30 += a3*b0; c31 += a3*b1; c32 += a3*b2; c33 += a3*b3;
+
+            indexA += MR;
+            indexB += NR;
+        }
+
+        if( rowsTile == MR && colsTile == NR ) {
+            dataC[indexC  ] += c00; dataC[indexC+1] += c01; dataC[indexC+2] += c02; dataC[indexC+3] += c03;
+            indexC += stride;
+            dataC[indexC  ] += c10; dataC[indexC+1] += c11; dataC[indexC+2] += c12; dataC[indexC+3] += c13;
+            indexC += stride;
+            dataC[indexC  ] += c20; dataC[indexC+1] += c21; dataC[indexC+2] += c22; dataC[indexC+3] += c23;
+            indexC += stride;
+            dataC[indexC  ] += c30; dataC[indexC+1] += c31; dataC[indexC+2] += c32; dataC[indexC+3] += c33;
+        } else {
+            // partial tile along the edge of the matrix
+            addTileRow(dataC,indexC,colsTile,c00,c01,c02,c03);
+            if( rowsTile > 1 )
+                addTileRow(dataC,indexC+stride,colsTile,c10,c11,c12,c13);
+            if( rowsTile > 2 )
+                addTileRow(dataC,indexC+2*stride,colsTile,c20,c21,c22,c23);
+            if( rowsTile > 3 )
+                addTileRow(dataC,indexC+3*stride,colsTile,c30,c31,c32,c33);
+        }
+    }
+
+    /**
+     * Adds the first 'cols' elements of a row in a tile to C
+     */
+    private static void addTileRow( double[] dataC , int indexC , int cols ,
+                                    double c0 , double c1 , double c2 , double c3 ) {
+        dataC[indexC] += c0;
+        if( cols > 1 )
+            dataC[indexC+1] += c1;
+        if( cols > 2 )
+            dataC[indexC+2] += c2;
+        if( cols > 3 )
+            dataC[indexC+3] += c3;
+    }
+}
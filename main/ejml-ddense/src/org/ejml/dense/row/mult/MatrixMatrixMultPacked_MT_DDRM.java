@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrix1Row;
+
+import javax.annotation.Nullable;
+
+import static org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM.*;
+
+/**
+ * <p>
+ * Multi-threaded version of {@link MatrixMatrixMultPacked_DDRM}. Each packed panel of B is shared by all the
+ * threads while the blocks of A are split between threads, with each thread packing its own blocks. The
+ * results are identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMatrixMultPacked_MT_DDRM {
+
+    /**
+     * @see MatrixMatrixMultPacked_DDRM#mult(DMatrix1Row, DMatrix1Row, DMatrix1Row, DGrowArray, DGrowArray)
+     */
+    public static void mult( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c , @Nullable DGrowArray workB )
+    {
+        gemm(1.0,a,b,c,false,workB);
+    }
+
+    /**
+     * @see MatrixMatrixMultPacked_DDRM#mult(double, DMatrix1Row, DMatrix1Row, DMatrix1Row, DGrowArray, DGrowArray)
+     */
+    public static void mult( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ,
+                             @Nullable DGrowArray workB )
+    {
+        gemm(alpha,a,b,c,false,workB);
+    }
+
+    /**
+     * @see MatrixMatrixMultPacked_DDRM#multAdd(DMatrix1Row, DMatrix1Row, DMatrix1Row, DGrowArray, DGrowArray)
+     */
+    public static void multAdd( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c , @Nullable DGrowArray workB )
+    {
+        gemm(1.0,a,b,c,true,workB);
+    }
+
+    /**
+     * @see MatrixMatrixMultPacked_DDRM#multAdd(double, DMatrix1Row, DMatrix1Row, DMatrix1Row, DGrowArray, DGrowArray)
+     */
+    public static void multAdd( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ,
+                                @Nullable DGrowArray workB )
+    {
+        gemm(alpha,a,b,c,true,workB);
+    }
+
+    private static void gemm( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c , boolean add ,
+                              @Nullable DGrowArray workB )
+    {
+        if( !checkInputs(a, b, c, add) )
+            return;
+
+        final int m = a.numRows, n = b.numCols, k = a.numCols;
+
+        gemm(alpha,a.data,0,a.numCols,b.data,0,b.numCols,c.data,0,c.numCols,m,n,k,
+                reshape(workB,packedLengthB(k,n)));
+    }
+
+    /**
+     * Multi-threaded version of
+     * {@link MatrixMatrixMultPacked_DDRM#gemm(double, double[], int, int, double[], int, int, double[], int, int, int, int, int, double[], double[])}.
+     * Multiplies two sub-matrices which are stored inside of larger row-major arrays and adds the results to
+     * the sub-matrix in C, i.e. C = C + &alpha;*A*B.
+     *
+     * @param packedB Storage for a packed panel of B. See {@link MatrixMatrixMultPacked_DDRM#packedLengthB}
+     */
+    public static void gemm( double alpha , double[] A , int offsetA , int strideA ,
+                             double[] B , int offsetB , int strideB ,
+                             double[] C , int offsetC , int strideC ,
+                             int m , int n , int k , double[] packedB )
+    {
+        final int mc = blockRowsA(), kc = panelRowsB(), nc = panelColsB();
+        final int numBlocksA = (m+mc-1)/mc;
+
+        for( int jc = 0; jc < n; jc += nc ) {
+            final int _jc = jc;
+            final int nb = Math.min(nc,n-jc);
+            for( int pc = 0; pc < k; pc += kc ) {
+                final int _pc = pc;
+                final int kb = Math.min(kc,k-pc);
+                packB(B,offsetB+pc*strideB+jc,strideB,kb,nb,packedB);
+
+                EjmlConcurrency.loopBlocks(0, numBlocksA, (block0,block1)->{
+                    double[] packedA = new double[Math.min(mc,roundUp(m,MR))*kb];
+                    for( int block = block0; block < block1; block++ ) {
+                        int ic = block*mc;
+                        int mb = Math.min(mc,m-ic);
+                        packA(alpha,A,offsetA+ic*strideA+_pc,strideA,mb,kb,packedA);
+                        multBlock(packedA,packedB,mb,nb,kb,C,offsetC+ic*strideC+_jc,strideC);
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlParameters;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrix1Row;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM.*;
+
+/**
+ * <p>
+ * Matrix multiplication using the Winograd variant of Strassen's algorithm. Each level of recursion splits the
+ * matrices into 2x2 blocks and computes the product using 7 block multiplications and 15 block additions, instead
+ * of 8 multiplications. Recursion stops once a dimension is less than or equal to the cutoff and the remaining
+ * products are computed with {@link MatrixMatrixMultPacked_DDRM}. Odd dimensions are handled by splitting off
+ * the last row or column and adding its contribution separately.
+ * </p>
+ *
+ * <p>
+ * Temporary blocks are stored in a work space which is owned by this class. Each level of recursion has
+ * two work arrays which are reused by all the products at that level. The total memory is about
+ * 2/3 of a single input matrix and is only allocated again if the matrices become larger.
+ * </p>
+ *
+ * <p>
+ * <b>Numerical Stability:</b> Strassen type algorithms do not satisfy the component-wise error bound
+ * of conventional matrix multiplication, |C - fl(C)| &le; nu|A||B|. Instead they satisfy a weaker norm-wise
+ * bound. For square matrices with n = 2<sup>k</sup>n<sub>0</sub>, where n<sub>0</sub> is the cutoff, the
+ * Winograd variant satisfies:<br>
+ * ||C - fl(C)|| &le; [(n/n<sub>0</sub>)<sup>log<sub>2</sub>18</sup>(n<sub>0</sub><sup>2</sup>+6n<sub>0</sub>) - 6n] u ||A|| ||B|| + O(u<sup>2</sup>)<br>
+ * where ||A|| = max<sub>ij</sub> |a<sub>ij</sub>| and u is the unit round off. Errors are relative to the largest
+ * elements in A and B, so small elements in C can have a large relative error. This is a problem for badly
+ * scaled matrices. Each extra level of recursion makes the bound worse by a factor of about 4.5, so a larger cutoff
+ * gives more accurate results. See [1] for details.
+ * </p>
+ *
+ * <p>
+ * [1] N. J. Higham, "Accuracy and Stability of Numerical Algorithms", 2nd Ed., SIAM, 2002. Chapter 23
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMatrixMultStrassen_DDRM {
+
+    // products are computed with a conventional algorithm once a dimension is this size or smaller
+    private int cutoff;
+
+    // work space for each level of recursion
+    private final List<DGrowArray> workX = new ArrayList<>();
+    private final List<DGrowArray> workY = new ArrayList<>();
+
+    // work space for the packed matrix multiplication
+    private final DGrowArray packedA = new DGrowArray();
+    private final DGrowArray packedB = new DGrowArray();
+
+    /**
+     * Creates the algorithm with the specified cutoff
+     *
+     * @param cutoff Recursion stops once a dimension is less than or equal to this value. Must be at least 1.
+     */
+    public MatrixMatrixMultStrassen_DDRM( int cutoff ) {
+        setCutoff(cutoff);
+    }
+
+    /**
+     * Creates the algorithm using {@link EjmlParameters#MULT_STRASSEN_CUTOFF}
+     */
+    public MatrixMatrixMultStrassen_DDRM() {
+        this(EjmlParameters.MULT_STRASSEN_CUTOFF);
+    }
+
+    /**
+     * c = a * b
+     *
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public void mult( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c ) {
+        if( !checkInputs(a,b,c,false) )
+            return;
+
+        final int m = a.numRows, n = b.numCols, k = a.numCols;
+
+        declareWorkSpace(m,n,k);
+
+        multiply(0,a.data,0,a.numCols,b.data,0,b.numCols,c.data,0,c.numCols,m,n,k);
+    }
+
+    /**
+     * Makes sure the work space is large enough for every level of recursion
+     */
+    private void declareWorkSpace( int m , int n , int k ) {
+        packedA.reshape(packedLengthA(m,k));
+        packedB.reshape(packedLengthB(k,n));
+
+        int level = 0;
+        while( !isBaseCase(m,n,k) ) {
+            m /= 2; n /= 2; k /= 2;
+
+            if( workX.size() <= level ) {
+                workX.add(new DGrowArray());
+                workY.add(new DGrowArray());
+            }
+            workX.get(level).reshape(m*Math.max(k,n));
+            workY.get(level).reshape(k*n);
+            level++;
+        }
+    }
+
+    private boolean isBaseCase( int m , int n , int k ) {
+        return Math.min(m,Math.min(n,k)) <= cutoff;
+    }
+
+    /**
+     * C = A*B for sub-matrices inside of row-major arrays. The previous contents of C are overwritten.
+     */
+    private void multiply( int level ,
+                           double[] A , int offA , int strideA ,
+                           double[] B , int offB , int strideB ,
+                           double[] C , int offC , int strideC ,
+                           int m , int n , int k )
+    {
+        if( isBaseCase(m,n,k) ) {
+            fill(C,offC,strideC,m,n,0);
+            gemm(1.0,A,offA,strideA,B,offB,strideB,C,offC,strideC,m,n,k,packedA.data,packedB.data);
+            return;
+        }
+
+        // Apply Strassen to the even part of the matrices
+        final int mh = m/2, nh = n/2, kh = k/2;
+
+        final int A11 = offA, A12 = offA + kh, A21 = offA + mh*strideA, A22 = A21 + kh;
+        final int B11 = offB, B12 = offB + nh, B21 = offB + kh*strideB, B22 = B21 + nh;
+        final int C11 = offC, C12 = offC + nh, C21 = offC + mh*strideC, C22 = C21 + nh;
+
+        // X stores an mh x kh block of A and later P1. Y stores a kh x nh block of B
+        final double[] X = workX.get(level).data;
+        final double[] Y = workY.get(level).data;
+        final int next = level + 1;
+
+        // P7 = (A11 - A21)*(B22 - B12)
+        sub(A,A11,strideA,A,A21,strideA,X,0,kh,mh,kh);
+        sub(B,B22,strideB,B,B12,strideB,Y,0,nh,kh,nh);
+        multiply(next,X,0,kh,Y,0,nh,C,C21,strideC,mh,nh,kh);
+        // P5 = (A21 + A22)*(B12 - B11)
+        add(A,A21,strideA,A,A22,strideA,X,0,kh,mh,kh);
+        sub(B,B12,strideB,B,B11,strideB,Y,0,nh,kh,nh);
+        multiply(next,X,0,kh,Y,0,nh,C,C22,strideC,mh,nh,kh);
+        // P6 = (A21 + A22 - A11)*(B22 - B12 + B11)
+        sub(X,0,kh,A,A11,strideA,X,0,kh,mh,kh);
+        sub(B,B22,strideB,Y,0,nh,Y,0,nh,kh,nh);
+        multiply(next,X,0,kh,Y,0,nh,C,C12,strideC,mh,nh,kh);
+        // P3 = (A12 - A21 - A22 + A11)*B22
+        sub(A,A12,strideA,X,0,kh,X,0,kh,mh,kh);
+        multiply(next,X,0,kh,B,B22,strideB,C,C11,strideC,mh,nh,kh);
+        // P1 = A11*B11
+        multiply(next,A,A11,strideA,B,B11,strideB,X,0,nh,mh,nh,kh);
+
+        add(X,0,nh,C,C12,strideC,C,C12,strideC,mh,nh);     // U2 = P1 + P6
+        add(C,C12,strideC,C,C21,strideC,C,C21,strideC,mh,nh); // U3 = U2 + P7
+        add(C,C12,strideC,C,C22,strideC,C,C12,strideC,mh,nh); // U4 = U2 + P5
+        add(C,C21,strideC,C,C22,strideC,C,C22,strideC,mh,nh); // C22 = U3 + P5
+        add(C,C12,strideC,C,C11,strideC,C,C12,strideC,mh,nh); // C12 = U4 + P3
+
+        // P4 = A22*(B22 - B12 + B11 - B21)
+        sub(Y,0,nh,B,B21,strideB,Y,0,nh,kh,nh);
+        multiply(next,A,A22,strideA,Y,0,nh,C,C11,strideC,mh,nh,kh);
+        sub(C,C21,strideC,C,C11,strideC,C,C21,strideC,mh,nh); // C21 = U3 - P4
+
+        // P2 = A12*B21
+        multiply(next,A,A12,strideA,B,B21,strideB,C,C11,strideC,mh,nh,kh);
+        add(X,0,nh,C,C11,strideC,C,C11,strideC,mh,nh);     // C11 = P1 + P2
+
+        // Handle the left over row and columns when a dimension is odd
+        final int me = 2*mh, ne = 2*nh, ke = 2*kh;
+        final double[] pA = packedA.data, pB = packedB.data;
+
+        if( ke != k ) {
+            // C[0:me,0:ne] += A[0:me,k-1]*B[k-1,0:ne]
+            gemm(1.0,A,offA+ke,strideA,B,offB+ke*strideB,strideB,C,offC,strideC,me,ne,1,pA,pB);
+        }
+        if( ne != n ) {
+            // C[0:me,n-1] = A[0:me,:]*B[:,n-1]
+            fill(C,offC+ne,strideC,me,1,0);
+            gemm(1.0,A,offA,strideA,B,offB+ne,strideB,C,offC+ne,strideC,me,1,k,pA,pB);
+        }
+        if( me != m ) {
+            // C[m-1,:] = A[m-1,:]*B
+            fill(C,offC+me*strideC,strideC,1,n,0);
+            gemm(1.0,A,offA+me*strideA,strideA,B,offB,strideB,C,offC+me*strideC,strideC,1,n,k,pA,pB);
+        }
+    }
+
+    /**
+     * C = A + B for sub-matrices. C can be the same as A or B.
+     */
+    static void add( double[] A , int offA , int strideA ,
+                     double[] B , int offB , int strideB ,
+                     double[] C , int offC , int strideC ,
+                     int rows , int cols )
+    {
+        for( int i = 0; i < rows; i++ ) {
+            int indexA = offA + i*strideA;
+            int indexB = offB + i*strideB;
+            int indexC = offC + i*strideC;
+            int end = indexC + cols;
+            while( indexC < end ) {
+                C[indexC++] = A[indexA++] + B[indexB++];
+            }
+        }
+    }
+
+    /**
+     * C = A - B for sub-matrices. C can be the same as A or B.
+     */
+    static void sub( double[] A , int offA , int strideA ,
+                     double[] B , int offB , int strideB ,
+                     double[] C , int offC , int strideC ,
+                     int rows , int cols )
+    {
+        for( int i = 0; i < rows; i++ ) {
+            int indexA = offA + i*strideA;
+            int indexB = offB + i*strideB;
+            int indexC = offC + i*strideC;
+            int end = indexC + cols;
+            while( indexC < end ) {
+                C[indexC++] = A[indexA++] - B[indexB++];
+            }
+        }
+    }
+
+    static void fill( double[] C , int offC , int strideC , int rows , int cols , double value ) {
+        for( int i = 0; i < rows; i++ ) {
+            int indexC = offC + i*strideC;
+            int end = indexC + cols;
+            while( indexC < end ) {
+                C[indexC++] = value;
+            }
+        }
+    }
+
+    public int getCutoff() {
+        return cutoff;
+    }
+
+    public void setCutoff( int cutoff ) {
+        if( cutoff < 1 )
+            throw new IllegalArgumentException("The cutoff must be at least 1");
+        this.cutoff = cutoff;
+    }
+}
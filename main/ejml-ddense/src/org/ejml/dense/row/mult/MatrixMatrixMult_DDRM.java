@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -21,6 +21,7 @@ package org.ejml.dense.row.mult;
 import org.ejml.MatrixDimensionException;
 import org.ejml.data.DMatrix1Row;
 import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.misc.SimdOps_DDRM;
 
 /**
  * <p>
@@ -81,25 +82,16 @@ public class MatrixMatrixMult_DDRM {
 
             // need to assign c.data to a value initially
             int indexB = 0;
-            int indexC = indexCbase;
-            int end = indexB + b.numCols;
 
             valA = a.get(indexA++);
-
-            while( indexB < end ) {
-                c.set(indexC++ , valA*b.get(indexB++));
-            }
+            SimdOps_DDRM.scale(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+            indexB += b.numCols;
 
             // now add to it
             while( indexB != endOfKLoop ) { // k loop
-                indexC = indexCbase;
-                end = indexB + b.numCols;
-
                 valA = a.get(indexA++);
-
-                while( indexB < end ) { // j loop
-                    c.plus(indexC++ , valA*b.get(indexB++));
-                }
+                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+                indexB += b.numCols;
             }
             indexCbase += c.numCols;
         }
@@ -193,20 +185,13 @@ public class MatrixMatrixMult_DDRM {
             // first assign R
             valA = a.get(i);
             int indexB = 0;
-            int end = indexB+b.numCols;
-            int indexC = indexC_start;
-            while( indexB<end ) {
-                c.set( indexC++ , valA*b.get(indexB++));
-            }
+            SimdOps_DDRM.scale(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+            indexB += b.numCols;
             // now increment it
             for( int k = 1; k < a.numRows; k++ ) {
                 valA = a.unsafe_get(k,i);
-                end = indexB+b.numCols;
-                indexC = indexC_start;
-                // this is the loop for j
-                while( indexB<end ) {
-                    c.plus( indexC++ , valA*b.get(indexB++));
-                }
+                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+                indexB += b.numCols;
             }
         }
     }
@@ -368,25 +353,16 @@ public class MatrixMatrixMult_DDRM {
 
             // need to assign c.data to a value initially
             int indexB = 0;
-            int indexC = indexCbase;
-            int end = indexB + b.numCols;
 
             valA = a.get(indexA++);
-
-            while( indexB < end ) {
-                c.plus(indexC++ , valA*b.get(indexB++));
-            }
+            SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+            indexB += b.numCols;
 
             // now add to it
             while( indexB != endOfKLoop ) { // k loop
-                indexC = indexCbase;
-                end = indexB + b.numCols;
-
                 valA = a.get(indexA++);
-
-                while( indexB < end ) { // j loop
-                    c.plus(indexC++ , valA*b.get(indexB++));
-                }
+                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+                indexB += b.numCols;
             }
             indexCbase += c.numCols;
         }
@@ -479,20 +455,13 @@ public class MatrixMatrixMult_DDRM {
             // first assign R
             valA = a.get(i);
             int indexB = 0;
-            int end = indexB+b.numCols;
-            int indexC = indexC_start;
-            while( indexB<end ) {
-                c.plus( indexC++ , valA*b.get(indexB++));
-            }
+            SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+            indexB += b.numCols;
             // now increment it
             for( int k = 1; k < a.numRows; k++ ) {
                 valA = a.unsafe_get(k,i);
-                end = indexB+b.numCols;
-                indexC = indexC_start;
-                // this is the loop for j
-                while( indexB<end ) {
-                    c.plus( indexC++ , valA*b.get(indexB++));
-                }
+                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+                indexB += b.numCols;
             }
         }
     }
@@ -654,25 +623,16 @@ public class MatrixMatrixMult_DDRM {
 
             // need to assign c.data to a value initially
             int indexB = 0;
-            int indexC = indexCbase;
-            int end = indexB + b.numCols;
 
             valA = alpha*a.get(indexA++);
-
-            while( indexB < end ) {
-                c.set(indexC++ , valA*b.get(indexB++));
-            }
+            SimdOps_DDRM.scale(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+            indexB += b.numCols;
 
             // now add to it
             while( indexB != endOfKLoop ) { // k loop
-                indexC = indexCbase;
-                end = indexB + b.numCols;
-
                 valA = alpha*a.get(indexA++);
-
-                while( indexB < end ) { // j loop
-                    c.plus(indexC++ , valA*b.get(indexB++));
-                }
+                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+                indexB += b.numCols;
             }
             indexCbase += c.numCols;
         }
@@ -766,20 +726,13 @@ public class MatrixMatrixMult_DDRM {
             // first assign R
             valA = alpha*a.get(i);
             int indexB = 0;
-            int end = indexB+b.numCols;
-            int indexC = indexC_start;
-            while( indexB<end ) {
-                c.set( indexC++ , valA*b.get(indexB++));
-            }
+            SimdOps_DDRM.scale(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+            indexB += b.numCols;
             // now increment it
             for( int k = 1; k < a.numRows; k++ ) {
                 valA = alpha*a.unsafe_get(k,i);
-                end = indexB+b.numCols;
-                indexC = indexC_start;
-                // this is the loop for j
-                while( indexB<end ) {
-                    c.plus( indexC++ , valA*b.get(indexB++));
-                }
+                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+                indexB += b.numCols;
             }
         }
     }
@@ -941,25 +894,16 @@ public class MatrixMatrixMult_DDRM {
 
             // need to assign c.data to a value initially
             int indexB = 0;
-            int indexC = indexCbase;
-            int end = indexB + b.numCols;
 
             valA = alpha*a.get(indexA++);
-
-            while( indexB < end ) {
-                c.plus(indexC++ , valA*b.get(indexB++));
-            }
+            SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+            indexB += b.numCols;
 
             // now add to it
             while( indexB != endOfKLoop ) { // k loop
-                indexC = indexCbase;
-                end = indexB + b.numCols;
-
                 valA = alpha*a.get(indexA++);
-
-                while( indexB < end ) { // j loop
-                    c.plus(indexC++ , valA*b.get(indexB++));
-                }
+                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+                indexB += b.numCols;
             }
             indexCbase += c.numCols;
         }
@@ -1052,20 +996,13 @@ public class MatrixMatrixMult_DDRM {
             // first assign R
             valA = alpha*a.get(i);
             int indexB = 0;
-            int end = indexB+b.numCols;
-            int indexC = indexC_start;
-            while( indexB<end ) {
-                c.plus( indexC++ , valA*b.get(indexB++));
-            }
+            SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+            indexB += b.numCols;
             // now increment it
             for( int k = 1; k < a.numRows; k++ ) {
                 valA = alpha*a.unsafe_get(k,i);
-                end = indexB+b.numCols;
-                indexC = indexC_start;
-                // this is the loop for j
-                while( indexB<end ) {
-                    c.plus( indexC++ , valA*b.get(indexB++));
-                }
+                SimdOps_DDRM.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+                indexB += b.numCols;
             }
         }
     }
@@ -18,10 +18,14 @@
 
 package org.ejml.dense.row.mult;
 
+import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrix1Row;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
 
+import static org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM.*;
+
 /**
  * <p>
  * Specialized operations for performing inner and outer products for matrices.
@@ -31,6 +35,13 @@ import java.util.Arrays;
  * inner product: B=A<sup>T</sup>*A<br>
  * outer product: B=A*A<sup>T</sup>
  * </p>
+ *
+ * <p>
+ * The "packed" variants are intended for large matrices. The output is split into square tiles and only the tiles
+ * on or below the diagonal are computed using the cache blocked kernel in {@link MatrixMatrixMultPacked_DDRM}.
+ * The lower triangle is then copied into the upper triangle. This is a symmetric rank-k update (SYRK) and requires
+ * about half the operations of a general matrix multiplication.
+ * </p>
  * 
  * @author Peter Abeles
  */
@@ -180,4 +191,114 @@ public class MatrixMultProduct_DDRM {
             }
         }
     }
+
+    /**
+     * Computes the inner product, c = a<sup>T</sup>*a, using a cache blocked algorithm which only computes the
+     * lower triangle. Intended for large matrices.
+     *
+     * @param a (Input) Matrix
+     * @param c (Output) Storage for output. Is reshaped.
+     * @param workA (Optional) Storage for packed blocks. Can be null.
+     * @param workB (Optional) Storage for packed panels. Can be null.
+     */
+    public static void inner_packed( DMatrix1Row a , DMatrix1Row c ,
+                                     @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        packed(true,a,c,workA,workB);
+    }
+
+    /**
+     * Computes the outer product, c = a*a<sup>T</sup>, using a cache blocked algorithm which only computes the
+     * lower triangle. Intended for large matrices.
+     *
+     * @param a (Input) Matrix
+     * @param c (Output) Storage for output. Is reshaped.
+     * @param workA (Optional) Storage for packed blocks. Can be null.
+     * @param workB (Optional) Storage for packed panels. Can be null.
+     */
+    public static void outer_packed( DMatrix1Row a , DMatrix1Row c ,
+                                     @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        packed(false,a,c,workA,workB);
+    }
+
+    private static void packed( boolean inner , DMatrix1Row a , DMatrix1Row c ,
+                                @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        if( !checkPacked(inner,a,c) )
+            return;
+
+        final int N = c.numRows;
+        final int K = inner ? a.numRows : a.numCols;
+        final int tile = tileWidth();
+
+        double[] packedA = reshape(workA,packedLengthA(Math.min(tile,N),K));
+        double[] packedB = reshape(workB,packedLengthB(K,Math.min(tile,N)));
+
+        for( int i0 = 0; i0 < N; i0 += tile ) {
+            for( int j0 = 0; j0 <= i0; j0 += tile ) {
+                multTile(inner,a,c,i0,j0,packedA,packedB);
+            }
+        }
+
+        copyLowerToUpper(c);
+    }
+
+    /**
+     * Width of the square tiles that the output is split into
+     */
+    static int tileWidth() {
+        return blockRowsA();
+    }
+
+    /**
+     * Checks the input, reshapes c, and zeros c.
+     *
+     * @return true if there is anything left to compute
+     */
+    static boolean checkPacked( boolean inner , DMatrix1Row a , DMatrix1Row c ) {
+        if( a == c )
+            throw new IllegalArgumentException("'a' and 'c' can't be the same matrix");
+        int N = inner ? a.numCols : a.numRows;
+        c.reshape(N,N);
+        Arrays.fill(c.data,0,N*N,0);
+
+        return a.numRows != 0 && a.numCols != 0;
+    }
+
+    /**
+     * Computes the tile in c which starts at (i0,j0) and adds the results to c
+     */
+    static void multTile( boolean inner , DMatrix1Row a , DMatrix1Row c , int i0 , int j0 ,
+                          double[] packedA , double[] packedB )
+    {
+        final int N = c.numRows;
+        final int tile = tileWidth();
+        final int rows = Math.min(tile,N-i0);
+        final int cols = Math.min(tile,N-j0);
+
+        if( inner ) {
+            // c(I,J) = a(:,I)'*a(:,J)
+            gemm(1.0,true,a.data,i0,a.numCols,false,a.data,j0,a.numCols,
+                    c.data,i0*N+j0,N,rows,cols,a.numRows,packedA,packedB);
+        } else {
+            // c(I,J) = a(I,:)*a(J,:)'
+            gemm(1.0,false,a.data,i0*a.numCols,a.numCols,true,a.data,j0*a.numCols,a.numCols,
+                    c.data,i0*N+j0,N,rows,cols,a.numCols,packedA,packedB);
+        }
+    }
+
+    /**
+     * Copies the lower triangle of a square matrix into its upper triangle
+     */
+    static void copyLowerToUpper( DMatrix1Row c ) {
+        final int N = c.numRows;
+        for( int i = 0; i < N; i++ ) {
+            int indexLower = i*N;
+            int indexUpper = i;
+            for( int j = 0; j < i; j++ , indexUpper += N ) {
+                c.data[indexUpper] = c.data[indexLower++];
+            }
+        }
+    }
 }
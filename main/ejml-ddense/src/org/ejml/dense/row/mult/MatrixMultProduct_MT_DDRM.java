@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrix1Row;
+
+import static org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM.packedLengthA;
+import static org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM.packedLengthB;
+import static org.ejml.dense.row.mult.MatrixMultProduct_DDRM.*;
+
+/**
+ * <p>
+ * Multi-threaded version of the packed algorithms in {@link MatrixMultProduct_DDRM}. The tiles on or below the
+ * diagonal are split between the threads and each thread packs its own data. Every tile is computed the same way
+ * as in the single threaded version so the results are identical.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMultProduct_MT_DDRM {
+
+    /**
+     * @see MatrixMultProduct_DDRM#inner_packed
+     */
+    public static void inner_packed( DMatrix1Row a , DMatrix1Row c ) {
+        packed(true,a,c);
+    }
+
+    /**
+     * @see MatrixMultProduct_DDRM#outer_packed
+     */
+    public static void outer_packed( DMatrix1Row a , DMatrix1Row c ) {
+        packed(false,a,c);
+    }
+
+    private static void packed( boolean inner , DMatrix1Row a , DMatrix1Row c ) {
+        if( !checkPacked(inner,a,c) )
+            return;
+
+        final int N = c.numRows;
+        final int K = inner ? a.numRows : a.numCols;
+        final int tile = tileWidth();
+        final int numBlocks = (N+tile-1)/tile;
+        final int numTiles = numBlocks*(numBlocks+1)/2;
+
+        EjmlConcurrency.loopBlocks(0, numTiles, (t0,t1)->{
+            double[] packedA = new double[packedLengthA(Math.min(tile,N),K)];
+            double[] packedB = new double[packedLengthB(K,Math.min(tile,N))];
+
+            // find the block row and column of the first tile
+            int row = 0, col = t0;
+            while( col > row ) {
+                col -= row+1;
+                row++;
+            }
+
+            for( int t = t0; t < t1; t++ ) {
+                multTile(inner,a,c,row*tile,col*tile,packedA,packedB);
+                if( ++col > row ) {
+                    col = 0;
+                    row++;
+                }
+            }
+        });
+
+        copyLowerToUpper(c);
+    }
+}
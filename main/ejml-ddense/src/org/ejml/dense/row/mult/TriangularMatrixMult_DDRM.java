@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.misc.SimdOps_DDRM;
+
+import javax.annotation.Nullable;
+
+import static org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM.*;
+
+/**
+ * <p>
+ * Multiplies a matrix by a triangular matrix (TRMM). Either B = op(T)*B or B = B*op(T) is computed, where T is a
+ * square triangular matrix and op(T) is T or T<sup>T</sup>. The results are written into B.
+ * </p>
+ *
+ * <p>
+ * T is split into blocks of {@link EjmlParameters#BLOCK_WIDTH}. The diagonal blocks are multiplied directly and
+ * the off diagonal blocks are multiplied using {@link MatrixMatrixMultPacked_DDRM}. The blocks are processed in
+ * an order which ensures that the elements of B that are still needed haven't been overwritten yet.
+ * Only the specified triangle in T is read. If 'unit' is true then the diagonal elements are assumed to be one.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangularMatrixMult_DDRM {
+
+    /**
+     * B = op(T)*B
+     *
+     * @param lower true if T is lower triangular or false if upper triangular
+     * @param transT If true op(T) = T<sup>T</sup>, otherwise op(T) = T
+     * @param unit If true the diagonal of T is assumed to be all ones
+     * @param T (Input) n by n triangular matrix. Not modified.
+     * @param B (Input) n by m matrix. (Output) The product. Modified.
+     * @param workA (Optional) Storage for packed blocks. Can be null.
+     * @param workB (Optional) Storage for packed panels. Can be null.
+     */
+    public static void multLeft( boolean lower , boolean transT , boolean unit ,
+                                 DMatrixRMaj T , DMatrixRMaj B ,
+                                 @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        if( T.numRows != T.numCols )
+            throw new MatrixDimensionException("T must be square");
+        if( T.numRows != B.numRows )
+            throw new MatrixDimensionException("Rows in B must match the size of T");
+
+        final int n = T.numRows, m = B.numCols;
+        if( n == 0 || m == 0 )
+            return;
+
+        final double[] t = T.data, b = B.data;
+        // index of op(T)(i,j) is i*rs + j*cs
+        final int rs = transT ? 1 : n, cs = transT ? n : 1;
+        final int bw = EjmlParameters.BLOCK_WIDTH;
+        final int numBlocks = (n+bw-1)/bw;
+
+        double[] packedA = reshape(workA,packedLengthA(bw,n));
+        double[] packedB = reshape(workB,packedLengthB(n,m));
+
+        if( lower != transT ) {
+            // op(T) is lower triangular. Rows in B are overwritten from the bottom up
+            for( int block = numBlocks-1; block >= 0; block-- ) {
+                int k0 = block*bw, k1 = Math.min(n,k0+bw);
+
+                for( int i = k1-1; i >= k0; i-- ) {
+                    int rowI = i*m;
+                    if( !unit )
+                        SimdOps_DDRM.scale(t[i*rs+i*cs],b,rowI,b,rowI,m);
+                    for( int p = k0; p < i; p++ ) {
+                        SimdOps_DDRM.axpy(t[i*rs+p*cs],b,p*m,b,rowI,m);
+                    }
+                }
+
+                // B(k0:k1,:) = B(k0:k1,:) + op(T)(k0:k1,0:k0)*B(0:k0,:)
+                if( k0 > 0 ) {
+                    gemm(1.0,transT,t,k0*rs,n,false,b,0,m,b,k0*m,m,k1-k0,m,k0,packedA,packedB);
+                }
+            }
+        } else {
+            // op(T) is upper triangular. Rows in B are overwritten from the top down
+            for( int block = 0; block < numBlocks; block++ ) {
+                int k0 = block*bw, k1 = Math.min(n,k0+bw);
+
+                for( int i = k0; i < k1; i++ ) {
+                    int rowI = i*m;
+                    if( !unit )
+                        SimdOps_DDRM.scale(t[i*rs+i*cs],b,rowI,b,rowI,m);
+                    for( int p = i+1; p < k1; p++ ) {
+                        SimdOps_DDRM.axpy(t[i*rs+p*cs],b,p*m,b,rowI,m);
+                    }
+                }
+
+                // B(k0:k1,:) = B(k0:k1,:) + op(T)(k0:k1,k1:n)*B(k1:n,:)
+                if( k1 < n ) {
+                    gemm(1.0,transT,t,k0*rs+k1*cs,n,false,b,k1*m,m,b,k0*m,m,k1-k0,m,n-k1,packedA,packedB);
+                }
+            }
+        }
+    }
+
+    /**
+     * B = B*op(T)
+     *
+     * @param lower true if T is lower triangular or false if upper triangular
+     * @param transT If true op(T) = T<sup>T</sup>, otherwise op(T) = T
+     * @param unit If true the diagonal of T is assumed to be all ones
+     * @param T (Input) n by n triangular matrix. Not modified.
+     * @param B (Input) m by n matrix. (Output) The product. Modified.
+     * @param workA (Optional) Storage for packed blocks. Can be null.
+     * @param workB (Optional) Storage for packed panels. Can be null.
+     */
+    public static void multRight( boolean lower , boolean transT , boolean unit ,
+                                  DMatrixRMaj T , DMatrixRMaj B ,
+                                  @Nullable DGrowArray workA , @Nullable DGrowArray workB )
+    {
+        if( T.numRows != T.numCols )
+            throw new MatrixDimensionException("T must be square");
+        if( T.numRows != B.numCols )
+            throw new MatrixDimensionException("Columns in B must match the size of T");
+
+        final int n = T.numRows, m = B.numRows;
+        if( n == 0 || m == 0 )
+            return;
+
+        final double[] t = T.data, b = B.data;
+        final int rs = transT ? 1 : n, cs = transT ? n : 1;
+        final int bw = EjmlParameters.BLOCK_WIDTH;
+        final int numBlocks = (n+bw-1)/bw;
+
+        double[] packedA = reshape(workA,packedLengthA(m,n));
+        double[] packedB = reshape(workB,packedLengthB(n,bw));
+
+        if( lower != transT ) {
+            // op(T) is lower triangular. Columns in B are overwritten from left to right
+            for( int block = 0; block < numBlocks; block++ ) {
+                int k0 = block*bw, k1 = Math.min(n,k0+bw);
+
+                for( int row = 0; row < m; row++ ) {
+                    int rowB = row*n;
+                    for( int j = k0; j < k1; j++ ) {
+                        double sum = unit ? b[rowB+j] : b[rowB+j]*t[j*rs+j*cs];
+                        for( int p = j+1; p < k1; p++ ) {
+                            sum += b[rowB+p]*t[p*rs+j*cs];
+                        }
+                        b[rowB+j] = sum;
+                    }
+                }
+
+                // B(:,k0:k1) = B(:,k0:k1) + B(:,k1:n)*op(T)(k1:n,k0:k1)
+                if( k1 < n ) {
+                    gemm(1.0,false,b,k1,n,transT,t,k1*rs+k0*cs,n,b,k0,n,m,k1-k0,n-k1,packedA,packedB);
+                }
+            }
+        } else {
+            // op(T) is upper triangular. Columns in B are overwritten from right to left
+            for( int block = numBlocks-1; block >= 0; block-- ) {
+                int k0 = block*bw, k1 = Math.min(n,k0+bw);
+
+                for( int row = 0; row < m; row++ ) {
+                    int rowB = row*n;
+                    for( int j = k1-1; j >= k0; j-- ) {
+                        double sum = unit ? b[rowB+j] : b[rowB+j]*t[j*rs+j*cs];
+                        for( int p = k0; p < j; p++ ) {
+                            sum += b[rowB+p]*t[p*rs+j*cs];
+                        }
+                        b[rowB+j] = sum;
+                    }
+                }
+
+                // B(:,k0:k1) = B(:,k0:k1) + B(:,0:k0)*op(T)(0:k0,k0:k1)
+                if( k0 > 0 ) {
+                    gemm(1.0,false,b,0,n,transT,t,k0*cs,n,b,k0,n,m,k1-k0,k0,packedA,packedB);
+                }
+            }
+        }
+    }
+}
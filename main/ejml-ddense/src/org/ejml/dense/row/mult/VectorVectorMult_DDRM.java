@@ -21,6 +21,7 @@ package org.ejml.dense.row.mult;
 import org.ejml.data.DMatrix1Row;
 import org.ejml.data.DMatrixD1;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.misc.SimdOps_DDRM;
 
 
 /**
@@ -51,12 +52,7 @@ public class VectorVectorMult_DDRM {
     {
         int m = x.getNumElements();
 
-        double total = 0;
-        for( int i = 0; i < m; i++ ) {
-            total += x.get(i) * y.get(i);
-        }
-
-        return total;
+        return SimdOps_DDRM.dot(x.data,0,y.data,0,m);
     }
 
     /**
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * <p>
+ * Java 17 version of the low level kernels, which is stored in META-INF/versions/17 inside the multi-release jar.
+ * If the incubating Vector API has been added with "--add-modules jdk.incubator.vector" then explicit SIMD
+ * instructions are used, otherwise it falls back to the scalar code. The element-wise kernels produce identical
+ * results to the scalar code since each lane is rounded the same way. The vectorized {@link #dot} uses
+ * one partial sum per lane and its results can differ by round off errors.
+ * </p>
+ *
+ * <p>
+ * There are no sanity checks. It is not recommended that any of these functions be used directly.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SimdOps_DDRM {
+
+    // The Vector API classes can only be loaded if the incubator module is part of the module graph
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Returns true if the vectorized kernels are being used
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Inner product of two sections of arrays:<br>
+     * sum(i=0:length-1; a[offsetA+i]*b[offsetB+i])
+     */
+    public static double dot( double[] a , int offsetA , double[] b , int offsetB , int length ) {
+        if( VECTORIZED )
+            return Vectorized.dot(a,offsetA,b,offsetB,length);
+
+        double total = 0;
+        for( int i = 0; i < length; i++ ) {
+            total += a[offsetA+i]*b[offsetB+i];
+        }
+        return total;
+    }
+
+    /**
+     * y[offsetY+i] = y[offsetY+i] + alpha*x[offsetX+i] for i = 0 to length-1
+     */
+    public static void axpy( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        if( VECTORIZED ) {
+            Vectorized.axpy(alpha,x,offsetX,y,offsetY,length);
+            return;
+        }
+        for( int i = 0; i < length; i++ ) {
+            y[offsetY+i] += alpha*x[offsetX+i];
+        }
+    }
+
+    /**
+     * y[offsetY+i] = alpha*x[offsetX+i] for i = 0 to length-1
+     */
+    public static void scale( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        if( VECTORIZED ) {
+            Vectorized.scale(alpha,x,offsetX,y,offsetY,length);
+            return;
+        }
+        for( int i = 0; i < length; i++ ) {
+            y[offsetY+i] = alpha*x[offsetX+i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] + b[i] for i = 0 to length-1
+     */
+    public static void add( double[] a , double[] b , double[] c , int length ) {
+        if( VECTORIZED ) {
+            Vectorized.add(a,b,c,length);
+            return;
+        }
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] - b[i] for i = 0 to length-1
+     */
+    public static void subtract( double[] a , double[] b , double[] c , int length ) {
+        if( VECTORIZED ) {
+            Vectorized.subtract(a,b,c,length);
+            return;
+        }
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] - b[i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] * b[i] for i = 0 to length-1
+     */
+    public static void elementMult( double[] a , double[] b , double[] c , int length ) {
+        if( VECTORIZED ) {
+            Vectorized.elementMult(a,b,c,length);
+            return;
+        }
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] * b[i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] / b[i] for i = 0 to length-1
+     */
+    public static void elementDiv( double[] a , double[] b , double[] c , int length ) {
+        if( VECTORIZED ) {
+            Vectorized.elementDiv(a,b,c,length);
+            return;
+        }
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] / b[i];
+        }
+    }
+
+    /**
+     * Implementations which use the Vector API. Kept in a separate class so that it's only loaded when the
+     * module is available.
+     */
+    private static class Vectorized {
+        static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+        static double dot( double[] a , int offsetA , double[] b , int offsetB , int length ) {
+            DoubleVector sum = DoubleVector.zero(SPECIES);
+            int i = 0;
+            for( int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length() ) {
+                DoubleVector va = DoubleVector.fromArray(SPECIES,a,offsetA+i);
+                DoubleVector vb = DoubleVector.fromArray(SPECIES,b,offsetB+i);
+                sum = sum.add(va.mul(vb));
+            }
+            double total = sum.reduceLanes(VectorOperators.ADD);
+            for( ; i < length; i++ ) {
+                total += a[offsetA+i]*b[offsetB+i];
+            }
+            return total;
+        }
+
+        static void axpy( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+            int i = 0;
+            for( int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length() ) {
+                DoubleVector vx = DoubleVector.fromArray(SPECIES,x,offsetX+i);
+                DoubleVector vy = DoubleVector.fromArray(SPECIES,y,offsetY+i);
+                vy.add(vx.mul(alpha)).intoArray(y,offsetY+i);
+            }
+            for( ; i < length; i++ ) {
+                y[offsetY+i] += alpha*x[offsetX+i];
+            }
+        }
+
+        static void scale( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+            int i = 0;
+            for( int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length() ) {
+                DoubleVector.fromArray(SPECIES,x,offsetX+i).mul(alpha).intoArray(y,offsetY+i);
+            }
+            for( ; i < length; i++ ) {
+                y[offsetY+i] = alpha*x[offsetX+i];
+            }
+        }
+
+        static void add( double[] a , double[] b , double[] c , int length ) {
+            int i = 0;
+            for( int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length() ) {
+                DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+                DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+                va.add(vb).intoArray(c,i);
+            }
+            for( ; i < length; i++ ) {
+                c[i] = a[i] + b[i];
+            }
+        }
+
+        static void subtract( double[] a , double[] b , double[] c , int length ) {
+            int i = 0;
+            for( int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length() ) {
+                DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+                DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+                va.sub(vb).intoArray(c,i);
+            }
+            for( ; i < length; i++ ) {
+                c[i] = a[i] - b[i];
+            }
+        }
+
+        static void elementMult( double[] a , double[] b , double[] c , int length ) {
+            int i = 0;
+            for( int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length() ) {
+                DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+                DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+                va.mul(vb).intoArray(c,i);
+            }
+            for( ; i < length; i++ ) {
+                c[i] = a[i] * b[i];
+            }
+        }
+
+        static void elementDiv( double[] a , double[] b , double[] c , int length ) {
+            int i = 0;
+            for( int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length() ) {
+                DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+                DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+                va.div(vb).intoArray(c,i);
+            }
+            for( ; i < length; i++ ) {
+                c[i] = a[i] / b[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense;
+
+import org.ejml.EjmlParameters;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTuneEjmlParameters {
+
+    @Test
+    public void selectSwitch() {
+        int[] sizes = {10,20,30,40};
+
+        // b is faster from 30 and up
+        assertEquals(30,TuneEjmlParameters.selectSwitch(sizes,
+                new double[]{1,2,3,4},new double[]{2,3,2,3}));
+        // b is faster at 20 but not at 30, so it's noise
+        assertEquals(40,TuneEjmlParameters.selectSwitch(sizes,
+                new double[]{1,2,3,4},new double[]{2,1,4,3}));
+        // b is always faster
+        assertEquals(10,TuneEjmlParameters.selectSwitch(sizes,
+                new double[]{2,3,4,5},new double[]{1,2,3,4}));
+        // b is never faster
+        assertEquals(-1,TuneEjmlParameters.selectSwitch(sizes,
+                new double[]{1,2,3,4},new double[]{1,2,5,6}));
+    }
+
+    /**
+     * Run a quick version of tuning a threshold and see if it selects a valid value
+     */
+    @Test
+    public void tuneMultColumnSwitch() {
+        Properties original = EjmlParameters.saveProfile();
+        try {
+            TuneEjmlParameters alg = new TuneEjmlParameters();
+            alg.minimumTimeMS = 0.1;
+            alg.trials = 1;
+            alg.out = null;
+
+            alg.tuneMultColumnSwitch();
+            assertTrue(EjmlParameters.MULT_COLUMN_SWITCH > 0);
+        } finally {
+            EjmlParameters.loadProfile(original);
+        }
+    }
+
+    @Test
+    public void tuneMultProductPackedSwitch() {
+        Properties original = EjmlParameters.saveProfile();
+        try {
+            TuneEjmlParameters alg = new TuneEjmlParameters();
+            alg.minimumTimeMS = 0.1;
+            alg.trials = 1;
+            alg.out = null;
+
+            alg.tuneMultProductPackedSwitch();
+            assertTrue(EjmlParameters.MULT_PRODUCT_PACKED_SWITCH > 0);
+        } finally {
+            EjmlParameters.loadProfile(original);
+        }
+    }
+}
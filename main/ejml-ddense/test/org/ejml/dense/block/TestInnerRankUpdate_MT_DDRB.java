@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestInnerRankUpdate_MT_DDRB {
+    Random rand = new Random(234);
+
+    int N = 4;
+
+    int maxThreads;
+
+    /**
+     * Makes sure the work is split across several threads even if there is only one core
+     */
+    @Before
+    public void before() {
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    @Test
+    public void rankNUpdate() {
+        for( int lengthA : new int[]{N-1,N,N*4+1} ) {
+            DMatrixRBlock B = MatrixOps_DDRB.createRandom(N-2,lengthA,-1,1,rand,N);
+            DMatrixRBlock expected = MatrixOps_DDRB.createRandom(lengthA,lengthA,-1,1,rand,N);
+            DMatrixRBlock found = expected.copy();
+
+            InnerRankUpdate_DDRB.rankNUpdate(N,-2.0,new DSubmatrixD1(expected),new DSubmatrixD1(B));
+            InnerRankUpdate_MT_DDRB.rankNUpdate(N,-2.0,new DSubmatrixD1(found),new DSubmatrixD1(B));
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+        }
+    }
+
+    @Test
+    public void symmRankNMinus_U() {
+        for( int lengthA : new int[]{N-1,N,N*4+1} ) {
+            DMatrixRBlock B = MatrixOps_DDRB.createRandom(N-2,lengthA,-1,1,rand,N);
+            DMatrixRBlock expected = MatrixOps_DDRB.createRandom(lengthA,lengthA,-1,1,rand,N);
+            DMatrixRBlock found = expected.copy();
+
+            InnerRankUpdate_DDRB.symmRankNMinus_U(N,new DSubmatrixD1(expected),new DSubmatrixD1(B));
+            InnerRankUpdate_MT_DDRB.symmRankNMinus_U(N,new DSubmatrixD1(found),new DSubmatrixD1(B));
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+        }
+    }
+
+    @Test
+    public void symmRankNMinus_L() {
+        for( int lengthA : new int[]{N-1,N,N*4+1} ) {
+            DMatrixRBlock B = MatrixOps_DDRB.createRandom(lengthA,N-2,-1,1,rand,N);
+            DMatrixRBlock expected = MatrixOps_DDRB.createRandom(lengthA,lengthA,-1,1,rand,N);
+            DMatrixRBlock found = expected.copy();
+
+            InnerRankUpdate_DDRB.symmRankNMinus_L(N,new DSubmatrixD1(expected),new DSubmatrixD1(B));
+            InnerRankUpdate_MT_DDRB.symmRankNMinus_L(N,new DSubmatrixD1(found),new DSubmatrixD1(B));
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMult_MT_DDRB {
+    Random rand = new Random(234);
+
+    int blockLength = 3;
+
+    int maxThreads;
+
+    /**
+     * Makes sure the work is split across several threads even if there is only one core
+     */
+    @Before
+    public void before() {
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    /**
+     * The output should be identical to the single threaded version, not just within tolerance
+     */
+    @Test
+    public void compareToSingleThread() throws Exception {
+        int numChecked = 0;
+        for( Method method : MatrixMult_MT_DDRB.class.getMethods() ) {
+            if( method.getDeclaringClass() != MatrixMult_MT_DDRB.class )
+                continue;
+
+            Method expected = MatrixMult_DDRB.class.getMethod(method.getName(),method.getParameterTypes());
+            boolean transA = method.getName().contains("TransA");
+            boolean transB = method.getName().contains("TransB");
+
+            for( int offset : new int[]{0,blockLength} ) {
+                compare(method,expected,transA,transB,offset,10,14,8);
+                compare(method,expected,transA,transB,offset,2,3,1);
+            }
+            numChecked++;
+        }
+        assertEquals(7,numChecked);
+    }
+
+    /**
+     * @param offset The submatrices start this many rows from the top of the matrix
+     */
+    private void compare( Method found , Method expected , boolean transA , boolean transB ,
+                          int offset , int m , int n , int k ) throws Exception {
+        DMatrixRBlock A = transA ? create(k+offset,m) : create(m+offset,k);
+        DMatrixRBlock B = transB ? create(n+offset,k) : create(k+offset,n);
+        DMatrixRBlock C_expected = create(m+offset,n);
+        DMatrixRBlock C_found = C_expected.copy();
+
+        DSubmatrixD1 subA = new DSubmatrixD1(A,offset,A.numRows,0,A.numCols);
+        DSubmatrixD1 subB = new DSubmatrixD1(B,offset,B.numRows,0,B.numCols);
+
+        expected.invoke(null,blockLength,subA,subB,new DSubmatrixD1(C_expected,offset,C_expected.numRows,0,n));
+        found.invoke(null,blockLength,subA,subB,new DSubmatrixD1(C_found,offset,C_found.numRows,0,n));
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(C_expected,C_found,0));
+    }
+
+    private DMatrixRBlock create( int numRows , int numCols ) {
+        return MatrixOps_DDRB.createRandom(numRows,numCols,-1,1,rand,blockLength);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangularSolver_MT_DDRB {
+    Random rand = new Random(234);
+
+    int r = 3;
+
+    int maxThreads;
+
+    /**
+     * Makes sure the work is split across several threads even if there is only one core
+     */
+    @Before
+    public void before() {
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    @Test
+    public void solve() {
+        for( boolean upper : new boolean[]{true,false} ) {
+            for( boolean transT : new boolean[]{true,false} ) {
+                for( int size : new int[]{r-1,r*3+1} ) {
+                    for( int cols : new int[]{1,r*5+2} ) {
+                        DMatrixRBlock T = createTriangle(size);
+                        DMatrixRBlock expected = MatrixOps_DDRB.createRandom(size,cols,-1,1,rand,r);
+                        DMatrixRBlock found = expected.copy();
+
+                        TriangularSolver_DDRB.solve(r,upper,new DSubmatrixD1(T),new DSubmatrixD1(expected),transT);
+                        TriangularSolver_MT_DDRB.solve(r,upper,new DSubmatrixD1(T),new DSubmatrixD1(found),transT);
+
+                        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void solveBlock() {
+        for( boolean upper : new boolean[]{true,false} ) {
+            for( boolean transT : new boolean[]{true,false} ) {
+                DMatrixRBlock T = createTriangle(r);
+                DMatrixRBlock expected = MatrixOps_DDRB.createRandom(r,r*5+2,-1,1,rand,r);
+                DMatrixRBlock found = expected.copy();
+
+                TriangularSolver_DDRB.solveBlock(r,upper,new DSubmatrixD1(T),new DSubmatrixD1(expected),transT,false);
+                TriangularSolver_MT_DDRB.solveBlock(r,upper,new DSubmatrixD1(T),new DSubmatrixD1(found),transT,false);
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+            }
+        }
+
+        // B is transposed, only lower T without a transpose is supported
+        DMatrixRBlock T = createTriangle(r);
+        DMatrixRBlock expected = MatrixOps_DDRB.createRandom(r*5+2,r,-1,1,rand,r);
+        DMatrixRBlock found = expected.copy();
+
+        TriangularSolver_DDRB.solveBlock(r,false,new DSubmatrixD1(T),new DSubmatrixD1(expected),false,true);
+        TriangularSolver_MT_DDRB.solveBlock(r,false,new DSubmatrixD1(T),new DSubmatrixD1(found),false,true);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+    }
+
+    /**
+     * Creates a matrix with a large diagonal so that the solution is well behaved
+     */
+    private DMatrixRBlock createTriangle( int size ) {
+        DMatrixRBlock T = MatrixOps_DDRB.createRandom(size,size,-1,1,rand,r);
+        for( int i = 0; i < size; i++ ) {
+            T.set(i,i,5+rand.nextDouble());
+        }
+        return T;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.chol;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCholeskyOuterForm_MT_DDRB {
+
+    Random rand = new Random(1231);
+
+    // size of a block
+    int bl = 5;
+
+    int maxThreads;
+
+    /**
+     * Makes sure the work is split across several threads even if there is only one core
+     */
+    @Before
+    public void before() {
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    /**
+     * The decomposition should be identical to the single threaded version
+     */
+    @Test
+    public void compareToSingleThread() {
+        for( boolean lower : new boolean[]{true,false} ) {
+            for( int N : new int[]{1,bl-2,bl,bl+1,2*bl,6*bl+3} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N,rand);
+
+                DMatrixRBlock expected = MatrixOps_DDRB.convert(A,bl);
+                DMatrixRBlock found = expected.copy();
+
+                CholeskyOuterForm_DDRB single = new CholeskyOuterForm_DDRB(lower);
+                CholeskyOuterForm_MT_DDRB alg = new CholeskyOuterForm_MT_DDRB(lower);
+
+                assertTrue(single.decompose(expected));
+                assertTrue(alg.decompose(found));
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+                assertTrue(alg.getT(null) == found);
+                assertEquals(single.computeDeterminant().real,alg.computeDeterminant().real,0);
+            }
+        }
+    }
+
+    /**
+     * The decomposition should fail if the matrix isn't positive definite, no matter which column of blocks
+     * causes it to fail
+     */
+    @Test
+    public void notPositiveDefinite() {
+        for( boolean lower : new boolean[]{true,false} ) {
+            for( int index : new int[]{0,bl+1,4*bl+2} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(5*bl,rand);
+                A.set(index,index,-1);
+
+                CholeskyOuterForm_MT_DDRB alg = new CholeskyOuterForm_MT_DDRB(lower);
+                assertFalse(alg.decompose(MatrixOps_DDRB.convert(A,bl)));
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.qr;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestQRDecompositionHouseholder_MT_DDRB {
+
+    Random rand = new Random(234);
+
+    int maxThreads;
+
+    /**
+     * Makes sure the work is split across several threads even if there is only one core
+     */
+    @Before
+    public void before() {
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    @Test
+    public void generic() {
+        GenericBlock64QrDecompositionTests_DDRB tests;
+        tests = new GenericBlock64QrDecompositionTests_DDRB(new QRDecompositionHouseholder_MT_DDRB());
+
+        tests.allTests();
+    }
+
+    /**
+     * The decomposition and applying Q to a matrix should produce results which are identical to the single
+     * threaded version
+     */
+    @Test
+    public void compareToSingleThread() {
+        for( int bl : new int[]{3,5} ) {
+            for( int numRows : new int[]{1,bl-1,bl,2*bl+1,7*bl+2} ) {
+                for( int numCols : new int[]{1,bl-1,bl+1,3*bl+2,7*bl+2} ) {
+                    if( numCols > numRows )
+                        continue;
+                    for( boolean saveW : new boolean[]{true,false} ) {
+                        compareToSingleThread(bl,numRows,numCols,saveW);
+                    }
+                }
+            }
+        }
+    }
+
+    private void compareToSingleThread( int bl , int numRows , int numCols , boolean saveW ) {
+        DMatrixRBlock expected = MatrixOps_DDRB.createRandom(numRows,numCols,-1,1,rand,bl);
+        DMatrixRBlock found = expected.copy();
+
+        QRDecompositionHouseholder_DDRB single = new QRDecompositionHouseholder_DDRB();
+        QRDecompositionHouseholder_MT_DDRB alg = new QRDecompositionHouseholder_MT_DDRB();
+        single.setSaveW(saveW);
+        alg.setSaveW(saveW);
+
+        assertTrue(single.decompose(expected));
+        assertTrue(alg.decompose(found));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+
+        DMatrixRBlock B = MatrixOps_DDRB.createRandom(numRows,bl*2+1,-1,1,rand,bl);
+        DMatrixRBlock B_single = B.copy();
+        DMatrixRBlock B_alg = B.copy();
+
+        single.applyQ(B_single);
+        alg.applyQ(B_alg);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(B_single,B_alg,0));
+
+        single.applyQTran(B_single);
+        alg.applyQTran(B_alg);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(B_single,B_alg,0));
+
+        DMatrixRBlock Q_single = single.getQ(null,false);
+        DMatrixRBlock Q_alg = alg.getQ(null,false);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(Q_single,Q_alg,0));
+    }
+}
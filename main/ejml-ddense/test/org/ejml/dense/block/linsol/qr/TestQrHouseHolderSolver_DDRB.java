@@ -91,6 +91,41 @@ public class TestQrHouseHolderSolver_DDRB {
         }
     }
 
+    /**
+     * The multi-threaded solver should produce the same solution and inverse as the single threaded solver
+     */
+    @Test
+    public void concurrent() {
+        int r = 3;
+        QrHouseHolderSolver_DDRB single = new QrHouseHolderSolver_DDRB(false);
+        QrHouseHolderSolver_DDRB alg = new QrHouseHolderSolver_DDRB(true);
+
+        for( int N : new int[]{1,r+1,5*r+2} ) {
+            DMatrixRBlock A = MatrixOps_DDRB.createRandom(N+r,N,-1,1,rand,r);
+            DMatrixRBlock B = MatrixOps_DDRB.createRandom(N+r,4*r+1,-1,1,rand,r);
+            DMatrixRBlock X_single = new DMatrixRBlock(N,B.numCols,r);
+            DMatrixRBlock X_alg = new DMatrixRBlock(N,B.numCols,r);
+
+            assertTrue(single.setA(A.copy()));
+            assertTrue(alg.setA(A.copy()));
+
+            single.solve(B.copy(),X_single);
+            alg.solve(B.copy(),X_alg);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(X_single,X_alg,0));
+
+            // invert requires a square matrix
+            A = MatrixOps_DDRB.createRandom(N,N,-1,1,rand,r);
+            assertTrue(single.setA(A.copy()));
+            assertTrue(alg.setA(A.copy()));
+
+            DMatrixRBlock inv_single = new DMatrixRBlock(N,N,r);
+            DMatrixRBlock inv_alg = new DMatrixRBlock(N,N,r);
+            single.invert(inv_single);
+            alg.invert(inv_alg);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(inv_single,inv_alg,0));
+        }
+    }
+
     @Test
     public void testQuality() {
         DMatrixRBlock A = MatrixOps_DDRB.convert(CommonOps_DDRM.diag(4,3,2,1),3);
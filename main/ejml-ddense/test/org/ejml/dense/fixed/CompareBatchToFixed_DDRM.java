@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixBatch;
+import org.ejml.data.DMatrixFixed;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the batch operations in BatchOps_DDF against the equivalent operations in CommonOps_DDF applied to
+ * each matrix individually.
+ *
+ * @author Peter Abeles
+ */
+public abstract class CompareBatchToFixed_DDRM {
+    Random rand = new Random(234);
+
+    Class classBatch;
+    Class classFixed;
+    Class classMatrix;
+    int N;
+
+    // number of matrices in the batch. The last block is only partially filled
+    int size = 2*DMatrixBatch.BLOCK_LENGTH+5;
+
+    public CompareBatchToFixed_DDRM( Class classBatch , Class classFixed , Class classMatrix ) {
+        this.classBatch = classBatch;
+        this.classFixed = classFixed;
+        this.classMatrix = classMatrix;
+
+        String name = classBatch.getName();
+        N = Integer.parseInt(name.charAt(name.length()-1)+"");
+    }
+
+    @Test
+    public void add() {
+        compareBinary("add");
+    }
+
+    @Test
+    public void mult() {
+        compareBinary("mult");
+    }
+
+    @Test
+    public void multTransB() {
+        compareBinary("multTransB");
+    }
+
+    private void compareBinary( String name ) {
+        DMatrixBatch a = randomBatch();
+        DMatrixBatch b = randomBatch();
+        DMatrixBatch c = new DMatrixBatch(1,1,1);
+
+        invoke(classBatch,name,new Class[]{DMatrixBatch.class,DMatrixBatch.class,DMatrixBatch.class},a,b,c);
+
+        assertEquals(N,c.numRows);
+        assertEquals(N,c.numCols);
+        assertEquals(size,c.size);
+
+        Class[] types = new Class[]{classMatrix,classMatrix,classMatrix};
+        for( int i = 0; i < size; i++ ) {
+            DMatrixFixed _a = extract(a,i);
+            DMatrixFixed _b = extract(b,i);
+            DMatrixFixed expected = newFixed();
+            invoke(classFixed,name,types,_a,_b,expected);
+
+            assertEqualsBatch(expected,c,i,UtilEjml.TEST_F64);
+        }
+
+        // sanity check the shape
+        try {
+            invoke(classBatch,name,new Class[]{DMatrixBatch.class,DMatrixBatch.class,DMatrixBatch.class},
+                    a,new DMatrixBatch(N,N,size-1),c);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+        try {
+            invoke(classBatch,name,new Class[]{DMatrixBatch.class,DMatrixBatch.class,DMatrixBatch.class},
+                    a,new DMatrixBatch(N+1,N,size),c);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+    }
+
+    @Test
+    public void invert() {
+        DMatrixBatch a = randomBatch();
+        // make one of the matrices singular
+        for( int col = 0; col < N; col++ ) {
+            a.set(size-3,1,col,0);
+        }
+        DMatrixBatch inv = new DMatrixBatch(N,N,1);
+        boolean[] success = new boolean[size];
+
+        assertFalse((Boolean)invoke(classBatch,"invert",
+                new Class[]{DMatrixBatch.class,DMatrixBatch.class,boolean[].class},a,inv,success));
+
+        DMatrixRMaj A = new DMatrixRMaj(N,N);
+        DMatrixRMaj A_inv = new DMatrixRMaj(N,N);
+        DMatrixRMaj found = new DMatrixRMaj(N,N);
+        for( int i = 0; i < size; i++ ) {
+            if( i == size-3 ) {
+                assertFalse(success[i]);
+                continue;
+            }
+            assertTrue(success[i]);
+            a.getMatrix(i,A);
+            inv.getMatrix(i,A_inv);
+            CommonOps_DDRM.mult(A,A_inv,found);
+            assertTrue(MatrixFeatures_DDRM.isIdentity(found,UtilEjml.TEST_F64));
+        }
+
+        // the inverse can be written into the input
+        DMatrixBatch b = randomBatch();
+        DMatrixBatch expected = new DMatrixBatch(N,N,1);
+        assertTrue((Boolean)invoke(classBatch,"invert",
+                new Class[]{DMatrixBatch.class,DMatrixBatch.class,boolean[].class},b,expected,null));
+        assertTrue((Boolean)invoke(classBatch,"invert",
+                new Class[]{DMatrixBatch.class,DMatrixBatch.class,boolean[].class},b,b,null));
+        for( int i = 0; i < size; i++ ) {
+            for( int row = 0; row < N; row++ ) {
+                for( int col = 0; col < N; col++ ) {
+                    assertEquals(expected.get(i,row,col),b.get(i,row,col),0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void cholL() {
+        compareChol("cholL");
+    }
+
+    @Test
+    public void cholU() {
+        compareChol("cholU");
+    }
+
+    private void compareChol( String name ) {
+        DMatrixBatch a = new DMatrixBatch(N,N,size);
+        for( int i = 0; i < size; i++ ) {
+            a.setMatrix(i,RandomMatrices_DDRM.symmetricPosDef(N,rand));
+        }
+        // one matrix isn't positive definite
+        a.set(size-2,N-1,N-1,-1);
+        DMatrixBatch original = new DMatrixBatch(a);
+
+        boolean[] success = new boolean[size];
+        assertFalse((Boolean)invoke(classBatch,name,new Class[]{DMatrixBatch.class,boolean[].class},a,success));
+
+        for( int i = 0; i < size; i++ ) {
+            DMatrixFixed expected = extract(original,i);
+            boolean ok = (Boolean)invoke(classFixed,name,new Class[]{classMatrix},expected);
+
+            assertEquals(ok,success[i]);
+            assertEquals(i != size-2,success[i]);
+            if( ok )
+                assertEqualsBatch(expected,a,i,UtilEjml.TEST_F64);
+        }
+    }
+
+    private DMatrixBatch randomBatch() {
+        DMatrixBatch batch = new DMatrixBatch(N,N,size);
+        for( int i = 0; i < batch.data.length; i++ ) {
+            batch.data[i] = rand.nextDouble()*2-1;
+        }
+        return batch;
+    }
+
+    private DMatrixFixed newFixed() {
+        try {
+            return (DMatrixFixed)classMatrix.newInstance();
+        } catch( InstantiationException | IllegalAccessException e ) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private DMatrixFixed extract( DMatrixBatch batch , int index ) {
+        DMatrixFixed ret = newFixed();
+        batch.getMatrix(index,ret);
+        return ret;
+    }
+
+    private void assertEqualsBatch( DMatrixFixed expected , DMatrixBatch batch , int index , double tol ) {
+        for( int row = 0; row < N; row++ ) {
+            for( int col = 0; col < N; col++ ) {
+                assertEquals(expected.get(row,col),batch.get(index,row,col),tol);
+            }
+        }
+    }
+
+    private static Object invoke( Class owner , String name , Class[] types , Object... args ) {
+        try {
+            Method m = owner.getMethod(name,types);
+            return m.invoke(null,args);
+        } catch( InvocationTargetException e ) {
+            if( e.getCause() instanceof RuntimeException )
+                throw (RuntimeException)e.getCause();
+            throw new RuntimeException(e);
+        } catch( NoSuchMethodException | IllegalAccessException e ) {
+            throw new RuntimeException(e);
+        }
+    }
+}
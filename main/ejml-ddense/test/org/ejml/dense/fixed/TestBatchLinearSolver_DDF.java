@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixBatch;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBatchLinearSolver_DDF {
+    Random rand = new Random(234);
+
+    // number of matrices in the batch. The last block is only partially filled
+    int size = 2*DMatrixBatch.BLOCK_LENGTH+5;
+
+    protected boolean solveLU( DMatrixBatch A , DMatrixBatch B , boolean[] success ) {
+        return BatchLinearSolver_DDF.solveLU(A,B,success);
+    }
+
+    protected boolean solveChol( DMatrixBatch A , DMatrixBatch B , boolean[] success ) {
+        return BatchLinearSolver_DDF.solveChol(A,B,success);
+    }
+
+    @Test
+    public void solveLU() {
+        for( int n : new int[]{1,3,6,12} ) {
+            for( int m : new int[]{1,3} ) {
+                DMatrixBatch A = new DMatrixBatch(n,n,size);
+                for( int i = 0; i < size; i++ ) {
+                    A.setMatrix(i,randomWellConditioned(n));
+                }
+                compare(true,A,randomBatch(n,m),-1);
+            }
+        }
+    }
+
+    @Test
+    public void solveLU_singular() {
+        int n = 6;
+        DMatrixBatch A = new DMatrixBatch(n,n,size);
+        for( int i = 0; i < size; i++ ) {
+            A.setMatrix(i,randomWellConditioned(n));
+        }
+        // make one of the matrices singular by having two identical rows
+        int singular = size-3;
+        for( int col = 0; col < n; col++ ) {
+            A.set(singular,4,col,A.get(singular,1,col));
+        }
+        compare(true,A,randomBatch(n,2),singular);
+    }
+
+    /**
+     * A system with NaN in it should fail instead of producing a NaN solution
+     */
+    @Test
+    public void solveLU_nan() {
+        int n = 6;
+        DMatrixBatch A = new DMatrixBatch(n,n,size);
+        for( int i = 0; i < size; i++ ) {
+            A.setMatrix(i,randomWellConditioned(n));
+        }
+        int bad = size-4;
+        A.set(bad,n-1,n-1,Double.NaN);
+        compare(true,A,randomBatch(n,2),bad);
+    }
+
+    @Test
+    public void solveChol() {
+        for( int n : new int[]{1,3,6,12} ) {
+            for( int m : new int[]{1,3} ) {
+                DMatrixBatch A = new DMatrixBatch(n,n,size);
+                for( int i = 0; i < size; i++ ) {
+                    A.setMatrix(i,RandomMatrices_DDRM.symmetricPosDef(n,rand));
+                }
+                compare(false,A,randomBatch(n,m),-1);
+            }
+        }
+    }
+
+    @Test
+    public void solveChol_notPositiveDefinite() {
+        int n = 6;
+        DMatrixBatch A = new DMatrixBatch(n,n,size);
+        for( int i = 0; i < size; i++ ) {
+            A.setMatrix(i,RandomMatrices_DDRM.symmetricPosDef(n,rand));
+        }
+        int bad = size-2;
+        A.set(bad,n-1,n-1,-1);
+        compare(false,A,randomBatch(n,2),bad);
+    }
+
+    /**
+     * Only the lower triangle should be read and the upper triangle isn't modified
+     */
+    @Test
+    public void solveChol_lowerOnly() {
+        int n = 5;
+        DMatrixBatch A = new DMatrixBatch(n,n,size);
+        DMatrixBatch A_lower = new DMatrixBatch(n,n,size);
+        for( int i = 0; i < size; i++ ) {
+            DMatrixRMaj M = RandomMatrices_DDRM.symmetricPosDef(n,rand);
+            A.setMatrix(i,M);
+            for( int row = 0; row < n; row++ ) {
+                for( int col = row+1; col < n; col++ ) {
+                    M.set(row,col,123);
+                }
+            }
+            A_lower.setMatrix(i,M);
+        }
+        DMatrixBatch B = randomBatch(n,1);
+        DMatrixBatch B_lower = new DMatrixBatch(B);
+
+        assertTrue(solveChol(A,B,null));
+        assertTrue(solveChol(A_lower,B_lower,null));
+        for( int i = 0; i < size; i++ ) {
+            for( int row = 0; row < n; row++ ) {
+                assertEquals(B.get(i,row,0),B_lower.get(i,row,0),0);
+                for( int col = row+1; col < n; col++ ) {
+                    assertEquals(123,A_lower.get(i,row,col),0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void checkShape() {
+        boolean[] success = new boolean[size];
+        try {
+            solveLU(new DMatrixBatch(3,4,size),new DMatrixBatch(3,1,size),success);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+        try {
+            solveLU(new DMatrixBatch(3,3,size),new DMatrixBatch(4,1,size),success);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+        try {
+            solveChol(new DMatrixBatch(3,3,size),new DMatrixBatch(3,1,size-1),success);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+        try {
+            solveChol(new DMatrixBatch(3,3,size),new DMatrixBatch(3,1,size),new boolean[size-1]);
+            fail("Exception expected");
+        } catch( IllegalArgumentException ignore ) {}
+    }
+
+    /**
+     * Compares the batch solution against solving each system individually
+     *
+     * @param failed Index of the system that should fail or -1 if none should
+     */
+    private void compare( boolean lu , DMatrixBatch A , DMatrixBatch B , int failed ) {
+        int n = A.numRows;
+        int m = B.numCols;
+        DMatrixBatch A_orig = new DMatrixBatch(A);
+        DMatrixBatch X = new DMatrixBatch(B);
+
+        boolean[] success = new boolean[size];
+        boolean all = lu ? solveLU(A,X,success) : solveChol(A,X,success);
+        assertEquals(failed < 0,all);
+
+        DMatrixRMaj a = new DMatrixRMaj(n,n);
+        DMatrixRMaj b = new DMatrixRMaj(n,m);
+        DMatrixRMaj expected = new DMatrixRMaj(n,m);
+        DMatrixRMaj found = new DMatrixRMaj(n,m);
+        for( int i = 0; i < size; i++ ) {
+            assertEquals(i != failed,success[i]);
+            if( i == failed )
+                continue;
+
+            A_orig.getMatrix(i,a);
+            B.getMatrix(i,b);
+            LinearSolverDense<DMatrixRMaj> solver = lu ?
+                    LinearSolverFactory_DDRM.lu(n) : LinearSolverFactory_DDRM.chol(n);
+            assertTrue(solver.setA(a));
+            solver.solve(b,expected);
+
+            X.getMatrix(i,found);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+        }
+    }
+
+    /**
+     * Dense matrix which will require pivoting, but is well conditioned so that the solutions can be compared
+     */
+    private DMatrixRMaj randomWellConditioned( int n ) {
+        double[] sv = new double[n];
+        for( int i = 0; i < n; i++ ) {
+            sv[i] = 1.0 + rand.nextDouble();
+        }
+        return RandomMatrices_DDRM.singular(n,n,rand,sv);
+    }
+
+    private DMatrixBatch randomBatch( int numRows , int numCols ) {
+        DMatrixBatch batch = new DMatrixBatch(numRows,numCols,size);
+        for( int i = 0; i < batch.data.length; i++ ) {
+            batch.data[i] = rand.nextDouble()*2-1;
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.data.DMatrixBatch;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBatchLinearSolver_MT_DDF extends TestBatchLinearSolver_DDF {
+
+    public TestBatchLinearSolver_MT_DDF() {
+        // enough blocks that they are split between threads
+        size = 20*DMatrixBatch.BLOCK_LENGTH+5;
+    }
+
+    @Override
+    protected boolean solveLU( DMatrixBatch A , DMatrixBatch B , boolean[] success ) {
+        return BatchLinearSolver_MT_DDF.solveLU(A,B,success);
+    }
+
+    @Override
+    protected boolean solveChol( DMatrixBatch A , DMatrixBatch B , boolean[] success ) {
+        return BatchLinearSolver_MT_DDF.solveChol(A,B,success);
+    }
+
+    /**
+     * Results should be identical to the single threaded version
+     */
+    @Test
+    public void compareToSingleThread() {
+        int n = 6;
+        DMatrixBatch A = new DMatrixBatch(n,n,size);
+        DMatrixBatch B = new DMatrixBatch(n,2,size);
+        for( int i = 0; i < size; i++ ) {
+            A.setMatrix(i,RandomMatrices_DDRM.symmetricPosDef(n,rand));
+            B.setMatrix(i,RandomMatrices_DDRM.rectangle(n,2,rand));
+        }
+
+        for( int lu = 0; lu < 2; lu++ ) {
+            DMatrixBatch A0 = new DMatrixBatch(A), A1 = new DMatrixBatch(A);
+            DMatrixBatch B0 = new DMatrixBatch(B), B1 = new DMatrixBatch(B);
+            if( lu == 0 ) {
+                assertTrue(BatchLinearSolver_DDF.solveLU(A0,B0,null));
+                assertTrue(BatchLinearSolver_MT_DDF.solveLU(A1,B1,null));
+            } else {
+                assertTrue(BatchLinearSolver_DDF.solveChol(A0,B0,null));
+                assertTrue(BatchLinearSolver_MT_DDF.solveChol(A1,B1,null));
+            }
+            for( int i = 0; i < B0.getDataLength(); i++ ) {
+                assertEquals(B0.data[i],B1.data[i],0);
+            }
+        }
+    }
+}
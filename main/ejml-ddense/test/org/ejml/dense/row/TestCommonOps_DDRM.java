@@ -18,8 +18,10 @@
 
 package org.ejml.dense.row;
 
+import org.ejml.EjmlParameters;
 import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.*;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
 import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
@@ -270,6 +272,41 @@ public class TestCommonOps_DDRM {
         return true;
     }
 
+    /**
+     * Switching to the concurrent algorithms should not change the results at all
+     */
+    @Test
+    public void mult_concurrentSwitch() {
+        int before = EjmlParameters.MULT_CONCURRENT_SWITCH;
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        try {
+            EjmlParameters.MULT_CONCURRENT_SWITCH = 20;
+            EjmlConcurrency.setMaxThreads(4);
+
+            DMatrixRMaj a = RandomMatrices_DDRM.rectangle(40,30,rand);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(30,25,rand);
+            DMatrixRMaj expected = RandomMatrices_DDRM.rectangle(40,25,rand);
+            DMatrixRMaj found = expected.copy();
+
+            EjmlConcurrency.USE_CONCURRENT = false;
+            CommonOps_DDRM.multAdd(1.5,a,b,expected);
+            EjmlConcurrency.USE_CONCURRENT = true;
+            CommonOps_DDRM.multAdd(1.5,a,b,found);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, 0));
+
+            DMatrixRMaj bt = CommonOps_DDRM.transpose(b,null);
+            EjmlConcurrency.USE_CONCURRENT = false;
+            CommonOps_DDRM.multTransB(a,bt,expected);
+            EjmlConcurrency.USE_CONCURRENT = true;
+            CommonOps_DDRM.multTransB(a,bt,found);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, 0));
+        } finally {
+            EjmlParameters.MULT_CONCURRENT_SWITCH = before;
+            EjmlConcurrency.USE_CONCURRENT = true;
+            EjmlConcurrency.setMaxThreads(maxThreads);
+        }
+    }
+
     @Test
     public void dot() {
         DMatrixRMaj a = RandomMatrices_DDRM.rectangle(10, 1, rand);
@@ -308,6 +345,31 @@ public class TestCommonOps_DDRM {
 
         assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, tol));
     }
+
+    /**
+     * Lower the threshold so that the packed inner and outer products are used
+     */
+    @Test
+    public void multInnerOuter_packed() {
+        int before = EjmlParameters.MULT_PRODUCT_PACKED_SWITCH;
+        try {
+            EjmlParameters.MULT_PRODUCT_PACKED_SWITCH = 10;
+
+            DMatrixRMaj a = RandomMatrices_DDRM.rectangle(30,15,rand);
+            DMatrixRMaj found = RandomMatrices_DDRM.rectangle(4,4,rand);
+            DMatrixRMaj expected = new DMatrixRMaj(1,1);
+
+            CommonOps_DDRM.multTransA(a, a, expected);
+            CommonOps_DDRM.multInner(a,found);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, tol));
+
+            CommonOps_DDRM.multTransB(a, a, expected);
+            CommonOps_DDRM.multOuter(a,found);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, tol));
+        } finally {
+            EjmlParameters.MULT_PRODUCT_PACKED_SWITCH = before;
+        }
+    }
     
     @Test
     public void elementMult_two() {
@@ -508,6 +570,35 @@ public class TestCommonOps_DDRM {
         EjmlUnitTests.assertEquals(mat, matTran, UtilEjml.TEST_F64);
     }
 
+    @Test
+    public void transpose_inplace_rectangle() {
+        EjmlParameters.MemoryUsage original = EjmlParameters.MEMORY;
+        try {
+            for( EjmlParameters.MemoryUsage memory : EjmlParameters.MemoryUsage.values() ) {
+                EjmlParameters.MEMORY = memory;
+
+                DMatrixRMaj mat = RandomMatrices_DDRM.rectangle(4,7,rand);
+                DMatrixRMaj found = mat.copy();
+
+                CommonOps_DDRM.transpose(found);
+
+                EjmlUnitTests.assertEqualsTrans(mat,found,0);
+            }
+        } finally {
+            EjmlParameters.MEMORY = original;
+        }
+    }
+
+    @Test
+    public void transpose_large() {
+        DMatrixRMaj mat = RandomMatrices_DDRM.rectangle(EjmlParameters.TRANSPOSE_SWITCH+3,
+                EjmlParameters.TRANSPOSE_SWITCH+20,rand);
+
+        DMatrixRMaj found = CommonOps_DDRM.transpose(mat,null);
+
+        EjmlUnitTests.assertEqualsTrans(mat,found,0);
+    }
+
     @Test
     public void transpose() {
         DMatrixRMaj mat = new DMatrixRMaj(3,2, true, 0, 1, 2, 3, 4, 5);
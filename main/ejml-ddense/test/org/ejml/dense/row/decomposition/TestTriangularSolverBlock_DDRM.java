@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition;
+
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangularSolverBlock_DDRM {
+    Random rand = new Random(234);
+
+    int blockWidth;
+
+    /**
+     * Use a tiny block width so that T is split into several blocks
+     */
+    @Before
+    public void before() {
+        blockWidth = EjmlParameters.BLOCK_WIDTH;
+        EjmlParameters.BLOCK_WIDTH = 3;
+    }
+
+    @After
+    public void after() {
+        EjmlParameters.BLOCK_WIDTH = blockWidth;
+    }
+
+    @Test
+    public void solveLeft() {
+        check(true);
+    }
+
+    @Test
+    public void solveRight() {
+        check(false);
+    }
+
+    private void check( boolean left ) {
+        DGrowArray workA = new DGrowArray(), workB = new DGrowArray();
+        for( boolean lower : new boolean[]{true,false} ) {
+            for( boolean transT : new boolean[]{true,false} ) {
+                for( boolean unit : new boolean[]{true,false} ) {
+                    for( int n : new int[]{1,5,13} ) {
+                        for( int m : new int[]{1,7,20} ) {
+                            DMatrixRMaj T = randomTriangular(n,rand);
+                            DMatrixRMaj opT = createOp(T,lower,transT,unit);
+                            DMatrixRMaj B = left ? RandomMatrices_DDRM.rectangle(n,m,rand) :
+                                    RandomMatrices_DDRM.rectangle(m,n,rand);
+                            DMatrixRMaj X = B.copy();
+
+                            if( left ) {
+                                TriangularSolverBlock_DDRM.solveLeft(lower,transT,unit,T,X,workA,workB);
+                            } else {
+                                TriangularSolverBlock_DDRM.solveRight(lower,transT,unit,T,X,null,null);
+                            }
+
+                            DMatrixRMaj found = new DMatrixRMaj(1,1);
+                            if( left )
+                                CommonOps_DDRM.mult(opT,X,found);
+                            else
+                                CommonOps_DDRM.mult(X,opT,found);
+
+                            assertTrue(MatrixFeatures_DDRM.isIdentical(B,found,UtilEjml.TEST_F64));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void checkShape() {
+        try {
+            TriangularSolverBlock_DDRM.solveLeft(true,false,false,new DMatrixRMaj(4,3),new DMatrixRMaj(4,2),null,null);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+        try {
+            TriangularSolverBlock_DDRM.solveLeft(true,false,false,new DMatrixRMaj(4,4),new DMatrixRMaj(3,2),null,null);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+        try {
+            TriangularSolverBlock_DDRM.solveRight(true,false,false,new DMatrixRMaj(4,4),new DMatrixRMaj(4,2),null,null);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+    }
+
+    /**
+     * Creates a square matrix with a well conditioned diagonal. Both triangles are filled with values so that the
+     * tests will fail if the wrong triangle is read.
+     */
+    public static DMatrixRMaj randomTriangular( int n , Random rand ) {
+        DMatrixRMaj T = RandomMatrices_DDRM.rectangle(n,n,-1,1,rand);
+        for( int i = 0; i < n; i++ ) {
+            T.set(i,i,1.5+rand.nextDouble());
+        }
+        return T;
+    }
+
+    /**
+     * Creates the dense matrix op(T) from the specified triangle in T
+     */
+    public static DMatrixRMaj createOp( DMatrixRMaj T , boolean lower , boolean transT , boolean unit ) {
+        DMatrixRMaj op = new DMatrixRMaj(T.numRows,T.numCols);
+        for( int i = 0; i < T.numRows; i++ ) {
+            for( int j = 0; j < T.numCols; j++ ) {
+                if( i == j )
+                    op.set(i,j,unit ? 1 : T.get(i,j));
+                else if( lower == (i > j) )
+                    op.set(i,j,T.get(i,j));
+            }
+        }
+        if( transT )
+            CommonOps_DDRM.transpose(op);
+        return op;
+    }
+}
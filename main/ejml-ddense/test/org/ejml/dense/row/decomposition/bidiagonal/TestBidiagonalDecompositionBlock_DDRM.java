@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.bidiagonal;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
+import org.junit.Test;
+
+import static org.ejml.dense.row.decomposition.CheckDecompositionInterface_DDRM.safeDecomposition;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBidiagonalDecompositionBlock_DDRM extends GenericBidiagonalCheck_DDRM {
+
+    /**
+     * Try different shapes relative to the block width, including ones where the last block is partial
+     */
+    @Test
+    public void compareToUnblocked() {
+        for( int width : new int[]{1,3,8} ) {
+            for( int N : new int[]{1,2,3,5,width+2,2*width+3,25} ) {
+                for( int extra : new int[]{0,1,7} ) {
+                    compareToUnblocked(RandomMatrices_DDRM.rectangle(N+extra,N,-1,1,rand),width);
+                    compareToUnblocked(RandomMatrices_DDRM.rectangle(N,N+extra,-1,1,rand),width);
+                }
+            }
+        }
+    }
+
+    /**
+     * If a row or column is already zero then the reflector is skipped
+     */
+    @Test
+    public void zeroRowsAndColumns() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(14,12,-1,1,rand);
+        for( int row = 1; row < A.numRows; row++ ) {
+            A.set(row,0,0);
+        }
+        for( int col = 3; col < A.numCols; col++ ) {
+            A.set(1,col,0);
+        }
+
+        compareToUnblocked(A,4);
+    }
+
+    private void compareToUnblocked( DMatrixRMaj A , int width ) {
+        BidiagonalDecompositionRow_DDRM expected = new BidiagonalDecompositionRow_DDRM();
+        BidiagonalDecompositionBlock_DDRM alg = new BidiagonalDecompositionBlock_DDRM(width);
+
+        assertTrue(safeDecomposition(expected,A));
+        assertTrue(safeDecomposition(alg,A));
+
+        // The order of operations is different so B, U, and V will only be approximately the same. That's why a
+        // loose tolerance is used. The strict test is that A can be reconstructed.
+        double tol = UtilEjml.TEST_F64_SQ;
+        for( boolean compact : new boolean[]{true,false}) {
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getB(null,compact),alg.getB(null,compact),tol));
+            for( boolean transpose : new boolean[]{true,false}) {
+                assertTrue(MatrixFeatures_DDRM.isIdentical(
+                        expected.getU(null,transpose,compact),alg.getU(null,transpose,compact),tol));
+                assertTrue(MatrixFeatures_DDRM.isIdentical(
+                        expected.getV(null,transpose,compact),alg.getV(null,transpose,compact),tol));
+            }
+        }
+
+        checkGeneric(A,alg);
+    }
+
+    @Override
+    protected BidiagonalDecomposition_F64<DMatrixRMaj> createQRDecomposition() {
+        return new BidiagonalDecompositionBlock_DDRM(3);
+    }
+}
@@ -18,11 +18,17 @@
 
 package org.ejml.dense.row.decomposition.chol;
 
+import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 import org.junit.Test;
 
 import static org.ejml.dense.row.decomposition.CheckDecompositionInterface_DDRM.checkModifiedInput;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -40,4 +46,93 @@ public class TestCholeskyDecompositionInner_DDRM extends GenericCholeskyTests_DD
         checkModifiedInput(new CholeskyDecompositionInner_DDRM(true));
         checkModifiedInput(new CholeskyDecompositionInner_DDRM(false));
     }
+
+    /**
+     * Compare the updated decomposition against decomposing A + V*V' directly
+     */
+    @Test
+    public void update() {
+        for( boolean lower : new boolean[]{true,false}) {
+            for( int k : new int[]{1,3}) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(8,rand);
+                DMatrixRMaj V = RandomMatrices_DDRM.rectangle(8,k,-1,1,rand);
+                DMatrixRMaj B = A.copy();
+                CommonOps_DDRM.multAddTransB(V,V,B);
+
+                CholeskyDecompositionInner_DDRM alg = new CholeskyDecompositionInner_DDRM(lower);
+                assertTrue(alg.decompose(A.copy()));
+                assertTrue(alg.update(V));
+
+                CholeskyDecompositionInner_DDRM expected = new CholeskyDecompositionInner_DDRM(lower);
+                assertTrue(expected.decompose(B.copy()));
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getT(null),alg.getT(null),UtilEjml.TEST_F64));
+            }
+        }
+    }
+
+    /**
+     * Compare the downdated decomposition against decomposing A - V*V' directly
+     */
+    @Test
+    public void downdate() {
+        for( boolean lower : new boolean[]{true,false}) {
+            for( int k : new int[]{1,3}) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(8,rand);
+                DMatrixRMaj V = RandomMatrices_DDRM.rectangle(8,k,-1,1,rand);
+                DMatrixRMaj B = A.copy();
+                CommonOps_DDRM.multAddTransB(V,V,B);
+
+                CholeskyDecompositionInner_DDRM alg = new CholeskyDecompositionInner_DDRM(lower);
+                assertTrue(alg.decompose(B.copy()));
+                assertTrue(alg.downdate(V));
+
+                CholeskyDecompositionInner_DDRM expected = new CholeskyDecompositionInner_DDRM(lower);
+                assertTrue(expected.decompose(A.copy()));
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getT(null),alg.getT(null),UtilEjml.TEST_F64));
+            }
+        }
+    }
+
+    /**
+     * If the downdated matrix isn't positive definite it should fail and not modify the decomposition
+     */
+    @Test
+    public void downdate_notPositiveDefinite() {
+        for( boolean lower : new boolean[]{true,false}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(6,rand);
+            DMatrixRMaj V = new DMatrixRMaj(6,2);
+            V.set(3,1,10);
+            V.set(2,1,10);
+
+            CholeskyDecompositionInner_DDRM alg = new CholeskyDecompositionInner_DDRM(lower);
+            assertTrue(alg.decompose(A.copy()));
+            DMatrixRMaj before = alg.getT(null);
+
+            assertFalse(alg.downdate(V));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(before,alg.getT(null),0));
+        }
+    }
+
+    /**
+     * If the updated factor can't be computed it should fail and not modify the decomposition
+     */
+    @Test
+    public void update_badInput() {
+        for( boolean lower : new boolean[]{true,false}) {
+            for( double value : new double[]{Double.NaN,Double.MAX_VALUE}) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(6,rand);
+                DMatrixRMaj V = RandomMatrices_DDRM.rectangle(6,2,-1,1,rand);
+                V.set(4,1,value);
+
+                CholeskyDecompositionInner_DDRM alg = new CholeskyDecompositionInner_DDRM(lower);
+                assertTrue(alg.decompose(A.copy()));
+                DMatrixRMaj before = alg.getT(null);
+
+                assertFalse(alg.update(V));
+                assertTrue(MatrixFeatures_DDRM.isIdentical(before,alg.getT(null),0));
+            }
+        }
+    }
 }
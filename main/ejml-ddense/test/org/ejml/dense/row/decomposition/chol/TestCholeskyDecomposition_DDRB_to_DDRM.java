@@ -18,11 +18,15 @@
 
 package org.ejml.dense.row.decomposition.chol;
 
+import org.ejml.EjmlParameters;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 import org.junit.Test;
 
 import static org.ejml.dense.row.decomposition.CheckDecompositionInterface_DDRM.checkModifiedInput;
+import static org.junit.Assert.*;
 
 
 /**
@@ -35,6 +39,35 @@ public class TestCholeskyDecomposition_DDRB_to_DDRM extends GenericCholeskyTests
         checkModifiedInput(new CholeskyDecomposition_DDRB_to_DDRM(false));
     }
 
+    /**
+     * The multi-threaded algorithm should only be used on matrices which are large enough
+     */
+    @Test
+    public void concurrentSwitch() {
+        int original = EjmlParameters.MULT_CONCURRENT_SWITCH;
+        try {
+            EjmlParameters.MULT_CONCURRENT_SWITCH = 20;
+
+            for( boolean lower : new boolean[]{true,false} ) {
+                CholeskyDecomposition_DDRB_to_DDRM serial = new CholeskyDecomposition_DDRB_to_DDRM(lower,false);
+                assertNull(serial.algConcurrent);
+
+                for( int size : new int[]{15,25} ) {
+                    DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(size,rand);
+                    CholeskyDecomposition_DDRB_to_DDRM alg = new CholeskyDecomposition_DDRB_to_DDRM(lower,true);
+                    assertTrue(alg.decompose(A.copy()));
+                    assertTrue(serial.decompose(A.copy()));
+
+                    // the multi-threaded algorithm is only given a matrix if it's used
+                    assertEquals(size >= 20,alg.algConcurrent.getT(null) != null);
+                    assertTrue(MatrixFeatures_DDRM.isIdentical(serial.getT(null),alg.getT(null),0));
+                }
+            }
+        } finally {
+            EjmlParameters.MULT_CONCURRENT_SWITCH = original;
+        }
+    }
+
     @Override
     public CholeskyDecomposition_F64<DMatrixRMaj> create(boolean lower) {
         return new CholeskyDecomposition_DDRB_to_DDRM(lower);
@@ -18,10 +18,18 @@
 
 package org.ejml.dense.row.decomposition.eig;
 
+import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 
 /**
  * @author Peter Abeles
@@ -37,4 +45,53 @@ public class TestSwitchingEigenDecomposition_DDRM extends GeneralEigenDecomposit
         super.allTests();
 //        super.justEigenValues();
     }
-}
\ No newline at end of file
+
+    /**
+     * Lower the threshold so that symmetric matrices are decomposed using divide and conquer
+     */
+    @Test
+    public void divideAndConquer() {
+        int original = EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER;
+        try {
+            EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER = 2;
+            computeVectors = true;
+            checkRandomSymmetric();
+            checkWithSomeRepeatedValuesSymm();
+            checkRandom();
+
+            SwitchingEigenDecomposition_DDRM alg = (SwitchingEigenDecomposition_DDRM)createDecomposition();
+            assertTrue(alg.decompose(RandomMatrices_DDRM.symmetric(5,-1,1,rand)));
+            assertTrue(alg.symmetricAlg instanceof SymmetricDivideConquerDecomposition_DDRM);
+        } finally {
+            EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER = original;
+        }
+    }
+
+    /**
+     * The symmetric algorithm should be selected for each matrix using its size
+     */
+    @Test
+    public void divideAndConquer_selectedBySize() {
+        int original = EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER;
+        try {
+            EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER = 10;
+            SwitchingEigenDecomposition_DDRM alg = new SwitchingEigenDecomposition_DDRM(6,true,UtilEjml.TEST_F64);
+
+            for( int size : new int[]{6,12,6,15} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetric(size,-1,1,rand);
+                assertTrue(alg.decompose(A));
+                assertEquals(size >= 10,alg.symmetricAlg instanceof SymmetricDivideConquerDecomposition_DDRM);
+
+                for( int i = 0; i < size; i++ ) {
+                    DMatrixRMaj v = alg.getEigenVector(i);
+                    DMatrixRMaj Av = new DMatrixRMaj(size,1);
+                    CommonOps_DDRM.mult(A,v,Av);
+                    CommonOps_DDRM.add(Av,-alg.getEigenvalue(i).real,v,Av);
+                    assertEquals(0,NormOps_DDRM.normF(Av),UtilEjml.TEST_F64);
+                }
+            }
+        } finally {
+            EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER = original;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricBisectionDecomposition_DDRM extends GeneralEigenDecompositionCheck_DDRM {
+
+    @Override
+    public EigenDecomposition_F64 createDecomposition() {
+        return new SymmetricBisectionDecomposition_DDRM(computeVectors);
+    }
+
+    @Test
+    public void justSymmetricTests() {
+        computeVectors = true;
+
+        checkSizeZero();
+        checkRandomSymmetric();
+        checkIdentity();
+        checkAllZeros();
+        checkWithSomeRepeatedValuesSymm();
+        checkWithSingularSymm();
+        checkSmallValue(true);
+        checkLargeValue(true);
+
+        computeVectors = false;
+        checkKnownSymmetric_JustValue();
+    }
+
+    @Test
+    public void selectIndexes() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(25,-1,1,rand);
+        double expected[] = allEigenvalues(A);
+
+        SymmetricBisectionDecomposition_DDRM alg = new SymmetricBisectionDecomposition_DDRM(true);
+        alg.selectIndexes(3,7);
+        assertTrue(alg.decompose(A.copy()));
+
+        assertEquals(4,alg.getNumberOfEigenvalues());
+        assertEquals(3,alg.getFirstIndex());
+        for( int i = 0; i < 4; i++ ) {
+            assertEquals(expected[3+i],alg.getEigenvalue(i).real,UtilEjml.TEST_F64);
+        }
+        checkVectors(A,alg);
+    }
+
+    @Test
+    public void selectInterval() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(25,-1,1,rand);
+        double expected[] = allEigenvalues(A);
+
+        SymmetricBisectionDecomposition_DDRM alg = new SymmetricBisectionDecomposition_DDRM(true);
+        alg.selectInterval((expected[9]+expected[10])/2,(expected[14]+expected[15])/2);
+        assertTrue(alg.decompose(A.copy()));
+
+        assertEquals(5,alg.getNumberOfEigenvalues());
+        assertEquals(10,alg.getFirstIndex());
+        for( int i = 0; i < 5; i++ ) {
+            assertEquals(expected[10+i],alg.getEigenvalue(i).real,UtilEjml.TEST_F64);
+        }
+        checkVectors(A,alg);
+    }
+
+    @Test
+    public void selectLargest() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(25,-1,1,rand);
+        double expected[] = allEigenvalues(A);
+
+        SymmetricBisectionDecomposition_DDRM alg = new SymmetricBisectionDecomposition_DDRM(true);
+        alg.selectLargest(3);
+        assertTrue(alg.decompose(A.copy()));
+
+        assertEquals(3,alg.getNumberOfEigenvalues());
+        assertEquals(22,alg.getFirstIndex());
+        for( int i = 0; i < 3; i++ ) {
+            assertEquals(expected[22+i],alg.getEigenvalue(i).real,UtilEjml.TEST_F64);
+        }
+        checkVectors(A,alg);
+
+        // more than the matrix has
+        alg.selectLargest(30);
+        assertTrue(alg.decompose(A.copy()));
+        assertEquals(25,alg.getNumberOfEigenvalues());
+    }
+
+    /**
+     * Checks A*v = &lambda;*v for the found eigenvectors
+     */
+    private void checkVectors( DMatrixRMaj A , SymmetricBisectionDecomposition_DDRM alg ) {
+        DMatrixRMaj Av = new DMatrixRMaj(A.numRows,1);
+        for( int i = 0; i < alg.getNumberOfEigenvalues(); i++ ) {
+            DMatrixRMaj v = alg.getEigenVector(i);
+            assertEquals(1,CommonOps_DDRM.dot(v,v),UtilEjml.TEST_F64);
+            CommonOps_DDRM.mult(A,v,Av);
+            double value = alg.getEigenvalue(i).real;
+            for( int j = 0; j < A.numRows; j++ ) {
+                assertEquals(value*v.data[j],Av.data[j],UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    private static double[] allEigenvalues( DMatrixRMaj A ) {
+        EigenDecomposition_F64<DMatrixRMaj> eig = DecompositionFactory_DDRM.eig(A.numRows,false,true);
+        assertTrue(eig.decompose(A.copy()));
+        double values[] = new double[A.numRows];
+        for( int i = 0; i < values.length; i++ ) {
+            values[i] = eig.getEigenvalue(i).real;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+}
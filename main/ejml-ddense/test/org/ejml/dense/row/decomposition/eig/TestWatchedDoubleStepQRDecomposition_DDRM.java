@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.decomposition.eig;
 
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecompositionBlock_DDRM;
 import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 import org.junit.Test;
 
@@ -36,4 +37,20 @@ public class TestWatchedDoubleStepQRDecomposition_DDRM extends GeneralEigenDecom
         super.allTests();
         super.justEigenValues();
     }
+
+    /**
+     * Use the block Hessenberg decomposition with a small block so that the tests have several blocks
+     */
+    @Test
+    public void blockHessenberg() {
+        GeneralEigenDecompositionCheck_DDRM check = new GeneralEigenDecompositionCheck_DDRM() {
+            @Override
+            public EigenDecomposition_F64 createDecomposition() {
+                return new WatchedDoubleStepQRDecomposition_DDRM(
+                        new HessenbergSimilarDecompositionBlock_DDRM(2),computeVectors);
+            }
+        };
+        check.allTests();
+        check.justEigenValues();
+    }
 }
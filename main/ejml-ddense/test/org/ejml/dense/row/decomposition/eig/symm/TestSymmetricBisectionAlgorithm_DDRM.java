@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricBisectionAlgorithm_DDRM {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void random() {
+        for( int N : new int[]{1,2,3,7,16,40} ) {
+            double diag[] = new double[N];
+            double off[] = new double[N];
+            for( int i = 0; i < N; i++ ) {
+                diag[i] = rand.nextDouble()*2-1;
+                off[i] = rand.nextDouble()*2-1;
+            }
+            checkAll(diag,off,N);
+        }
+    }
+
+    /**
+     * Only some of the eigenvalues are requested by index
+     */
+    @Test
+    public void selectIndexes() {
+        int N = 30;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = rand.nextDouble()*2-1;
+            off[i] = rand.nextDouble()*2-1;
+        }
+        double expected[] = qrEigenvalues(diag,off,N);
+
+        SymmetricBisectionAlgorithm_DDRM alg = new SymmetricBisectionAlgorithm_DDRM();
+        assertTrue(alg.processIndexes(N,diag,off,5,9));
+        assertEquals(4,alg.getNumberOfEigenvalues());
+        assertEquals(5,alg.getFirstIndex());
+        for( int i = 0; i < 4; i++ ) {
+            assertEquals(expected[5+i],alg.getEigenvalue(i),UtilEjml.TEST_F64);
+        }
+        checkVectors(alg,diag,off,N);
+
+        // nothing is requested
+        assertTrue(alg.processIndexes(N,diag,off,3,3));
+        assertEquals(0,alg.getNumberOfEigenvalues());
+        assertEquals(0,alg.computeVectors(null).numCols);
+    }
+
+    /**
+     * Eigenvalues are selected by an interval
+     */
+    @Test
+    public void selectInterval() {
+        int N = 30;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = rand.nextDouble()*2-1;
+            off[i] = rand.nextDouble()*2-1;
+        }
+        double expected[] = qrEigenvalues(diag,off,N);
+
+        double lower = (expected[10]+expected[11])/2;
+        double upper = (expected[20]+expected[21])/2;
+
+        SymmetricBisectionAlgorithm_DDRM alg = new SymmetricBisectionAlgorithm_DDRM();
+        assertTrue(alg.processInterval(N,diag,off,lower,upper));
+        assertEquals(10,alg.getNumberOfEigenvalues());
+        assertEquals(11,alg.getFirstIndex());
+        for( int i = 0; i < 10; i++ ) {
+            assertEquals(expected[11+i],alg.getEigenvalue(i),UtilEjml.TEST_F64);
+        }
+        checkVectors(alg,diag,off,N);
+
+        // interval which contains everything and one with nothing
+        assertTrue(alg.processInterval(N,diag,off,-10,10));
+        assertEquals(N,alg.getNumberOfEigenvalues());
+        assertTrue(alg.processInterval(N,diag,off,5,10));
+        assertEquals(0,alg.getNumberOfEigenvalues());
+    }
+
+    @Test
+    public void countLessThan() {
+        int N = 20;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = rand.nextDouble()*2-1;
+            off[i] = rand.nextDouble()*2-1;
+        }
+        double expected[] = qrEigenvalues(diag,off,N);
+
+        SymmetricBisectionAlgorithm_DDRM alg = new SymmetricBisectionAlgorithm_DDRM();
+        assertTrue(alg.processIndexes(N,diag,off,0,0));
+
+        assertEquals(0,alg.countLessThan(expected[0]-0.01));
+        for( int i = 0; i < N-1; i++ ) {
+            assertEquals(i+1,alg.countLessThan((expected[i]+expected[i+1])/2));
+        }
+        assertEquals(N,alg.countLessThan(expected[N-1]+0.01));
+    }
+
+    /**
+     * Off diagonal elements which are zero
+     */
+    @Test
+    public void zerosOffDiagonal() {
+        int N = 20;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = rand.nextDouble()*2-1;
+            off[i] = i%3 == 0 ? 0 : rand.nextDouble()*2-1;
+        }
+        checkAll(diag,off,N);
+
+        Arrays.fill(off,0);
+        checkAll(diag,off,N);
+
+        // matrix of all zeros
+        Arrays.fill(diag,0);
+        checkAll(diag,off,N);
+    }
+
+    /**
+     * Repeated eigenvalues require the eigenvectors to be orthogonalized
+     */
+    @Test
+    public void repeatedValues() {
+        int N = 20;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        Arrays.fill(diag,2);
+        checkAll(diag,off,N);
+
+        for( int i = 0; i < N; i++ ) {
+            off[i] = i == N/2 ? 0.001 : 0;
+        }
+        checkAll(diag,off,N);
+    }
+
+    /**
+     * Wilkinson's matrix has pairs of eigenvalues which are very close to each other
+     */
+    @Test
+    public void wilkinson() {
+        int N = 21;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = Math.abs(i-N/2);
+            off[i] = 1;
+        }
+        checkAll(diag,off,N);
+    }
+
+    /**
+     * Values which would overflow or underflow if they were squared
+     */
+    @Test
+    public void scaling() {
+        for( double scale : new double[]{ Math.pow(UtilEjml.EPS,5), Math.pow(UtilEjml.EPS,-5)} ) {
+            int N = 15;
+            double diag[] = new double[N];
+            double off[] = new double[N];
+            for( int i = 0; i < N; i++ ) {
+                diag[i] = (rand.nextDouble()*2-1)*scale;
+                off[i] = (rand.nextDouble()*2-1)*scale;
+            }
+            checkAll(diag,off,N);
+        }
+    }
+
+    /**
+     * Inverse iteration which never converges should be reported as a failure
+     */
+    @Test
+    public void vectorsNotConverged() {
+        int N = 10;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = rand.nextDouble()*2-1;
+            off[i] = rand.nextDouble()*2-1;
+        }
+
+        SymmetricBisectionAlgorithm_DDRM alg = new SymmetricBisectionAlgorithm_DDRM();
+        assertTrue(alg.processIndexes(N,diag,off,0,N));
+        alg.maxIterations = 0;
+        assertNull(alg.computeVectors(null));
+
+        // it should recover once it's given enough iterations
+        alg.maxIterations = 5;
+        checkVectors(alg,diag,off,N);
+    }
+
+    /**
+     * Computes all the eigenvalues and vectors then compares against the QR algorithm
+     */
+    private void checkAll( double diag[] , double off[] , int N ) {
+        double expected[] = qrEigenvalues(diag,off,N);
+        double scale = maxAbs(diag,off,N);
+
+        SymmetricBisectionAlgorithm_DDRM alg = new SymmetricBisectionAlgorithm_DDRM();
+        assertTrue(alg.processIndexes(N,diag,off,0,N));
+        assertEquals(N,alg.getNumberOfEigenvalues());
+
+        double found[] = alg.getEigenvalues(null);
+        for( int i = 0; i < N; i++ ) {
+            if( i > 0 )
+                assertTrue(found[i-1] <= found[i]);
+            assertEquals(expected[i],found[i],UtilEjml.TEST_F64*scale);
+        }
+
+        checkVectors(alg,diag,off,N);
+    }
+
+    /**
+     * Checks to see if T*Z = Z*D and that Z is orthogonal
+     */
+    private void checkVectors( SymmetricBisectionAlgorithm_DDRM alg , double diag[] , double off[] , int N ) {
+        double scale = maxAbs(diag,off,N);
+        int numValues = alg.getNumberOfEigenvalues();
+
+        DMatrixRMaj T = new DMatrixRMaj(N,N);
+        for( int i = 0; i < N; i++ ) {
+            T.set(i,i,diag[i]);
+            if( i < N-1 ) {
+                T.set(i,i+1,off[i]);
+                T.set(i+1,i,off[i]);
+            }
+        }
+
+        DMatrixRMaj Z = alg.computeVectors(null);
+        assertEquals(N,Z.numRows);
+        assertEquals(numValues,Z.numCols);
+
+        DMatrixRMaj ZtZ = new DMatrixRMaj(numValues,numValues);
+        CommonOps_DDRM.multTransA(Z,Z,ZtZ);
+        assertTrue(MatrixFeatures_DDRM.isIdentity(ZtZ,UtilEjml.TEST_F64));
+
+        DMatrixRMaj TZ = new DMatrixRMaj(N,numValues);
+        CommonOps_DDRM.mult(T,Z,TZ);
+        for( int row = 0; row < N; row++ ) {
+            for( int col = 0; col < numValues; col++ ) {
+                double expected = Z.get(row,col)*alg.getEigenvalue(col);
+                assertEquals(expected,TZ.get(row,col),UtilEjml.TEST_F64*scale);
+            }
+        }
+    }
+
+    private static double[] qrEigenvalues( double diag[] , double off[] , int N ) {
+        SymmetricQrAlgorithm_DDRM qr = new SymmetricQrAlgorithm_DDRM();
+        assertTrue(qr.process(N,diag.clone(),off.clone()));
+        double expected[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            expected[i] = qr.getEigenvalue(i);
+        }
+        Arrays.sort(expected);
+        return expected;
+    }
+
+    private static double maxAbs( double diag[] , double off[] , int N ) {
+        double scale = 0;
+        for( int i = 0; i < N; i++ ) {
+            scale = Math.max(scale,Math.abs(diag[i]));
+            if( i < N-1 )
+                scale = Math.max(scale,Math.abs(off[i]));
+        }
+        return scale == 0 ? 1 : scale;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricDivideConquerAlgorithm_DDRM {
+
+    Random rand = new Random(234);
+
+    int originalThreads;
+
+    @Before
+    public void before() {
+        originalThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(originalThreads);
+    }
+
+    /**
+     * Random matrices with different sizes relative to the size of the sub-problems
+     */
+    @Test
+    public void random() {
+        for( int minSize : new int[]{1,2,5} ) {
+            for( int N : new int[]{1,2,3,4,7,16,31,60} ) {
+                double diag[] = new double[N];
+                double off[] = new double[N];
+                for( int i = 0; i < N; i++ ) {
+                    diag[i] = rand.nextDouble()*2-1;
+                    off[i] = rand.nextDouble()*2-1;
+                }
+                check(diag,off,N,minSize);
+            }
+        }
+    }
+
+    /**
+     * Off diagonal elements which are zero split the problem, which causes everything to be deflated
+     */
+    @Test
+    public void zerosOffDiagonal() {
+        int N = 20;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = rand.nextDouble()*2-1;
+            off[i] = i%3 == 0 ? 0 : rand.nextDouble()*2-1;
+        }
+        check(diag,off,N,2);
+
+        // it's already diagonal
+        Arrays.fill(off,0);
+        check(diag,off,N,2);
+    }
+
+    /**
+     * Many repeated eigenvalues, which are deflated after a rotation
+     */
+    @Test
+    public void repeatedValues() {
+        int N = 30;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = 2;
+            off[i] = i == N/2 ? 0.001 : 0;
+        }
+        check(diag,off,N,3);
+
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = i%3;
+            off[i] = 1;
+        }
+        check(diag,off,N,3);
+    }
+
+    /**
+     * Wilkinson's matrix has pairs of eigenvalues which are very close to each other
+     */
+    @Test
+    public void wilkinson() {
+        int N = 41;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = Math.abs(i-N/2);
+            off[i] = 1;
+        }
+        check(diag,off,N,4);
+    }
+
+    /**
+     * Values which would overflow or underflow if they were squared
+     */
+    @Test
+    public void scaling() {
+        for( double scale : new double[]{ Math.pow(UtilEjml.EPS,5), Math.pow(UtilEjml.EPS,-5)} ) {
+            int N = 25;
+            double diag[] = new double[N];
+            double off[] = new double[N];
+            for( int i = 0; i < N; i++ ) {
+                diag[i] = (rand.nextDouble()*2-1)*scale;
+                off[i] = (rand.nextDouble()*2-1)*scale;
+            }
+            check(diag,off,N,3);
+        }
+    }
+
+    /**
+     * Single threaded and concurrent should produce identical results
+     */
+    @Test
+    public void compareConcurrent() {
+        int N = 150;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = rand.nextDouble()*2-1;
+            off[i] = rand.nextDouble()*2-1;
+        }
+
+        SymmetricDivideConquerAlgorithm_DDRM serial = new SymmetricDivideConquerAlgorithm_DDRM(4,false);
+        SymmetricDivideConquerAlgorithm_DDRM concurrent = new SymmetricDivideConquerAlgorithm_DDRM(4,true);
+
+        assertTrue(serial.process(N,diag,off));
+        assertTrue(concurrent.process(N,diag,off));
+
+        for( int i = 0; i < N; i++ ) {
+            assertEquals(serial.getEigenvalues()[i],concurrent.getEigenvalues()[i],0);
+        }
+        assertTrue(MatrixFeatures_DDRM.isIdentical(serial.getQ(),concurrent.getQ(),0));
+    }
+
+    /**
+     * Checks to see if the eigenvalues are sorted, match the QR algorithm, and T*Z = Z*D with Z orthogonal
+     */
+    private void check( double diag[] , double off[] , int N , int minSize ) {
+        double scale = 0;
+        for( int i = 0; i < N; i++ ) {
+            scale = Math.max(scale,Math.abs(diag[i]));
+            if( i < N-1 )
+                scale = Math.max(scale,Math.abs(off[i]));
+        }
+
+        DMatrixRMaj T = new DMatrixRMaj(N,N);
+        for( int i = 0; i < N; i++ ) {
+            T.set(i,i,diag[i]);
+            if( i < N-1 ) {
+                T.set(i,i+1,off[i]);
+                T.set(i+1,i,off[i]);
+            }
+        }
+
+        SymmetricDivideConquerAlgorithm_DDRM alg = new SymmetricDivideConquerAlgorithm_DDRM(minSize,false);
+        assertTrue(alg.process(N,diag.clone(),off.clone()));
+        double found[] = Arrays.copyOf(alg.getEigenvalues(),N);
+        DMatrixRMaj Z = alg.getQ();
+
+        // compare against the eigenvalues from the QR algorithm
+        SymmetricQrAlgorithm_DDRM qr = new SymmetricQrAlgorithm_DDRM();
+        assertTrue(qr.process(N,diag.clone(),off.clone()));
+        double expected[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            expected[i] = qr.getEigenvalue(i);
+        }
+        Arrays.sort(expected);
+
+        for( int i = 0; i < N; i++ ) {
+            if( i > 0 )
+                assertTrue(found[i-1] <= found[i]);
+            assertEquals(expected[i],found[i],UtilEjml.TEST_F64*scale);
+        }
+
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(Z,UtilEjml.TEST_F64));
+
+        DMatrixRMaj TZ = new DMatrixRMaj(N,N);
+        DMatrixRMaj ZD = Z.copy();
+        CommonOps_DDRM.mult(T,Z,TZ);
+        for( int row = 0; row < N; row++ ) {
+            for( int col = 0; col < N; col++ ) {
+                ZD.data[row*N+col] *= found[col];
+            }
+        }
+        for( int i = 0; i < N*N; i++ ) {
+            assertEquals(TZ.data[i],ZD.data[i],UtilEjml.TEST_F64*scale);
+        }
+    }
+}
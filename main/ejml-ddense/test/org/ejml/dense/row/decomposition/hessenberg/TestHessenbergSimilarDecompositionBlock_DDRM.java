@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.hessenberg;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.ejml.dense.row.decomposition.CheckDecompositionInterface_DDRM.safeDecomposition;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHessenbergSimilarDecompositionBlock_DDRM {
+
+    Random rand = new Random(234);
+
+    /**
+     * Try different sizes relative to the block width, including ones where the last block is partial
+     */
+    @Test
+    public void compareToUnblocked() {
+        for( int width : new int[]{1,3,8} ) {
+            for( int N : new int[]{1,2,3,5,width+2,2*width+3,25} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+                compareToUnblocked(A,width);
+            }
+        }
+    }
+
+    /**
+     * If a column is already zero below the sub-diagonal then the reflector is skipped
+     */
+    @Test
+    public void zerosBelowSubDiagonal() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(12,12,-1,1,rand);
+        for( int row = 2; row < A.numRows; row++ ) {
+            A.set(row,0,0);
+        }
+
+        compareToUnblocked(A,4);
+    }
+
+    private void compareToUnblocked( DMatrixRMaj A , int width ) {
+        HessenbergSimilarDecomposition_DDRM expected = new HessenbergSimilarDecomposition_DDRM();
+        HessenbergSimilarDecompositionBlock_DDRM alg = new HessenbergSimilarDecompositionBlock_DDRM(width);
+
+        assertTrue(safeDecomposition(expected,A));
+        assertTrue(safeDecomposition(alg,A));
+
+        DMatrixRMaj Q = alg.getQ(null);
+        DMatrixRMaj H = alg.getH(null);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getH(null),H,UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getQ(null),Q,UtilEjml.TEST_F64));
+
+        // A = Q*H*Q^T
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q,UtilEjml.TEST_F64));
+        DMatrixRMaj QH = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(Q,H,QH);
+        CommonOps_DDRM.multTransB(QH,Q,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+    }
+}
@@ -18,8 +18,15 @@
 
 package org.ejml.dense.row.decomposition.hessenberg;
 
+import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.decomposition.TridiagonalSimilarDecomposition_F64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -31,4 +38,22 @@ public class TestTridiagonalDecompositionHouseholder_DDRM extends StandardTridia
     protected TridiagonalSimilarDecomposition_F64<DMatrixRMaj> createDecomposition() {
         return new TridiagonalDecompositionHouseholder_DDRM();
     }
+
+    @Test
+    public void applyQ() {
+        for( int N : new int[]{1,2,5,12} ) {
+            for( int numCols : new int[]{1,3,20} ) {
+                TridiagonalDecompositionHouseholder_DDRM alg = new TridiagonalDecompositionHouseholder_DDRM();
+                assertTrue(alg.decompose(RandomMatrices_DDRM.symmetric(N,-1,1,rand)));
+
+                DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N,numCols,-1,1,rand);
+                DMatrixRMaj expected = new DMatrixRMaj(N,numCols);
+                CommonOps_DDRM.mult(alg.getQ(null,false),B,expected);
+
+                alg.applyQ(B);
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,B,UtilEjml.TEST_F64));
+            }
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.lu;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLUDecompositionBlock_DDRM extends GeneralLuDecompositionChecks_DDRM {
+    @Override
+    public LUDecompositionBase_DDRM create(int numRows, int numCols) {
+        // small blocks so that the standard tests have more than one block
+        return new LUDecompositionBlock_DDRM(2);
+    }
+
+    /**
+     * Should produce the same decomposition and pivots as the unblocked algorithm for several block sizes
+     */
+    @Test
+    public void compareToAlt() {
+        for( int[] shape : new int[][]{{50,50},{60,35},{35,60}} ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(shape[0],shape[1],-1,1,rand);
+
+            LUDecompositionAlt_DDRM alt = new LUDecompositionAlt_DDRM();
+            assertTrue(alt.decompose(A));
+
+            for( int blockWidth : new int[]{1,7,16,64} ) {
+                for( boolean concurrent : new boolean[]{false,true} ) {
+                    LUDecompositionBlock_DDRM alg = new LUDecompositionBlock_DDRM(blockWidth,concurrent);
+                    assertTrue(alg.decompose(A));
+
+                    assertTrue(MatrixFeatures_DDRM.isIdentical(alt.getLU(),alg.getLU(),UtilEjml.TEST_F64));
+                    assertArrayEquals(alt.getPivot(),alg.getPivot());
+                    int min = Math.min(shape[0],shape[1]);
+                    for( int i = 0; i < min; i++ ) {
+                        assertEquals(alt.getIndx()[i],alg.getIndx()[i]);
+                    }
+                    if( shape[0] == shape[1] ) {
+                        double expected = alt.computeDeterminant().real;
+                        assertEquals(1.0,alg.computeDeterminant().real/expected,UtilEjml.TEST_F64);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.qr;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestQRDecompositionTall_DDRM extends GenericQrCheck_DDRM {
+
+    Random rand = new Random(234);
+
+    int maxThreads;
+
+    /**
+     * Makes sure the work is split across several threads even if there is only one core
+     */
+    @Before
+    public void before() {
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    /**
+     * Use small chunks so that the generic tests create trees with several levels
+     */
+    @Override
+    protected QRDecomposition<DMatrixRMaj> createQRDecomposition() {
+        return new QRDecompositionTall_DDRM(2,true);
+    }
+
+    /**
+     * Try different number of chunks, including ones which create a node that's passed through a level
+     */
+    @Test
+    public void multipleChunks() {
+        for( int numChunks = 1; numChunks <= 9; numChunks++ ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(numChunks*6+2,5,rand);
+
+            QRDecompositionTall_DDRM alg = new QRDecompositionTall_DDRM(6,true);
+            assertTrue(alg.decompose(A));
+
+            checkDecomposition(A,alg);
+        }
+    }
+
+    /**
+     * A chunk which doesn't have full rank shouldn't cause a problem if the matrix has full rank
+     */
+    @Test
+    public void chunkNotFullRank() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(40,4,rand);
+        for( int row = 10; row < 20; row++ ) {
+            A.set(row,1,0);
+        }
+
+        QRDecompositionTall_DDRM alg = new QRDecompositionTall_DDRM(10,true);
+        assertTrue(alg.decompose(A));
+        checkDecomposition(A,alg);
+    }
+
+    private void checkDecomposition( DMatrixRMaj A , QRDecompositionTall_DDRM alg ) {
+        DMatrixRMaj Q = alg.getQ(null,true);
+        DMatrixRMaj R = alg.getR(null,true);
+
+        DMatrixRMaj found = new DMatrixRMaj(A.numRows,A.numCols);
+        CommonOps_DDRM.mult(Q,R,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+
+        DMatrixRMaj QtQ = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.multTransA(Q,Q,QtQ);
+        assertTrue(MatrixFeatures_DDRM.isIdentity(QtQ,UtilEjml.TEST_F64));
+    }
+
+    /**
+     * The results should be identical when multiple threads are used
+     */
+    @Test
+    public void compareToSingleThread() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(200,7,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(200,3,rand);
+
+        QRDecompositionTall_DDRM single = new QRDecompositionTall_DDRM(10,false);
+        QRDecompositionTall_DDRM alg = new QRDecompositionTall_DDRM(10,true);
+        assertTrue(single.decompose(A));
+        assertTrue(alg.decompose(A));
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(single.getR(null,true),alg.getR(null,true),0));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(single.getQ(null,false),alg.getQ(null,false),0));
+
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        single.applyQTran(B,expected);
+        alg.applyQTran(B,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+    }
+
+    @Test
+    public void applyQTran() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(50,6,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(50,4,rand);
+
+        QRDecompositionTall_DDRM alg = new QRDecompositionTall_DDRM(8,true);
+        assertTrue(alg.decompose(A));
+
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.multTransA(alg.getQ(null,true),B,expected);
+
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        alg.applyQTran(B,found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    /**
+     * Adding rows incrementally should produce the same R as decomposing the whole matrix, up to the sign
+     * of each row
+     */
+    @Test
+    public void addRows() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(103,6,rand);
+
+        QRDecompositionTall_DDRM alg = new QRDecompositionTall_DDRM(8,true);
+        for( int i = 0; i < 2; i++ ) {
+            // the second time makes sure reset works
+            alg.reset();
+            // the first chunk has fewer rows than columns and one chunk has a single row
+            int[] edges = new int[]{0,3,40,41,70,A.numRows};
+            for( int j = 1; j < edges.length; j++ ) {
+                alg.addRows(CommonOps_DDRM.extract(A,edges[j-1],edges[j],0,A.numCols));
+            }
+
+            DMatrixRMaj found = alg.getR(null,true);
+
+            QRDecompositionHouseholderColumn_DDRM check = new QRDecompositionHouseholderColumn_DDRM();
+            assertTrue(check.decompose(A));
+            DMatrixRMaj expected = check.getR(null,true);
+
+            for( int row = 0; row < expected.numRows; row++ ) {
+                double sign = Math.signum(expected.get(row,row))*Math.signum(found.get(row,row));
+                for( int col = 0; col < expected.numCols; col++ ) {
+                    assertTrue(Math.abs(expected.get(row,col)-sign*found.get(row,col)) <= UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+}
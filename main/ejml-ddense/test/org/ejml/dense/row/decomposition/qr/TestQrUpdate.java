@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.decomposition.qr;
 
+import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
@@ -26,8 +27,10 @@ import org.ejml.dense.row.mult.SubmatrixOps_DDRM;
 import org.ejml.interfaces.decomposition.QRDecomposition;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 
@@ -140,6 +143,229 @@ public class TestQrUpdate {
         assertTrue(MatrixFeatures_DDRM.isIdentical(A_e,A_r,1e-6));
     }
 
+    @Test
+    public void testAddRows() {
+        int n = 3;
+
+        for( int m = 3; m < 6; m++ ) {
+            for( int k = 1; k <= 4; k++ ) {
+                for( int insert = 0; insert <= m; insert++ ) {
+                    DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,n,rand);
+                    DMatrixRMaj rows = RandomMatrices_DDRM.rectangle(k,n,rand);
+                    DMatrixRMaj A_e = new DMatrixRMaj(m+k,n);
+                    CommonOps_DDRM.insert(A,A_e,0,0);
+                    CommonOps_DDRM.extract(A,insert,m,0,n,A_e,insert+k,0);
+                    CommonOps_DDRM.insert(rows,A_e,insert,0);
+
+                    DMatrixRMaj Q = new DMatrixRMaj(m+k,m+k);
+                    DMatrixRMaj R = new DMatrixRMaj(m+k,n);
+                    decompose(A,Q,R);
+
+                    QrUpdate_DDRM update = new QrUpdate_DDRM();
+                    update.addRows(Q,R,rows,insert,true);
+
+                    assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q,UtilEjml.TEST_F64));
+                    assertTrue(MatrixFeatures_DDRM.isUpperTriangle(R,0,UtilEjml.TEST_F64));
+                    checkProduct(A_e,Q,R);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAddRows_ROnly() {
+        int n = 4;
+
+        for( int k = 1; k <= 5; k++ ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6,n,rand);
+            DMatrixRMaj rows = RandomMatrices_DDRM.rectangle(k,n,rand);
+            DMatrixRMaj R = decomposeR(A);
+
+            QrUpdate_DDRM update = new QrUpdate_DDRM();
+            update.addRowsNoQ(R,rows);
+
+            DMatrixRMaj A_e = new DMatrixRMaj(6+k,n);
+            CommonOps_DDRM.insert(A,A_e,0,0);
+            CommonOps_DDRM.insert(rows,A_e,6,0);
+
+            checkROnly(A_e,R);
+        }
+    }
+
+    @Test
+    public void testInsertColumn() {
+        for( int m = 4; m < 7; m++ ) {
+            for( int n = 1; n < 4; n++ ) {
+                for( int insert = 0; insert <= n; insert++ ) {
+                    DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,n,rand);
+                    DMatrixRMaj column = RandomMatrices_DDRM.rectangle(m,1,rand);
+                    DMatrixRMaj A_e = insertColumn(A,column,insert);
+
+                    DMatrixRMaj Q = new DMatrixRMaj(m,m);
+                    DMatrixRMaj R = new DMatrixRMaj(m,n+1);
+                    decompose(A,Q,R);
+
+                    QrUpdate_DDRM update = new QrUpdate_DDRM();
+                    update.addColumn(Q,R,column.data,insert);
+
+                    assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q,UtilEjml.TEST_F64));
+                    assertTrue(MatrixFeatures_DDRM.isUpperTriangle(R,0,UtilEjml.TEST_F64));
+                    checkProduct(A_e,Q,R);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInsertColumn_ROnly() {
+        int m = 7;
+        for( int n = 1; n < 5; n++ ) {
+            for( int insert = 0; insert <= n; insert++ ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,n,rand);
+                DMatrixRMaj column = RandomMatrices_DDRM.rectangle(m,1,rand);
+                DMatrixRMaj A_e = insertColumn(A,column,insert);
+
+                DMatrixRMaj R = decomposeR(A);
+                R.data = Arrays.copyOf(R.data,(n+1)*(n+1));
+
+                QrUpdate_DDRM update = new QrUpdate_DDRM();
+                update.addColumnNoQ(R,A,column.data,insert);
+
+                checkROnly(A_e,R);
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveColumn() {
+        for( int m = 4; m < 7; m++ ) {
+            for( int n = 2; n < 5; n++ ) {
+                for( int remove = 0; remove < n; remove++ ) {
+                    DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,n,rand);
+                    DMatrixRMaj A_e = removeColumn(A,remove);
+
+                    DMatrixRMaj Q = new DMatrixRMaj(m,m);
+                    DMatrixRMaj R = new DMatrixRMaj(m,n);
+                    decompose(A,Q,R);
+
+                    QrUpdate_DDRM update = new QrUpdate_DDRM();
+                    update.deleteColumn(Q,R,remove);
+
+                    assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q,UtilEjml.TEST_F64));
+                    assertTrue(MatrixFeatures_DDRM.isUpperTriangle(R,0,UtilEjml.TEST_F64));
+                    checkProduct(A_e,Q,R);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveColumn_ROnly() {
+        int m = 7;
+        for( int n = 2; n < 6; n++ ) {
+            for( int remove = 0; remove < n; remove++ ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,n,rand);
+                DMatrixRMaj A_e = removeColumn(A,remove);
+
+                DMatrixRMaj R = decomposeR(A);
+
+                QrUpdate_DDRM update = new QrUpdate_DDRM();
+                update.deleteColumnNoQ(R,remove);
+
+                checkROnly(A_e,R);
+            }
+        }
+    }
+
+    /**
+     * Adds and removes columns many times and sees if the R-only and Q updates stay consistent with the
+     * decomposition of the final matrix
+     */
+    @Test
+    public void testManyColumnUpdates() {
+        int m = 30;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,5,rand);
+        DMatrixRMaj Q = new DMatrixRMaj(m,m);
+        DMatrixRMaj R = new DMatrixRMaj(m,20);
+        decompose(A,Q,R);
+        DMatrixRMaj R_only = decomposeR(A);
+        R_only.data = Arrays.copyOf(R_only.data,20*20);
+
+        QrUpdate_DDRM update = new QrUpdate_DDRM();
+        for( int trial = 0; trial < 40; trial++ ) {
+            if( A.numCols > 2 && (A.numCols >= 12 || rand.nextBoolean()) ) {
+                int remove = rand.nextInt(A.numCols);
+                update.deleteColumn(Q,R,remove);
+                update.deleteColumnNoQ(R_only,remove);
+                A = removeColumn(A,remove);
+            } else {
+                int insert = rand.nextInt(A.numCols+1);
+                DMatrixRMaj column = RandomMatrices_DDRM.rectangle(m,1,rand);
+                update.addColumn(Q,R,column.data,insert);
+                update.addColumnNoQ(R_only,A,column.data,insert);
+                A = insertColumn(A,column,insert);
+            }
+        }
+
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q,UtilEjml.TEST_F64));
+        checkProduct(A,Q,R);
+        checkROnly(A,R_only);
+    }
+
+    private void decompose( DMatrixRMaj A , DMatrixRMaj Q , DMatrixRMaj R ) {
+        QRDecomposition<DMatrixRMaj> decomp = new QRDecompositionHouseholderColumn_DDRM();
+        assertTrue(decomp.decompose(A));
+        Q.reshape(A.numRows,A.numRows, false);
+        decomp.getQ(Q,false);
+        R.reshape(A.numRows,A.numCols, false);
+        decomp.getR(R,false);
+    }
+
+    private DMatrixRMaj decomposeR( DMatrixRMaj A ) {
+        QRDecomposition<DMatrixRMaj> decomp = new QRDecompositionHouseholderColumn_DDRM();
+        assertTrue(decomp.decompose(A));
+        return decomp.getR(null,true);
+    }
+
+    private static void checkProduct( DMatrixRMaj A_e , DMatrixRMaj Q , DMatrixRMaj R ) {
+        assertEquals(A_e.numRows,Q.numRows);
+        assertEquals(A_e.numRows,R.numRows);
+        assertEquals(A_e.numCols,R.numCols);
+        DMatrixRMaj A_r = new DMatrixRMaj(A_e.numRows,A_e.numCols);
+        CommonOps_DDRM.mult(Q,R,A_r);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A_e,A_r,UtilEjml.TEST_F64));
+    }
+
+    /**
+     * Without Q the best that can be done is to see if R is upper triangular and R'*R = A'*A
+     */
+    private static void checkROnly( DMatrixRMaj A_e , DMatrixRMaj R ) {
+        assertEquals(A_e.numCols,R.numRows);
+        assertEquals(A_e.numCols,R.numCols);
+        assertTrue(MatrixFeatures_DDRM.isUpperTriangle(R,0,UtilEjml.TEST_F64));
+
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.multTransA(A_e,A_e,expected);
+        CommonOps_DDRM.multTransA(R,R,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64*10));
+    }
+
+    private static DMatrixRMaj insertColumn( DMatrixRMaj A , DMatrixRMaj column , int insert ) {
+        DMatrixRMaj A_e = new DMatrixRMaj(A.numRows,A.numCols+1);
+        CommonOps_DDRM.extract(A,0,A.numRows,0,insert,A_e,0,0);
+        CommonOps_DDRM.insert(column,A_e,0,insert);
+        CommonOps_DDRM.extract(A,0,A.numRows,insert,A.numCols,A_e,0,insert+1);
+        return A_e;
+    }
+
+    private static DMatrixRMaj removeColumn( DMatrixRMaj A , int remove ) {
+        DMatrixRMaj A_e = new DMatrixRMaj(A.numRows,A.numCols-1);
+        CommonOps_DDRM.extract(A,0,A.numRows,0,remove,A_e,0,0);
+        CommonOps_DDRM.extract(A,0,A.numRows,remove+1,A.numCols,A_e,0,remove);
+        return A_e;
+    }
+
     public static DMatrixRMaj createQMod(DMatrixRMaj Q , int insertRow ) {
         DMatrixRMaj Qmod = new DMatrixRMaj(Q.numRows+1,Q.numCols+1);
 
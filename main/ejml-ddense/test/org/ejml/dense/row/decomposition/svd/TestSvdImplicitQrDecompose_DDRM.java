@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.decomposition.svd;
 
+import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.UtilTestMatrix;
@@ -75,6 +76,24 @@ public class TestSvdImplicitQrDecompose_DDRM extends StandardSvdChecks_DDRM {
         checkAllPermutations(5, 30);
     }
 
+    /**
+     * Large matrices are reduced to bidiagonal form using a blocked algorithm. Lower the threshold so that
+     * it's used on the test matrices.
+     */
+    @Test
+    public void blockBidiagonal() {
+        int original = EjmlParameters.SWITCH_BLOCK_BIDIAGONAL;
+        try {
+            EjmlParameters.SWITCH_BLOCK_BIDIAGONAL = 2;
+            checkCompact();
+            checkNotCompact();
+            checkAllPermutations(7, 5);
+            checkAllPermutations(5, 7);
+        } finally {
+            EjmlParameters.SWITCH_BLOCK_BIDIAGONAL = original;
+        }
+    }
+
     private void checkAllPermutations(int numRows, int numCols) {
 
         for( int a = 0; a < 2; a++ ) {
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.UtilTestMatrix;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdJacobiDecompose_DDRM extends StandardSvdChecks_DDRM {
+
+    boolean compact;
+    boolean needU;
+    boolean needV;
+    boolean concurrent;
+
+    @Override
+    public SingularValueDecomposition_F64 createSvd() {
+        return new SvdJacobiDecompose_DDRM(compact,needU,needV,concurrent);
+    }
+
+    @Test
+    public void checkCompact() {
+        compact = true;
+        needU = true;
+        needV = true;
+        allTests();
+    }
+
+    @Test
+    public void checkNotCompact() {
+        compact = false;
+        needU = true;
+        needV = true;
+        allTests();
+    }
+
+    @Test
+    public void checkConcurrent() {
+        concurrent = true;
+        checkCompact();
+        checkNotCompact();
+    }
+
+    /**
+     * Only compute some of the components. The singular values should match the QR algorithm and U and V should
+     * be the same as when everything is computed.
+     */
+    @Test
+    public void checkPartial() {
+        for( int[] shape : new int[][]{{30,30},{40,25},{25,40}} ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(shape[0],shape[1],-1,1,rand);
+
+            SvdImplicitQrDecompose_DDRM qr = new SvdImplicitQrDecompose_DDRM(false,false,false,false);
+            assertTrue(qr.decompose(A));
+
+            compact = false;
+            needU = needV = true;
+            SingularValueDecomposition_F64<DMatrixRMaj> full = createSvd();
+            assertTrue(full.decompose(A));
+
+            for( int i = 0; i < 4; i++ ) {
+                needU = i%2 == 0;
+                needV = i/2 == 0;
+
+                SingularValueDecomposition_F64<DMatrixRMaj> alg = createSvd();
+                assertTrue(alg.decompose(A));
+
+                UtilTestMatrix.checkSameElements(UtilEjml.TEST_F64,qr.numberOfSingularValues(),
+                        qr.getSingularValues(),alg.getSingularValues());
+
+                if( needU )
+                    assertTrue(MatrixFeatures_DDRM.isIdentical(full.getU(null,false),alg.getU(null,false),0));
+                if( needV )
+                    assertTrue(MatrixFeatures_DDRM.isIdentical(full.getV(null,false),alg.getV(null,false),0));
+            }
+        }
+    }
+
+    /**
+     * The columns are scaled so that the singular values span many orders of magnitude. Jacobi should find the
+     * small singular values with high relative accuracy.
+     */
+    @Test
+    public void gradedColumns() {
+        int N = 5;
+        DMatrixRMaj Q = RandomMatrices_DDRM.orthogonal(N,N,rand);
+        DMatrixRMaj A = new DMatrixRMaj(N,N);
+        double[] scales = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            scales[i] = Math.pow(10,-2*i);
+        }
+        DMatrixRMaj D = CommonOps_DDRM.diag(scales);
+        CommonOps_DDRM.mult(Q,D,A);
+
+        compact = true;
+        needU = needV = true;
+        SingularValueDecomposition_F64<DMatrixRMaj> alg = createSvd();
+        assertTrue(alg.decompose(A));
+
+        double[] found = alg.getSingularValues().clone();
+        Arrays.sort(found,0,N);
+        for( int i = 0; i < N; i++ ) {
+            double expected = scales[N-1-i];
+            assertEquals(1.0,found[i]/expected,UtilEjml.TEST_F64*10);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdRandomizedDecompose_DDRM {
+
+    Random rand = new Random(234);
+
+    /**
+     * If the rank of the matrix is less than the requested rank then the decomposition should be exact
+     */
+    @Test
+    public void exactLowRank() {
+        for( int[] shape : new int[][]{{60,40},{40,60},{30,30}} ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.singular(shape[0],shape[1],rand,5,4,3,2,1);
+
+            SvdRandomizedDecompose_DDRM alg = new SvdRandomizedDecompose_DDRM(5,true,true);
+            assertTrue(alg.decompose(A));
+            assertEquals(5,alg.numberOfSingularValues());
+
+            double sv[] = alg.getSingularValues();
+            for( int i = 0; i < 5; i++ ) {
+                assertEquals(5-i,sv[i],UtilEjml.TEST_F64);
+            }
+            checkComponents(alg,A,shape[0],shape[1],5);
+
+            DMatrixRMaj U = alg.getU(null,false);
+            DMatrixRMaj W = alg.getW(null);
+            DMatrixRMaj Vt = alg.getV(null,true);
+            DMatrixRMaj UW = new DMatrixRMaj(A.numRows,5);
+            DMatrixRMaj found = new DMatrixRMaj(A.numRows,A.numCols);
+            CommonOps_DDRM.mult(U,W,UW);
+            CommonOps_DDRM.mult(UW,Vt,found);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+        }
+    }
+
+    /**
+     * Singular values decay and the matrix is full rank. The largest singular values should be close to the
+     * ones from a full SVD.
+     */
+    @Test
+    public void decayingSpectrum() {
+        int N = 80;
+        double expected[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            expected[i] = Math.pow(0.7,i);
+        }
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(120,N,rand,expected);
+
+        SvdRandomizedDecompose_DDRM alg = new SvdRandomizedDecompose_DDRM(10,true,true);
+        assertTrue(alg.decompose(A));
+        checkComponents(alg,A,120,N,10);
+
+        double sv[] = alg.getSingularValues();
+        for( int i = 0; i < 10; i++ ) {
+            assertEquals(expected[i],sv[i],expected[i]*UtilEjml.TEST_F64*100);
+        }
+
+        // without any power iterations or oversampling it should be much worse
+        alg = new SvdRandomizedDecompose_DDRM(10,0,0,true,true);
+        assertTrue(alg.decompose(A));
+        assertTrue(Math.abs(expected[9]-alg.getSingularValues()[9]) > expected[9]*UtilEjml.TEST_F64*100);
+    }
+
+    /**
+     * Requested rank is larger than the matrix
+     */
+    @Test
+    public void rankLargerThanMatrix() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(12,7,-1,1,rand);
+
+        SvdRandomizedDecompose_DDRM alg = new SvdRandomizedDecompose_DDRM(20,true,true);
+        assertTrue(alg.decompose(A));
+        assertEquals(7,alg.numberOfSingularValues());
+        checkComponents(alg,A,12,7,7);
+
+        SvdImplicitQrDecompose_DDRM svd = new SvdImplicitQrDecompose_DDRM(true,false,false,false);
+        assertTrue(svd.decompose(A));
+        double expected[] = svd.getSingularValues().clone();
+        Arrays.sort(expected);
+        for( int i = 0; i < 7; i++ ) {
+            assertEquals(expected[6-i],alg.getSingularValues()[i],UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * Only request some of the matrices be computed
+     */
+    @Test
+    public void partial() {
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(40,30,rand,3,2,1);
+
+        SvdRandomizedDecompose_DDRM full = new SvdRandomizedDecompose_DDRM(3,true,true);
+        assertTrue(full.decompose(A));
+
+        for( int i = 0; i < 4; i++ ) {
+            boolean needU = i%2 == 0;
+            boolean needV = i/2 == 0;
+            SvdRandomizedDecompose_DDRM alg = new SvdRandomizedDecompose_DDRM(3,needU,needV);
+            assertTrue(alg.decompose(A));
+
+            for( int j = 0; j < 3; j++ ) {
+                assertEquals(full.getSingularValues()[j],alg.getSingularValues()[j],0);
+            }
+
+            if( needU )
+                assertTrue(MatrixFeatures_DDRM.isIdentical(full.getU(null,false),alg.getU(null,false),0));
+            else {
+                try {
+                    alg.getU(null,false);
+                    fail("Should have thrown an exception");
+                } catch( IllegalArgumentException ignore ) {}
+            }
+            if( needV )
+                assertTrue(MatrixFeatures_DDRM.isIdentical(full.getV(null,false),alg.getV(null,false),0));
+        }
+    }
+
+    /**
+     * The rank of the matrix is less than rank + oversampling so the random sketch has columns which are exactly
+     * zero after the QR decomposition has removed the range of A
+     */
+    @Test
+    public void rankBelowSampling() {
+        // a single non-zero element
+        DMatrixRMaj A = new DMatrixRMaj(30,20);
+        A.set(4,7,3.5);
+        SvdRandomizedDecompose_DDRM alg = new SvdRandomizedDecompose_DDRM(5,true,true);
+        assertTrue(alg.decompose(A));
+        assertEquals(3.5,alg.getSingularValues()[0],UtilEjml.TEST_F64);
+        for( int i = 1; i < 5; i++ ) {
+            assertEquals(0,alg.getSingularValues()[i],UtilEjml.TEST_F64);
+        }
+        checkComponents(alg,A,30,20,5);
+
+        // only a few columns and rows are not zero
+        A.zero();
+        DMatrixRMaj B = RandomMatrices_DDRM.singular(6,3,rand,3,2,1);
+        CommonOps_DDRM.insert(B,A,10,2);
+        assertTrue(alg.decompose(A));
+        for( int i = 0; i < 5; i++ ) {
+            assertEquals(i < 3 ? 3-i : 0,alg.getSingularValues()[i],UtilEjml.TEST_F64);
+        }
+        checkComponents(alg,A,30,20,5);
+    }
+
+    @Test
+    public void zeroMatrix() {
+        for( int[] shape : new int[][]{{30,20},{20,30}} ) {
+            DMatrixRMaj A = new DMatrixRMaj(shape[0],shape[1]);
+            SvdRandomizedDecompose_DDRM alg = new SvdRandomizedDecompose_DDRM(5,true,true);
+            assertTrue(alg.decompose(A));
+            for( int i = 0; i < 5; i++ ) {
+                assertEquals(0,alg.getSingularValues()[i],0);
+            }
+            checkComponents(alg,A,shape[0],shape[1],5);
+        }
+    }
+
+    /**
+     * Decomposing the same matrix twice should produce identical results
+     */
+    @Test
+    public void repeatable() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(40,30,-1,1,rand);
+        SvdRandomizedDecompose_DDRM alg = new SvdRandomizedDecompose_DDRM(4,true,true);
+        assertTrue(alg.decompose(A));
+        DMatrixRMaj U = alg.getU(null,false);
+        DMatrixRMaj V = alg.getV(null,false);
+        double sv[] = alg.getSingularValues().clone();
+
+        assertTrue(alg.decompose(A));
+        for( int i = 0; i < 4; i++ ) {
+            assertEquals(sv[i],alg.getSingularValues()[i],0);
+        }
+        assertTrue(MatrixFeatures_DDRM.isIdentical(U,alg.getU(null,false),0));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(V,alg.getV(null,false),0));
+
+        // a different seed should produce a different approximation
+        alg.setSeed(1);
+        assertTrue(alg.decompose(A));
+        assertFalse(MatrixFeatures_DDRM.isIdentical(U,alg.getU(null,false),0));
+    }
+
+    @Test
+    public void sizeZero() {
+        SvdRandomizedDecompose_DDRM alg = new SvdRandomizedDecompose_DDRM(3,true,true);
+        assertFalse(alg.decompose(new DMatrixRMaj(0,0)));
+        assertFalse(alg.decompose(new DMatrixRMaj(0,2)));
+        assertFalse(alg.decompose(new DMatrixRMaj(2,0)));
+    }
+
+    /**
+     * Checks the shape of the matrices, that singular values are in descending order, the singular vectors are
+     * orthonormal, and A*v = w*u
+     */
+    private void checkComponents( SvdRandomizedDecompose_DDRM alg , DMatrixRMaj A ,
+                                  int numRows , int numCols , int rank ) {
+        DMatrixRMaj U = alg.getU(null,false);
+        DMatrixRMaj V = alg.getV(null,false);
+        DMatrixRMaj W = alg.getW(null);
+        double sv[] = alg.getSingularValues();
+
+        assertTrue(alg.isCompact());
+        assertEquals(numRows,alg.numRows());
+        assertEquals(numCols,alg.numCols());
+        assertTrue(MatrixFeatures_DDRM.isIdentical(U,CommonOps_DDRM.transpose(alg.getU(null,true),null),0));
+        assertEquals(rank,W.numRows);
+        assertEquals(rank,W.numCols);
+        assertEquals(numRows,U.numRows);
+        assertEquals(rank,U.numCols);
+        assertEquals(numCols,V.numRows);
+        assertEquals(rank,V.numCols);
+
+        for( int i = 1; i < rank; i++ ) {
+            assertTrue(sv[i-1] >= sv[i]);
+        }
+
+        DMatrixRMaj UtU = new DMatrixRMaj(rank,rank);
+        CommonOps_DDRM.multTransA(U,U,UtU);
+        assertTrue(MatrixFeatures_DDRM.isIdentity(UtU,UtilEjml.TEST_F64));
+        CommonOps_DDRM.multTransA(V,V,UtU);
+        assertTrue(MatrixFeatures_DDRM.isIdentity(UtU,UtilEjml.TEST_F64));
+
+        // A*V = U*W
+        DMatrixRMaj AV = new DMatrixRMaj(numRows,rank);
+        DMatrixRMaj UW = new DMatrixRMaj(numRows,rank);
+        CommonOps_DDRM.mult(A,V,AV);
+        CommonOps_DDRM.mult(U,W,UW);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(AV,UW,UtilEjml.TEST_F64*10));
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd.divideconquer;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.decomposition.svd.implicitqr.SvdImplicitQrAlgorithm_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdDivideConquerAlgorithm_DDRM {
+
+    Random rand = new Random(234);
+
+    int originalThreads;
+
+    @Before
+    public void before() {
+        originalThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(originalThreads);
+    }
+
+    /**
+     * Random matrices with different sizes relative to the size of the sub-problems
+     */
+    @Test
+    public void random() {
+        for( int minSize : new int[]{1,2,5} ) {
+            for( int N : new int[]{1,2,3,4,7,16,31,60} ) {
+                double diag[] = new double[N];
+                double off[] = new double[N];
+                for( int i = 0; i < N; i++ ) {
+                    diag[i] = rand.nextDouble()*2-1;
+                    off[i] = rand.nextDouble()*2-1;
+                }
+                check(diag,off,N,minSize);
+            }
+        }
+    }
+
+    /**
+     * Elements which are zero split the problem or make it singular, which causes values to be deflated
+     */
+    @Test
+    public void zeros() {
+        int N = 20;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = rand.nextDouble()*2-1;
+            off[i] = i%3 == 0 ? 0 : rand.nextDouble()*2-1;
+        }
+        check(diag,off,N,2);
+
+        // it's already diagonal
+        Arrays.fill(off,0);
+        check(diag,off,N,2);
+
+        // singular matrix
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = i%4 == 1 ? 0 : rand.nextDouble()*2-1;
+            off[i] = rand.nextDouble()*2-1;
+        }
+        check(diag,off,N,2);
+
+        // everything is zero
+        Arrays.fill(diag,0);
+        Arrays.fill(off,0);
+        check(diag,off,N,2);
+    }
+
+    /**
+     * Many repeated singular values, which are deflated after a rotation
+     */
+    @Test
+    public void repeatedValues() {
+        int N = 30;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = 2;
+            off[i] = i == N/2 ? 0.001 : 0;
+        }
+        check(diag,off,N,3);
+
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = 1;
+            off[i] = 1;
+        }
+        check(diag,off,N,3);
+    }
+
+    /**
+     * Singular values which vary greatly in magnitude
+     */
+    @Test
+    public void graded() {
+        int N = 40;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = Math.pow(0.5,i);
+            off[i] = Math.pow(0.5,i+1);
+        }
+        check(diag,off,N,4);
+    }
+
+    /**
+     * Values which would overflow or underflow if they were squared
+     */
+    @Test
+    public void scaling() {
+        for( double scale : new double[]{ Math.pow(UtilEjml.EPS,5), Math.pow(UtilEjml.EPS,-5)} ) {
+            int N = 25;
+            double diag[] = new double[N];
+            double off[] = new double[N];
+            for( int i = 0; i < N; i++ ) {
+                diag[i] = (rand.nextDouble()*2-1)*scale;
+                off[i] = (rand.nextDouble()*2-1)*scale;
+            }
+            check(diag,off,N,3);
+        }
+    }
+
+    /**
+     * Single threaded and concurrent should produce identical results
+     */
+    @Test
+    public void compareConcurrent() {
+        int N = 150;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            diag[i] = rand.nextDouble()*2-1;
+            off[i] = rand.nextDouble()*2-1;
+        }
+
+        SvdDivideConquerAlgorithm_DDRM serial = new SvdDivideConquerAlgorithm_DDRM(4,false);
+        SvdDivideConquerAlgorithm_DDRM concurrent = new SvdDivideConquerAlgorithm_DDRM(4,true);
+
+        assertTrue(serial.process(N,diag,off));
+        assertTrue(concurrent.process(N,diag,off));
+
+        for( int i = 0; i < N; i++ ) {
+            assertEquals(serial.getSingularValues()[i],concurrent.getSingularValues()[i],0);
+        }
+        assertTrue(MatrixFeatures_DDRM.isIdentical(serial.getU(),concurrent.getU(),0));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(serial.getV(),concurrent.getV(),0));
+    }
+
+    /**
+     * Checks to see if the singular values are sorted, match the QR algorithm, and B = U*W*V' with U and V orthogonal
+     */
+    private void check( double diag[] , double off[] , int N , int minSize ) {
+        double scale = 0;
+        for( int i = 0; i < N; i++ ) {
+            scale = Math.max(scale,Math.abs(diag[i]));
+            if( i < N-1 )
+                scale = Math.max(scale,Math.abs(off[i]));
+        }
+
+        DMatrixRMaj B = new DMatrixRMaj(N,N);
+        for( int i = 0; i < N; i++ ) {
+            B.set(i,i,diag[i]);
+            if( i < N-1 ) {
+                B.set(i,i+1,off[i]);
+            }
+        }
+
+        SvdDivideConquerAlgorithm_DDRM alg = new SvdDivideConquerAlgorithm_DDRM(minSize,false);
+        assertTrue(alg.process(N,diag.clone(),off.clone()));
+        double found[] = Arrays.copyOf(alg.getSingularValues(),N);
+        DMatrixRMaj U = alg.getU();
+        DMatrixRMaj V = alg.getV();
+
+        // compare against the singular values from the QR algorithm
+        SvdImplicitQrAlgorithm_DDRM qr = new SvdImplicitQrAlgorithm_DDRM();
+        qr.setMatrix(N,N,diag.clone(),off.clone());
+        assertTrue(qr.process());
+        double expected[] = new double[N];
+        for( int i = 0; i < N; i++ ) {
+            expected[i] = Math.abs(qr.getSingularValue(i));
+        }
+        Arrays.sort(expected);
+
+        for( int i = 0; i < N; i++ ) {
+            if( i > 0 )
+                assertTrue(found[i-1] <= found[i]);
+            assertTrue(found[i] >= 0);
+            assertEquals(expected[i],found[i],UtilEjml.TEST_F64*scale);
+        }
+
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(U,UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(V,UtilEjml.TEST_F64));
+
+        DMatrixRMaj UW = U.copy();
+        for( int row = 0; row < N; row++ ) {
+            for( int col = 0; col < N; col++ ) {
+                UW.data[row*N+col] *= found[col];
+            }
+        }
+        DMatrixRMaj found_B = new DMatrixRMaj(N,N);
+        CommonOps_DDRM.multTransB(UW,V,found_B);
+        for( int i = 0; i < N*N; i++ ) {
+            assertEquals(B.data[i],found_B.data[i],UtilEjml.TEST_F64*scale);
+        }
+    }
+}
@@ -18,15 +18,23 @@
 
 package org.ejml.dense.row.factory;
 
+import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionBlock_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdDivideConquerDecompose_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdJacobiDecompose_DDRM;
 import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
 import org.junit.Test;
 
 import java.util.Random;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 
@@ -76,4 +84,86 @@ public class TestDecompositionFactory_DDRM {
         assertTrue(origQuality < modQuality);
         assertTrue(origQuality < UtilEjml.TEST_F64);
     }
+
+    /**
+     * Large matrices should use divide and conquer if the singular vectors are needed
+     */
+    @Test
+    public void svd_divideConquer() {
+        int original = EjmlParameters.SWITCH_SVD_DIVIDE_CONQUER;
+        try {
+            EjmlParameters.SWITCH_SVD_DIVIDE_CONQUER = 10;
+
+            assertTrue(DecompositionFactory_DDRM.svd(20,12,true,false,false) instanceof SvdDivideConquerDecompose_DDRM);
+            assertTrue(DecompositionFactory_DDRM.svd(12,20,false,true,false) instanceof SvdDivideConquerDecompose_DDRM);
+            assertTrue(DecompositionFactory_DDRM.svd(20,9,true,true,false) instanceof SvdImplicitQrDecompose_DDRM);
+            assertTrue(DecompositionFactory_DDRM.svd(20,20,false,false,false) instanceof SvdImplicitQrDecompose_DDRM);
+
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,15,rand);
+            SingularValueDecomposition_F64<DMatrixRMaj> svd = DecompositionFactory_DDRM.svd(A.numRows,A.numCols,true,true,false);
+            assertTrue(svd.decompose(A));
+            assertTrue(DecompositionFactory_DDRM.quality(A,svd) < UtilEjml.TEST_F64);
+        } finally {
+            EjmlParameters.SWITCH_SVD_DIVIDE_CONQUER = original;
+        }
+    }
+
+    /**
+     * Jacobi is only used when the switch has been set and concurrency is turned on
+     */
+    @Test
+    public void svd_jacobi() {
+        int original = EjmlParameters.SWITCH_SVD_JACOBI;
+        boolean originalConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            assertFalse(DecompositionFactory_DDRM.svd(20,12,true,true,false) instanceof SvdJacobiDecompose_DDRM);
+
+            EjmlParameters.SWITCH_SVD_JACOBI = 15;
+            EjmlConcurrency.USE_CONCURRENT = true;
+            assertTrue(DecompositionFactory_DDRM.svd(20,12,true,true,false) instanceof SvdJacobiDecompose_DDRM);
+            assertTrue(DecompositionFactory_DDRM.svd(12,20,false,false,true) instanceof SvdJacobiDecompose_DDRM);
+            assertFalse(DecompositionFactory_DDRM.svd(20,15,true,true,false) instanceof SvdJacobiDecompose_DDRM);
+
+            EjmlConcurrency.USE_CONCURRENT = false;
+            assertFalse(DecompositionFactory_DDRM.svd(20,12,true,true,false) instanceof SvdJacobiDecompose_DDRM);
+        } finally {
+            EjmlParameters.SWITCH_SVD_JACOBI = original;
+            EjmlConcurrency.USE_CONCURRENT = originalConcurrent;
+        }
+    }
+
+    /**
+     * A switch of zero turns Jacobi off, even for a 0x0 hint
+     */
+    @Test
+    public void svd_jacobi_disabled() {
+        int original = EjmlParameters.SWITCH_SVD_JACOBI;
+        boolean originalConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            EjmlParameters.SWITCH_SVD_JACOBI = 0;
+            EjmlConcurrency.USE_CONCURRENT = true;
+            assertFalse(DecompositionFactory_DDRM.svd(0,0,true,true,false) instanceof SvdJacobiDecompose_DDRM);
+            assertFalse(DecompositionFactory_DDRM.svd(0,0,false,false,true) instanceof SvdJacobiDecompose_DDRM);
+        } finally {
+            EjmlParameters.SWITCH_SVD_JACOBI = original;
+            EjmlConcurrency.USE_CONCURRENT = originalConcurrent;
+        }
+    }
+
+    /**
+     * Large matrices should use the block LU
+     */
+    @Test
+    public void lu_block() {
+        int original = EjmlParameters.SWITCH_BLOCK_LU;
+        try {
+            EjmlParameters.SWITCH_BLOCK_LU = 10;
+
+            assertTrue(DecompositionFactory_DDRM.lu(20,12) instanceof LUDecompositionBlock_DDRM);
+            assertTrue(DecompositionFactory_DDRM.lu(12,20) instanceof LUDecompositionBlock_DDRM);
+            assertTrue(DecompositionFactory_DDRM.lu(20,9) instanceof LUDecompositionAlt_DDRM);
+        } finally {
+            EjmlParameters.SWITCH_BLOCK_LU = original;
+        }
+    }
 }
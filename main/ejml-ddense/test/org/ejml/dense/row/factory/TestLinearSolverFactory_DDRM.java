@@ -18,12 +18,14 @@
 
 package org.ejml.dense.row.factory;
 
+import org.ejml.EjmlParameters;
 import org.ejml.LinearSolverSafe;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionBlock_DDRM;
 import org.ejml.dense.row.linsol.AdjustableLinearSolver_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
 import org.junit.Test;
@@ -62,6 +64,28 @@ public class TestLinearSolverFactory_DDRM {
         standardTest(A, x, y, solver);
     }
 
+    /**
+     * Large systems are solved using the block LU
+     */
+    @Test
+    public void linear_block() {
+        int original = EjmlParameters.SWITCH_BLOCK_LU;
+        try {
+            EjmlParameters.SWITCH_BLOCK_LU = 10;
+
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(30,30,rand);
+            DMatrixRMaj x = RandomMatrices_DDRM.rectangle(30,1,rand);
+            DMatrixRMaj y = new DMatrixRMaj(30,1);
+
+            LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.lu(A.numRows);
+            assertTrue(solver.getDecomposition() instanceof LUDecompositionBlock_DDRM);
+
+            standardTest(A, x, y, solver);
+        } finally {
+            EjmlParameters.SWITCH_BLOCK_LU = original;
+        }
+    }
+
     @Test
     public void leastSquares() {
         DMatrixRMaj A = RandomMatrices_DDRM.rectangle(5,4,rand);
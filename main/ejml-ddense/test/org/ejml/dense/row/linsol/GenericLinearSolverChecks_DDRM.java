@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.linsol;
 
+import org.ejml.EjmlParameters;
 import org.ejml.EjmlUnitTests;
 import org.ejml.LinearSolverSafe;
 import org.ejml.UtilEjml;
@@ -283,6 +284,47 @@ public abstract class GenericLinearSolverChecks_DDRM {
         return A;
     }
 
+    /**
+     * B has enough columns that the solvers will solve for all of them at once. Compare against solving for
+     * each column individually.
+     */
+    @Test
+    public void solve_manyColumns() {
+        int blockWidth = EjmlParameters.BLOCK_WIDTH;
+        try {
+            // split the triangular matrices into several blocks
+            EjmlParameters.BLOCK_WIDTH = 4;
+
+            int numRows = 20;
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(numRows,20,rand);
+            // keep it well conditioned
+            for( int i = 0; i < 20; i++ ) {
+                A.add(i,i,5);
+            }
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(numRows,EjmlParameters.SOLVE_COLUMN_SWITCH+3,rand);
+            DMatrixRMaj X = new DMatrixRMaj(1,1);
+
+            LinearSolverDense<DMatrixRMaj> solver = createSafeSolver(A);
+            assertTrue(solver.setA(A));
+            solver.solve(B,X);
+
+            assertEquals(20,X.numRows);
+            assertEquals(B.numCols,X.numCols);
+
+            DMatrixRMaj b = new DMatrixRMaj(numRows,1);
+            DMatrixRMaj x = new DMatrixRMaj(20,1);
+            for( int col = 0; col < B.numCols; col++ ) {
+                CommonOps_DDRM.extract(B,0,numRows,col,col+1,b,0,0);
+                solver.solve(b,x);
+                for( int row = 0; row < 20; row++ ) {
+                    assertEquals(x.get(row),X.get(row,col),tol);
+                }
+            }
+        } finally {
+            EjmlParameters.BLOCK_WIDTH = blockWidth;
+        }
+    }
+
     @Test
     public void inverse() {
         DMatrixRMaj A = new DMatrixRMaj(3,3, true, 0, 1, 2, -2, 4, 9, 0.5, 0, 5);
@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.linsol.chol;
 
+import org.ejml.EjmlParameters;
 import org.ejml.EjmlUnitTests;
 import org.ejml.LinearSolverSafe;
 import org.ejml.UtilEjml;
@@ -120,6 +121,33 @@ public abstract class BaseCholeskySolveTests_DDRM {
         EjmlUnitTests.assertEquals(x_expected,x,UtilEjml.TEST_F64_SQ);
     }
 
+    /**
+     * B has enough columns that the solvers will solve for all of them at once
+     */
+    @Test
+    public void testSolve_manyColumns() {
+        int blockWidth = EjmlParameters.BLOCK_WIDTH;
+        try {
+            // split the triangular matrices into several blocks
+            EjmlParameters.BLOCK_WIDTH = 4;
+
+            LinearSolverDense<DMatrixRMaj> solver = createSafeSolver();
+
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(20,rand);
+            DMatrixRMaj X_expected = RandomMatrices_DDRM.rectangle(20,EjmlParameters.SOLVE_COLUMN_SWITCH+3,rand);
+            DMatrixRMaj B = new DMatrixRMaj(1,1);
+            CommonOps_DDRM.mult(A,X_expected,B);
+            DMatrixRMaj X = new DMatrixRMaj(1,1);
+
+            assertTrue(solver.setA(A));
+            solver.solve(B,X);
+
+            EjmlUnitTests.assertEquals(X_expected,X,UtilEjml.TEST_F64_SQ);
+        } finally {
+            EjmlParameters.BLOCK_WIDTH = blockWidth;
+        }
+    }
+
     @Test
     public void testInvert() {
 
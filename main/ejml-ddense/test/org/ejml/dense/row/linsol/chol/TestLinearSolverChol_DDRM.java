@@ -18,9 +18,17 @@
 
 package org.ejml.dense.row.linsol.chol;
 
+import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -34,4 +42,38 @@ public class TestLinearSolverChol_DDRM extends BaseCholeskySolveTests_DDRM {
         return new LinearSolverChol_DDRM(alg);
     }
 
+    /**
+     * Solve after the decomposition has been updated then downdated
+     */
+    @Test
+    public void updateDowndate() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(10,rand);
+        DMatrixRMaj V = RandomMatrices_DDRM.rectangle(10,2,-1,1,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(10,3,-1,1,rand);
+        DMatrixRMaj AV = A.copy();
+        CommonOps_DDRM.multAddTransB(V,V,AV);
+
+        LinearSolverChol_DDRM solver = (LinearSolverChol_DDRM)createSolver();
+        assertTrue(solver.setA(A.copy()));
+
+        DMatrixRMaj X = new DMatrixRMaj(10,3);
+        DMatrixRMaj found = new DMatrixRMaj(10,3);
+
+        assertTrue(solver.update(V));
+        solver.solve(B,X);
+        CommonOps_DDRM.mult(AV,X,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(B,found,UtilEjml.TEST_F64));
+
+        assertTrue(solver.downdate(V));
+        solver.solve(B,X);
+        CommonOps_DDRM.mult(A,X,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(B,found,UtilEjml.TEST_F64));
+
+        // a failed update should leave the decomposition unchanged
+        V.set(3,1,Double.NaN);
+        assertFalse(solver.update(V));
+        solver.solve(B,X);
+        CommonOps_DDRM.mult(A,X,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(B,found,UtilEjml.TEST_F64));
+    }
 }
@@ -23,13 +23,14 @@ import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.linsol.AdjustableColumnLinearSolver_DDRM;
 import org.ejml.dense.row.linsol.AdjustableLinearSolver_DDRM;
 import org.ejml.dense.row.linsol.GenericLinearSolverChecks_DDRM;
 import org.ejml.dense.row.mult.SubmatrixOps_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
 import org.junit.Test;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 
 /**
@@ -107,6 +108,130 @@ public class TestAdjLinearSolverQr_DDRM extends GenericLinearSolverChecks_DDRM {
         assertTrue(MatrixFeatures_DDRM.isIdentical(X_found,X,UtilEjml.TEST_F64));
     }
 
+    @Test
+    public void addRowsToA() {
+        int insert = 2;
+        int m = 5;
+        int n = 3;
+
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,n,rand);
+        // add enough rows that the internal data structures need to grow
+        DMatrixRMaj rows = RandomMatrices_DDRM.rectangle(8,n,rand);
+
+        DMatrixRMaj A_e = new DMatrixRMaj(m+rows.numRows,n);
+        CommonOps_DDRM.insert(A,A_e,0,0);
+        CommonOps_DDRM.extract(A,insert,m,0,n,A_e,insert+rows.numRows,0);
+        CommonOps_DDRM.insert(rows,A_e,insert,0);
+
+        AdjustableColumnLinearSolver_DDRM adjSolver = new AdjLinearSolverQr_DDRM();
+        assertTrue(adjSolver.setA(A));
+        assertTrue(adjSolver.addRowsToA(rows,insert));
+
+        checkSolution(adjSolver,A_e);
+    }
+
+    @Test
+    public void addColumnToA() {
+        int m = 8;
+        int n = 3;
+
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,n,rand);
+        AdjustableColumnLinearSolver_DDRM adjSolver = new AdjLinearSolverQr_DDRM();
+        assertTrue(adjSolver.setA(A));
+
+        // add several columns so that the internal data structures need to grow
+        for( int i = 0; i < 3; i++ ) {
+            int insert = rand.nextInt(A.numCols+1);
+            DMatrixRMaj column = RandomMatrices_DDRM.rectangle(m,1,rand);
+
+            DMatrixRMaj A_e = new DMatrixRMaj(m,A.numCols+1);
+            CommonOps_DDRM.extract(A,0,m,0,insert,A_e,0,0);
+            CommonOps_DDRM.insert(column,A_e,0,insert);
+            CommonOps_DDRM.extract(A,0,m,insert,A.numCols,A_e,0,insert+1);
+
+            assertTrue(adjSolver.addColumnToA(column.data,insert));
+            checkSolution(adjSolver,A_e);
+            A = A_e;
+        }
+
+        // rows can still be added after the number of columns has changed
+        double row[] = new double[]{1,2,3,4,5,6};
+        DMatrixRMaj A_e = new DMatrixRMaj(m+1,A.numCols);
+        CommonOps_DDRM.insert(A,A_e,0,0);
+        System.arraycopy(row,0,A_e.data,m*A.numCols,A.numCols);
+        assertTrue(adjSolver.addRowToA(row,m));
+        checkSolution(adjSolver,A_e);
+    }
+
+    @Test
+    public void removeColumnFromA() {
+        int remove = 1;
+        int m = 6;
+        int n = 4;
+
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m,n,rand);
+        DMatrixRMaj A_e = new DMatrixRMaj(m,n-1);
+        CommonOps_DDRM.extract(A,0,m,0,remove,A_e,0,0);
+        CommonOps_DDRM.extract(A,0,m,remove+1,n,A_e,0,remove);
+
+        AdjustableColumnLinearSolver_DDRM adjSolver = new AdjLinearSolverQr_DDRM();
+        assertTrue(adjSolver.setA(A));
+        assertTrue(adjSolver.removeColumnFromA(remove));
+
+        checkSolution(adjSolver,A_e);
+    }
+
+    /**
+     * Adding a column which would make the system under determined should fail and not modify the solver
+     */
+    @Test
+    public void addColumnToA_underDetermined() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(4,4,rand);
+        AdjustableColumnLinearSolver_DDRM adjSolver = new AdjLinearSolverQr_DDRM();
+        assertTrue(adjSolver.setA(A));
+
+        assertFalse(adjSolver.addColumnToA(new double[4],2));
+        checkSolution(adjSolver,A);
+
+        try {
+            adjSolver.addColumnToA(new double[4],5);
+            fail("Should have thrown an exception");
+        } catch( IllegalArgumentException ignore ) {}
+    }
+
+    /**
+     * The last column can't be removed
+     */
+    @Test
+    public void removeColumnFromA_lastColumn() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(5,1,rand);
+        AdjustableColumnLinearSolver_DDRM adjSolver = new AdjLinearSolverQr_DDRM();
+        assertTrue(adjSolver.setA(A));
+
+        assertFalse(adjSolver.removeColumnFromA(0));
+        checkSolution(adjSolver,A);
+
+        try {
+            adjSolver.removeColumnFromA(1);
+            fail("Should have thrown an exception");
+        } catch( IllegalArgumentException ignore ) {}
+    }
+
+    /**
+     * Sees if the solver produces the same solution as one computed directly from A_e
+     */
+    private void checkSolution( AdjustableLinearSolver_DDRM adjSolver , DMatrixRMaj A_e ) {
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(A_e.numCols,2,rand);
+        DMatrixRMaj Y = new DMatrixRMaj(A_e.numRows,X.numCols);
+        CommonOps_DDRM.mult(A_e,X,Y);
+
+        DMatrixRMaj X_found = RandomMatrices_DDRM.rectangle(X.numRows,X.numCols,rand);
+        adjSolver.solve(Y,X_found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(X_found,X,UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A_e,((AdjLinearSolverQr_DDRM)adjSolver).getA(),UtilEjml.TEST_F64));
+    }
+
     @Override
     protected LinearSolverDense createSolver(DMatrixRMaj A ) {
         return new AdjLinearSolverQr_DDRM();
@@ -18,9 +18,15 @@
 
 package org.ejml.dense.row.linsol.qr;
 
+import org.ejml.EjmlParameters;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.dense.row.linsol.GenericLinearSolverChecks_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -36,4 +42,30 @@ public class TestLinearSolverQrHouseCol_DDRM extends GenericLinearSolverChecks_D
     protected LinearSolverDense<DMatrixRMaj> createSolver(DMatrixRMaj A ) {
         return new LinearSolverQrHouseCol_DDRM();
     }
+
+    /**
+     * Least squares solution when all the columns are solved at once should be the same as one at a time
+     */
+    @Test
+    public void solve_manyColumns_rectangular() {
+        int before = EjmlParameters.SOLVE_COLUMN_SWITCH;
+        try {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(30,12,rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30,20,rand);
+            DMatrixRMaj expected = new DMatrixRMaj(1,1);
+            DMatrixRMaj found = new DMatrixRMaj(1,1);
+
+            LinearSolverQrHouseCol_DDRM solver = new LinearSolverQrHouseCol_DDRM();
+            assertTrue(solver.setA(A));
+
+            EjmlParameters.SOLVE_COLUMN_SWITCH = B.numCols+1;
+            solver.solve(B,expected);
+            EjmlParameters.SOLVE_COLUMN_SWITCH = 1;
+            solver.solve(B,found);
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,tol));
+        } finally {
+            EjmlParameters.SOLVE_COLUMN_SWITCH = before;
+        }
+    }
 }
\ No newline at end of file
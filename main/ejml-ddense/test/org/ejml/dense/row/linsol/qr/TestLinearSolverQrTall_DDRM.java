@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.qr;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionTall_DDRM;
+import org.ejml.dense.row.linsol.GenericLinearSolverChecks_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearSolverQrTall_DDRM extends GenericLinearSolverChecks_DDRM {
+
+    @Override
+    protected LinearSolverDense<DMatrixRMaj> createSolver(DMatrixRMaj A ) {
+        return new LinearSolverQrTall_DDRM(new QRDecompositionTall_DDRM(3,true));
+    }
+
+    /**
+     * Adding the rows in chunks should produce the same solution as providing the whole matrix
+     */
+    @Test
+    public void addRows() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(100,8,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(100,2,rand);
+
+        LinearSolverQrTall_DDRM solver = new LinearSolverQrTall_DDRM(new QRDecompositionTall_DDRM(10,true));
+        assertTrue(solver.setA(A));
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        solver.solve(B,expected);
+
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        for( int trial = 0; trial < 2; trial++ ) {
+            solver.reset();
+            for( int row0 = 0; row0 < A.numRows; row0 += 30 ) {
+                int row1 = Math.min(A.numRows,row0+30);
+                solver.addRows(CommonOps_DDRM.extract(A,row0,row1,0,A.numCols),
+                        CommonOps_DDRM.extract(B,row0,row1,0,B.numCols));
+            }
+            assertTrue(solver.solveIncremental(found));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,tol));
+        }
+    }
+
+    @Test
+    public void addRows_singular() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(20,1,rand);
+        for( int row = 0; row < A.numRows; row++ ) {
+            A.set(row,2,0);
+        }
+
+        LinearSolverQrTall_DDRM solver = new LinearSolverQrTall_DDRM();
+        solver.addRows(A,B);
+        assertFalse(solver.solveIncremental(new DMatrixRMaj(1,1)));
+    }
+}
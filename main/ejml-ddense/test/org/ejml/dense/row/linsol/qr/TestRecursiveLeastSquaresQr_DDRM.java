@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.qr;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRecursiveLeastSquaresQr_DDRM {
+
+    Random rand = new Random(234);
+
+    /**
+     * With no forgetting the solution should be the same as the least-squares solution of all the rows
+     */
+    @Test
+    public void noForgetting() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(40,5,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(40,1,rand);
+
+        RecursiveLeastSquaresQr_DDRM alg = new RecursiveLeastSquaresQr_DDRM(5,1.0);
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        for( int i = 0; i < A.numRows; i++ ) {
+            alg.addRow(CommonOps_DDRM.extractRow(A,i,null).data,B.data[i]);
+            if( i < 4 )
+                assertFalse(alg.getSolution(found));
+        }
+        assertEquals(40,alg.getNumRowsAdded());
+        assertTrue(alg.getSolution(found));
+
+        DMatrixRMaj expected = solve(A,B);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+        assertEquals(residualSquared(A,B,expected),alg.getResidualSquared(),UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Compare against the weighted least-squares solution
+     */
+    @Test
+    public void forgetting() {
+        double lambda = 0.9;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(30,4,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30,2,rand);
+
+        RecursiveLeastSquaresQr_DDRM alg = new RecursiveLeastSquaresQr_DDRM(4,2,lambda);
+        for( int i = 0; i < A.numRows; i++ ) {
+            alg.addRow(CommonOps_DDRM.extractRow(A,i,null).data,CommonOps_DDRM.extractRow(B,i,null).data);
+        }
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        assertTrue(alg.getSolution(found));
+
+        DMatrixRMaj A_w = A.copy();
+        DMatrixRMaj B_w = B.copy();
+        weight(A_w,B_w,lambda);
+        DMatrixRMaj expected = solve(A_w,B_w);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+        assertEquals(residualSquared(A_w,B_w,expected),alg.getResidualSquared(),UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Adding rows in blocks should produce the same results as adding them one at a time
+     */
+    @Test
+    public void addRows() {
+        double lambda = 0.95;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(25,4,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(25,1,rand);
+
+        RecursiveLeastSquaresQr_DDRM single = new RecursiveLeastSquaresQr_DDRM(4,lambda);
+        RecursiveLeastSquaresQr_DDRM block = new RecursiveLeastSquaresQr_DDRM(4,lambda);
+        for( int i = 0; i < A.numRows; i++ ) {
+            single.addRow(CommonOps_DDRM.extractRow(A,i,null).data,B.data[i]);
+        }
+        int[] sizes = new int[]{1,7,3,10,4};
+        int row = 0;
+        for( int k : sizes ) {
+            block.addRows(CommonOps_DDRM.extract(A,row,row+k,0,4),CommonOps_DDRM.extract(B,row,row+k,0,1));
+            row += k;
+        }
+        assertEquals(A.numRows,row);
+        assertEquals(A.numRows,block.getNumRowsAdded());
+
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        assertTrue(single.getSolution(expected));
+        assertTrue(block.getSolution(found));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+        assertEquals(single.getResidualSquared(),block.getResidualSquared(),UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Regularization allows a solution to be found before there are enough rows
+     */
+    @Test
+    public void reset_regularization() {
+        double delta = 0.5;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(3,5,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(3,1,rand);
+
+        RecursiveLeastSquaresQr_DDRM alg = new RecursiveLeastSquaresQr_DDRM(5,1.0);
+        alg.addRow(new double[]{1,2,3,4,5},6);
+        alg.reset(delta);
+        assertEquals(0,alg.getNumRowsAdded());
+        alg.addRows(A,B);
+
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        assertTrue(alg.getSolution(found));
+
+        // same as solving [A; sqrt(delta)*I]x = [B; 0]
+        DMatrixRMaj A_e = new DMatrixRMaj(8,5);
+        DMatrixRMaj B_e = new DMatrixRMaj(8,1);
+        CommonOps_DDRM.insert(A,A_e,0,0);
+        CommonOps_DDRM.insert(B,B_e,0,0);
+        double sqrtDelta = Math.sqrt(delta);
+        for( int i = 0; i < 5; i++ ) {
+            A_e.set(3+i,i,sqrtDelta);
+        }
+        DMatrixRMaj expected = solve(A_e,B_e);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    /**
+     * Solution should track a change in the model when forgetting is used
+     */
+    @Test
+    public void tracksChange() {
+        RecursiveLeastSquaresQr_DDRM alg = new RecursiveLeastSquaresQr_DDRM(2,0.8);
+        double[] row = new double[2];
+        for( int i = 0; i < 300; i++ ) {
+            row[0] = (double)rand.nextGaussian();
+            row[1] = (double)rand.nextGaussian();
+            double b = i < 150 ? 2*row[0] - row[1] : -row[0] + 3*row[1];
+            alg.addRow(row,b);
+        }
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        assertTrue(alg.getSolution(found));
+        assertEquals(-1,found.get(0),UtilEjml.TEST_F64);
+        assertEquals(3,found.get(1),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void setForgetting_bad() {
+        RecursiveLeastSquaresQr_DDRM alg = new RecursiveLeastSquaresQr_DDRM(2,1.0);
+        try {
+            alg.setForgetting(0);
+            fail("Should have thrown an exception");
+        } catch( IllegalArgumentException ignore ){}
+        try {
+            alg.setForgetting(1.1);
+            fail("Should have thrown an exception");
+        } catch( IllegalArgumentException ignore ){}
+    }
+
+    /**
+     * Scales each row by the square root of its weight
+     */
+    private static void weight( DMatrixRMaj A , DMatrixRMaj B , double lambda ) {
+        for( int i = 0; i < A.numRows; i++ ) {
+            double w = Math.sqrt(Math.pow(lambda,A.numRows-1-i));
+            for( int j = 0; j < A.numCols; j++ ) {
+                A.set(i,j, w*A.get(i,j));
+            }
+            for( int j = 0; j < B.numCols; j++ ) {
+                B.set(i,j, w*B.get(i,j));
+            }
+        }
+    }
+
+    private static DMatrixRMaj solve( DMatrixRMaj A , DMatrixRMaj B ) {
+        LinearSolverQrHouseCol_DDRM solver = new LinearSolverQrHouseCol_DDRM();
+        assertTrue(solver.setA(A));
+        DMatrixRMaj X = new DMatrixRMaj(A.numCols,B.numCols);
+        solver.solve(B,X);
+        return X;
+    }
+
+    private static double residualSquared( DMatrixRMaj A , DMatrixRMaj B , DMatrixRMaj X ) {
+        DMatrixRMaj r = new DMatrixRMaj(B.numRows,B.numCols);
+        CommonOps_DDRM.mult(A,X,r);
+        CommonOps_DDRM.subtractEquals(r,B);
+        double norm = NormOps_DDRM.normF(r);
+        return norm*norm;
+    }
+}
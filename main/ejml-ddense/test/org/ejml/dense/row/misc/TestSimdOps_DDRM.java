@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.ejml.UtilEjml;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Lengths are selected so that the vectorized loop and the clean up loop are both used, if vectorized.
+ *
+ * @author Peter Abeles
+ */
+public class TestSimdOps_DDRM {
+    Random rand = new Random(234);
+
+    int[] lengths = new int[]{0,1,3,4,7,8,16,33};
+
+    @Test
+    public void dot() {
+        for( int length : lengths ) {
+            double[] a = random(length+2);
+            double[] b = random(length+3);
+
+            double expected = 0;
+            for( int i = 0; i < length; i++ ) {
+                expected += a[i+2]*b[i+3];
+            }
+
+            assertEquals(expected,SimdOps_DDRM.dot(a,2,b,3,length),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void axpy() {
+        for( int length : lengths ) {
+            double[] x = random(length+1);
+            double[] y = random(length+2);
+            double[] expected = y.clone();
+
+            for( int i = 0; i < length; i++ ) {
+                expected[i+2] += 1.5*x[i+1];
+            }
+
+            SimdOps_DDRM.axpy(1.5,x,1,y,2,length);
+            assertIdentical(expected,y);
+        }
+    }
+
+    @Test
+    public void scale() {
+        for( int length : lengths ) {
+            double[] x = random(length+1);
+            double[] y = random(length+2);
+            double[] expected = y.clone();
+
+            for( int i = 0; i < length; i++ ) {
+                expected[i+2] = -0.5*x[i+1];
+            }
+
+            SimdOps_DDRM.scale(-0.5,x,1,y,2,length);
+            assertIdentical(expected,y);
+        }
+    }
+
+    @Test
+    public void elementWise() {
+        for( int length : lengths ) {
+            double[] a = random(length);
+            double[] b = random(length);
+            // the output array can be larger than the inputs
+            double[] c = random(length+2);
+
+            double[] expected = c.clone();
+            for( int i = 0; i < length; i++ ) expected[i] = a[i] + b[i];
+            SimdOps_DDRM.add(a,b,c,length);
+            assertIdentical(expected,c);
+
+            for( int i = 0; i < length; i++ ) expected[i] = a[i] - b[i];
+            SimdOps_DDRM.subtract(a,b,c,length);
+            assertIdentical(expected,c);
+
+            for( int i = 0; i < length; i++ ) expected[i] = a[i] * b[i];
+            SimdOps_DDRM.elementMult(a,b,c,length);
+            assertIdentical(expected,c);
+
+            for( int i = 0; i < length; i++ ) expected[i] = a[i] / b[i];
+            SimdOps_DDRM.elementDiv(a,b,c,length);
+            assertIdentical(expected,c);
+
+            // output is the same as an input
+            for( int i = 0; i < length; i++ ) expected[i] = a[i] + b[i];
+            SimdOps_DDRM.add(a,b,a,length);
+            for( int i = 0; i < length; i++ ) assertEquals(expected[i],a[i],0);
+        }
+    }
+
+    private double[] random( int length ) {
+        double[] a = new double[length];
+        for( int i = 0; i < length; i++ ) {
+            a[i] = rand.nextDouble()*2-1;
+        }
+        return a;
+    }
+
+    private static void assertIdentical( double[] expected , double[] found ) {
+        assertEquals(expected.length,found.length);
+        for( int i = 0; i < expected.length; i++ ) {
+            assertEquals(expected[i],found[i],0);
+        }
+    }
+}
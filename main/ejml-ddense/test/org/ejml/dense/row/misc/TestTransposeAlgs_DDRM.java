@@ -26,6 +26,7 @@ import org.junit.Test;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 
 /**
@@ -66,6 +67,40 @@ public class TestTransposeAlgs_DDRM {
         }
     }
 
+    @Test
+    public void recursive() {
+        // check various shapes to make sure the splitting is handled correctly
+        for( int numRows = 1; numRows < 30; numRows += 3 ) {
+            for( int numCols = 1; numCols < 30; numCols += 3) {
+                DMatrixRMaj mat = RandomMatrices_DDRM.rectangle(numRows,numCols,rand);
+                DMatrixRMaj matTran = new DMatrixRMaj(numCols,numRows);
+
+                TransposeAlgs_DDRM.recursive(mat,matTran,5);
+
+                EjmlUnitTests.assertEqualsTrans(mat,matTran,0);
+            }
+        }
+    }
+
+    @Test
+    public void cycle() {
+        for( int numRows = 1; numRows < 15; numRows += 2 ) {
+            for( int numCols = 1; numCols < 15; numCols += 3) {
+                DMatrixRMaj mat = RandomMatrices_DDRM.rectangle(numRows,numCols,rand);
+                DMatrixRMaj matTran = mat.copy();
+                double[] data = matTran.data;
+
+                TransposeAlgs_DDRM.cycle(matTran);
+
+                assertSame(data,matTran.data);
+                assertEquals(numCols,matTran.getNumRows());
+                assertEquals(numRows,matTran.getNumCols());
+
+                EjmlUnitTests.assertEqualsTrans(mat,matTran,0);
+            }
+        }
+    }
+
     @Test
     public void standard() {
         DMatrixRMaj mat = RandomMatrices_DDRM.rectangle(5,7,rand);
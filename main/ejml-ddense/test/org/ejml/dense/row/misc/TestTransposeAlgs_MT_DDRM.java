@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTransposeAlgs_MT_DDRM {
+    Random rand = new Random(234);
+
+    int maxThreads;
+
+    /**
+     * Makes sure the work is split across several threads even if there is only one core
+     */
+    @Before
+    public void before() {
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    @Test
+    public void block() {
+        for( int numRows = 1; numRows < 40; numRows += 6 ) {
+            for( int numCols = 1; numCols < 40; numCols += 6 ) {
+                DMatrixRMaj mat = RandomMatrices_DDRM.rectangle(numRows,numCols,rand);
+                DMatrixRMaj expected = new DMatrixRMaj(numCols,numRows);
+                DMatrixRMaj found = new DMatrixRMaj(numCols,numRows);
+
+                TransposeAlgs_DDRM.block(mat,expected,5);
+                TransposeAlgs_MT_DDRM.block(mat,found,5);
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+            }
+        }
+    }
+
+    @Test
+    public void recursive() {
+        for( int numRows = 1; numRows < 40; numRows += 6 ) {
+            for( int numCols = 1; numCols < 40; numCols += 6 ) {
+                DMatrixRMaj mat = RandomMatrices_DDRM.rectangle(numRows,numCols,rand);
+                DMatrixRMaj expected = new DMatrixRMaj(numCols,numRows);
+                DMatrixRMaj found = new DMatrixRMaj(numCols,numRows);
+
+                TransposeAlgs_DDRM.standard(mat,expected);
+                TransposeAlgs_MT_DDRM.recursive(mat,found,5);
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMatrixMultPacked_DDRM {
+    Random rand = new Random(234);
+
+    int blockWidth;
+    int maxThreads;
+
+    /**
+     * Use a tiny block width so that the matrices are split into several panels and blocks
+     */
+    @Before
+    public void before() {
+        blockWidth = EjmlParameters.BLOCK_WIDTH;
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlParameters.BLOCK_WIDTH = 3;
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlParameters.BLOCK_WIDTH = blockWidth;
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    @Test
+    public void mult() {
+        for( int m : new int[]{1,3,4,9,30} ) {
+            for( int k : new int[]{1,5,13,40} ) {
+                for( int n : new int[]{1,4,7,110} ) {
+                    check(m,k,n,1.0,false);
+                    check(m,k,n,2.5,false);
+                    check(m,k,n,1.0,true);
+                    check(m,k,n,-1.5,true);
+                }
+            }
+        }
+    }
+
+    private void check( int m , int k , int n , double alpha , boolean add ) {
+        DMatrixRMaj a = RandomMatrices_DDRM.rectangle(m,k,rand);
+        DMatrixRMaj b = RandomMatrices_DDRM.rectangle(k,n,rand);
+        DMatrixRMaj c = RandomMatrices_DDRM.rectangle(m,n,rand);
+        DMatrixRMaj expected = c.copy();
+        DMatrixRMaj found = c.copy();
+        DMatrixRMaj foundMT = c.copy();
+
+        if( add ) {
+            MatrixMatrixMult_DDRM.multAdd_small(alpha,a,b,expected);
+            MatrixMatrixMultPacked_DDRM.multAdd(alpha,a,b,found,null,new DGrowArray());
+            MatrixMatrixMultPacked_MT_DDRM.multAdd(alpha,a,b,foundMT,null);
+        } else {
+            MatrixMatrixMult_DDRM.mult_small(alpha,a,b,expected);
+            MatrixMatrixMultPacked_DDRM.mult(alpha,a,b,found,new DGrowArray(),null);
+            MatrixMatrixMultPacked_MT_DDRM.mult(alpha,a,b,foundMT,null);
+        }
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+        // concurrent version should be identical to the single thread version
+        assertTrue(MatrixFeatures_DDRM.isIdentical(found,foundMT,0));
+    }
+
+    @Test
+    public void gemm_transposed() {
+        for( boolean transA : new boolean[]{false,true} ) {
+            for( boolean transB : new boolean[]{false,true} ) {
+                DMatrixRMaj a = RandomMatrices_DDRM.rectangle(13,29,rand);
+                DMatrixRMaj b = RandomMatrices_DDRM.rectangle(29,10,rand);
+                DMatrixRMaj c = RandomMatrices_DDRM.rectangle(13,10,rand);
+                DMatrixRMaj expected = c.copy();
+                MatrixMatrixMult_DDRM.multAdd_small(1.5,a,b,expected);
+
+                DMatrixRMaj opA = transA ? CommonOps_DDRM.transpose(a,null) : a;
+                DMatrixRMaj opB = transB ? CommonOps_DDRM.transpose(b,null) : b;
+
+                double[] packedA = new double[MatrixMatrixMultPacked_DDRM.packedLengthA(13,29)];
+                double[] packedB = new double[MatrixMatrixMultPacked_DDRM.packedLengthB(29,10)];
+                MatrixMatrixMultPacked_DDRM.gemm(1.5,transA,opA.data,0,opA.numCols,transB,opB.data,0,opB.numCols,
+                        c.data,0,c.numCols,13,10,29,packedA,packedB);
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,c,UtilEjml.TEST_F64));
+            }
+        }
+    }
+
+    /**
+     * Make sure the work space is resized correctly when reused for different shapes
+     */
+    @Test
+    public void reuseWorkspace() {
+        DGrowArray workA = new DGrowArray();
+        DGrowArray workB = new DGrowArray();
+
+        for( int size : new int[]{20,5,33} ) {
+            DMatrixRMaj a = RandomMatrices_DDRM.rectangle(size,size+1,rand);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(size+1,size+2,rand);
+            DMatrixRMaj expected = new DMatrixRMaj(1,1);
+            DMatrixRMaj found = new DMatrixRMaj(1,1);
+
+            MatrixMatrixMult_DDRM.mult_reorder(a,b,expected);
+            MatrixMatrixMultPacked_DDRM.mult(a,b,found,workA,workB);
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    public void zeroRowsColumns() {
+        DMatrixRMaj c = RandomMatrices_DDRM.rectangle(5,6,rand);
+        DMatrixRMaj original = c.copy();
+
+        MatrixMatrixMultPacked_DDRM.multAdd(new DMatrixRMaj(5,0),new DMatrixRMaj(0,6),c,null,null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(original,c,0));
+
+        MatrixMatrixMultPacked_DDRM.mult(new DMatrixRMaj(5,0),new DMatrixRMaj(0,6),c,null,null);
+        assertTrue(MatrixFeatures_DDRM.isZeros(c,0));
+
+        MatrixMatrixMultPacked_MT_DDRM.mult(new DMatrixRMaj(0,4),new DMatrixRMaj(4,6),c,null);
+        assertEquals(0,c.numRows);
+        assertEquals(6,c.numCols);
+    }
+
+    @Test
+    public void checkInputs() {
+        DMatrixRMaj a = new DMatrixRMaj(3,4);
+        try {
+            MatrixMatrixMultPacked_DDRM.mult(a,new DMatrixRMaj(5,2),new DMatrixRMaj(3,2),null,null);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+
+        try {
+            MatrixMatrixMultPacked_DDRM.mult(a,new DMatrixRMaj(4,3),a,null,null);
+            fail("Exception expected");
+        } catch( IllegalArgumentException ignore ) {}
+    }
+}
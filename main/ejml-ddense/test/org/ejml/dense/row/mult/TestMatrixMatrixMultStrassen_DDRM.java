@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMatrixMultStrassen_DDRM {
+    Random rand = new Random(234);
+
+    /**
+     * Use a small cutoff so that there are several levels of recursion
+     */
+    @Test
+    public void square() {
+        MatrixMatrixMultStrassen_DDRM alg = new MatrixMatrixMultStrassen_DDRM(4);
+
+        for( int n : new int[]{1,2,5,8,16,31,32,33,64,77} ) {
+            check(alg,n,n,n);
+        }
+    }
+
+    @Test
+    public void rectangular() {
+        MatrixMatrixMultStrassen_DDRM alg = new MatrixMatrixMultStrassen_DDRM(3);
+
+        for( int m : new int[]{6,13,40} ) {
+            for( int k : new int[]{7,20,41} ) {
+                for( int n : new int[]{9,16,35} ) {
+                    check(alg,m,k,n);
+                }
+            }
+        }
+    }
+
+    /**
+     * The work space is reused and needs to handle larger and smaller matrices
+     */
+    @Test
+    public void reuseWorkSpace() {
+        MatrixMatrixMultStrassen_DDRM alg = new MatrixMatrixMultStrassen_DDRM(2);
+
+        for( int n : new int[]{20,9,45,12} ) {
+            check(alg,n,n+1,n+3);
+        }
+
+        alg.setCutoff(5);
+        check(alg,30,30,30);
+    }
+
+    private void check( MatrixMatrixMultStrassen_DDRM alg , int m , int k , int n ) {
+        DMatrixRMaj a = RandomMatrices_DDRM.rectangle(m,k,-1,1,rand);
+        DMatrixRMaj b = RandomMatrices_DDRM.rectangle(k,n,-1,1,rand);
+        DMatrixRMaj expected = new DMatrixRMaj(m,n);
+        // make sure the previous values in c are ignored
+        DMatrixRMaj found = RandomMatrices_DDRM.rectangle(m,n,rand);
+
+        MatrixMatrixMult_DDRM.mult_small(a,b,expected);
+        alg.mult(a,b,found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void zeroRowsColumns() {
+        MatrixMatrixMultStrassen_DDRM alg = new MatrixMatrixMultStrassen_DDRM(2);
+
+        DMatrixRMaj c = RandomMatrices_DDRM.rectangle(5,6,rand);
+        alg.mult(new DMatrixRMaj(5,0),new DMatrixRMaj(0,6),c);
+        assertTrue(MatrixFeatures_DDRM.isZeros(c,0));
+
+        alg.mult(new DMatrixRMaj(0,4),new DMatrixRMaj(4,6),c);
+        assertEquals(0,c.numRows);
+        assertEquals(6,c.numCols);
+    }
+
+    @Test
+    public void checkInputs() {
+        MatrixMatrixMultStrassen_DDRM alg = new MatrixMatrixMultStrassen_DDRM(2);
+        DMatrixRMaj a = new DMatrixRMaj(3,4);
+        try {
+            alg.mult(a,new DMatrixRMaj(5,2),new DMatrixRMaj(3,2));
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+
+        try {
+            alg.mult(a,new DMatrixRMaj(4,3),a);
+            fail("Exception expected");
+        } catch( IllegalArgumentException ignore ) {}
+
+        try {
+            alg.setCutoff(0);
+            fail("Exception expected");
+        } catch( IllegalArgumentException ignore ) {}
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMatrixMult_MT_DDRM {
+    Random rand = new Random(234);
+
+    int maxThreads;
+
+    /**
+     * Makes sure the work is split across several threads even if there is only one core
+     */
+    @Before
+    public void before() {
+        maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setMaxThreads(maxThreads);
+    }
+
+    @Test
+    public void checkShapesOfInput() {
+        CheckMatrixMultShape_DDRM check = new CheckMatrixMultShape_DDRM(MatrixMatrixMult_MT_DDRM.class);
+        check.checkAll();
+    }
+
+    /**
+     * The output should be identical to the single threaded version, not just within tolerance
+     */
+    @Test
+    public void compareToSingleThread() throws Exception {
+        int numChecked = 0;
+        Method methods[] = MatrixMatrixMult_MT_DDRM.class.getMethods();
+
+        for( Method method : methods ) {
+            String name = method.getName();
+            if( !name.contains("mult") )
+                continue;
+
+            Method expected = findSingleThread(method);
+
+            for( int rows : new int[]{1,7,53} ) {
+                DMatrixRMaj a = RandomMatrices_DDRM.rectangle(rows,31,rand);
+                DMatrixRMaj b = RandomMatrices_DDRM.rectangle(31,47,rand);
+
+                if( name.contains("TransAB")) {
+                    a = transpose(a);
+                    b = transpose(b);
+                } else if( name.contains("TransA")) {
+                    a = transpose(a);
+                } else if( name.contains("TransB")) {
+                    b = transpose(b);
+                }
+
+                DMatrixRMaj c_expected = RandomMatrices_DDRM.rectangle(rows,47,rand);
+                DMatrixRMaj c_found = c_expected.copy();
+
+                TestMatrixMatrixMult_DDRM.invoke(expected,2.5,a,b,c_expected);
+                TestMatrixMatrixMult_DDRM.invoke(method,2.5,a,b,c_found);
+
+                assertTrue(name,MatrixFeatures_DDRM.isIdentical(c_expected,c_found,0));
+            }
+            numChecked++;
+        }
+
+        assertEquals(28,numChecked);
+    }
+
+    @Test
+    public void checkZeroRowsColumns() throws Exception {
+        Method methods[] = MatrixMatrixMult_MT_DDRM.class.getMethods();
+
+        for( Method method : methods ) {
+            String name = method.getName();
+            if( !name.contains("mult") )
+                continue;
+
+            DMatrixRMaj a = new DMatrixRMaj(5,0);
+            DMatrixRMaj b = new DMatrixRMaj(0,6);
+            if( name.contains("TransAB")) {
+                a = transpose(a);
+                b = transpose(b);
+            } else if( name.contains("TransA")) {
+                a = transpose(a);
+            } else if( name.contains("TransB")) {
+                b = transpose(b);
+            }
+            DMatrixRMaj c = RandomMatrices_DDRM.rectangle(5,6,rand);
+            DMatrixRMaj original = c.copy();
+
+            TestMatrixMatrixMult_DDRM.invoke(method,2.5,a,b,c);
+
+            if( name.contains("multAdd") ) {
+                assertTrue(name,MatrixFeatures_DDRM.isEquals(original, c));
+            } else {
+                assertTrue(name,MatrixFeatures_DDRM.isZeros(c, UtilEjml.TEST_F64));
+            }
+        }
+    }
+
+    private Method findSingleThread( Method method ) throws NoSuchMethodException {
+        Class[] params = method.getParameterTypes();
+        if( method.getName().endsWith("_aux") ) {
+            Class[] aux = new Class[params.length+1];
+            System.arraycopy(params,0,aux,0,params.length);
+            aux[params.length] = double[].class;
+            params = aux;
+        }
+        return MatrixMatrixMult_DDRM.class.getMethod(method.getName(),params);
+    }
+
+    private DMatrixRMaj transpose( DMatrixRMaj a ) {
+        return CommonOps_DDRM.transpose(a,null);
+    }
+}
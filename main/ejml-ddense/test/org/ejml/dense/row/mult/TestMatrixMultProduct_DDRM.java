@@ -18,7 +18,10 @@
 
 package org.ejml.dense.row.mult;
 
+import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
@@ -105,4 +108,52 @@ public class TestMatrixMultProduct_DDRM {
             }
         }
     }
+
+    @Test
+    public void inner_packed() {
+        checkPacked(true);
+    }
+
+    @Test
+    public void outer_packed() {
+        checkPacked(false);
+    }
+
+    private void checkPacked( boolean inner ) {
+        // use a tiny block width so that the output is split into many tiles
+        int blockWidth = EjmlParameters.BLOCK_WIDTH;
+        int maxThreads = EjmlConcurrency.getMaxThreads();
+        EjmlParameters.BLOCK_WIDTH = 3;
+        EjmlConcurrency.setMaxThreads(4);
+        try {
+            DGrowArray workA = new DGrowArray();
+            DGrowArray workB = new DGrowArray();
+            for( int rows : new int[]{1,5,8,31} ) {
+                for( int cols : new int[]{1,6,17,40} ) {
+                    DMatrixRMaj A = RandomMatrices_DDRM.rectangle(rows,cols,rand);
+                    DMatrixRMaj expected = new DMatrixRMaj(1,1);
+                    DMatrixRMaj found = RandomMatrices_DDRM.rectangle(3,2,rand);
+                    DMatrixRMaj foundMT = RandomMatrices_DDRM.rectangle(3,2,rand);
+
+                    if( inner ) {
+                        MatrixMatrixMult_DDRM.multTransA_reorder(A,A,expected);
+                        MatrixMultProduct_DDRM.inner_packed(A,found,workA,workB);
+                        MatrixMultProduct_MT_DDRM.inner_packed(A,foundMT);
+                    } else {
+                        MatrixMatrixMult_DDRM.multTransB(A,A,expected);
+                        MatrixMultProduct_DDRM.outer_packed(A,found,null,null);
+                        MatrixMultProduct_MT_DDRM.outer_packed(A,foundMT);
+                    }
+
+                    assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+                    assertTrue(MatrixFeatures_DDRM.isSymmetric(found,0));
+                    // concurrent version should be identical to the single thread version
+                    assertTrue(MatrixFeatures_DDRM.isIdentical(found,foundMT,0));
+                }
+            }
+        } finally {
+            EjmlParameters.BLOCK_WIDTH = blockWidth;
+            EjmlConcurrency.setMaxThreads(maxThreads);
+        }
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.ejml.dense.row.decomposition.TestTriangularSolverBlock_DDRM.createOp;
+import static org.ejml.dense.row.decomposition.TestTriangularSolverBlock_DDRM.randomTriangular;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangularMatrixMult_DDRM {
+    Random rand = new Random(234);
+
+    int blockWidth;
+
+    /**
+     * Use a tiny block width so that T is split into several blocks
+     */
+    @Before
+    public void before() {
+        blockWidth = EjmlParameters.BLOCK_WIDTH;
+        EjmlParameters.BLOCK_WIDTH = 3;
+    }
+
+    @After
+    public void after() {
+        EjmlParameters.BLOCK_WIDTH = blockWidth;
+    }
+
+    @Test
+    public void multLeft() {
+        check(true);
+    }
+
+    @Test
+    public void multRight() {
+        check(false);
+    }
+
+    private void check( boolean left ) {
+        DGrowArray workA = new DGrowArray(), workB = new DGrowArray();
+        for( boolean lower : new boolean[]{true,false} ) {
+            for( boolean transT : new boolean[]{true,false} ) {
+                for( boolean unit : new boolean[]{true,false} ) {
+                    for( int n : new int[]{1,5,13} ) {
+                        for( int m : new int[]{1,7,20} ) {
+                            DMatrixRMaj T = randomTriangular(n,rand);
+                            DMatrixRMaj opT = createOp(T,lower,transT,unit);
+                            DMatrixRMaj B = left ? RandomMatrices_DDRM.rectangle(n,m,rand) :
+                                    RandomMatrices_DDRM.rectangle(m,n,rand);
+                            DMatrixRMaj expected = new DMatrixRMaj(1,1);
+                            DMatrixRMaj found = B.copy();
+
+                            if( left ) {
+                                MatrixMatrixMult_DDRM.mult_small(opT,B,expected);
+                                TriangularMatrixMult_DDRM.multLeft(lower,transT,unit,T,found,workA,workB);
+                            } else {
+                                MatrixMatrixMult_DDRM.mult_small(B,opT,expected);
+                                TriangularMatrixMult_DDRM.multRight(lower,transT,unit,T,found,null,null);
+                            }
+
+                            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void checkShape() {
+        try {
+            TriangularMatrixMult_DDRM.multLeft(true,false,false,new DMatrixRMaj(4,3),new DMatrixRMaj(4,2),null,null);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+        try {
+            TriangularMatrixMult_DDRM.multRight(true,false,false,new DMatrixRMaj(4,4),new DMatrixRMaj(4,2),null,null);
+            fail("Exception expected");
+        } catch( MatrixDimensionException ignore ) {}
+    }
+}
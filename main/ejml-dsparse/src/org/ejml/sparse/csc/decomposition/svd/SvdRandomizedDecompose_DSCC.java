@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.svd;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.decomposition.svd.SvdRandomizedDecompose_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+
+/**
+ * <p>
+ * Approximate truncated SVD of a sparse matrix using the randomized algorithm in
+ * {@link SvdRandomizedDecompose_DDRM}. The sparse matrix is only multiplied against dense matrices with
+ * (rank + oversampling) columns, so the cost is proportional to the number of non-zero elements times the rank.
+ * </p>
+ *
+ * <p>
+ * The singular vectors are dense. They are converted into sparse matrices by {@link #getU} and {@link #getV}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SvdRandomizedDecompose_DSCC implements SingularValueDecomposition_F64<DMatrixSparseCSC> {
+
+    private Decomposer alg;
+
+    /**
+     * Configures the class
+     *
+     * @param rank The number of singular values and vectors which are computed.
+     * @param oversampling Number of additional random vectors. Improves accuracy. Try 10.
+     * @param powerIterations Number of power iterations. Improves accuracy when the singular values decay slowly. Try 2.
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     */
+    public SvdRandomizedDecompose_DSCC( int rank , int oversampling , int powerIterations ,
+                                        boolean computeU , boolean computeV ) {
+        alg = new Decomposer(rank,oversampling,powerIterations,computeU,computeV);
+    }
+
+    /**
+     * Uses {@link SvdRandomizedDecompose_DDRM#DEFAULT_OVERSAMPLING} and
+     * {@link SvdRandomizedDecompose_DDRM#DEFAULT_POWER_ITERATIONS}
+     */
+    public SvdRandomizedDecompose_DSCC( int rank , boolean computeU , boolean computeV ) {
+        this(rank, SvdRandomizedDecompose_DDRM.DEFAULT_OVERSAMPLING,
+                SvdRandomizedDecompose_DDRM.DEFAULT_POWER_ITERATIONS,computeU,computeV);
+    }
+
+    /**
+     * Specifies the seed used to create the random matrix. The random number generator is reseeded at the start
+     * of each decomposition so decomposing the same matrix twice produces the same results.
+     */
+    public void setSeed( long seed ) {
+        alg.setSeed(seed);
+    }
+
+    @Override
+    public boolean decompose( DMatrixSparseCSC orig ) {
+        return alg.process(orig);
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return alg.getSingularValues();
+    }
+
+    @Override
+    public int numberOfSingularValues() {
+        return alg.numberOfSingularValues();
+    }
+
+    @Override
+    public boolean isCompact() {
+        return true;
+    }
+
+    @Override
+    public DMatrixSparseCSC getU( DMatrixSparseCSC U , boolean transposed ) {
+        return ConvertDMatrixStruct.convert(alg.getU(null,transposed),U,0);
+    }
+
+    @Override
+    public DMatrixSparseCSC getV( DMatrixSparseCSC V , boolean transposed ) {
+        return ConvertDMatrixStruct.convert(alg.getV(null,transposed),V,0);
+    }
+
+    @Override
+    public DMatrixSparseCSC getW( DMatrixSparseCSC W ) {
+        return ConvertDMatrixStruct.convert(alg.getW(null),W,0);
+    }
+
+    @Override
+    public int numRows() {
+        return alg.numRows();
+    }
+
+    @Override
+    public int numCols() {
+        return alg.numCols();
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    /**
+     * Multiplies the dense random matrices against the sparse matrix
+     */
+    private static class Decomposer extends SvdRandomizedDecompose_DDRM {
+        DMatrixSparseCSC A;
+
+        Decomposer(int rank, int oversampling, int powerIterations, boolean computeU, boolean computeV) {
+            super(rank, oversampling, powerIterations, computeU, computeV);
+        }
+
+        public boolean process( DMatrixSparseCSC A ) {
+            this.A = A;
+            boolean ret = decompose(A.numRows,A.numCols);
+            this.A = null;
+            return ret;
+        }
+
+        @Override
+        protected void multA(DMatrixRMaj X, DMatrixRMaj Y) {
+            CommonOps_DSCC.mult(A,X,Y);
+        }
+
+        @Override
+        protected void multTransA(DMatrixRMaj X, DMatrixRMaj Y) {
+            CommonOps_DSCC.multTransA(A,X,Y);
+        }
+    }
+}
@@ -22,11 +22,13 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
 import org.ejml.interfaces.decomposition.LUSparseDecomposition_F64;
 import org.ejml.interfaces.decomposition.QRSparseDecomposition;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
+import org.ejml.sparse.csc.decomposition.svd.SvdRandomizedDecompose_DSCC;
 
 /**
  * Factory for sparse matrix decompositions
@@ -47,4 +49,15 @@ public class DecompositionFactory_DSCC {
         ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
         return new LuUpLooking_DSCC(cp);
     }
+
+    /**
+     * Approximates the largest singular values and their singular vectors using a randomized algorithm.
+     *
+     * @param rank Number of singular values which are computed.
+     * @param needU Should it compute the U matrix.
+     * @param needV Should it compute the V matrix.
+     */
+    public static SingularValueDecomposition_F64<DMatrixSparseCSC> svdTruncated( int rank , boolean needU , boolean needV ) {
+        return new SvdRandomizedDecompose_DSCC(rank,needU,needV);
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomizedDecompose_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdRandomizedDecompose_DSCC {
+
+    Random rand = new Random(234);
+
+    /**
+     * Should produce the same results as the dense implementation since the same random matrix is used
+     */
+    @Test
+    public void compareToDense() {
+        for( int[] shape : new int[][]{{80,50},{50,80}} ) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(shape[0],shape[1],300,-1,1,rand);
+            DMatrixRMaj A_dense = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+
+            SvdRandomizedDecompose_DSCC alg = new SvdRandomizedDecompose_DSCC(6,true,true);
+            SvdRandomizedDecompose_DDRM expected = new SvdRandomizedDecompose_DDRM(6,true,true);
+            alg.setSeed(3);
+            expected.setSeed(3);
+
+            assertTrue(alg.decompose(A));
+            assertTrue(expected.decompose(A_dense));
+
+            assertTrue(alg.isCompact());
+            assertEquals(shape[0],alg.numRows());
+            assertEquals(shape[1],alg.numCols());
+            assertEquals(6,alg.numberOfSingularValues());
+            for( int i = 0; i < 6; i++ ) {
+                assertEquals(expected.getSingularValues()[i],alg.getSingularValues()[i],UtilEjml.TEST_F64);
+            }
+
+            DMatrixRMaj U = ConvertDMatrixStruct.convert(alg.getU(null,false),(DMatrixRMaj)null);
+            DMatrixRMaj Vt = ConvertDMatrixStruct.convert(alg.getV(null,true),(DMatrixRMaj)null);
+            DMatrixRMaj W = ConvertDMatrixStruct.convert(alg.getW(null),(DMatrixRMaj)null);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getU(null,false),U,UtilEjml.TEST_F64));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getV(null,true),Vt,UtilEjml.TEST_F64));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getW(null),W,UtilEjml.TEST_F64));
+        }
+    }
+
+    /**
+     * The matrix's rank is less than rank + oversampling, including a matrix which is all zeros
+     */
+    @Test
+    public void rankBelowSampling() {
+        DMatrixSparseCSC A = new DMatrixSparseCSC(40,30,2);
+        SvdRandomizedDecompose_DSCC alg = new SvdRandomizedDecompose_DSCC(4,true,true);
+        assertTrue(alg.decompose(A));
+        for( int i = 0; i < 4; i++ ) {
+            assertEquals(0,alg.getSingularValues()[i],0);
+        }
+
+        A.set(3,5,-2);
+        A.set(20,11,4);
+        assertTrue(alg.decompose(A));
+        double expected[] = new double[]{4,2,0,0};
+        for( int i = 0; i < 4; i++ ) {
+            assertEquals(expected[i],alg.getSingularValues()[i],UtilEjml.TEST_F64);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.data.DMatrixBatch;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares solving a batch of small systems with {@link BatchLinearSolver_DDF} against solving each system
+ * individually using a {@link LinearSolverDense}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkBatchLinearSolver_DDF {
+    @Param({"6","12"})
+    public int N;
+
+    @Param({"100000"})
+    public int size;
+
+    DMatrixRMaj[] A,B,X;
+    DMatrixBatch batchA = new DMatrixBatch(), batchB = new DMatrixBatch();
+    DMatrixBatch workA = new DMatrixBatch(), workB = new DMatrixBatch();
+    boolean[] success;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+        A = new DMatrixRMaj[size]; B = new DMatrixRMaj[size]; X = new DMatrixRMaj[size];
+        batchA.reshape(N,N,size);
+        batchB.reshape(N,1,size);
+        success = new boolean[size];
+
+        for( int i = 0; i < size; i++ ) {
+            A[i] = RandomMatrices_DDRM.symmetricPosDef(N,rand);
+            B[i] = RandomMatrices_DDRM.rectangle(N,1,rand);
+            X[i] = new DMatrixRMaj(N,1);
+            batchA.setMatrix(i,A[i]);
+            batchB.setMatrix(i,B[i]);
+        }
+    }
+
+    @Benchmark
+    public void lu_individual() {
+        LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.lu(N);
+        for( int i = 0; i < size; i++ ) {
+            solver.setA(A[i]);
+            solver.solve(B[i],X[i]);
+        }
+    }
+
+    @Benchmark
+    public void lu_batch() {
+        // the batch is decomposed in place so a copy is made to keep the comparison fair
+        workA.set(batchA);
+        workB.set(batchB);
+        BatchLinearSolver_DDF.solveLU(workA,workB,success);
+    }
+
+    @Benchmark
+    public void lu_batch_MT() {
+        workA.set(batchA);
+        workB.set(batchB);
+        BatchLinearSolver_MT_DDF.solveLU(workA,workB,success);
+    }
+
+    @Benchmark
+    public void chol_individual() {
+        LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.chol(N);
+        for( int i = 0; i < size; i++ ) {
+            solver.setA(A[i]);
+            solver.solve(B[i],X[i]);
+        }
+    }
+
+    @Benchmark
+    public void chol_batch() {
+        workA.set(batchA);
+        workB.set(batchB);
+        BatchLinearSolver_DDF.solveChol(workA,workB,success);
+    }
+
+    public static void main( String args[] ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkBatchLinearSolver_DDF.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.data.DMatrix3x3;
+import org.ejml.data.DMatrix6x6;
+import org.ejml.data.DMatrixBatch;
+import org.ejml.data.DMatrixFixed;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares operations on a {@link DMatrixBatch} against the same operation applied to an array of fixed sized
+ * matrices.
+ *
+ * <pre>
+ * Single thread, JDK 1.8
+ * Benchmark      (size)  Mode  Cnt   Score   Error  Units
+ * invert3_batch    1000  avgt    5   0.030 +- 0.004  ms/op
+ * invert3_batch  100000  avgt    5   6.267 +- 0.253  ms/op
+ * invert3_fixed    1000  avgt    5   0.032 +- 0.019  ms/op
+ * invert3_fixed  100000  avgt    5   5.975 +- 1.967  ms/op
+ * mult3_batch      1000  avgt    5   0.015 +- 0.003  ms/op
+ * mult3_batch    100000  avgt    5   3.602 +- 0.369  ms/op
+ * mult3_fixed      1000  avgt    5   0.014 +- 0.004  ms/op
+ * mult3_fixed    100000  avgt    5   2.711 +- 0.633  ms/op
+ * mult6_batch      1000  avgt    5   0.104 +- 0.007  ms/op
+ * mult6_batch    100000  avgt    5  19.748 +- 6.563  ms/op
+ * mult6_fixed      1000  avgt    5   0.117 +- 0.005  ms/op
+ * mult6_fixed    100000  avgt    5  14.125 +- 2.296  ms/op
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkBatchOps_DDF {
+    @Param({"1000","100000"})
+    public int size;
+
+    DMatrix3x3[] a3,b3,c3;
+    DMatrix6x6[] a6,b6,c6;
+    DMatrixBatch batchA3,batchB3,batchC3 = new DMatrixBatch();
+    DMatrixBatch batchA6,batchB6,batchC6 = new DMatrixBatch();
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+        a3 = new DMatrix3x3[size]; b3 = new DMatrix3x3[size]; c3 = new DMatrix3x3[size];
+        a6 = new DMatrix6x6[size]; b6 = new DMatrix6x6[size]; c6 = new DMatrix6x6[size];
+        batchA3 = new DMatrixBatch(3,3,size); batchB3 = new DMatrixBatch(3,3,size);
+        batchA6 = new DMatrixBatch(6,6,size); batchB6 = new DMatrixBatch(6,6,size);
+
+        for( int i = 0; i < size; i++ ) {
+            a3[i] = new DMatrix3x3(); b3[i] = new DMatrix3x3(); c3[i] = new DMatrix3x3();
+            a6[i] = new DMatrix6x6(); b6[i] = new DMatrix6x6(); c6[i] = new DMatrix6x6();
+            randomize(a3[i],rand); randomize(b3[i],rand);
+            randomize(a6[i],rand); randomize(b6[i],rand);
+            batchA3.setMatrix(i,a3[i]); batchB3.setMatrix(i,b3[i]);
+            batchA6.setMatrix(i,a6[i]); batchB6.setMatrix(i,b6[i]);
+        }
+    }
+
+    private static void randomize( DMatrixFixed m , Random rand ) {
+        for( int row = 0; row < m.getNumRows(); row++ ) {
+            for( int col = 0; col < m.getNumCols(); col++ ) {
+                m.set(row,col,rand.nextDouble()*2-1);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mult3_fixed() {
+        for( int i = 0; i < size; i++ ) {
+            CommonOps_DDF3.mult(a3[i],b3[i],c3[i]);
+        }
+    }
+
+    @Benchmark
+    public void mult3_batch() {
+        BatchOps_DDF3.mult(batchA3,batchB3,batchC3);
+    }
+
+    @Benchmark
+    public void invert3_fixed() {
+        for( int i = 0; i < size; i++ ) {
+            CommonOps_DDF3.invert(a3[i],c3[i]);
+        }
+    }
+
+    @Benchmark
+    public void invert3_batch() {
+        BatchOps_DDF3.invert(batchA3,batchC3,null);
+    }
+
+    @Benchmark
+    public void mult6_fixed() {
+        for( int i = 0; i < size; i++ ) {
+            CommonOps_DDF6.mult(a6[i],b6[i],c6[i]);
+        }
+    }
+
+    @Benchmark
+    public void mult6_batch() {
+        BatchOps_DDF6.mult(batchA6,batchB6,batchC6);
+    }
+
+    public static void main( String args[] ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkBatchOps_DDF.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -52,6 +52,8 @@ public class BenchmarkSvd {
 //        mat.print("%f");
         if( numTrials <= 0 ) return;
         System.out.println("qr               = "+ evaluate(new SvdImplicitQrDecompose_DDRM(true,true,true,true),mat,numTrials));
+        System.out.println("divide conquer   = "+ evaluate(new SvdDivideConquerDecompose_DDRM(true,true,true),mat,numTrials));
+        System.out.println("jacobi           = "+ evaluate(new SvdJacobiDecompose_DDRM(true,true,true),mat,numTrials));
 //        System.out.println("qr smart         = "+ evaluate(new SvdImplicitQrDecompose_UltimateS(true,true,true),mat,numTrials));
         System.out.println("qr separate      = "+ evaluate(new SvdImplicitQrDecompose_Ultimate(true,true,true),mat,numTrials));
 //        System.out.println("qr               = "+ evaluate(new SvdImplicitQrDecompose(true,true,true),mat,numTrials));
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol;
+
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.linsol.chol.LinearSolverChol_DDRM;
+import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
+import org.ejml.dense.row.linsol.qr.LinearSolverQrHouseCol_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares solving A*X = B one column at a time against solving all the columns at once with blocked triangular
+ * solvers. A is 1000 x 1000.
+ *
+ * <pre>
+ * Single thread, JDK 1.8, BLOCK_WIDTH = 60
+ * Benchmark  (block)  (columns)  Mode  Cnt     Score     Error  Units
+ * chol          true         16  avgt    4    16.104 +-   4.189  ms/op
+ * chol          true        250  avgt    4   200.317 +-  62.545  ms/op
+ * chol         false         16  avgt    4    29.421 +-   6.649  ms/op
+ * chol         false        250  avgt    4   454.604 +- 194.775  ms/op
+ * lu            true         16  avgt    4    16.159 +-   4.301  ms/op
+ * lu            true        250  avgt    4   205.905 +-  70.991  ms/op
+ * lu           false         16  avgt    4    19.741 +-   5.562  ms/op
+ * lu           false        250  avgt    4   395.373 +- 515.138  ms/op
+ * qr            true         16  avgt    4    29.472 +-  24.247  ms/op
+ * qr            true        250  avgt    4   349.130 +- 125.353  ms/op
+ * qr           false         16  avgt    4    77.947 +-  35.243  ms/op
+ * qr           false        250  avgt    4  1369.244 +- 551.138  ms/op
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkSolveManyColumns {
+    @Param({"16","250"})
+    public int columns;
+
+    @Param({"true","false"})
+    public boolean block;
+
+    DMatrixRMaj B,X;
+    LinearSolverChol_DDRM chol = new LinearSolverChol_DDRM(new CholeskyDecompositionInner_DDRM(true));
+    LinearSolverLu_DDRM lu = new LinearSolverLu_DDRM(new LUDecompositionAlt_DDRM());
+    LinearSolverQrHouseCol_DDRM qr = new LinearSolverQrHouseCol_DDRM();
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+        int N = 1000;
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N,rand);
+        B = RandomMatrices_DDRM.rectangle(N,columns,-1,1,rand);
+        X = new DMatrixRMaj(N,columns);
+        chol.setA(A.copy());
+        lu.setA(A.copy());
+        qr.setA(A.copy());
+
+        EjmlParameters.SOLVE_COLUMN_SWITCH = block ? 1 : Integer.MAX_VALUE;
+    }
+
+    @Benchmark
+    public void chol() {
+        chol.solve(B,X);
+    }
+
+    @Benchmark
+    public void lu() {
+        lu.solve(B,X);
+    }
+
+    @Benchmark
+    public void qr() {
+        qr.solve(B,X);
+    }
+
+    public static void main( String args[] ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSolveManyColumns.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
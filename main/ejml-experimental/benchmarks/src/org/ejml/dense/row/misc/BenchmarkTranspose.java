@@ -57,6 +57,45 @@ public class BenchmarkTranspose {
         return curr-prev;
     }
 
+    public static long recursive(DMatrixRMaj mat , int numTrials , int blockLength ) {
+        DMatrixRMaj tran = new DMatrixRMaj(mat.numCols,mat.numRows);
+
+        long prev = System.currentTimeMillis();
+
+        for( int i = 0; i < numTrials; i++ ) {
+            TransposeAlgs_DDRM.recursive(mat,tran,blockLength);
+        }
+        long curr = System.currentTimeMillis();
+
+        return curr-prev;
+    }
+
+    public static long block_MT(DMatrixRMaj mat , int numTrials , int blockLength ) {
+        DMatrixRMaj tran = new DMatrixRMaj(mat.numCols,mat.numRows);
+
+        long prev = System.currentTimeMillis();
+
+        for( int i = 0; i < numTrials; i++ ) {
+            TransposeAlgs_MT_DDRM.block(mat,tran,blockLength);
+        }
+        long curr = System.currentTimeMillis();
+
+        return curr-prev;
+    }
+
+    public static long cycle(DMatrixRMaj mat , int numTrials) {
+        mat = mat.copy();
+
+        long prev = System.currentTimeMillis();
+
+        for( int i = 0; i < numTrials; i++ ) {
+            TransposeAlgs_DDRM.cycle(mat);
+        }
+        long curr = System.currentTimeMillis();
+
+        return curr-prev;
+    }
+
     public static long standard(DMatrixRMaj mat , int numTrials) {
         DMatrixRMaj tran = new DMatrixRMaj(mat.numCols,mat.numRows);
 
@@ -105,6 +144,8 @@ public class BenchmarkTranspose {
         System.out.println("Block 20  : "+block(A, n, 20));
         System.out.println("Block 30  : "+block(A, n, 30));
         System.out.println("Block 50  : "+block(A, n, 50));
+        System.out.println("Recursive : "+recursive(A, n, 32));
+        System.out.println("Block MT  : "+block_MT(A, n, EjmlParameters.BLOCK_WIDTH));
         System.out.println("Standard  : "+standard(A, n));
         System.out.println("Common    : "+common(A, n));
         System.out.println();
@@ -114,6 +155,9 @@ public class BenchmarkTranspose {
         System.out.println("Block 20  : "+block(A, n, 20));
         System.out.println("Block 30  : "+block(A, n, 30));
         System.out.println("Block 50  : "+block(A, n, 50));
+        System.out.println("Recursive : "+recursive(A, n, 32));
+        System.out.println("Block MT  : "+block_MT(A, n, EjmlParameters.BLOCK_WIDTH));
+        System.out.println("Cycle     : "+cycle(A, n));
         System.out.println("Standard  : "+standard(A, n));
         System.out.println("Common    : "+common(A, n));
         System.out.println("---------- Wide ----------------");
@@ -122,6 +166,9 @@ public class BenchmarkTranspose {
         System.out.println("Block 20  : "+block(A, n, 20));
         System.out.println("Block 30  : "+block(A, n, 30));
         System.out.println("Block 50  : "+block(A, n, 50));
+        System.out.println("Recursive : "+recursive(A, n, 32));
+        System.out.println("Block MT  : "+block_MT(A, n, EjmlParameters.BLOCK_WIDTH));
+        System.out.println("Cycle     : "+cycle(A, n));
         System.out.println("Standard  : "+standard(A, n));
         System.out.println("Common    : "+common(A, n));
     }
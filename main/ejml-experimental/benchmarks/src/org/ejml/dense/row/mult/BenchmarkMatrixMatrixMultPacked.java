@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link MatrixMatrixMultPacked_DDRM} against {@link MatrixMatrixMult_DDRM#mult_reorder}
+ *
+ * <pre>
+ * Single thread, JDK 1.8, BLOCK_WIDTH = 60
+ * Benchmark      (size)  Mode  Cnt      Score       Error  Units
+ * mult_packed       100  avgt    5      0.669  +-    0.354  ms/op
+ * mult_packed       500  avgt    5     83.788  +-   20.969  ms/op
+ * mult_packed      1000  avgt    5    621.614  +-  172.094  ms/op
+ * mult_packed      2000  avgt    5   5530.043  +- 2732.908  ms/op
+ * mult_reorder      100  avgt    5      0.971  +-    0.293  ms/op
+ * mult_reorder      500  avgt    5    116.064  +-   23.177  ms/op
+ * mult_reorder     1000  avgt    5    939.415  +-  120.343  ms/op
+ * mult_reorder     2000  avgt    5  11203.641  +- 1890.625  ms/op
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkMatrixMatrixMultPacked {
+    @Param({"100","500","1000","2000"})
+    public int size;
+
+    DMatrixRMaj A,B,C;
+    DGrowArray workA = new DGrowArray();
+    DGrowArray workB = new DGrowArray();
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+        A = RandomMatrices_DDRM.rectangle(size,size,-1,1,rand);
+        B = RandomMatrices_DDRM.rectangle(size,size,-1,1,rand);
+        C = new DMatrixRMaj(size,size);
+    }
+
+    @Benchmark
+    public void mult_reorder() {
+        MatrixMatrixMult_DDRM.mult_reorder(A,B,C);
+    }
+
+    @Benchmark
+    public void mult_packed() {
+        MatrixMatrixMultPacked_DDRM.mult(A,B,C,workA,workB);
+    }
+
+    public static void main( String args[] ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkMatrixMatrixMultPacked.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
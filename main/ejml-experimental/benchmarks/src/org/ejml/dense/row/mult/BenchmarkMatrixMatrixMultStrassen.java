@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link MatrixMatrixMultStrassen_DDRM} against {@link MatrixMatrixMultPacked_DDRM} for different cutoffs
+ *
+ * <pre>
+ * Single thread, JDK 1.8, BLOCK_WIDTH = 60, 1 warmup and 3 measurement iterations
+ * Benchmark      (cutoff)  (size)  Mode  Cnt     Score      Error  Units
+ * mult_packed         256    1000  avgt    3   702.954 +-  293.641  ms/op
+ * mult_packed         256    2000  avgt    3  5291.038 +- 2133.873  ms/op
+ * mult_strassen       128    1000  avgt    3   566.657 +-  299.434  ms/op
+ * mult_strassen       128    2000  avgt    3  3929.894 +- 1040.554  ms/op
+ * mult_strassen       256    1000  avgt    3   591.515 +-  387.124  ms/op
+ * mult_strassen       256    2000  avgt    3  4095.252 +- 4693.078  ms/op
+ * mult_strassen       512    1000  avgt    3   557.480 +-  178.674  ms/op
+ * mult_strassen       512    2000  avgt    3  3940.857 +- 8811.676  ms/op
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkMatrixMatrixMultStrassen {
+    @Param({"1000","2000"})
+    public int size;
+
+    @Param({"128","256","512"})
+    public int cutoff;
+
+    DMatrixRMaj A,B,C;
+    DGrowArray workA = new DGrowArray();
+    DGrowArray workB = new DGrowArray();
+    MatrixMatrixMultStrassen_DDRM strassen;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+        A = RandomMatrices_DDRM.rectangle(size,size,-1,1,rand);
+        B = RandomMatrices_DDRM.rectangle(size,size,-1,1,rand);
+        C = new DMatrixRMaj(size,size);
+        strassen = new MatrixMatrixMultStrassen_DDRM(cutoff);
+    }
+
+    @Benchmark
+    public void mult_packed() {
+        MatrixMatrixMultPacked_DDRM.mult(A,B,C,workA,workB);
+    }
+
+    @Benchmark
+    public void mult_strassen() {
+        strassen.mult(A,B,C);
+    }
+
+    public static void main( String args[] ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkMatrixMatrixMultStrassen.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the packed inner and outer products in {@link MatrixMultProduct_DDRM} against the unblocked versions
+ * and a general packed multiplication. A is a 2*size by size matrix.
+ *
+ * <pre>
+ * Single thread, JDK 1.8, BLOCK_WIDTH = 60
+ * Benchmark      (size)  Mode  Cnt     Score      Error  Units
+ * inner_packed      100  avgt    5     1.422 +-    0.172  ms/op
+ * inner_packed      300  avgt    5    28.381 +-    2.082  ms/op
+ * inner_packed     1000  avgt    5   802.425 +-  199.070  ms/op
+ * inner_reorder     100  avgt    5     1.164 +-    0.523  ms/op
+ * inner_reorder     300  avgt    5    31.952 +-    7.330  ms/op
+ * inner_reorder    1000  avgt    5  1163.103 +-  405.510  ms/op
+ * inner_small       100  avgt    5     1.748 +-    0.486  ms/op
+ * inner_small       300  avgt    5    62.953 +-   19.769  ms/op
+ * inner_small      1000  avgt    5  9306.679 +- 1347.082  ms/op
+ * mult_packed       100  avgt    5     1.463 +-    0.066  ms/op
+ * mult_packed       300  avgt    5    41.761 +-    2.969  ms/op
+ * mult_packed      1000  avgt    5  1306.830 +-  335.900  ms/op
+ * outer             100  avgt    5     1.021 +-    0.237  ms/op
+ * outer             300  avgt    5    28.610 +-    3.069  ms/op
+ * outer            1000  avgt    5   998.212 +-  208.449  ms/op
+ * outer_packed      100  avgt    5     1.270 +-    0.242  ms/op
+ * outer_packed      300  avgt    5    23.273 +-   10.929  ms/op
+ * outer_packed     1000  avgt    5   704.937 +-  165.219  ms/op
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkMatrixMultProductPacked {
+    @Param({"100","300","1000"})
+    public int size;
+
+    DMatrixRMaj A,At,C;
+    DGrowArray workA = new DGrowArray();
+    DGrowArray workB = new DGrowArray();
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+        A = RandomMatrices_DDRM.rectangle(2*size,size,-1,1,rand);
+        At = RandomMatrices_DDRM.rectangle(size,2*size,-1,1,rand);
+        C = new DMatrixRMaj(size,size);
+    }
+
+    @Benchmark
+    public void inner_small() {
+        MatrixMultProduct_DDRM.inner_small(A,C);
+    }
+
+    @Benchmark
+    public void inner_reorder() {
+        MatrixMultProduct_DDRM.inner_reorder(A,C);
+    }
+
+    @Benchmark
+    public void inner_packed() {
+        MatrixMultProduct_DDRM.inner_packed(A,C,workA,workB);
+    }
+
+    @Benchmark
+    public void outer() {
+        MatrixMultProduct_DDRM.outer(At,C);
+    }
+
+    @Benchmark
+    public void outer_packed() {
+        MatrixMultProduct_DDRM.outer_packed(At,C,workA,workB);
+    }
+
+    @Benchmark
+    public void mult_packed() {
+        MatrixMatrixMultPacked_DDRM.mult(At,A,C,workA,workB);
+    }
+
+    public static void main( String args[] ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkMatrixMultProductPacked.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}